@@ -13,6 +13,7 @@
  */
 package com.agiletec.aps.system;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -32,15 +33,21 @@ public class RequestContext {
 	 * e memorizza il riferimento al contesto del sistema.
 	 */
 	public RequestContext(){
-		this._extraParams = new HashMap<String, Object>();
+		this._extraParams = Collections.synchronizedMap(new HashMap<String, Object>());
 	}
 	
 	/**
 	 * Restituisce un parametro extra.
+	 * Se il parametro è locale al thread corrente (vedi {@link #bindLocalExtraParams(Map)}) 
+	 * viene restituito il valore locale.
 	 * @param name Il nome del parametro
 	 * @return Il parametro richiesto
 	 */
 	public Object getExtraParam(String name) {
+		Map<String, Object> localParams = this._localExtraParams.get();
+		if (null != localParams && localParams.containsKey(name)) {
+			return localParams.get(name);
+		}
 		return _extraParams.get(name);
 	}
 
@@ -50,6 +57,11 @@ public class RequestContext {
 	 * @param param Il parametro da aggiungere
 	 */
 	public void addExtraParam(String name, Object param) {
+		Map<String, Object> localParams = this._localExtraParams.get();
+		if (null != localParams && localParams.containsKey(name)) {
+			localParams.put(name, param);
+			return;
+		}
 		this._extraParams.put(name, param);
 	}
 
@@ -58,9 +70,33 @@ public class RequestContext {
 	 * @param name Il nome del parametro
 	 */
 	public void removeExtraParam(String name) {
+		Map<String, Object> localParams = this._localExtraParams.get();
+		if (null != localParams && localParams.containsKey(name)) {
+			localParams.put(name, null);
+			return;
+		}
 		this._extraParams.remove(name);
 	}
 	
+	/**
+	 * Associa al thread corrente una mappa di parametri extra locali.
+	 * Fino alla chiamata di {@link #unbindLocalExtraParams()}, i parametri il cui nome 
+	 * è presente nella mappa vengono letti e scritti solo per il thread corrente; 
+	 * tutti gli altri parametri restano condivisi.
+	 * Utilizzato per isolare i parametri di frame durante il rendering parallelo dei widget.
+	 * @param localParams La mappa dei parametri locali (le chiavi identificano i parametri da isolare).
+	 */
+	public void bindLocalExtraParams(Map<String, Object> localParams) {
+		this._localExtraParams.set(localParams);
+	}
+	
+	/**
+	 * Rimuove dal thread corrente la mappa di parametri extra locali.
+	 */
+	public void unbindLocalExtraParams() {
+		this._localExtraParams.remove();
+	}
+	
 	/**
 	 * Restituisce la request della servlet.
 	 * @return La request della servlet.
@@ -125,6 +161,11 @@ public class RequestContext {
 	 */
 	private Map<String, Object> _extraParams;
 	
+	/**
+	 * Parametri extra locali al thread corrente.
+	 */
+	private final ThreadLocal<Map<String, Object>> _localExtraParams = new ThreadLocal<Map<String, Object>>();
+	
 	/**
 	 * Nome parametro di redirezione.
 	 */
@@ -122,6 +122,10 @@ public interface SystemConstants {
 
     public static final String GUI_FRAGMENT_MANAGER = "GuiFragmentManager";
 
+    public static final String FREEMARKER_TEMPLATE_CACHE_MANAGER = "FreemarkerTemplateCacheManager";
+
+    public static final String VELOCITY_TEMPLATE_CACHE_MANAGER = "VelocityTemplateCacheManager";
+
     /**
      * Nome del servizio che gestisce i tipi di showlet.
      *
@@ -190,6 +194,11 @@ public interface SystemConstants {
      */
     public static final String CONTROLLER_MANAGER = "ControllerManager";
 
+    /**
+     * Name of the service that caches the rendered output of pages and frames.
+     */
+    public static final String PAGE_OUTPUT_CACHE_MANAGER = "PageOutputCacheManager";
+
     /**
      * Name of the LicenseKey Manager.
      */
@@ -256,6 +265,24 @@ public interface SystemConstants {
      */
     public static final String PAGES_CACHE_GROUP_PREFIX = "PageCacheGroup_";
 
+    /**
+     * Prefix of the cache group of the objects related to a data object. The
+     * name is completed with the data object id.
+     */
+    public static final String DATA_OBJECT_CACHE_GROUP_PREFIX = "DataObjectCacheGroup_";
+
+    /**
+     * Prefix of the cache group of the objects related to a data object model.
+     * The name is completed with the model id.
+     */
+    public static final String DATA_OBJECT_MODEL_CACHE_GROUP_PREFIX = "DataObjectModelCacheGroup_";
+
+    /**
+     * Prefix of the cache group of the objects related to a data object type.
+     * The name is completed with the type code.
+     */
+    public static final String DATA_OBJECT_TYPE_CACHE_GROUP_PREFIX = "DataObjectTypeCacheGroup_";
+
     /**
      * Formattazione di tutte le stringhe Date da utilizzare nel sistema.
      */
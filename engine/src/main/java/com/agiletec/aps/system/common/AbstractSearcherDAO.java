@@ -22,7 +22,18 @@ import java.sql.Timestamp;
 import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.Date;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import com.agiletec.aps.system.common.model.dao.SearcherDaoPaginatedResult;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import org.apache.commons.lang3.ArrayUtils;
 
 import org.slf4j.Logger;
@@ -40,12 +51,30 @@ public abstract class AbstractSearcherDAO extends AbstractDAO {
     private static final Logger logger = LoggerFactory.getLogger(AbstractSearcherDAO.class);
     private static final String DEFAULT_LIKE_CLAUSE = "LIKE ? ";
 
+    protected static final String TOTAL_COUNT_FIELD_NAME = "totalcount";
+
+    public static final int DEFAULT_COUNT_CACHE_TTL = 2000;
+
+    private static final int COUNT_CACHE_MAX_SIZE = 1000;
+
+    private static final int QUERY_TEMPLATE_CACHE_MAX_SIZE = 500;
+
     private String likeClause;
     private String dataSourceClassName;
 
+    private int countCacheTtl = DEFAULT_COUNT_CACHE_TTL;
+    private final Map<String, CachedCount> countCache = new ConcurrentHashMap<>();
+
+    private final Cache<String, String> queryTemplates = CacheBuilder.newBuilder()
+            .maximumSize(QUERY_TEMPLATE_CACHE_MAX_SIZE).build();
+    private volatile String limitBlock;
+    private volatile Boolean windowCountSupported;
+    private final LongAdder queryTemplateHits = new LongAdder();
+    private final LongAdder queryTemplateMisses = new LongAdder();
+
     protected List<String> searchId(FieldSearchFilter[] filters) {
         Connection conn = null;
-        List<String> idList = new ArrayList<>();
+        Set<String> idSet = new LinkedHashSet<>();
         PreparedStatement stat = null;
         ResultSet result = null;
         try {
@@ -53,10 +82,7 @@ public abstract class AbstractSearcherDAO extends AbstractDAO {
             stat = this.buildStatement(filters, false, false, conn);
             result = stat.executeQuery();
             while (result.next()) {
-                String id = result.getString(this.getMasterTableIdFieldName());
-                if (!idList.contains(id)) {
-                    idList.add(id);
-                }
+                idSet.add(result.getString(this.getMasterTableIdFieldName()));
             }
         } catch (Throwable t) {
             logger.error("Error while loading the list of IDs", t);
@@ -64,7 +90,7 @@ public abstract class AbstractSearcherDAO extends AbstractDAO {
         } finally {
             closeDaoResources(result, stat, conn);
         }
-        return idList;
+        return new ArrayList<>(idSet);
     }
 
     protected Integer countId(FieldSearchFilter[] filters) {
@@ -88,18 +114,179 @@ public abstract class AbstractSearcherDAO extends AbstractDAO {
         return count;
     }
 
+    /**
+     * Search a page of IDs (as defined by the limit and offset of the filters) 
+     * together with the total number of the matching rows.
+     * When the dialect supports window functions the total is read 
+     * from the same query, otherwise it is counted apart and cached 
+     * by filter signature for a short time.
+     *
+     * @param filters The search filters.
+     * @return The page of IDs and the total count.
+     */
+    protected SearcherDaoPaginatedResult<String> searchPagedId(FieldSearchFilter[] filters) {
+        if (!this.isWindowCountSupported()) {
+            List<String> idList = this.searchId(filters);
+            String signature = this.createQueryString(filters, true, false) + this.createFilterSignature(filters);
+            int count = this.getCachedCount(signature, () -> this.countId(filters));
+            return new SearcherDaoPaginatedResult<>(count, idList);
+        }
+        Connection conn = null;
+        Set<String> idSet = new LinkedHashSet<>();
+        Integer count = null;
+        PreparedStatement stat = null;
+        ResultSet result = null;
+        try {
+            conn = this.getConnection();
+            String query = this.addWindowCountField(this.createQueryString(filters, false, false));
+            stat = this.buildStatement(query, filters, conn);
+            result = stat.executeQuery();
+            while (result.next()) {
+                idSet.add(result.getString(this.getMasterTableIdFieldName()));
+                count = result.getInt(TOTAL_COUNT_FIELD_NAME);
+            }
+        } catch (Throwable t) {
+            logger.error("Error while loading the page of IDs", t);
+            throw new RuntimeException("Error while loading the page of IDs", t);
+        } finally {
+            closeDaoResources(result, stat, conn);
+        }
+        if (null == count) {
+            // empty page, the offset may be beyond the last row
+            count = this.countId(filters);
+        }
+        return new SearcherDaoPaginatedResult<>(count, new ArrayList<>(idSet));
+    }
+
+    protected boolean isWindowCountSupported() {
+        if (null == this.windowCountSupported) {
+            this.windowCountSupported = QueryLimitResolver.isWindowFunctionSupported(this.getDataSource(), this.getDataSourceClassName());
+        }
+        return this.windowCountSupported;
+    }
+
+    /**
+     * Add the total count column (COUNT(*) OVER()) to the select list of the given query.
+     * The column is inserted before the FROM clause of the outer query, 
+     * skipping the subqueries of the select list.
+     *
+     * @param query The select query.
+     * @return The query with the total count column.
+     */
+    protected String addWindowCountField(String query) {
+        int index = this.getOuterFromIndex(query);
+        if (index < 0) {
+            throw new IllegalArgumentException("Missing FROM clause in query " + query);
+        }
+        return query.substring(0, index) + ", COUNT(*) OVER() AS " + TOTAL_COUNT_FIELD_NAME + query.substring(index);
+    }
+
+    private int getOuterFromIndex(String query) {
+        int depth = 0;
+        for (int i = 0; i < query.length(); i++) {
+            char c = query.charAt(i);
+            if (c == '(') {
+                depth++;
+            } else if (c == ')') {
+                depth--;
+            } else if (depth == 0 && query.regionMatches(true, i, " FROM ", 0, 6)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Return the count associated to the given signature, 
+     * loading and caching it if missing or expired.
+     *
+     * @param signature The signature of the count query.
+     * @param counter The loader of the count.
+     * @return The count.
+     */
+    protected int getCachedCount(String signature, Supplier<Integer> counter) {
+        if (this.getCountCacheTtl() <= 0) {
+            return counter.get();
+        }
+        long now = System.currentTimeMillis();
+        CachedCount cached = this.countCache.get(signature);
+        if (null != cached && cached.expiration > now) {
+            return cached.count;
+        }
+        int count = counter.get();
+        if (this.countCache.size() >= COUNT_CACHE_MAX_SIZE) {
+            this.countCache.clear();
+        }
+        this.countCache.put(signature, new CachedCount(count, now + this.getCountCacheTtl()));
+        return count;
+    }
+
+    /**
+     * Invalidate the cached counts; to be invoked by the subclasses 
+     * after every change of the searched table.
+     */
+    protected void clearCountCache() {
+        this.countCache.clear();
+    }
+
+    protected String createFilterSignature(FieldSearchFilter[] filters) {
+        StringBuilder signature = new StringBuilder();
+        if (null != filters) {
+            for (FieldSearchFilter filter : filters) {
+                signature.append('|');
+                this.appendFilterSignature(signature, filter);
+            }
+        }
+        return signature.toString();
+    }
+
+    /**
+     * Append the values bound by the filter to the signature; 
+     * the shape of the filter is part of the count query text.
+     *
+     * @param signature The signature.
+     * @param filter The filter.
+     */
+    protected void appendFilterSignature(StringBuilder signature, FieldSearchFilter filter) {
+        signature.append(filter.getKey()).append(';')
+                .append(this.getSignatureValue(filter.getValue())).append(';')
+                .append(this.getSignatureValue(filter.getStart())).append(';')
+                .append(this.getSignatureValue(filter.getEnd())).append(';')
+                .append(filter.getLikeOptionType()).append(';')
+                .append(filter.getValueDateDelay()).append(';')
+                .append(filter.getStartDateDelay()).append(';')
+                .append(filter.getEndDateDelay());
+        if (null != filter.getAllowedValues()) {
+            for (Object allowedValue : filter.getAllowedValues()) {
+                signature.append(';').append(this.getSignatureValue(allowedValue));
+            }
+        }
+    }
+
+    private String getSignatureValue(Object value) {
+        if (value instanceof Date) {
+            return String.valueOf(((Date) value).getTime());
+        }
+        return String.valueOf(value);
+    }
+
     protected FieldSearchFilter[] addFilter(FieldSearchFilter[] filters, FieldSearchFilter filterToAdd) {
         return ArrayUtils.add(filters, filterToAdd);
     }
 
     protected PreparedStatement buildStatement(FieldSearchFilter[] filters, boolean isCount, boolean selectAll, Connection conn) {
         String query = this.createQueryString(filters, isCount, selectAll);
+        return this.buildStatement(query, filters, conn);
+    }
+
+    protected PreparedStatement buildStatement(String query, FieldSearchFilter[] filters, Connection conn) {
         logger.trace("{}", query);
         PreparedStatement stat = null;
         try {
             stat = conn.prepareStatement(query);
             int index = 0;
             index = this.addMetadataFieldFilterStatementBlock(filters, index, stat);
+            index = this.addLimitStatementBlock(query, filters, index, stat);
         } catch (Throwable t) {
             logger.error("Error while creating the statement", t);
             throw new RuntimeException("Error while creating the statement", t);
@@ -128,6 +315,25 @@ public abstract class AbstractSearcherDAO extends AbstractDAO {
         return index;
     }
 
+    /**
+     * Add to the statement the offset and the limit of the page, 
+     * when the query ends with the (parametrized) limit block.
+     *
+     * @param query The query of the statement.
+     * @param filters The filters of the search.
+     * @param index The current index of the statement.
+     * @param stat The statement.
+     * @return The current statement index, eventually incremented by offset and limit.
+     * @throws SQLException In case of error.
+     */
+    protected int addLimitStatementBlock(String query, FieldSearchFilter[] filters, int index, PreparedStatement stat) throws SQLException {
+        FieldSearchFilter limitFilter = this.getLimitFilter(filters);
+        if (null == limitFilter || !query.endsWith(this.getLimitBlock())) {
+            return index;
+        }
+        return QueryLimitResolver.addLimitParameters(this.getLimitBlock(), limitFilter.getOffset(), limitFilter.getLimit(), index, stat);
+    }
+
     /**
      * Add to the statement a filter on a attribute.
      *
@@ -221,15 +427,86 @@ public abstract class AbstractSearcherDAO extends AbstractDAO {
     }
 
     protected String createQueryString(FieldSearchFilter[] filters, boolean isCount, boolean selectAll) {
+        String shape = this.createFilterShape(filters) + "#" + isCount + "#" + selectAll;
+        return this.getQueryTemplate(shape, () -> this.buildQueryString(filters, isCount, selectAll));
+    }
+
+    protected String buildQueryString(FieldSearchFilter[] filters, boolean isCount, boolean selectAll) {
         StringBuffer query = this.createBaseQueryBlock(filters, isCount, selectAll);
         boolean hasAppendWhereClause = this.appendMetadataFieldFilterQueryBlocks(filters, query, false);
         if (!isCount) {
             boolean ordered = appendOrderQueryBlocks(filters, query, false);
-            this.appendLimitQueryBlock(filters, query);
+            this.appendLimitParameterBlock(filters, query);
         }
         return query.toString();
     }
 
+    /**
+     * Return the query text associated to the given shape, building and caching it if missing.
+     * The shape must describe everything the query text depends on 
+     * (but not the values bound to the statement), so that equal shapes 
+     * share the same SQL string and only the parameters change between calls.
+     *
+     * @param shape The shape of the query.
+     * @param builder The builder of the query text.
+     * @return The query text.
+     */
+    protected String getQueryTemplate(String shape, Supplier<String> builder) {
+        String query = this.queryTemplates.getIfPresent(shape);
+        if (null != query) {
+            this.queryTemplateHits.increment();
+            return query;
+        }
+        try {
+            return this.queryTemplates.get(shape, () -> {
+                this.queryTemplateMisses.increment();
+                return builder.get();
+            });
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Error building the query of shape " + shape, e.getCause());
+        }
+    }
+
+    protected String createFilterShape(FieldSearchFilter[] filters) {
+        StringBuilder shape = new StringBuilder();
+        if (null != filters) {
+            for (FieldSearchFilter filter : filters) {
+                shape.append('|');
+                this.appendFilterShape(shape, filter);
+            }
+        }
+        return shape.toString();
+    }
+
+    /**
+     * Append to the shape the elements of the filter the query text depends on: 
+     * key, value types, options, order and the presence of a limit 
+     * (offset and limit are bound to the statement).
+     *
+     * @param shape The shape.
+     * @param filter The filter.
+     */
+    protected void appendFilterShape(StringBuilder shape, FieldSearchFilter filter) {
+        shape.append(filter.getKey()).append(';')
+                .append(this.getShapeType(filter.getValue())).append(';')
+                .append(this.getShapeType(filter.getStart())).append(';')
+                .append(this.getShapeType(filter.getEnd())).append(';')
+                .append(filter.isLikeOption() ? 'L' : '-')
+                .append(filter.isNullOption() ? 'N' : '-')
+                .append(filter.isNotOption() ? 'X' : '-').append(';')
+                .append(filter.getOrder()).append(';')
+                .append((null != filter.getLimit() && null != filter.getOffset()) ? 'P' : '-');
+        if (null != filter.getAllowedValues()) {
+            for (Object allowedValue : filter.getAllowedValues()) {
+                shape.append(';').append(this.getShapeType(allowedValue));
+            }
+        }
+    }
+
+    private String getShapeType(Object value) {
+        return (null == value) ? "-" : value.getClass().getSimpleName();
+    }
+
     protected StringBuffer createBaseQueryBlock(FieldSearchFilter[] filters, boolean isCount, boolean selectAll) {
         StringBuffer query = null;
         if (isCount) {
@@ -276,6 +553,42 @@ public abstract class AbstractSearcherDAO extends AbstractDAO {
         }
     }
 
+    /**
+     * Append the limit block with offset and limit as statement parameters, 
+     * so that every page of a search shares the same query text; 
+     * the values are bound by {@link #addLimitStatementBlock(String, FieldSearchFilter[], int, PreparedStatement)}.
+     *
+     * @param filters The filters of the search.
+     * @param query The query to complete.
+     */
+    protected void appendLimitParameterBlock(FieldSearchFilter[] filters, StringBuffer query) {
+        if (null == filters || filters.length == 0) {
+            logger.warn("no filters");
+            return;
+        }
+        if (null != this.getLimitFilter(filters)) {
+            query.append(this.getLimitBlock());
+        }
+    }
+
+    private FieldSearchFilter getLimitFilter(FieldSearchFilter[] filters) {
+        if (null != filters) {
+            for (FieldSearchFilter filter : filters) {
+                if (filter.getOffset() != null && filter.getLimit() != null) {
+                    return filter;
+                }
+            }
+        }
+        return null;
+    }
+
+    protected String getLimitBlock() {
+        if (null == this.limitBlock) {
+            this.limitBlock = QueryLimitResolver.createLimitParameterBlock(this.getDataSource(), this.getDataSourceClassName());
+        }
+        return this.limitBlock;
+    }
+
     protected boolean appendMetadataFieldFilterQueryBlocks(FieldSearchFilter[] filters, StringBuffer query, boolean hasAppendWhereClause) {
         if (filters == null) {
             return hasAppendWhereClause;
@@ -423,6 +736,51 @@ public abstract class AbstractSearcherDAO extends AbstractDAO {
 
     public void setDataSourceClassName(String dataSourceClassName) {
         this.dataSourceClassName = dataSourceClassName;
+        this.limitBlock = null;
+        this.windowCountSupported = null;
     }
-    
+
+    /**
+     * Return the number of distinct query shapes cached by this DAO.
+     *
+     * @return The number of cached query templates.
+     */
+    public int getQueryTemplateCount() {
+        return (int) this.queryTemplates.size();
+    }
+
+    public long getQueryTemplateHits() {
+        return this.queryTemplateHits.sum();
+    }
+
+    public long getQueryTemplateMisses() {
+        return this.queryTemplateMisses.sum();
+    }
+
+    /**
+     * Return the time (in milliseconds) a count is reused by the paged search 
+     * when it can't be read together with the page; zero or less disables the cache.
+     *
+     * @return The ttl of the cached counts.
+     */
+    public int getCountCacheTtl() {
+        return countCacheTtl;
+    }
+
+    public void setCountCacheTtl(int countCacheTtl) {
+        this.countCacheTtl = countCacheTtl;
+    }
+
+    private static class CachedCount {
+
+        private final int count;
+        private final long expiration;
+
+        private CachedCount(int count, long expiration) {
+            this.count = count;
+            this.expiration = expiration;
+        }
+
+    }
+
 }
@@ -15,6 +15,8 @@ package com.agiletec.aps.system.common;
 
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
 
 import javax.sql.DataSource;
 
@@ -29,6 +31,9 @@ public class QueryLimitResolver {
     private static final String JDBC_DRIVER_MYSQL = "com.mysql.jdbc.Driver";
     private static final String JDBC_DRIVER_ORACLE = "oracle.jdbc.driver.OracleDriver";
 
+    private static final String OFFSET_FETCH_PARAMETER_BLOCK = " OFFSET ? ROWS FETCH NEXT ? ROWS ONLY ";
+    private static final String LIMIT_OFFSET_PARAMETER_BLOCK = " LIMIT ? OFFSET ? ";
+
     private static final Logger logger = LoggerFactory.getLogger(QueryLimitResolver.class);
 
     @SuppressWarnings("rawtypes")
@@ -54,6 +59,63 @@ public class QueryLimitResolver {
         return limitBlock;
     }
 
+    /**
+     * Return the limit block of the given datasource with offset and limit as statement parameters, 
+     * so that every page of a search shares the same query text.
+     * @param dataSource The datasource.
+     * @param dataSourceClassName The configured driver class name, used when 
+     * it can't be read from the datasource.
+     * @return The parametrized limit block.
+     * @see #addLimitParameters(String, Integer, Integer, int, PreparedStatement)
+     */
+    public static String createLimitParameterBlock(DataSource dataSource, String dataSourceClassName) {
+        String driverClassName = extractDriverClassName(dataSource, dataSourceClassName);
+        logger.trace("detected driver: {}", driverClassName);
+        if (driverClassName.equalsIgnoreCase(JDBC_DRIVER_DERBY_EMBEDDED)
+                || driverClassName.equalsIgnoreCase(JDBC_DRIVER_POSTGRES) || driverClassName.equalsIgnoreCase(JDBC_DRIVER_ORACLE)) {
+            return OFFSET_FETCH_PARAMETER_BLOCK;
+        } else if (driverClassName.equalsIgnoreCase(JDBC_DRIVER_MYSQL)) {
+            return LIMIT_OFFSET_PARAMETER_BLOCK;
+        }
+        logger.warn("driver {} not implemented", driverClassName);
+        throw new UnsupportedOperationException(driverClassName + " not implemented!");
+    }
+
+    /**
+     * Bind offset and limit to the parameters of a limit block 
+     * created by {@link #createLimitParameterBlock(DataSource, String)}, in the order of the block.
+     * @param limitBlock The parametrized limit block.
+     * @param offset The offset.
+     * @param limit The limit.
+     * @param index The last index used in the statement.
+     * @param stat The statement.
+     * @return The last used index.
+     * @throws SQLException In case of error.
+     */
+    public static int addLimitParameters(String limitBlock, Integer offset, Integer limit, int index, PreparedStatement stat) throws SQLException {
+        if (LIMIT_OFFSET_PARAMETER_BLOCK.equals(limitBlock)) {
+            stat.setInt(++index, limit);
+            stat.setInt(++index, offset);
+        } else {
+            stat.setInt(++index, offset);
+            stat.setInt(++index, limit);
+        }
+        return index;
+    }
+
+    /**
+     * Check whether the dialect of the given datasource supports window functions 
+     * (used to read the total count of a paged search in the same query).
+     * @param dataSource The datasource.
+     * @param dataSourceClassName The configured driver class name, used when 
+     * it can't be read from the datasource.
+     * @return true if window functions are supported.
+     */
+    public static boolean isWindowFunctionSupported(DataSource dataSource, String dataSourceClassName) {
+        String driverClassName = extractDriverClassName(dataSource, dataSourceClassName);
+        return JDBC_DRIVER_POSTGRES.equalsIgnoreCase(driverClassName) || JDBC_DRIVER_ORACLE.equalsIgnoreCase(driverClassName);
+    }
+
     private static String extractDriverClassName(DataSource dataSource, String dataSourceClassName) {
         String driver = null;
         try {
@@ -20,12 +20,17 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.Date;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
 
 import com.agiletec.aps.system.common.AbstractSearcherDAO;
 import com.agiletec.aps.system.common.FieldSearchFilter;
 import com.agiletec.aps.system.common.entity.model.ApsEntityRecord;
 import com.agiletec.aps.system.common.entity.model.EntitySearchFilter;
+import com.agiletec.aps.system.common.model.dao.SearcherDaoPaginatedResult;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -38,10 +43,28 @@ public abstract class AbstractEntitySearcherDAO extends AbstractSearcherDAO impl
 
     private static final Logger _logger = LoggerFactory.getLogger(AbstractEntitySearcherDAO.class);
 
+    public static final int DEFAULT_FETCH_SIZE = 500;
+
+    /**
+     * Attribute filters are applied joining the search table once per filter.
+     */
+    public static final String ATTRIBUTE_FILTER_STRATEGY_JOIN = "join";
+
+    /**
+     * Attribute filters are applied with correlated EXISTS / NOT EXISTS subqueries;
+     * only the filters whose columns are needed by the outer query 
+     * (order or like options) are still joined.
+     */
+    public static final String ATTRIBUTE_FILTER_STRATEGY_EXISTS = "exists";
+
+    private int fetchSize = DEFAULT_FETCH_SIZE;
+
+    private String attributeFilterStrategy = ATTRIBUTE_FILTER_STRATEGY_JOIN;
+
     @Override
     public List<ApsEntityRecord> searchRecords(EntitySearchFilter[] filters) {
         Connection conn = null;
-        List<ApsEntityRecord> records = new ArrayList<>();
+        Set<ApsEntityRecord> records = new LinkedHashSet<>();
         PreparedStatement stat = null;
         ResultSet result = null;
         try {
@@ -49,11 +72,7 @@ public abstract class AbstractEntitySearcherDAO extends AbstractSearcherDAO impl
             stat = this.buildStatement(filters, false, true, conn);
             result = stat.executeQuery();
             while (result.next()) {
-                ApsEntityRecord record = this.createRecord(result);
-                if (!records.contains(record)) {
-
-                    records.add(record);
-                }
+                records.add(this.createRecord(result));
             }
         } catch (Throwable t) {
             _logger.error("Error while loading records list", t);
@@ -61,7 +80,7 @@ public abstract class AbstractEntitySearcherDAO extends AbstractSearcherDAO impl
         } finally {
             closeDaoResources(result, stat, conn);
         }
-        return records;
+        return new ArrayList<>(records);
     }
 
     protected abstract ApsEntityRecord createRecord(ResultSet result) throws Throwable;
@@ -100,7 +119,7 @@ public abstract class AbstractEntitySearcherDAO extends AbstractSearcherDAO impl
     @Override
     public List<String> searchId(EntitySearchFilter[] filters) {
         Connection conn = null;
-        List<String> idList = new ArrayList<>();
+        Set<String> idSet = new LinkedHashSet<>();
         PreparedStatement stat = null;
         ResultSet result = null;
         try {
@@ -108,10 +127,7 @@ public abstract class AbstractEntitySearcherDAO extends AbstractSearcherDAO impl
             stat = this.buildStatement(filters, false, false, conn);
             result = stat.executeQuery();
             while (result.next()) {
-                String id = result.getString(this.getMasterTableIdFieldName());
-                if (!idList.contains(id)) {
-                    idList.add(id);
-                }
+                idSet.add(result.getString(this.getMasterTableIdFieldName()));
             }
         } catch (Throwable t) {
             _logger.error("Error while loading the list of IDs", t);
@@ -119,7 +135,92 @@ public abstract class AbstractEntitySearcherDAO extends AbstractSearcherDAO impl
         } finally {
             closeDaoResources(result, stat, conn);
         }
-        return idList;
+        return new ArrayList<>(idSet);
+    }
+
+    @Override
+    public void searchId(EntitySearchFilter[] filters, Consumer<String> consumer) {
+        Connection conn = null;
+        Set<String> seen = new HashSet<>();
+        PreparedStatement stat = null;
+        ResultSet result = null;
+        try {
+            conn = this.getConnection();
+            stat = this.buildStatement(filters, false, false, conn);
+            stat.setFetchSize(this.getFetchSize());
+            result = stat.executeQuery();
+            while (result.next()) {
+                String id = result.getString(this.getMasterTableIdFieldName());
+                if (seen.add(id)) {
+                    consumer.accept(id);
+                }
+            }
+        } catch (Throwable t) {
+            _logger.error("Error while streaming the IDs", t);
+            throw new RuntimeException("Error while streaming the IDs", t);
+        } finally {
+            closeDaoResources(result, stat, conn);
+        }
+    }
+
+    @Override
+    public SearcherDaoPaginatedResult<String> searchPagedId(EntitySearchFilter[] filters) {
+        if (!this.isWindowCountSupported()) {
+            List<String> idList = this.searchId(filters);
+            // the entities are written by other DAOs, which can't invalidate 
+            // the cached counts of this one: the count is always loaded
+            int count = this.countId(filters);
+            return new SearcherDaoPaginatedResult<>(count, idList);
+        }
+        Connection conn = null;
+        Set<String> idSet = new LinkedHashSet<>();
+        Integer count = null;
+        PreparedStatement stat = null;
+        ResultSet result = null;
+        try {
+            conn = this.getConnection();
+            String query = this.addWindowCountField(this.createQueryString(filters, false, false));
+            stat = this.buildStatement(query, filters, conn);
+            result = stat.executeQuery();
+            while (result.next()) {
+                idSet.add(result.getString(this.getMasterTableIdFieldName()));
+                count = result.getInt(TOTAL_COUNT_FIELD_NAME);
+            }
+        } catch (Throwable t) {
+            _logger.error("Error while loading the page of IDs", t);
+            throw new RuntimeException("Error while loading the page of IDs", t);
+        } finally {
+            closeDaoResources(result, stat, conn);
+        }
+        if (null == count) {
+            count = this.countId(filters);
+        }
+        return new SearcherDaoPaginatedResult<>(count, new ArrayList<>(idSet));
+    }
+
+    @Override
+    protected String createFilterShape(FieldSearchFilter[] filters) {
+        return this.getAttributeFilterStrategy() + super.createFilterShape(filters);
+    }
+
+    @Override
+    protected void appendFilterShape(StringBuilder shape, FieldSearchFilter filter) {
+        super.appendFilterShape(shape, filter);
+        if (filter instanceof EntitySearchFilter) {
+            EntitySearchFilter entityFilter = (EntitySearchFilter) filter;
+            shape.append(';').append(entityFilter.isAttributeFilter() ? 'A' : '-')
+                    .append(null != entityFilter.getRoleName() ? 'R' : '-')
+                    .append(null != entityFilter.getLangCode() ? 'G' : '-');
+        }
+    }
+
+    @Override
+    protected void appendFilterSignature(StringBuilder signature, FieldSearchFilter filter) {
+        super.appendFilterSignature(signature, filter);
+        if (filter instanceof EntitySearchFilter) {
+            EntitySearchFilter entityFilter = (EntitySearchFilter) filter;
+            signature.append(';').append(entityFilter.getRoleName()).append(';').append(entityFilter.getLangCode());
+        }
     }
 
     protected EntitySearchFilter[] addFilter(EntitySearchFilter[] filters, EntitySearchFilter filterToAdd) {
@@ -137,12 +238,17 @@ public abstract class AbstractEntitySearcherDAO extends AbstractSearcherDAO impl
 
     private PreparedStatement buildStatement(EntitySearchFilter[] filters, boolean isCount, boolean selectAll, Connection conn) {
         String query = this.createQueryString(filters, isCount, selectAll);
+        return this.buildStatement(query, filters, conn);
+    }
+
+    private PreparedStatement buildStatement(String query, EntitySearchFilter[] filters, Connection conn) {
         PreparedStatement stat = null;
         try {
             stat = conn.prepareStatement(query);
             int index = 0;
             index = this.addAttributeFilterStatementBlock(filters, index, stat);
             index = this.addMetadataFieldFilterStatementBlock(filters, index, stat);
+            index = this.addLimitStatementBlock(query, filters, index, stat);
         } catch (Throwable t) {
             _logger.error("Error while creating the statement", t);
             throw new RuntimeException("Error while creating the statement", t);
@@ -214,12 +320,17 @@ public abstract class AbstractEntitySearcherDAO extends AbstractSearcherDAO impl
     }
     
     protected String createQueryString(EntitySearchFilter[] filters, boolean isCount, boolean selectAll) {
+        String shape = this.createFilterShape(filters) + "#" + isCount + "#" + selectAll;
+        return this.getQueryTemplate(shape, () -> this.buildQueryString(filters, isCount, selectAll));
+    }
+
+    protected String buildQueryString(EntitySearchFilter[] filters, boolean isCount, boolean selectAll) {
         StringBuffer query = this.createBaseQueryBlock(filters, isCount, selectAll);
         boolean hasAppendWhereClause = this.appendFullAttributeFilterQueryBlocks(filters, query, false);
         this.appendMetadataFieldFilterQueryBlocks(filters, query, hasAppendWhereClause);
         if (!isCount) {
             boolean ordered = this.appendOrderQueryBlocks(filters, query, false);
-            this.appendLimitQueryBlock(filters, query);
+            this.appendLimitParameterBlock(filters, query);
         }
         return query.toString();
     }
@@ -286,7 +397,8 @@ public abstract class AbstractEntitySearcherDAO extends AbstractSearcherDAO impl
         String attributeRoleTableIdFieldName = this.getEntityAttributeRoleTableIdFieldName();
         for (int i = 0; i < filters.length; i++) {
             EntitySearchFilter filter = filters[i];
-            if ((null != filter.getKey() || null != filter.getRoleName()) && filter.isAttributeFilter() && !filter.isNullOption()) {
+            if ((null != filter.getKey() || null != filter.getRoleName()) && filter.isAttributeFilter() && !filter.isNullOption()
+                    && this.isJoinedAttributeFilter(filter)) {
                 query.append("INNER JOIN ");
                 query.append(searchTableName).append(" ").append(searchTableName).append(i).append(" ON ")
                      .append(masterTableName).append(".").append(masterTableIdFieldName).append(" = ")
@@ -309,15 +421,78 @@ public abstract class AbstractEntitySearcherDAO extends AbstractSearcherDAO impl
                     continue;
                 }
                 if (filter.isNullOption() && filter.getKey() != null) {
-                    hasAppendWhereClause = this.appendNullAttributeFilterQueryBlocks(filter, query, hasAppendWhereClause);
+                    if (this.isExistsAttributeFilterStrategy()) {
+                        hasAppendWhereClause = this.appendNotExistsAttributeFilterQueryBlocks(filter, i, query, hasAppendWhereClause);
+                    } else {
+                        hasAppendWhereClause = this.appendNullAttributeFilterQueryBlocks(filter, query, hasAppendWhereClause);
+                    }
                 } else if (!filter.isNullOption() && (filter.getKey() != null || filter.getRoleName() != null)) {
-                    hasAppendWhereClause = this.appendValuedAttributeFilterQueryBlocks(filter, i, query, hasAppendWhereClause);
+                    if (this.isJoinedAttributeFilter(filter)) {
+                        hasAppendWhereClause = this.appendValuedAttributeFilterQueryBlocks(filter, i, query, hasAppendWhereClause);
+                    } else {
+                        hasAppendWhereClause = this.appendExistsAttributeFilterQueryBlocks(filter, i, query, hasAppendWhereClause);
+                    }
                 }
             }
         }
         return hasAppendWhereClause;
     }
 
+    /**
+     * Check whether the given (valued) attribute filter has to be applied joining the search table.
+     * Using the EXISTS strategy, a join is still required when the outer query 
+     * selects or orders by the filtered column.
+     * @param filter The attribute filter.
+     * @return true if the search table has to be joined for the filter.
+     */
+    protected boolean isJoinedAttributeFilter(EntitySearchFilter filter) {
+        if (!this.isExistsAttributeFilterStrategy()) {
+            return true;
+        }
+        return (null != filter.getOrder() || filter.isLikeOption());
+    }
+
+    protected boolean isExistsAttributeFilterStrategy() {
+        return ATTRIBUTE_FILTER_STRATEGY_EXISTS.equalsIgnoreCase(this.getAttributeFilterStrategy());
+    }
+
+    private boolean appendExistsAttributeFilterQueryBlocks(EntitySearchFilter filter, int index, StringBuffer query, boolean hasAppendWhereClause) {
+        hasAppendWhereClause = this.verifyWhereClauseAppend(query, hasAppendWhereClause);
+        query.append("EXISTS (");
+        this.appendCorrelatedSearchTableBlock(filter, index, query);
+        this.appendValuedAttributeFilterQueryBlocks(filter, index, query, true);
+        query.append(") ");
+        return hasAppendWhereClause;
+    }
+
+    private boolean appendNotExistsAttributeFilterQueryBlocks(EntitySearchFilter filter, int index, StringBuffer query, boolean hasAppendWhereClause) {
+        hasAppendWhereClause = this.verifyWhereClauseAppend(query, hasAppendWhereClause);
+        String searchTableNameAlias = this.getEntitySearchTableName() + index;
+        query.append("NOT EXISTS (");
+        this.appendCorrelatedSearchTableBlock(filter, index, query);
+        query.append("AND ").append(searchTableNameAlias).append(".attrname = ? ");
+        this.addAttributeLangQueryBlock(searchTableNameAlias, query, filter, true);
+        query.append("AND (").append(searchTableNameAlias).append(".datevalue IS NOT NULL OR ").append(searchTableNameAlias).append(".textvalue IS NOT NULL OR ").append(searchTableNameAlias).append(".numvalue IS NOT NULL) ");
+        query.append(") ");
+        return hasAppendWhereClause;
+    }
+
+    private void appendCorrelatedSearchTableBlock(EntitySearchFilter filter, int index, StringBuffer query) {
+        String masterField = this.getEntityMasterTableName() + "." + this.getEntityMasterTableIdFieldName();
+        String searchTableName = this.getEntitySearchTableName();
+        String attributeRoleTableName = this.getEntityAttributeRoleTableName();
+        query.append("SELECT 1 FROM ").append(searchTableName).append(" ").append(searchTableName).append(index);
+        if (null == filter.getKey() && null != filter.getRoleName()) {
+            query.append(", ").append(attributeRoleTableName).append(" ").append(attributeRoleTableName).append(index);
+        }
+        query.append(" WHERE ").append(searchTableName).append(index).append(".")
+             .append(this.getEntitySearchTableIdFieldName()).append(" = ").append(masterField).append(" ");
+        if (null == filter.getKey() && null != filter.getRoleName()) {
+            query.append("AND ").append(attributeRoleTableName).append(index).append(".")
+                 .append(this.getEntityAttributeRoleTableIdFieldName()).append(" = ").append(masterField).append(" ");
+        }
+    }
+
     private boolean appendNullAttributeFilterQueryBlocks(EntitySearchFilter filter, StringBuffer query, boolean hasAppendWhereClause) {
         hasAppendWhereClause = this.verifyWhereClauseAppend(query, hasAppendWhereClause);
         query.append(this.getEntityMasterTableName()).append(".").append(this.getEntityMasterTableIdFieldName());
@@ -568,4 +743,27 @@ public abstract class AbstractEntitySearcherDAO extends AbstractSearcherDAO impl
         return this.getEntityMasterTableName();
     }
 
+    /**
+     * Return the number of rows fetched per round trip by the streaming search.
+     * @return The fetch size.
+     */
+    public int getFetchSize() {
+        return fetchSize;
+    }
+    public void setFetchSize(int fetchSize) {
+        this.fetchSize = fetchSize;
+    }
+
+    /**
+     * Return the strategy used to apply the attribute filters: 
+     * {@link #ATTRIBUTE_FILTER_STRATEGY_JOIN} (default) or {@link #ATTRIBUTE_FILTER_STRATEGY_EXISTS}.
+     * @return The attribute filter strategy.
+     */
+    public String getAttributeFilterStrategy() {
+        return attributeFilterStrategy;
+    }
+    public void setAttributeFilterStrategy(String attributeFilterStrategy) {
+        this.attributeFilterStrategy = attributeFilterStrategy;
+    }
+
 }
\ No newline at end of file
@@ -14,7 +14,6 @@
 package com.agiletec.aps.system.common.entity;
 
 import java.io.IOException;
-import java.io.StringReader;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
@@ -28,8 +27,6 @@ import java.util.Map;
 import java.util.Set;
 
 import javax.xml.parsers.ParserConfigurationException;
-import javax.xml.parsers.SAXParser;
-import javax.xml.parsers.SAXParserFactory;
 
 import com.agiletec.aps.system.common.AbstractService;
 import com.agiletec.aps.system.common.entity.cache.IEntityManagerCacheWrapper;
@@ -42,9 +39,11 @@ import com.agiletec.aps.system.common.entity.model.ApsEntityRecord;
 import com.agiletec.aps.system.common.entity.model.EntitySearchFilter;
 import com.agiletec.aps.system.common.entity.model.IApsEntity;
 import com.agiletec.aps.system.common.entity.model.SmallEntityType;
+import com.agiletec.aps.system.common.model.dao.SearcherDaoPaginatedResult;
 import com.agiletec.aps.system.common.entity.model.attribute.AttributeInterface;
 import com.agiletec.aps.system.common.entity.model.attribute.AttributeRole;
 import com.agiletec.aps.system.common.entity.parse.EntityHandler;
+import com.agiletec.aps.system.common.entity.parse.EntityXmlParser;
 import com.agiletec.aps.system.common.entity.parse.IApsEntityDOM;
 import com.agiletec.aps.system.common.entity.parse.IEntityTypeDOM;
 import com.agiletec.aps.system.common.entity.parse.IEntityTypeFactory;
@@ -54,7 +53,6 @@ import com.agiletec.aps.util.DateConverter;
 import org.apache.commons.beanutils.BeanComparator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.xml.sax.InputSource;
 import org.xml.sax.SAXException;
 
 /**
@@ -112,6 +110,7 @@ public abstract class ApsEntityManager extends AbstractService
     @Override
     public void refresh() throws Throwable {
         super.refresh();
+        this.getCacheWrapper().flushEntityTypes();
         this.attributeDisablingCodes = null;
         this.attributeRoles = null;
     }
@@ -184,12 +183,9 @@ public abstract class ApsEntityManager extends AbstractService
     protected IApsEntity createEntityFromXml(String entityTypeCode, String xml) throws ApsSystemException {
         try {
             IApsEntity entityPrototype = this.getEntityPrototype(entityTypeCode);
-            SAXParserFactory parseFactory = SAXParserFactory.newInstance();
-            SAXParser parser = parseFactory.newSAXParser();
-            InputSource is = new InputSource(new StringReader(xml));
             EntityHandler handler = this.getEntityHandler();
             handler.initHandler(entityPrototype, this.getXmlAttributeRootElementName(), this.getCategoryManager());
-            parser.parse(is, handler);
+            EntityXmlParser.parse(xml, handler);
             return entityPrototype;
         } catch (ParserConfigurationException | SAXException | IOException t) {
             logger.error("Error detected while creating the entity. typecode: {} - xml: {}", entityTypeCode, xml, t);
@@ -212,8 +208,7 @@ public abstract class ApsEntityManager extends AbstractService
     public IApsEntity getEntityPrototype(String typeCode) {
         IApsEntity prototype = null;
         try {
-            IApsEntity mainPrototype = this.getEntityTypeFactory().extractEntityType(typeCode, this.getEntityClass(),
-                                                                                     this.getConfigItemName(), this.getEntityTypeDom(), super.getName(), this.getEntityDom());
+            IApsEntity mainPrototype = this.getMainEntityTypes().get(typeCode);
             if (null == mainPrototype) {
                 return null;
             }
@@ -228,7 +223,7 @@ public abstract class ApsEntityManager extends AbstractService
     @Override
     public Map<String, IApsEntity> getEntityPrototypes() {
         Map<String, IApsEntity> prototypes = new HashMap<>();
-        Map<String, IApsEntity> mainPrototypes = this.getEntityTypes();
+        Map<String, IApsEntity> mainPrototypes = this.getMainEntityTypes();
         Iterator<String> iter = mainPrototypes.keySet().iterator();
         while (iter.hasNext()) {
             String code = iter.next();
@@ -360,7 +355,21 @@ public abstract class ApsEntityManager extends AbstractService
      * @return The map of the Entity Types indexed by the type code.
      */
     protected Map<String, IApsEntity> getEntityTypes() {
-        Map<String, IApsEntity> types = null;
+        return new HashMap<>(this.getMainEntityTypes());
+    }
+
+    /**
+     * Return the shared map of the main prototypes, parsed from the
+     * configuration only when missing from the cache. The map and its
+     * prototypes must not be modified.
+     *
+     * @return The map of the main prototypes indexed by the type code.
+     */
+    private Map<String, IApsEntity> getMainEntityTypes() {
+        Map<String, IApsEntity> types = this.getCacheWrapper().getEntityTypes();
+        if (null != types) {
+            return types;
+        }
         try {
             types = this.getEntityTypeFactory().extractEntityTypes(this.getEntityClass(),
                                                                    this.getConfigItemName(), this.getEntityTypeDom(), super.getName(), this.getEntityDom());
@@ -368,6 +377,8 @@ public abstract class ApsEntityManager extends AbstractService
             logger.error("Error while extracting entity types", e);
             throw new RuntimeException("Error while extracting entity types", e);
         }
+        types = Collections.unmodifiableMap(new HashMap<>(types));
+        this.getCacheWrapper().putEntityTypes(types);
         return types;
     }
 
@@ -584,6 +595,18 @@ public abstract class ApsEntityManager extends AbstractService
         return idList;
     }
 
+    @Override
+    public SearcherDaoPaginatedResult<String> searchPagedId(EntitySearchFilter[] filters) throws ApsSystemException {
+        SearcherDaoPaginatedResult<String> result = null;
+        try {
+            result = this.getEntitySearcherDao().searchPagedId(filters);
+        } catch (Throwable t) {
+            logger.error("Error detected while searching the page of entities", t);
+            throw new ApsSystemException("Error detected while searching the page of entities", t);
+        }
+        return result;
+    }
+
     @Override
     public List<ApsEntityRecord> searchRecords(EntitySearchFilter[] filters) throws ApsSystemException {
         List<ApsEntityRecord> records = null;
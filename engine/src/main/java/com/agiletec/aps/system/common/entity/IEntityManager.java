@@ -21,6 +21,7 @@ import com.agiletec.aps.system.common.entity.model.ApsEntityRecord;
 import com.agiletec.aps.system.common.entity.model.EntitySearchFilter;
 import com.agiletec.aps.system.common.entity.model.IApsEntity;
 import com.agiletec.aps.system.common.entity.model.SmallEntityType;
+import com.agiletec.aps.system.common.model.dao.SearcherDaoPaginatedResult;
 import com.agiletec.aps.system.common.entity.model.attribute.AttributeInterface;
 import com.agiletec.aps.system.common.entity.model.attribute.AttributeRole;
 import com.agiletec.aps.system.exception.ApsSystemException;
@@ -59,6 +60,15 @@ public interface IEntityManager extends IManager {
      */
     public List<String> searchId(String typeCode, EntitySearchFilter[] filters) throws ApsSystemException;
 
+    /**
+     * Search the page of entities defined by the limit and offset of the filters.
+     *
+     * @param filters The search filters to apply to find and sort the IDs.
+     * @return The page of IDs found and the total number of matching entities.
+     * @throws ApsSystemException In case of error.
+     */
+    public SearcherDaoPaginatedResult<String> searchPagedId(EntitySearchFilter[] filters) throws ApsSystemException;
+
     /**
      * Search the entity record
      *
@@ -14,9 +14,11 @@
 package com.agiletec.aps.system.common.entity;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 import com.agiletec.aps.system.common.entity.model.ApsEntityRecord;
 import com.agiletec.aps.system.common.entity.model.EntitySearchFilter;
+import com.agiletec.aps.system.common.model.dao.SearcherDaoPaginatedResult;
 
 /**
  * Basic interface for the DAO classes that perform searches on entities.
@@ -30,6 +32,23 @@ public interface IEntitySearcherDAO {
 	
 	public List<String> searchId(String typeCode, EntitySearchFilter[] filters);
 	
+	/**
+	 * Stream the IDs of the entities matching the given filters to the consumer,
+	 * in the same order and without duplicates, reading the rows in blocks 
+	 * instead of building the whole list in memory.
+	 * @param filters The search filters.
+	 * @param consumer The consumer of the IDs.
+	 */
+	public void searchId(EntitySearchFilter[] filters, Consumer<String> consumer);
+	
+	/**
+	 * Search the page of IDs defined by the limit and offset of the filters, 
+	 * together with the total number of matching entities.
+	 * @param filters The search filters.
+	 * @return The page of IDs and the total count.
+	 */
+	public SearcherDaoPaginatedResult<String> searchPagedId(EntitySearchFilter[] filters);
+	
 	/**
 	 * @deprecated As of jAPS 2.0 version 2.0.9, replaced by the constant  {@link IEntityManager}.
 	 */
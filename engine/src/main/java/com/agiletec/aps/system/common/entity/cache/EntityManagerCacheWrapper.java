@@ -18,6 +18,7 @@ import java.util.Map;
 
 import com.agiletec.aps.system.common.AbstractCacheWrapper;
 import com.agiletec.aps.system.common.entity.IEntityManager;
+import com.agiletec.aps.system.common.entity.model.IApsEntity;
 import com.agiletec.aps.system.exception.ApsSystemException;
 import org.springframework.cache.Cache;
 
@@ -53,6 +54,21 @@ public class EntityManagerCacheWrapper extends AbstractCacheWrapper implements I
 		cache.put(IEntityManagerCacheWrapper.ENTITY_STATUS_CACHE_NAME, status);
 	}
 
+	@Override
+	public Map<String, IApsEntity> getEntityTypes() {
+		return this.get(IEntityManagerCacheWrapper.ENTITY_TYPES_CACHE_NAME, Map.class);
+	}
+
+	@Override
+	public void putEntityTypes(Map<String, IApsEntity> entityTypes) {
+		this.getCache().put(IEntityManagerCacheWrapper.ENTITY_TYPES_CACHE_NAME, entityTypes);
+	}
+
+	@Override
+	public void flushEntityTypes() {
+		this.getCache().evict(IEntityManagerCacheWrapper.ENTITY_TYPES_CACHE_NAME);
+	}
+
 	@Override
 	protected String getCacheName() {
 		return ENTITY_MANAGER_CACHE_NAME_PREFIX + this.getEntityManagerName();
@@ -13,6 +13,9 @@
  */
 package com.agiletec.aps.system.common.entity.cache;
 
+import java.util.Map;
+
+import com.agiletec.aps.system.common.entity.model.IApsEntity;
 import com.agiletec.aps.system.exception.ApsSystemException;
 
 /**
@@ -22,6 +25,7 @@ public interface IEntityManagerCacheWrapper {
 
 	public static final String ENTITY_MANAGER_CACHE_NAME_PREFIX = "Entando_";
 	public static final String ENTITY_STATUS_CACHE_NAME = "EntityManager_status";
+	public static final String ENTITY_TYPES_CACHE_NAME = "EntityManager_types";
 
 	public void initCache(String managerName) throws ApsSystemException;
 
@@ -29,4 +33,14 @@ public interface IEntityManagerCacheWrapper {
 
 	public void updateEntityTypeStatus(String typeCode, Integer status);
 
+	/**
+	 * Return the parsed main prototypes of the entity types, indexed by type code.
+	 * @return The map of the main prototypes, or null if not yet cached.
+	 */
+	public Map<String, IApsEntity> getEntityTypes();
+
+	public void putEntityTypes(Map<String, IApsEntity> entityTypes);
+
+	public void flushEntityTypes();
+
 }
@@ -27,6 +27,11 @@ public class ApsEntityRecord {
 		return super.equals(rec);
 	}
 
+	@Override
+	public int hashCode() {
+		return (null != this.getId()) ? this.getId().hashCode() : super.hashCode();
+	}
+
 	public String getId() {
 		return _id;
 	}
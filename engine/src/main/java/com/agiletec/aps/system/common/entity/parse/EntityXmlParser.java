@@ -0,0 +1,96 @@
+/*
+ * Copyright 2015-Present Entando Inc. (http://www.entando.com) All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+package com.agiletec.aps.system.common.entity.parse;
+
+import java.io.IOException;
+import java.io.StringReader;
+import javax.xml.XMLConstants;
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.parsers.SAXParser;
+import javax.xml.parsers.SAXParserFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.helpers.DefaultHandler;
+
+/**
+ * Parses the xml of the entities with a SAX parser reused by the current thread.
+ * The factory is configured once (secure processing, no external entities);
+ * every parser is reset after use and dropped if the parsing fails, so that
+ * a broken parser is never handed out again.
+ */
+public final class EntityXmlParser {
+
+	private static final Logger logger = LoggerFactory.getLogger(EntityXmlParser.class);
+
+	private static final SAXParserFactory PARSER_FACTORY = createParserFactory();
+
+	private static final ThreadLocal<SAXParser> PARSERS = new ThreadLocal<>();
+
+	private EntityXmlParser() {
+		throw new IllegalStateException("Utility class");
+	}
+
+	/**
+	 * Parse the given xml with the given handler.
+	 * @param xml The xml to parse.
+	 * @param handler The handler that receives the SAX events.
+	 * @throws ParserConfigurationException If a parser can't be created.
+	 * @throws SAXException In case of parsing error.
+	 * @throws IOException In case of i/o error.
+	 */
+	public static void parse(String xml, DefaultHandler handler) throws ParserConfigurationException, SAXException, IOException {
+		SAXParser parser = PARSERS.get();
+		if (null == parser) {
+			parser = newParser();
+			PARSERS.set(parser);
+		}
+		boolean reusable = false;
+		try {
+			parser.parse(new InputSource(new StringReader(xml)), handler);
+			reusable = true;
+		} finally {
+			if (reusable) {
+				parser.reset();
+			} else {
+				PARSERS.remove();
+			}
+		}
+	}
+
+	protected static SAXParser newParser() throws ParserConfigurationException, SAXException {
+		synchronized (PARSER_FACTORY) {
+			return PARSER_FACTORY.newSAXParser();
+		}
+	}
+
+	private static SAXParserFactory createParserFactory() {
+		SAXParserFactory factory = SAXParserFactory.newInstance();
+		setFeature(factory, XMLConstants.FEATURE_SECURE_PROCESSING, true);
+		setFeature(factory, "http://xml.org/sax/features/external-general-entities", false);
+		setFeature(factory, "http://xml.org/sax/features/external-parameter-entities", false);
+		setFeature(factory, "http://apache.org/xml/features/nonvalidating/load-external-dtd", false);
+		return factory;
+	}
+
+	private static void setFeature(SAXParserFactory factory, String feature, boolean value) {
+		try {
+			factory.setFeature(feature, value);
+		} catch (ParserConfigurationException | SAXException e) {
+			logger.warn("SAX feature {} not supported by {}", feature, factory.getClass().getName());
+		}
+	}
+
+}
@@ -27,4 +27,36 @@ public interface INotifyManager {
 	 */
 	public void publishEvent(ApplicationEvent event);
 	
+	/**
+	 * Return the number of events waiting to be dispatched.
+	 * @return The number of queued events.
+	 */
+	public int getQueueSize();
+	
+	/**
+	 * Return the number of events dispatched to their observers.
+	 * @return The number of dispatched events.
+	 */
+	public long getDispatchedEvents();
+	
+	/**
+	 * Return the number of events dropped because the dispatcher was saturated.
+	 * @return The number of dropped events.
+	 */
+	public long getDroppedEvents();
+	
+	/**
+	 * Return the average time between the publication of an event and the
+	 * end of its notification.
+	 * @return The average dispatch latency, in milliseconds.
+	 */
+	public double getAverageDispatchLatency();
+	
+	/**
+	 * Return the max time between the publication of an event and the end
+	 * of its notification.
+	 * @return The max dispatch latency, in milliseconds.
+	 */
+	public double getMaxDispatchLatency();
+	
 }
\ No newline at end of file
@@ -14,7 +14,21 @@
 package com.agiletec.aps.system.common.notify;
 
 import java.io.Serializable;
-import java.util.Date;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -26,12 +40,19 @@ import org.springframework.context.ApplicationEvent;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.ApplicationEventPublisherAware;
 import org.springframework.context.ApplicationListener;
+import org.springframework.context.event.ContextRefreshedEvent;
 
 import com.agiletec.aps.system.SystemConstants;
-import com.agiletec.aps.util.DateConverter;
 
 /**
  * Servizio notificatore eventi.
+ * The events are dispatched to the observers by a bounded pool of threads;
+ * when the queue of the pool is full the publishing thread waits for a free
+ * slot up to a timeout, then the event is dropped and logged (the observers
+ * never run on the publishing thread). With the ordered dispatch the events
+ * are kept in the lane of their observer, and a lane rejected by the full
+ * queue is resubmitted as soon as a dispatcher thread frees a slot. The observers of every event type are
+ * resolved once and cached until the next refresh of the context.
  * @author M.Diana - E.Santoboni
  */
 public class NotifyManager implements INotifyManager, ApplicationListener, 
@@ -39,39 +60,196 @@ BeanFactoryAware, ApplicationEventPublisherAware, Serializable {
 
 	private static final Logger _logger = LoggerFactory.getLogger(NotifyManager.class);
 	
+	public void init() {
+		AtomicInteger counter = new AtomicInteger();
+		ThreadPoolExecutor executor = new ThreadPoolExecutor(this.getDispatcherThreads(), this.getDispatcherThreads(),
+				DISPATCHER_KEEP_ALIVE, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(this.getQueueCapacity()), r -> {
+					Thread thread = new Thread(r, NOTIFYING_THREAD_NAME + "_" + counter.incrementAndGet());
+					thread.setDaemon(true);
+					return thread;
+				}, (r, pool) -> {
+					try {
+						if (!pool.isShutdown() && pool.getQueue().offer(r, this.getOfferTimeout(), TimeUnit.MILLISECONDS)) {
+							return;
+						}
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+					}
+					throw new RejectedExecutionException("The queue of the event dispatcher is full");
+				}) {
+			@Override
+			protected void afterExecute(Runnable r, Throwable t) {
+				super.afterExecute(r, t);
+				rescheduleDelayedLane();
+			}
+		};
+		executor.allowCoreThreadTimeOut(true);
+		this._executor = executor;
+		_logger.debug("{} ready: {} dispatcher threads", this.getClass().getName(), this.getDispatcherThreads());
+	}
+	
+	public void destroy() {
+		if (null == this._executor) {
+			return;
+		}
+		this._executor.shutdown();
+		try {
+			if (!this._executor.awaitTermination(10, TimeUnit.SECONDS)) {
+				_logger.warn("Shutting down the event dispatcher with {} events in queue", this._executor.getQueue().size());
+				this._executor.shutdownNow();
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			this._executor.shutdownNow();
+		}
+		ObserverLane lane;
+		while ((lane = this._delayedLanes.poll()) != null) {
+			lane.dropPendingEvents("the event dispatcher has been shut down");
+		}
+	}
+	
 	@Override
 	public void onApplicationEvent(ApplicationEvent event) {
 		if (event instanceof ApsEvent) {
-			NotifyingEventThread thread = new NotifyingEventThread(this, (ApsEvent) event);
-			thread.setName(NOTIFYING_THREAD_NAME + "_" + DateConverter.getFormattedDate(new Date(), "yyyy-MM-dd-HH-mm-ss"));
-			thread.start();
+			this.dispatch((ApsEvent) event);
 			return;
 		}
+		if (event instanceof ContextRefreshedEvent) {
+			this._observers.clear();
+			this._observerLanes.clear();
+		}
 		_logger.debug("Unhandled generic event detected: {}", event.getClass().getName());
 	}
-
+	
+	private void dispatch(ApsEvent event) {
+		long publishTime = System.nanoTime();
+		if (null == this._executor) {
+			this.notify(event);
+			this.addDispatchLatency(publishTime);
+			return;
+		}
+		if (!this.isOrderedDispatch()) {
+			try {
+				this._executor.execute(() -> {
+					this.notify(event);
+					this.addDispatchLatency(publishTime);
+				});
+			} catch (RejectedExecutionException e) {
+				this.drop(event, "the queue of the dispatcher is full");
+			}
+			return;
+		}
+		for (Map.Entry<String, ObserverService> entry : this.getObservers(event).entrySet()) {
+			ObserverLane lane = this._observerLanes.computeIfAbsent(entry.getKey(), k -> new ObserverLane(entry.getValue()));
+			lane.add(event, publishTime);
+		}
+	}
+	
 	/**
 	 * Notifica un evento ai corrispondenti servizi osservatori.
 	 * @param event L'evento da notificare.
 	 */
 	protected void notify(ApsEvent event) {
+		for (ObserverService observer : this.getObservers(event).values()) {
+			this.notify(observer, event);
+		}
+		_logger.debug("The {} has been notified", event.getClass().getName());
+	}
+	
+	private void notify(ObserverService observer, ApsEvent event) {
+		try {
+			observer.update(event);
+			_logger.debug("The event {} was notified to the {} service", event.getClass().getName(), observer.getClass().getName());
+		} catch (Throwable t) {
+			_logger.error("Error notifying the event {} to the {} service", event.getClass().getName(), observer.getClass().getName(), t);
+		}
+	}
+	
+	/**
+	 * Return the observers of the given event, by bean name. The observers
+	 * are cached by observer interface once all of them have been resolved.
+	 * @param event The event to notify.
+	 * @return The observers of the event.
+	 */
+	protected Map<String, ObserverService> getObservers(ApsEvent event) {
+		Class observerInterface = event.getObserverInterface();
+		Map<String, ObserverService> observers = this._observers.get(observerInterface);
+		if (null != observers) {
+			return observers;
+		}
 		ListableBeanFactory factory = (ListableBeanFactory) this._beanFactory;
-		String[] defNames = factory.getBeanNamesForType(event.getObserverInterface());
+		String[] defNames = factory.getBeanNamesForType(observerInterface);
+		observers = new LinkedHashMap<>();
+		boolean complete = true;
 		for (int i=0; i<defNames.length; i++) {
-			Object observer = null;
 			try {
-				observer = this._beanFactory.getBean(defNames[i]);
+				observers.put(defNames[i], (ObserverService) this._beanFactory.getBean(defNames[i]));
 			} catch (Throwable t) {
-				observer = null;
-			}
-			if (observer != null) {
-				((ObserverService) observer).update(event);
-				_logger.debug("The event {} was notified to the {} service", event.getClass().getName(), observer.getClass().getName());
+				_logger.debug("Error loading the observer {}", defNames[i], t);
+				complete = false;
 			}
 		}
-		_logger.debug("The {} has been notified", event.getClass().getName());
+		observers = Collections.unmodifiableMap(observers);
+		if (complete) {
+			this._observers.put(observerInterface, observers);
+		}
+		return observers;
 	}
-
+	
+	private void drop(ApsEvent event, String reason) {
+		this._droppedEvents.increment();
+		_logger.warn("The event {} has been dropped: {}", event.getClass().getName(), reason);
+	}
+	
+	/**
+	 * Resubmit a lane whose scheduling has been rejected by the full queue of
+	 * the dispatcher; invoked by a dispatcher thread after every task, when
+	 * a slot of the queue may have been freed.
+	 */
+	private void rescheduleDelayedLane() {
+		ObserverLane lane = this._delayedLanes.poll();
+		if (null != lane && !this._executor.getQueue().offer(lane)) {
+			this._delayedLanes.add(lane);
+		}
+	}
+	
+	private void addDispatchLatency(long publishTime) {
+		long latency = System.nanoTime() - publishTime;
+		this._dispatchedEvents.increment();
+		this._totalDispatchLatency.add(latency);
+		this._maxDispatchLatency.accumulateAndGet(latency, Math::max);
+	}
+	
+	@Override
+	public int getQueueSize() {
+		int size = (null != this._executor) ? this._executor.getQueue().size() : 0;
+		for (ObserverLane lane : new ArrayList<>(this._observerLanes.values())) {
+			size += lane._size.get();
+		}
+		return size;
+	}
+	
+	@Override
+	public long getDispatchedEvents() {
+		return this._dispatchedEvents.sum();
+	}
+	
+	@Override
+	public long getDroppedEvents() {
+		return this._droppedEvents.sum();
+	}
+	
+	@Override
+	public double getAverageDispatchLatency() {
+		long count = this._dispatchedEvents.sum();
+		return (count == 0) ? 0 : (this._totalDispatchLatency.sum() / (double) count) / 1000000;
+	}
+	
+	@Override
+	public double getMaxDispatchLatency() {
+		return this._maxDispatchLatency.get() / 1000000d;
+	}
+	
 	@Override
 	public void setBeanFactory(BeanFactory beanFactory) throws BeansException {
 		this._beanFactory = beanFactory;
@@ -90,11 +268,170 @@ BeanFactoryAware, ApplicationEventPublisherAware, Serializable {
 	public void setApplicationEventPublisher(ApplicationEventPublisher eventPublisher) {
 		this._eventPublisher = eventPublisher;
 	}
+	
+	protected int getDispatcherThreads() {
+		return _dispatcherThreads;
+	}
+	
+	/**
+	 * Set the number of threads dispatching the events.
+	 * @param dispatcherThreads The number of threads.
+	 */
+	public void setDispatcherThreads(int dispatcherThreads) {
+		this._dispatcherThreads = dispatcherThreads;
+	}
+	
+	protected int getQueueCapacity() {
+		return _queueCapacity;
+	}
+	
+	/**
+	 * Set the max number of events waiting for a dispatcher thread (or, with
+	 * the ordered dispatch, waiting for every observer); beyond it the
+	 * events are dropped.
+	 * @param queueCapacity The capacity of the queue.
+	 */
+	public void setQueueCapacity(int queueCapacity) {
+		this._queueCapacity = queueCapacity;
+	}
+	
+	protected long getOfferTimeout() {
+		return _offerTimeout;
+	}
+	
+	/**
+	 * Set how long the publishing thread waits for a free slot in the full
+	 * queue of the dispatcher before dropping the event.
+	 * @param offerTimeout The timeout, in milliseconds.
+	 */
+	public void setOfferTimeout(long offerTimeout) {
+		this._offerTimeout = offerTimeout;
+	}
+	
+	protected boolean isOrderedDispatch() {
+		return _orderedDispatch;
+	}
+	
+	/**
+	 * Set whether every observer receives the events in the order they have
+	 * been published. When set, every observer is notified one event at a
+	 * time, in its own sequence.
+	 * @param orderedDispatch true to preserve the order per observer.
+	 */
+	public void setOrderedDispatch(boolean orderedDispatch) {
+		this._orderedDispatch = orderedDispatch;
+	}
+	
+	/**
+	 * The sequence of the events waiting to be notified to an observer; at
+	 * most one dispatcher thread at a time drains it.
+	 */
+	private class ObserverLane implements Runnable {
+		
+		private ObserverLane(ObserverService observer) {
+			this._observer = observer;
+		}
+		
+		private void add(ApsEvent event, long publishTime) {
+			if (this._size.incrementAndGet() > getQueueCapacity()) {
+				this._size.decrementAndGet();
+				drop(event, "too many events waiting for the observer " + this._observer.getClass().getName());
+				return;
+			}
+			this._events.add(new PendingEvent(event, publishTime));
+			this.schedule();
+		}
+		
+		private void schedule() {
+			if (this._scheduled.compareAndSet(false, true)) {
+				try {
+					_executor.execute(this);
+				} catch (RejectedExecutionException e) {
+					if (_executor.isShutdown()) {
+						this.dropPendingEvents("the event dispatcher has been shut down");
+						return;
+					}
+					// the lane stays scheduled and is resubmitted as soon as a dispatcher thread frees a slot
+					_delayedLanes.add(this);
+					if (_executor.getQueue().isEmpty()) {
+						// the dispatcher has been drained meanwhile: no thread may be left to resubmit the lane
+						rescheduleDelayedLane();
+						_executor.prestartCoreThread();
+					}
+					_logger.warn("The queue of the dispatcher is full: the events of the observer {} are delayed", 
+							this._observer.getClass().getName());
+				}
+			}
+		}
+		
+		private void dropPendingEvents(String reason) {
+			PendingEvent pending;
+			while ((pending = this._events.poll()) != null) {
+				this._size.decrementAndGet();
+				drop(pending._event, reason);
+			}
+			this._scheduled.set(false);
+		}
+		
+		@Override
+		public void run() {
+			PendingEvent pending;
+			while ((pending = this._events.poll()) != null) {
+				this._size.decrementAndGet();
+				NotifyManager.this.notify(this._observer, pending._event);
+				addDispatchLatency(pending._publishTime);
+			}
+			this._scheduled.set(false);
+			if (!this._events.isEmpty()) {
+				this.schedule();
+			}
+		}
+		
+		private final ObserverService _observer;
+		private final Queue<PendingEvent> _events = new ConcurrentLinkedQueue<>();
+		private final AtomicInteger _size = new AtomicInteger();
+		private final AtomicBoolean _scheduled = new AtomicBoolean();
+		
+	}
+	
+	private static class PendingEvent {
+		
+		private PendingEvent(ApsEvent event, long publishTime) {
+			this._event = event;
+			this._publishTime = publishTime;
+		}
+		
+		private final ApsEvent _event;
+		private final long _publishTime;
+		
+	}
 
 	private ApplicationEventPublisher _eventPublisher;
 
 	private BeanFactory _beanFactory;
 	
+	private int _dispatcherThreads = 4;
+	private int _queueCapacity = 1000;
+	private long _offerTimeout = 1000;
+	private boolean _orderedDispatch;
+	
+	private transient ThreadPoolExecutor _executor;
+	private final transient Map<Class, Map<String, ObserverService>> _observers = new ConcurrentHashMap<>();
+	private final transient Map<String, ObserverLane> _observerLanes = new ConcurrentHashMap<>();
+	private final transient Queue<ObserverLane> _delayedLanes = new ConcurrentLinkedQueue<>();
+	
+	private final transient LongAdder _dispatchedEvents = new LongAdder();
+	private final transient LongAdder _droppedEvents = new LongAdder();
+	private final transient LongAdder _totalDispatchLatency = new LongAdder();
+	private final transient AtomicLong _maxDispatchLatency = new AtomicLong();
+	
+	/**
+	 * The idle time after which a dispatcher thread ends; it is kept short
+	 * so that the dispatcher threads, like the former per-event threads,
+	 * terminate as soon as there are no more events to notify.
+	 */
+	private static final long DISPATCHER_KEEP_ALIVE = 500;
+	
 	public static final String NOTIFYING_THREAD_NAME = SystemConstants.ENTANDO_THREAD_NAME_PREFIX + "NotifyingThreadName";
 	
 }
@@ -19,7 +19,6 @@ import java.util.List;
 
 import org.apache.commons.lang.StringEscapeUtils;
 import org.apache.velocity.VelocityContext;
-import org.apache.velocity.app.Velocity;
 import org.apache.velocity.context.Context;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -58,7 +57,7 @@ public abstract class BaseEntityRenderer extends DefaultVelocityRenderer impleme
 			I18nManagerWrapper i18nWrapper = new I18nManagerWrapper(langCode, this.getI18nManager());
 			velocityContext.put("i18n", i18nWrapper);
 			StringWriter stringWriter = new StringWriter();
-			boolean isEvaluated = Velocity.evaluate(velocityContext, stringWriter, "render", velocityTemplate);
+			boolean isEvaluated = this.evaluate(velocityContext, stringWriter, velocityTemplate);
 			if (!isEvaluated) {
 				throw new ApsSystemException("Rendering error");
 			}
@@ -14,13 +14,16 @@
 package com.agiletec.aps.system.common.renderer;
 
 import java.io.StringWriter;
+import java.io.Writer;
 
+import org.apache.velocity.Template;
 import org.apache.velocity.VelocityContext;
 import org.apache.velocity.app.Velocity;
 import org.apache.velocity.app.VelocityEngine;
 import org.apache.velocity.context.Context;
 import org.apache.velocity.runtime.RuntimeServices;
 import org.apache.velocity.runtime.log.LogChute;
+import org.entando.entando.aps.system.services.velocity.IVelocityTemplateCacheManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -55,7 +58,7 @@ public class DefaultVelocityRenderer extends AbstractService implements LogChute
 			Context velocityContext = new VelocityContext();
 			velocityContext.put(this.getWrapperContextName(), object);
 			StringWriter stringWriter = new StringWriter();
-			boolean isEvaluated = Velocity.evaluate(velocityContext, stringWriter, "render", velocityTemplate);
+			boolean isEvaluated = this.evaluate(velocityContext, stringWriter, velocityTemplate);
 			if (!isEvaluated) {
 				throw new ApsSystemException("Rendering error");
 			}
@@ -69,6 +72,30 @@ public class DefaultVelocityRenderer extends AbstractService implements LogChute
 		return renderedObject;
 	}
 	
+	/**
+	 * Render the template into the given writer; 
+	 * the template is parsed once through the template cache, when available.
+	 * @param velocityContext The context.
+	 * @param writer The writer.
+	 * @param velocityTemplate The template to evaluate.
+	 * @return true if the template has been rendered.
+	 * @throws Exception In case of error.
+	 */
+	protected boolean evaluate(Context velocityContext, Writer writer, String velocityTemplate) throws Exception {
+		if (null == this.getTemplateCacheManager()) {
+			return Velocity.evaluate(velocityContext, writer, "render", velocityTemplate);
+		}
+		return this.merge(this.getTemplateCacheManager().getTemplate(velocityTemplate), velocityContext, writer);
+	}
+
+	protected boolean merge(Template template, Context velocityContext, Writer writer) throws Exception {
+		if (null == template) {
+			return false;
+		}
+		template.merge(velocityContext, writer);
+		return true;
+	}
+
 	@Override
 	public void init(RuntimeServices rs) {
 		//non fa nulla
@@ -123,7 +150,15 @@ public class DefaultVelocityRenderer extends AbstractService implements LogChute
 		this._wrapperContextName = wrapperContextName;
 	}
 	
+	protected IVelocityTemplateCacheManager getTemplateCacheManager() {
+		return _templateCacheManager;
+	}
+	public void setTemplateCacheManager(IVelocityTemplateCacheManager templateCacheManager) {
+		this._templateCacheManager = templateCacheManager;
+	}
+	
 	private String _wrapperContextName;
+	private IVelocityTemplateCacheManager _templateCacheManager;
 	
 	protected static final String DEFAULT_WRAPPER_CTX_NAME = "object";
 	
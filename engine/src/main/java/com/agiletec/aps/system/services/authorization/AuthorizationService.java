@@ -19,6 +19,7 @@ import java.util.List;
 import javax.annotation.PostConstruct;
 
 import com.agiletec.aps.system.common.IManager;
+import com.agiletec.aps.system.common.model.dao.SearcherDaoPaginatedResult;
 import com.agiletec.aps.system.exception.ApsSystemException;
 import com.agiletec.aps.system.services.group.GroupUtilizer;
 import com.agiletec.aps.system.services.user.IUserManager;
@@ -30,6 +31,7 @@ import org.entando.entando.aps.system.services.IDtoBuilder;
 import org.entando.entando.aps.system.services.group.GroupServiceUtilizer;
 import org.entando.entando.aps.system.services.user.model.UserDto;
 import org.entando.entando.aps.system.services.user.model.UserDtoBuilder;
+import org.entando.entando.web.common.model.RestListRequest;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -97,6 +99,24 @@ public class AuthorizationService implements IAuthorizationService, GroupService
         }
     }
 
+    @Override
+    public SearcherDaoPaginatedResult<UserDto> getGroupUtilizer(String groupCode, RestListRequest restListRequest) {
+        try {
+            List<String> usernames = ((GroupUtilizer<String>) this.getAuthorizationManager()).getGroupUtilizers(groupCode);
+            return restListRequest.getPaginatedResult(usernames, username -> {
+                try {
+                    return this.getDtoBuilder().convert(this.getUserManager().getUser(username));
+                } catch (ApsSystemException e) {
+                    logger.error("error loading {}", username, e);
+                    return null;
+                }
+            });
+        } catch (ApsSystemException ex) {
+            logger.error("Error loading user references for group {}", groupCode, ex);
+            throw new RestServerError("Error loading user references by group", ex);
+        }
+    }
+
     @Override
     public List<UserDto> getRoleUtilizer(String roleCode) {
         try {
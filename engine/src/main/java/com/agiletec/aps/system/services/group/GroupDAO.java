@@ -23,6 +23,7 @@ import java.util.Map;
 
 import com.agiletec.aps.system.common.AbstractSearcherDAO;
 import com.agiletec.aps.system.common.FieldSearchFilter;
+import com.agiletec.aps.system.common.model.dao.SearcherDaoPaginatedResult;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -46,6 +47,11 @@ public class GroupDAO extends AbstractSearcherDAO implements IGroupDAO {
         return groups;
     }
 
+    @Override
+    public SearcherDaoPaginatedResult<String> searchPagedGroups(FieldSearchFilter[] filters) {
+        return super.searchPagedId(filters);
+    }
+
 	/**
 	 * Carica la mappa dei gruppi presenti nel sistema 
 	 * indicizzandola in base al nome del gruppo.
@@ -92,6 +98,7 @@ public class GroupDAO extends AbstractSearcherDAO implements IGroupDAO {
 			stat.setString(2, group.getDescr());
 			stat.executeUpdate();
 			conn.commit();
+			this.clearCountCache();
 		} catch (Throwable t) {
 			this.executeRollback(conn);
             logger.error("Error while adding a group", t);
@@ -117,6 +124,7 @@ public class GroupDAO extends AbstractSearcherDAO implements IGroupDAO {
 			stat.setString(2, group.getName());
 			stat.executeUpdate();
 			conn.commit();
+			this.clearCountCache();
 		} catch (Throwable t) {
 			this.executeRollback(conn);
             logger.error("Error while updating a group", t);
@@ -150,6 +158,7 @@ public class GroupDAO extends AbstractSearcherDAO implements IGroupDAO {
 			stat.setString(1, groupName );
 			stat.executeUpdate();
 			conn.commit();
+			this.clearCountCache();
 		} catch (Throwable t) {
 			this.executeRollback(conn);
             logger.error("Error while deleting a group", t);
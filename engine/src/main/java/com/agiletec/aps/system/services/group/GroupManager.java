@@ -152,13 +152,11 @@ public class GroupManager extends AbstractService implements IGroupManager {
         SearcherDaoPaginatedResult<Group> pagedResult = null;
         try {
             List<Group> groups = new ArrayList<>();
-            int count = this.getGroupDAO().countGroups(filters);
-
-            List<String> groupNames = this.getGroupDAO().searchGroups(filters);
-            for (String groupName : groupNames) {
+            SearcherDaoPaginatedResult<String> groupNames = this.getGroupDAO().searchPagedGroups(filters);
+            for (String groupName : groupNames.getList()) {
                 groups.add(this.getGroup(groupName));
             }
-            pagedResult = new SearcherDaoPaginatedResult<Group>(count, groups);
+            pagedResult = new SearcherDaoPaginatedResult<Group>(groupNames.getCount(), groups);
         } catch (Throwable t) {
             logger.error("Error searching groups", t);
             throw new ApsSystemException("Error searching groups", t);
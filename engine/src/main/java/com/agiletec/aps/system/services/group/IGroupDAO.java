@@ -17,6 +17,7 @@ import java.util.List;
 import java.util.Map;
 
 import com.agiletec.aps.system.common.FieldSearchFilter;
+import com.agiletec.aps.system.common.model.dao.SearcherDaoPaginatedResult;
 
 /**
  * Interfaccia base per i Data Access Object degli oggetti Group.
@@ -65,4 +66,13 @@ public interface IGroupDAO {
 
     public int countGroups(FieldSearchFilter[] filters);
 
+    /**
+     * Search the page of group names defined by the filters, 
+     * together with the total number of matching groups.
+     *
+     * @param filters The search filters.
+     * @return The page of group names and the total count.
+     */
+    public SearcherDaoPaginatedResult<String> searchPagedGroups(FieldSearchFilter[] filters);
+
 }
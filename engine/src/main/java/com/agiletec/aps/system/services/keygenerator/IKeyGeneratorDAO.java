@@ -32,4 +32,14 @@ public interface IKeyGeneratorDAO {
 	 */
 	public void updateKey(int currentKey);
 
+	/**
+	 * Riserva un blocco di chiavi, incrementando la chiave nel db con un
+	 * singolo aggiornamento atomico; l'aggiornamento blocca il record fino
+	 * al commit, per cui blocchi riservati da nodi diversi non si
+	 * sovrappongono.
+	 * @param blockSize Il numero di chiavi da riservare.
+	 * @return L'ultima chiave del blocco riservato.
+	 */
+	public int reserveKeys(int blockSize);
+
 }
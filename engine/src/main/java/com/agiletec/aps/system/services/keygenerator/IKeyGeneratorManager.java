@@ -29,4 +29,14 @@ public interface IKeyGeneratorManager {
 	 */
 	public int getUniqueKeyCurrentValue() throws ApsSystemException;
 
+	/**
+	 * Riserva un blocco di chiavi univoche consecutive.
+	 * @param count Il numero di chiavi da riservare.
+	 * @return La prima chiave del blocco; le chiavi riservate vanno
+	 * da questa a (questa + count - 1).
+	 * @throws ApsSystemException In caso di errore 
+	 * nell'aggiornamento della chiave corrente.
+	 */
+	public int reserveUniqueKeys(int count) throws ApsSystemException;
+
 }
@@ -82,7 +82,38 @@ public class KeyGeneratorDAO extends AbstractDAO implements IKeyGeneratorDAO {
 		}
 	}
 
+	@Override
+	public int reserveKeys(int blockSize) {
+		Connection conn = null;
+		PreparedStatement stat = null;
+		ResultSet res = null;
+		int lastKey = 0;
+		try {
+			conn = this.getConnection();
+			conn.setAutoCommit(false);
+			stat = conn.prepareStatement(RESERVE_KEYS);
+			stat.setInt(1, blockSize);
+			stat.executeUpdate();
+			stat.close();
+			stat = conn.prepareStatement(EXTRACT_KEY);
+			res = stat.executeQuery();
+			if (res.next()) {
+				lastKey = res.getInt(1);
+			}
+			conn.commit();
+		} catch (Throwable t) {
+			this.executeRollback(conn);
+			_logger.error("Error while reserving {} keys", blockSize, t);
+			throw new RuntimeException("Error while reserving keys", t);
+		} finally {
+			closeDaoResources(res, stat, conn);
+		}
+		return lastKey;
+	}
+
 	private final String EXTRACT_KEY = "SELECT keyvalue FROM uniquekeys";
 
 	private final String UPDATE_KEY = "UPDATE uniquekeys SET keyvalue = ? ";
+
+	private final String RESERVE_KEYS = "UPDATE uniquekeys SET keyvalue = keyvalue + ? ";
 }
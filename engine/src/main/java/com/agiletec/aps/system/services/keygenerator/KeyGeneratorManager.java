@@ -50,6 +50,11 @@ public class KeyGeneratorManager extends AbstractService implements IKeyGenerato
 		return this.getCacheWrapper().getAndIncrementUniqueKeyCurrentValue(this.getKeyGeneratorDAO());
 	}
 
+	@Override
+	public int reserveUniqueKeys(int count) throws ApsSystemException {
+		return this.getCacheWrapper().reserveUniqueKeys(this.getKeyGeneratorDAO(), count);
+	}
+
 	protected IKeyGeneratorDAO getKeyGeneratorDAO() {
 		return keyGeneratorDao;
 	}
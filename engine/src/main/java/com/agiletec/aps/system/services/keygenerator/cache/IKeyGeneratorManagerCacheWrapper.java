@@ -27,6 +27,8 @@ public interface IKeyGeneratorManagerCacheWrapper {
 
 	public int getAndIncrementUniqueKeyCurrentValue(IKeyGeneratorDAO keyGeneratorDAO);
 
+	public int reserveUniqueKeys(IKeyGeneratorDAO keyGeneratorDAO, int count);
+
 	public void updateCurrentKey(int val);
 
 }
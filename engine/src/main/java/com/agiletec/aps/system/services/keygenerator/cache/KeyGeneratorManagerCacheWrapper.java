@@ -19,6 +19,8 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.cache.Cache;
 
+import java.util.concurrent.atomic.AtomicLong;
+
 public class KeyGeneratorManagerCacheWrapper extends AbstractCacheWrapper implements IKeyGeneratorManagerCacheWrapper {
 
 	private final Logger logger = LoggerFactory.getLogger(getClass());
@@ -29,31 +31,79 @@ public class KeyGeneratorManagerCacheWrapper extends AbstractCacheWrapper implem
 	}
 
 	@Override
-	public void initCache(IKeyGeneratorDAO keyGeneratorDAO) {
+	public synchronized void initCache(IKeyGeneratorDAO keyGeneratorDAO) {
 		Integer value = keyGeneratorDAO.getUniqueKey();
 		Cache cache = this.getCache();
 		this.releaseCachedObjects(cache);
 		this.insertObjectsOnCache(cache, value);
+		this.currentBlock = null;
+	}
+
+	/**
+	 * Return the next key of the block reserved by this node, reserving a
+	 * new block on the db when the current one is exhausted. The cached
+	 * current key is the last key reserved on the db.
+	 */
+	@Override
+	public int getAndIncrementUniqueKeyCurrentValue(IKeyGeneratorDAO keyGeneratorDAO) {
+		while (true) {
+			KeyBlock block = this.currentBlock;
+			if (null != block) {
+				long key = block.next.incrementAndGet();
+				if (key <= block.last) {
+					return (int) key;
+				}
+			}
+			this.reserveBlock(keyGeneratorDAO, block);
+		}
+	}
+
+	private synchronized void reserveBlock(IKeyGeneratorDAO keyGeneratorDAO, KeyBlock exhaustedBlock) {
+		if (this.currentBlock != exhaustedBlock) {
+			return;
+		}
+		int blockSize = Math.max(1, this.getBlockSize());
+		int lastKey = keyGeneratorDAO.reserveKeys(blockSize);
+		this.currentBlock = new KeyBlock(lastKey - blockSize, lastKey);
+		this.insertObjectsOnCache(this.getCache(), lastKey);
+	}
+
+	/**
+	 * Reserve on the db a block of consecutive keys, apart from the block
+	 * the single keys are handed out from.
+	 */
+	@Override
+	public synchronized int reserveUniqueKeys(IKeyGeneratorDAO keyGeneratorDAO, int count) {
+		int lastKey = keyGeneratorDAO.reserveKeys(count);
+		this.insertObjectsOnCache(this.getCache(), lastKey);
+		return lastKey - count + 1;
 	}
-    
-    @Override
-	public synchronized int getAndIncrementUniqueKeyCurrentValue(IKeyGeneratorDAO keyGeneratorDAO) {
-        Cache cache = this.getCache();
-        Integer currentValue = this.get(cache, CURRENT_KEY, Integer.class);
-        Integer nextValue = currentValue + 1;
-        this.insertObjectsOnCache(cache, nextValue);
-        keyGeneratorDAO.updateKey(nextValue);
-		return nextValue;
-    }
 
 	@Override
 	public int getUniqueKeyCurrentValue() {
 		return this.get(this.getCache(), CURRENT_KEY, Integer.class);
 	}
 
+	/**
+	 * Set the current key, discarding the block reserved by this node: the
+	 * next key is handed out from a new block reserved on the db.
+	 */
 	@Override
-	public void updateCurrentKey(int value) {
+	public synchronized void updateCurrentKey(int value) {
 		this.insertObjectsOnCache(this.getCache(), value);
+		this.currentBlock = null;
+	}
+
+	protected int getBlockSize() {
+		return blockSize;
+	}
+
+	/**
+	 * Set the number of keys reserved on the db with a single update.
+	 * @param blockSize The size of the block of keys.
+	 */
+	public void setBlockSize(int blockSize) {
+		this.blockSize = blockSize;
 	}
 
 	private void insertObjectsOnCache(Cache cache, Integer value) {
@@ -65,4 +115,20 @@ public class KeyGeneratorManagerCacheWrapper extends AbstractCacheWrapper implem
 		cache.evict(IKeyGeneratorManagerCacheWrapper.CURRENT_KEY);
 	}
 
+	private static class KeyBlock {
+
+		private KeyBlock(long previousKey, long last) {
+			this.next = new AtomicLong(previousKey);
+			this.last = last;
+		}
+
+		private final AtomicLong next;
+		private final long last;
+
+	}
+
+	private int blockSize = 20;
+
+	private volatile KeyBlock currentBlock;
+
 }
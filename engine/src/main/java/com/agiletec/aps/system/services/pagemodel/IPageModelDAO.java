@@ -17,6 +17,7 @@ import java.util.List;
 import java.util.Map;
 
 import com.agiletec.aps.system.common.FieldSearchFilter;
+import com.agiletec.aps.system.common.model.dao.SearcherDaoPaginatedResult;
 
 /**
  * Interfaccia base per Data Access Object deii modelli di pagina (PageModel)
@@ -39,5 +40,7 @@ public interface IPageModelDAO {
     public int count(FieldSearchFilter[] filters);
 
     public List<String> search(FieldSearchFilter[] filters);
+
+    public SearcherDaoPaginatedResult<String> searchPaged(FieldSearchFilter[] filters);
 	
 }
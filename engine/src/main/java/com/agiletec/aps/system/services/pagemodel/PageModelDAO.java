@@ -23,6 +23,7 @@ import java.util.Map;
 
 import com.agiletec.aps.system.common.AbstractSearcherDAO;
 import com.agiletec.aps.system.common.FieldSearchFilter;
+import com.agiletec.aps.system.common.model.dao.SearcherDaoPaginatedResult;
 import com.agiletec.aps.system.exception.ApsSystemException;
 import org.apache.commons.lang3.StringUtils;
 import org.entando.entando.aps.system.services.widgettype.IWidgetTypeManager;
@@ -61,6 +62,11 @@ public class PageModelDAO extends AbstractSearcherDAO implements IPageModelDAO {
         return entityIdList;
     }
 
+    @Override
+    public SearcherDaoPaginatedResult<String> searchPaged(FieldSearchFilter[] filters) {
+        return super.searchPagedId(filters);
+    }
+
 	/**
 	 * Carica e restituisce la mappa dei modelli di pagina.
 	 * @return La mappa dei modelli.
@@ -134,6 +140,7 @@ public class PageModelDAO extends AbstractSearcherDAO implements IPageModelDAO {
 			stat.setString(5, template);
 			stat.executeUpdate();
 			conn.commit();
+			this.clearCountCache();
 		} catch (Throwable t) {
 			this.executeRollback(conn);
             logger.error("Error while adding a model", t);
@@ -161,6 +168,7 @@ public class PageModelDAO extends AbstractSearcherDAO implements IPageModelDAO {
 			stat.setString(5, model.getCode());
 			stat.executeUpdate();
 			conn.commit();
+			this.clearCountCache();
 		} catch (Throwable t) {
 			this.executeRollback(conn);
             logger.error("Error while updating a model", t);
@@ -181,6 +189,7 @@ public class PageModelDAO extends AbstractSearcherDAO implements IPageModelDAO {
 			stat.setString(1, code);
 			stat.executeUpdate();
 			conn.commit();
+			this.clearCountCache();
 		} catch (Throwable t) {
 			this.executeRollback(conn);
             logger.error("Error while deleting a model", t);
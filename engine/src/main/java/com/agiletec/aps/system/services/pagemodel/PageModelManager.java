@@ -172,13 +172,11 @@ public class PageModelManager extends AbstractService implements IPageModelManag
                 filters = filtersList.toArray(new FieldSearchFilter[0]);
             }
             List<PageModel> pageModels = new ArrayList<>();
-            int count = this.getPageModelDAO().count(filters);
-
-            List<String> pageModelCodes = this.getPageModelDAO().search(filters);
-            for (String code : pageModelCodes) {
+            SearcherDaoPaginatedResult<String> pageModelCodes = this.getPageModelDAO().searchPaged(filters);
+            for (String code : pageModelCodes.getList()) {
                 pageModels.add(this.getPageModel(code));
             }
-            pagedResult = new SearcherDaoPaginatedResult<>(count, pageModels);
+            pagedResult = new SearcherDaoPaginatedResult<>(pageModelCodes.getCount(), pageModels);
         } catch (Throwable t) {
             logger.error("Error searching groups", t);
             throw new ApsSystemException("Error searching groups", t);
@@ -38,7 +38,7 @@ public class HeadInfoContainer {
 	 * @param type Il tipo di informazione da aggiungere.
 	 * @param info L'informazione da aggiungere.
 	 */
-	public void addInfo(String type, Object info){
+	public synchronized void addInfo(String type, Object info){
 		List<Object> infos = this._container.get(type);
 		if (infos == null) {
 			infos = new ArrayList<Object>();
@@ -54,10 +54,29 @@ public class HeadInfoContainer {
 	 * @param type Il tipo delle informazioni richieste.
 	 * @return Una collezione di informazioni.
 	 */
-	public List<Object> getInfos(String type) {
+	public synchronized List<Object> getInfos(String type) {
 		return this._container.get(type);
 	}
 	
+	/**
+	 * Inserisce nel contenitore tutte le informazioni del contenitore dato.
+	 * @param headInfoContainer Il contenitore delle informazioni da aggiungere.
+	 */
+	public void addAll(HeadInfoContainer headInfoContainer) {
+		if (null == headInfoContainer || this == headInfoContainer) {
+			return;
+		}
+		Map<String, List<Object>> infos;
+		synchronized (headInfoContainer) {
+			infos = new HashMap<String, List<Object>>(headInfoContainer._container);
+		}
+		for (Map.Entry<String, List<Object>> entry : infos.entrySet()) {
+			for (Object info : entry.getValue()) {
+				this.addInfo(entry.getKey(), info);
+			}
+		}
+	}
+	
 	private Map<String, List<Object>> _container;
 	
 }
\ No newline at end of file
@@ -13,36 +13,34 @@
  */
 package org.entando.entando.aps.system.services.actionlog;
 
-import org.entando.entando.aps.system.services.actionlog.model.ActionLogRecord;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.agiletec.aps.system.ApsSystemUtils;
 
 /**
+ * Background writer of the buffered action log records; it ends when no
+ * more records are buffered.
  * @author E.Santoboni
  */
 public class ActionLogAppenderThread extends Thread {
 
 	private static final Logger _logger = LoggerFactory.getLogger(ActionLogAppenderThread.class);
 	
-	public ActionLogAppenderThread(ActionLogRecord actionRecordToAdd, 
-			ActionLogManager actionLogManager) {
+	public ActionLogAppenderThread(ActionLogManager actionLogManager) {
 		this._actionLogManager = actionLogManager;
-		this._actionRecordToAdd = actionRecordToAdd;
 	}
 	
 	@Override
 	public void run() {
 		try {
-			this._actionLogManager.addActionRecordByThread(this._actionRecordToAdd);
+			this._actionLogManager.writeBufferedRecords();
 		} catch (Throwable t) {
 			_logger.error("error in run", t);
 			//ApsSystemUtils.logThrowable(t, this, "run");
 		}
 	}
 	
-	private ActionLogRecord _actionRecordToAdd;
 	private ActionLogManager _actionLogManager;
 	
 }
\ No newline at end of file
@@ -23,6 +23,7 @@ import java.sql.Types;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -33,6 +34,7 @@ import java.util.Set;
 
 import com.agiletec.aps.system.common.AbstractSearcherDAO;
 import com.agiletec.aps.system.common.FieldSearchFilter;
+import com.agiletec.aps.system.common.model.dao.SearcherDaoPaginatedResult;
 import com.agiletec.aps.system.services.group.Group;
 import java.util.stream.Collectors;
 import org.apache.commons.lang3.StringUtils;
@@ -93,67 +95,92 @@ public class ActionLogDAO extends AbstractSearcherDAO implements IActionLogDAO {
         return groups;
     }
 
+    @Override
+    public SearcherDaoPaginatedResult<Integer> getPaginatedActionRecords(IActionLogRecordSearchBean searchBean) {
+        if (searchBean != null && searchBean.getUserGroupCodes() != null && !searchBean.getUserGroupCodes().isEmpty()) {
+            return new SearcherDaoPaginatedResult<>(this.countActionLogRecords(searchBean), this.getActionRecords(searchBean));
+        }
+        SearcherDaoPaginatedResult<String> result = super.searchPagedId(this.createFilters(searchBean));
+        List<Integer> ids = result.getList().stream().map(id -> Integer.parseInt(id)).collect(Collectors.toList());
+        return new SearcherDaoPaginatedResult<>(result.getCount(), ids);
+    }
+
     @Override
     public void addActionRecord(ActionLogRecord actionRecord) {
+        this.addActionRecords(Collections.singletonList(actionRecord));
+    }
+
+    @Override
+    public void addActionRecords(List<ActionLogRecord> actionRecords) {
         Connection conn = null;
         PreparedStatement stat = null;
         try {
             conn = this.getConnection();
             conn.setAutoCommit(false);
             stat = conn.prepareStatement(ADD_ACTION_RECORD);
-            stat.setInt(1, actionRecord.getId());
-            stat.setString(2, actionRecord.getUsername());
-            Timestamp timestamp = new Timestamp(actionRecord.getActionDate().getTime());
-            stat.setTimestamp(3, timestamp);
-            stat.setString(4, actionRecord.getNamespace());
-            stat.setString(5, actionRecord.getActionName());
-            stat.setString(6, actionRecord.getParameters());
-            ActivityStreamInfo asi = actionRecord.getActivityStreamInfo();
-            if (null != asi) {
-                stat.setString(7, ActivityStreamInfoDOM.marshalInfo(asi));
-            } else {
-                stat.setNull(7, Types.VARCHAR);
+            for (ActionLogRecord actionRecord : actionRecords) {
+                stat.setInt(1, actionRecord.getId());
+                stat.setString(2, actionRecord.getUsername());
+                Timestamp timestamp = new Timestamp(actionRecord.getActionDate().getTime());
+                stat.setTimestamp(3, timestamp);
+                stat.setString(4, actionRecord.getNamespace());
+                stat.setString(5, actionRecord.getActionName());
+                stat.setString(6, actionRecord.getParameters());
+                ActivityStreamInfo asi = actionRecord.getActivityStreamInfo();
+                if (null != asi) {
+                    stat.setString(7, ActivityStreamInfoDOM.marshalInfo(asi));
+                } else {
+                    stat.setNull(7, Types.VARCHAR);
+                }
+                stat.setTimestamp(8, timestamp);
+                stat.addBatch();
+                stat.clearParameters();
             }
-            stat.setTimestamp(8, timestamp);
-            stat.executeUpdate();
-            this.addLogRecordRelations(actionRecord.getId(), asi, conn);
+            stat.executeBatch();
+            this.addLogRecordRelations(actionRecords, conn);
             conn.commit();
+            this.clearCountCache();
+        } catch (BatchUpdateException e) {
+            this.executeRollback(conn);
+            logger.error("Error on insert actionlogger records", e);
+            throw new RuntimeException("Error on insert actionlogger records", e.getNextException());
         } catch (Throwable t) {
             this.executeRollback(conn);
-            logger.error("Error on insert actionlogger record", t);
-            throw new RuntimeException("Error on insert actionlogger record", t);
+            logger.error("Error on insert actionlogger records", t);
+            throw new RuntimeException("Error on insert actionlogger records", t);
         } finally {
             closeDaoResources(null, stat, conn);
         }
     }
 
-    private void addLogRecordRelations(int recordId, ActivityStreamInfo asi, Connection conn) {
-        if (asi == null) {
-            return;
-        }
-        List<String> groups = asi.getGroups();
-        if (null == groups || groups.isEmpty()) {
-            return;
-        }
-        Set<String> codes = new HashSet<>(groups);
-        Iterator<String> iterator = codes.iterator();
+    private void addLogRecordRelations(List<ActionLogRecord> actionRecords, Connection conn) {
         PreparedStatement stat = null;
         try {
             stat = conn.prepareStatement(ADD_LOG_RECORD_RELATION);
-            while (iterator.hasNext()) {
-                String groupCode = iterator.next();
-                stat.setInt(1, recordId);
-                stat.setString(2, groupCode);
-                stat.addBatch();
-                stat.clearParameters();
+            boolean hasRelations = false;
+            for (ActionLogRecord actionRecord : actionRecords) {
+                ActivityStreamInfo asi = actionRecord.getActivityStreamInfo();
+                if (null == asi || null == asi.getGroups()) {
+                    continue;
+                }
+                Set<String> codes = new HashSet<>(asi.getGroups());
+                for (String groupCode : codes) {
+                    stat.setInt(1, actionRecord.getId());
+                    stat.setString(2, groupCode);
+                    stat.addBatch();
+                    stat.clearParameters();
+                    hasRelations = true;
+                }
+            }
+            if (hasRelations) {
+                stat.executeBatch();
             }
-            stat.executeBatch();
         } catch (BatchUpdateException e) {
-            logger.error("Error adding relation for record {}", recordId, e);
-            throw new RuntimeException("Error adding relation for record - " + recordId, e.getNextException());
+            logger.error("Error adding record relations", e);
+            throw new RuntimeException("Error adding record relations", e.getNextException());
         } catch (Throwable t) {
-            logger.error("Error adding relations for record {}", recordId, t);
-            throw new RuntimeException("Error adding relations for record - " + recordId, t);
+            logger.error("Error adding record relations", t);
+            throw new RuntimeException("Error adding record relations", t);
         } finally {
             closeDaoResources(null, stat);
         }
@@ -245,6 +272,7 @@ public class ActionLogDAO extends AbstractSearcherDAO implements IActionLogDAO {
             int index = 0;
             index = this.addMetadataFieldFilterStatementBlock(filters, index, stat);
             index = this.addGroupStatementBlock(groupCodes, index, stat);
+            index = this.addLimitStatementBlock(query, filters, index, stat);
         } catch (Throwable t) {
             logger.error("Error creating the statement", t);
             throw new RuntimeException("Error creating the statement", t);
@@ -256,7 +284,7 @@ public class ActionLogDAO extends AbstractSearcherDAO implements IActionLogDAO {
         StringBuffer query = this.createBaseQueryBlock(filters, false, false);
         this.appendMiddleBlocks(query, filters, groupCodes);
         boolean ordered = appendOrderQueryBlocks(filters, query, false);
-        super.appendLimitQueryBlock(filters, query);
+        super.appendLimitParameterBlock(filters, query);
         return query.toString();
     }
 
@@ -428,6 +456,7 @@ public class ActionLogDAO extends AbstractSearcherDAO implements IActionLogDAO {
             super.executeQueryWithoutResultset(conn, DELETE_LOG_RECORD_RELATIONS, id);
             super.executeQueryWithoutResultset(conn, DELETE_LOG_RECORD, id);
             conn.commit();
+            this.clearCountCache();
         } catch (Throwable t) {
             this.executeRollback(conn);
             logger.error("Error on delete record: {}", id, t);
@@ -446,6 +475,7 @@ public class ActionLogDAO extends AbstractSearcherDAO implements IActionLogDAO {
             Timestamp timestamp = new Timestamp(new Date().getTime());
             super.executeQueryWithoutResultset(conn, UPDATE_UPDATEDATE_ACTION_RECORD, timestamp, id);
             conn.commit();
+            this.clearCountCache();
         } catch (Throwable t) {
             this.executeRollback(conn);
             logger.error("Error updating record date: {}", id, t);
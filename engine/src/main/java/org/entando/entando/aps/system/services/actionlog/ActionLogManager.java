@@ -14,9 +14,16 @@
 package org.entando.entando.aps.system.services.actionlog;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import com.agiletec.aps.system.common.AbstractService;
 import com.agiletec.aps.system.common.FieldSearchFilter;
@@ -51,24 +58,140 @@ public class ActionLogManager extends AbstractService implements IActionLogManag
     private IActionLogDAO _actionLogDAO;
     private IKeyGeneratorManager _keyGeneratorManager;
 
+    private BlockingQueue<ActionLogRecord> _buffer;
+    private final AtomicBoolean _writerRunning = new AtomicBoolean();
+    private final Set<Thread> _writers = ConcurrentHashMap.newKeySet();
+
+    private int _bufferSize = 1000;
+    private int _batchSize = 50;
+    private long _flushInterval = 200;
+    private String _overflowPolicy = OVERFLOW_POLICY_BLOCK;
+
     @Override
     public void init() throws Exception {
+        if (null == this._buffer) {
+            // the buffer outlives a refresh, so the records queued meanwhile are not lost
+            this._buffer = new ArrayBlockingQueue<>(this.getBufferSize());
+        }
         _logger.debug("{} ready", this.getClass().getName());
     }
 
+    @Override
+    protected void release() {
+        this.flushBuffer();
+        super.release();
+    }
+
+    @Override
+    public void destroy() {
+        this.flushBuffer();
+        super.destroy();
+    }
+
+    /**
+     * Queue the record to be inserted by the background writer. When the
+     * buffer is full the record is dropped, the caller waits for space or the
+     * caller inserts the record itself, according to the overflow policy.
+     */
     @Override
     public void addActionRecord(ActionLogRecord actionRecord) throws ApsSystemException {
         try {
-            ActionLogAppenderThread thread = new ActionLogAppenderThread(actionRecord, this);
-            String threadName = LOG_APPENDER_THREAD_NAME_PREFIX + DateConverter.getFormattedDate(new Date(), "yyyyMMddHHmmss");
-            thread.setName(threadName);
-            thread.start();
+            actionRecord.setActionDate(new Date());
+            if (!this._buffer.offer(actionRecord)) {
+                if (OVERFLOW_POLICY_DROP.equals(this.getOverflowPolicy())) {
+                    _logger.warn("Action log buffer full: record of action {} by {} dropped",
+                            actionRecord.getActionName(), actionRecord.getUsername());
+                    return;
+                } else if (OVERFLOW_POLICY_CALLER_RUNS.equals(this.getOverflowPolicy())) {
+                    this.addActionRecords(Collections.singletonList(actionRecord));
+                    return;
+                }
+                this._buffer.put(actionRecord);
+            }
+            this.startWriter();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ApsSystemException("Interrupted adding an actionlogger record", e);
         } catch (Throwable t) {
             _logger.error("Error adding an actionlogger record", t);
             throw new ApsSystemException("Error adding an actionlogger record", t);
         }
     }
 
+    private void startWriter() {
+        if (this._writerRunning.compareAndSet(false, true)) {
+            ActionLogAppenderThread thread = new ActionLogAppenderThread(this);
+            String threadName = LOG_APPENDER_THREAD_NAME_PREFIX + DateConverter.getFormattedDate(new Date(), "yyyyMMddHHmmss");
+            thread.setName(threadName);
+            this._writers.add(thread);
+            thread.start();
+        }
+    }
+
+    /**
+     * Insert the buffered records in batches, until the buffer stays empty
+     * for the flush interval. A batch is written when it reaches the batch
+     * size or when the flush interval elapses after its first record.
+     */
+    protected void writeBufferedRecords() {
+        try {
+            this.writeBatches();
+        } finally {
+            this._writers.remove(Thread.currentThread());
+        }
+    }
+
+    private void writeBatches() {
+        do {
+            try {
+                List<ActionLogRecord> batch = new ArrayList<>();
+                ActionLogRecord record = this._buffer.poll(this.getFlushInterval(), TimeUnit.MILLISECONDS);
+                long deadline = System.currentTimeMillis() + this.getFlushInterval();
+                while (null != record) {
+                    batch.add(record);
+                    this._buffer.drainTo(batch, this.getBatchSize() - batch.size());
+                    long wait = deadline - System.currentTimeMillis();
+                    if (batch.size() >= this.getBatchSize() || wait <= 0) {
+                        break;
+                    }
+                    record = this._buffer.poll(wait, TimeUnit.MILLISECONDS);
+                }
+                if (batch.isEmpty()) {
+                    this._writerRunning.set(false);
+                } else {
+                    this.addActionRecords(batch);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                this._writerRunning.set(false);
+            }
+        } while (this._writerRunning.get()
+                || (!this._buffer.isEmpty() && !Thread.currentThread().isInterrupted() && this._writerRunning.compareAndSet(false, true)));
+    }
+
+    /**
+     * Insert the records still buffered and wait for the background writers
+     * (a writer that is ending may still be running beside the new one).
+     */
+    protected void flushBuffer() {
+        if (null == this._buffer) {
+            return;
+        }
+        List<ActionLogRecord> records = new ArrayList<>();
+        this._buffer.drainTo(records);
+        if (!records.isEmpty()) {
+            this.addActionRecords(records);
+        }
+        for (Thread writer : new ArrayList<>(this._writers)) {
+            try {
+                writer.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
     @Override
     public void updateRecordDate(int id) throws ApsSystemException {
         try {
@@ -79,25 +202,60 @@ public class ActionLogManager extends AbstractService implements IActionLogManag
         }
     }
 
-    protected synchronized void addActionRecordByThread(ActionLogRecord actionRecord) throws ApsSystemException {
+    /**
+     * Insert the given records with a single batch; if the batch fails the
+     * records are inserted one by one, so that only the wrong ones are lost.
+     * @param actionRecords The records to insert.
+     */
+    protected void addActionRecords(List<ActionLogRecord> actionRecords) {
         try {
-            Integer key = null;
-            List<Integer> ids = null;
-            do {
-                key = this.getKeyGeneratorManager().getUniqueKeyCurrentValue();
-                FieldSearchFilter filter = new FieldSearchFilter("id", key, true);
-                FieldSearchFilter[] filters = {filter};
-                ids = this.getActionLogDAO().getActionRecords(filters);
-            } while (!ids.isEmpty());
-            actionRecord.setId(key);
-            actionRecord.setActionDate(new Date());
-            this.getActionLogDAO().addActionRecord(actionRecord);
+            this.assignRecordIds(actionRecords);
+            this.getActionLogDAO().addActionRecords(actionRecords);
         } catch (Throwable t) {
-            _logger.error("Error adding an actionlogger record", t);
-            throw new ApsSystemException("Error adding an actionlogger record", t);
+            _logger.error("Error adding {} actionlogger records, adding them one by one", actionRecords.size(), t);
+            for (ActionLogRecord actionRecord : actionRecords) {
+                try {
+                    actionRecord.setId(this.getNewRecordId());
+                    this.getActionLogDAO().addActionRecord(actionRecord);
+                } catch (Throwable tr) {
+                    _logger.error("Error adding an actionlogger record", tr);
+                }
+            }
         }
     }
 
+    /**
+     * Assign to the records the ids of a block of keys reserved with a single
+     * update, skipping the ids already used by other records.
+     */
+    private void assignRecordIds(List<ActionLogRecord> actionRecords) throws ApsSystemException {
+        int count = actionRecords.size();
+        int firstKey = this.getKeyGeneratorManager().reserveUniqueKeys(count);
+        int lastKey = firstKey + count - 1;
+        FieldSearchFilter filter = new FieldSearchFilter("id", firstKey, lastKey);
+        FieldSearchFilter[] filters = {filter};
+        Set<Integer> usedIds = new HashSet<>(this.getActionLogDAO().getActionRecords(filters));
+        int key = firstKey;
+        for (ActionLogRecord actionRecord : actionRecords) {
+            while (key <= lastKey && usedIds.contains(key)) {
+                key++;
+            }
+            actionRecord.setId((key <= lastKey) ? key++ : this.getNewRecordId());
+        }
+    }
+
+    private int getNewRecordId() throws ApsSystemException {
+        Integer key = null;
+        List<Integer> ids = null;
+        do {
+            key = this.getKeyGeneratorManager().getUniqueKeyCurrentValue();
+            FieldSearchFilter filter = new FieldSearchFilter("id", key, true);
+            FieldSearchFilter[] filters = {filter};
+            ids = this.getActionLogDAO().getActionRecords(filters);
+        } while (!ids.isEmpty());
+        return key;
+    }
+
     @Override
     @CacheEvict(value = ICacheInfoManager.DEFAULT_CACHE_NAME, key = "'ActionLogRecord_'.concat(#id)")
     public void deleteActionRecord(int id) throws ApsSystemException {
@@ -126,12 +284,11 @@ public class ActionLogManager extends AbstractService implements IActionLogManag
         SearcherDaoPaginatedResult<ActionLogRecord> pagedResult = null;
         try {
             List<ActionLogRecord> actionLogRecords = new ArrayList<>();
-            int count = this.getActionLogDAO().countActionLogRecords(searchBean);
-            List<Integer> recordsIs = this.getActionLogDAO().getActionRecords(searchBean);
-            for (Integer recordId : recordsIs) {
+            SearcherDaoPaginatedResult<Integer> recordsIs = this.getActionLogDAO().getPaginatedActionRecords(searchBean);
+            for (Integer recordId : recordsIs.getList()) {
                 actionLogRecords.add(this.getActionRecord(recordId));
             }
-            pagedResult = new SearcherDaoPaginatedResult<>(count, actionLogRecords);
+            pagedResult = new SearcherDaoPaginatedResult<>(recordsIs.getCount(), actionLogRecords);
         } catch (Throwable t) {
             _logger.error("Error searching ActionLogRecord", t);
             throw new ApsSystemException("Error searching ActionLogRecord", t);
@@ -265,6 +422,56 @@ public class ActionLogManager extends AbstractService implements IActionLogManag
         this._actionLogDAO = actionLogDAO;
     }
 
+    protected int getBufferSize() {
+        return _bufferSize;
+    }
+
+    /**
+     * Set the max number of records waiting to be inserted.
+     * @param bufferSize The size of the buffer.
+     */
+    public void setBufferSize(int bufferSize) {
+        this._bufferSize = bufferSize;
+    }
+
+    protected int getBatchSize() {
+        return _batchSize;
+    }
+
+    /**
+     * Set the max number of records inserted with a single batch.
+     * @param batchSize The size of the batch.
+     */
+    public void setBatchSize(int batchSize) {
+        this._batchSize = batchSize;
+    }
+
+    protected long getFlushInterval() {
+        return _flushInterval;
+    }
+
+    /**
+     * Set the max time a record waits for the batch to fill.
+     * @param flushInterval The interval, in milliseconds.
+     */
+    public void setFlushInterval(long flushInterval) {
+        this._flushInterval = flushInterval;
+    }
+
+    protected String getOverflowPolicy() {
+        return _overflowPolicy;
+    }
+
+    /**
+     * Set what to do with a record when the buffer is full: "drop" it,
+     * "block" the caller until there is space, or let the caller insert it
+     * ("callerRuns").
+     * @param overflowPolicy The overflow policy.
+     */
+    public void setOverflowPolicy(String overflowPolicy) {
+        this._overflowPolicy = overflowPolicy;
+    }
+
     protected IKeyGeneratorManager getKeyGeneratorManager() {
         return _keyGeneratorManager;
     }
@@ -273,4 +480,8 @@ public class ActionLogManager extends AbstractService implements IActionLogManag
         this._keyGeneratorManager = keyGeneratorManager;
     }
 
+    public static final String OVERFLOW_POLICY_DROP = "drop";
+    public static final String OVERFLOW_POLICY_BLOCK = "block";
+    public static final String OVERFLOW_POLICY_CALLER_RUNS = "callerRuns";
+
 }
@@ -17,6 +17,7 @@ import java.util.List;
 import java.util.Set;
 
 import com.agiletec.aps.system.common.FieldSearchFilter;
+import com.agiletec.aps.system.common.model.dao.SearcherDaoPaginatedResult;
 import java.util.Date;
 import org.entando.entando.aps.system.services.actionlog.model.ActionLogRecord;
 import org.entando.entando.aps.system.services.actionlog.model.IActionLogRecordSearchBean;
@@ -37,6 +38,12 @@ public interface IActionLogDAO {
 	
 	public void addActionRecord(ActionLogRecord actionRecord);
 	
+	/**
+	 * Insert the given records, with a single batch and transaction.
+	 * @param actionRecords The records to insert.
+	 */
+	public void addActionRecords(List<ActionLogRecord> actionRecords);
+	
 	public ActionLogRecord getActionRecord(int id);
 	
 	public void deleteActionRecord(int id);
@@ -50,5 +57,13 @@ public interface IActionLogDAO {
 	public void updateRecordDate(int id);
 
     public int countActionLogRecords(IActionLogRecordSearchBean searchBean);
+
+    /**
+     * Search the page of record ids defined by the search bean, 
+     * together with the total number of matching records.
+     * @param searchBean The search bean.
+     * @return The page of ids and the total count.
+     */
+    public SearcherDaoPaginatedResult<Integer> getPaginatedActionRecords(IActionLogRecordSearchBean searchBean);
 	
 }
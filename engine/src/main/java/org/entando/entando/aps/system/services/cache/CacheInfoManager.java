@@ -26,8 +26,14 @@ import java.util.Collection;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Iterator;
-import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 import org.apache.commons.lang.StringUtils;
 import org.apache.commons.lang.time.DateUtils;
@@ -42,6 +48,7 @@ import org.springframework.cache.Cache;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.CachePut;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
 import org.springframework.expression.EvaluationContext;
 
 /**
@@ -56,6 +63,10 @@ public class CacheInfoManager extends AbstractService implements ICacheInfoManag
 
     private CacheManager springCacheManager;
 
+    private final ReadWriteLock groupIndexLock = new ReentrantReadWriteLock();
+
+    private final LongAdder groupIndexWaits = new LongAdder();
+
     @Override
     public void init() throws Exception {
         logger.debug("{} (cache info service initialized) ready", this.getClass().getName());
@@ -190,11 +201,23 @@ public class CacheInfoManager extends AbstractService implements ICacheInfoManag
         }
     }
 
+    /**
+     * Clear the cache and drop its group index, holding the exclusive lock of
+     * the group indexes: no key can be added meanwhile to the index being
+     * dropped.
+     */
+    @Override
     public void flushAll(String cacheName) {
-        Cache cacheOfGroup = this.getCache(CACHE_INFO_MANAGER_CACHE_NAME);
-        cacheOfGroup.evict(GROUP_CACHE_NAME_PREFIX + cacheName);
-        Cache cache = this.getCache(cacheName);
-        cache.clear();
+        Lock lock = this.groupIndexLock.writeLock();
+        this.lockGroupIndex(lock);
+        try {
+            Cache cacheOfGroup = this.getCache(CACHE_INFO_MANAGER_CACHE_NAME);
+            cacheOfGroup.evict(GROUP_CACHE_NAME_PREFIX + cacheName);
+            Cache cache = this.getCache(cacheName);
+            cache.clear();
+        } finally {
+            lock.unlock();
+        }
     }
 
     @Override
@@ -214,6 +237,7 @@ public class CacheInfoManager extends AbstractService implements ICacheInfoManag
         cache.put(key, obj);
     }
 
+    @Override
     public void putInCache(String targetCache, String key, Object obj, String[] groups) {
         Cache cache = this.getCache(targetCache);
         cache.put(key, obj);
@@ -225,53 +249,162 @@ public class CacheInfoManager extends AbstractService implements ICacheInfoManag
         this.accessOnGroupMapping(targetCache, 1, groups, key);
     }
 
+    /**
+     * Remove the key from every group of the cache; the cost is the number of
+     * groups of the cache, as the index has no reverse mapping of the keys.
+     */
+    @Override
+    public void removeFromGroups(String targetCache, String key) {
+        if (null == key) {
+            return;
+        }
+        Cache cache = this.getCache(CACHE_INFO_MANAGER_CACHE_NAME);
+        boolean localStore = this.isLocalStore(cache);
+        Lock lock = localStore ? this.groupIndexLock.readLock() : this.groupIndexLock.writeLock();
+        this.lockGroupIndex(lock);
+        try {
+            String indexName = GROUP_CACHE_NAME_PREFIX + targetCache;
+            Object storedIndex = this.get(cache, indexName, Object.class);
+            ConcurrentMap<String, Set<String>> objectsByGroup = this.toGroupIndex(storedIndex);
+            if (null == objectsByGroup) {
+                return;
+            }
+            boolean changed = false;
+            for (Set<String> objectKeys : objectsByGroup.values()) {
+                changed |= objectKeys.remove(key);
+            }
+            if (changed && (!localStore || objectsByGroup != storedIndex)) {
+                cache.put(indexName, objectsByGroup);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
     @Override
     public void flushGroup(String targetCache, String group) {
         String[] groups = {group};
         this.accessOnGroupMapping(targetCache, -1, groups, null);
     }
 
-    protected synchronized void accessOnGroupMapping(String targetCache, int operationId, String[] groups, String key) {
+    /**
+     * Add the key to the given groups (positive operation id) or flush the
+     * given groups. The index of the groups of a cache is a concurrent map of
+     * concurrent sets, stored in the cache of this manager.
+     * When the cache of this manager keeps its values by reference in the heap
+     * (a ConcurrentMapCache not storing by value) the index is updated in
+     * place, under the shared lock of the group indexes, and it is written
+     * back only when it is converted from an older index; the key
+     * is added to its group inside compute, so that the insert and the flush
+     * of the same group (remove) are atomic: a key is added either to the set
+     * under flush, whose keys are then evicted, or to a new set.
+     * With any other store the stored index is a copy: it is read, updated
+     * and written back on every change under the exclusive lock, so no
+     * update is lost.
+     */
+    protected void accessOnGroupMapping(String targetCache, int operationId, String[] groups, String key) {
         Cache cache = this.getCache(CACHE_INFO_MANAGER_CACHE_NAME);
-        Map<String, List<String>> objectsByGroup = this.get(cache, GROUP_CACHE_NAME_PREFIX + targetCache, Map.class);
-        boolean updateMapInCache = false;
-        if (operationId > 0) {
-            //add
-            if (null == objectsByGroup) {
-                objectsByGroup = new HashMap<String, List<String>>();
-            }
-            for (String group : groups) {
-                List<String> objectKeys = objectsByGroup.get(group);
-                if (null == objectKeys) {
-                    objectKeys = new ArrayList<String>();
-                    objectsByGroup.put(group, objectKeys);
+        boolean localStore = this.isLocalStore(cache);
+        Lock lock = localStore ? this.groupIndexLock.readLock() : this.groupIndexLock.writeLock();
+        this.lockGroupIndex(lock);
+        try {
+            String indexName = GROUP_CACHE_NAME_PREFIX + targetCache;
+            Object storedIndex = this.get(cache, indexName, Object.class);
+            ConcurrentMap<String, Set<String>> objectsByGroup = this.toGroupIndex(storedIndex);
+            boolean sharedIndex = (localStore && null != objectsByGroup && objectsByGroup == storedIndex);
+            boolean changed = false;
+            if (operationId > 0) {
+                //add
+                if (null == objectsByGroup) {
+                    objectsByGroup = new ConcurrentHashMap<>();
+                    Cache.ValueWrapper existing = cache.putIfAbsent(indexName, objectsByGroup);
+                    if (null != existing && null != existing.get()) {
+                        objectsByGroup = this.toGroupIndex(existing.get());
+                        sharedIndex = (localStore && objectsByGroup == existing.get());
+                    } else {
+                        sharedIndex = localStore;
+                    }
                 }
-                if (!objectKeys.contains(key)) {
-                    objectKeys.add(key);
-                    updateMapInCache = true;
+                for (String group : groups) {
+                    Set<String> current = objectsByGroup.get(group);
+                    changed |= (null == current || !current.contains(key));
+                    objectsByGroup.compute(group, (g, objectKeys) -> {
+                        Set<String> keys = (null != objectKeys) ? objectKeys : ConcurrentHashMap.newKeySet();
+                        keys.add(key);
+                        return keys;
+                    });
                 }
-            }
-        } else {
-            //remove
-            if (null == objectsByGroup) {
-                return;
-            }
-            for (String group : groups) {
-                List<String> objectKeys = objectsByGroup.get(group);
-                if (null != objectKeys) {
-                    for (String extractedKey : objectKeys) {
-                        this.flushEntry(targetCache, extractedKey);
+            } else {
+                //remove
+                if (null == objectsByGroup) {
+                    return;
+                }
+                for (String group : groups) {
+                    Set<String> objectKeys = objectsByGroup.remove(group);
+                    if (null != objectKeys) {
+                        changed = true;
+                        for (String extractedKey : objectKeys) {
+                            this.flushEntry(targetCache, extractedKey);
+                        }
                     }
-                    objectsByGroup.remove(group);
-                    updateMapInCache = true;
                 }
             }
+            if (changed && !sharedIndex) {
+                cache.put(indexName, objectsByGroup);
+            }
+        } finally {
+            lock.unlock();
         }
-        if (updateMapInCache) {
-            cache.put(GROUP_CACHE_NAME_PREFIX + targetCache, objectsByGroup);
+    }
+
+    /**
+     * Return true if the given cache keeps its values by reference in the
+     * heap, so that a value read from it can be updated in place.
+     */
+    protected boolean isLocalStore(Cache cache) {
+        return (cache instanceof ConcurrentMapCache) && !((ConcurrentMapCache) cache).isStoreByValue();
+    }
+
+    private void lockGroupIndex(Lock lock) {
+        if (!lock.tryLock()) {
+            this.groupIndexWaits.increment();
+            lock.lock();
         }
     }
 
+    private ConcurrentMap<String, Set<String>> toGroupIndex(Object storedIndex) {
+        if (null == storedIndex) {
+            return null;
+        }
+        if (storedIndex instanceof ConcurrentMap) {
+            return (ConcurrentMap<String, Set<String>>) storedIndex;
+        }
+        ConcurrentMap<String, Set<String>> index = new ConcurrentHashMap<>();
+        ((Map<String, Collection<String>>) storedIndex).forEach((group, keys) -> {
+            Set<String> set = ConcurrentHashMap.newKeySet();
+            set.addAll(keys);
+            index.put(group, set);
+        });
+        return index;
+    }
+
+    @Override
+    public int getGroupCount(String targetCache) {
+        Map<String, Set<String>> index = this.toGroupIndex(this.get(GROUP_CACHE_NAME_PREFIX + targetCache, Object.class));
+        return (null != index) ? index.size() : 0;
+    }
+
+    @Override
+    public int getGroupedKeyCount(String targetCache) {
+        Map<String, Set<String>> index = this.toGroupIndex(this.get(GROUP_CACHE_NAME_PREFIX + targetCache, Object.class));
+        return (null != index) ? index.values().stream().mapToInt(Set::size).sum() : 0;
+    }
+
+    @Override
+    public long getGroupIndexWaits() {
+        return this.groupIndexWaits.sum();
+    }
+
     protected Object evaluateExpression(String expression, Method method, Object[] args, Object target, Class<?> targetClass) {
         Collection<Cache> caches = this.getCaches();
         ExpressionEvaluator evaluator = new ExpressionEvaluator();
@@ -322,6 +455,7 @@ public class CacheInfoManager extends AbstractService implements ICacheInfoManag
         return this.getSpringCacheManager().getCache(cacheName);
     }
 
+    @Override
     public Object getFromCache(String targetCache, String key) {
         if (isExpired(targetCache, key)) {
             this.flushEntry(targetCache, key);
@@ -0,0 +1,82 @@
+/*
+ * Copyright 2015-Present Entando Inc. (http://www.entando.com) All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+package org.entando.entando.aps.system.services.cache;
+
+import com.agiletec.aps.system.SystemConstants;
+import com.google.common.cache.RemovalListener;
+import com.google.common.cache.RemovalNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.BeanFactoryAware;
+
+/**
+ * Removal listener of a bounded (guava) cache store:
+ * the keys evicted by size or by ttl are removed from the group index of the CacheInfoManager,
+ * that otherwise would keep them until the flush of their groups.
+ * The CacheInfoManager is looked up on the first eviction,
+ * because it depends on the cache manager that holds the store.
+ */
+public class GroupIndexRemovalListener implements RemovalListener<Object, Object>, BeanFactoryAware {
+
+	private static final Logger logger = LoggerFactory.getLogger(GroupIndexRemovalListener.class);
+
+	private String cacheName;
+
+	private BeanFactory beanFactory;
+
+	private volatile ICacheInfoManager cacheInfoManager;
+
+	@Override
+	public void onRemoval(RemovalNotification<Object, Object> notification) {
+		if (!notification.wasEvicted() || null == notification.getKey()) {
+			return;
+		}
+		try {
+			ICacheInfoManager manager = this.getCacheInfoManager();
+			if (null != manager) {
+				manager.removeFromGroups(this.getCacheName(), notification.getKey().toString());
+			}
+		} catch (Throwable t) {
+			logger.error("Error removing the evicted key '{}' from the groups of cache '{}'",
+					notification.getKey(), this.getCacheName(), t);
+		}
+	}
+
+	protected ICacheInfoManager getCacheInfoManager() {
+		if (null == this.cacheInfoManager && null != this.beanFactory) {
+			this.cacheInfoManager = this.beanFactory.getBean(SystemConstants.CACHE_INFO_MANAGER, ICacheInfoManager.class);
+		}
+		return this.cacheInfoManager;
+	}
+
+	public void setCacheInfoManager(ICacheInfoManager cacheInfoManager) {
+		this.cacheInfoManager = cacheInfoManager;
+	}
+
+	public String getCacheName() {
+		return cacheName;
+	}
+
+	public void setCacheName(String cacheName) {
+		this.cacheName = cacheName;
+	}
+
+	@Override
+	public void setBeanFactory(BeanFactory beanFactory) throws BeansException {
+		this.beanFactory = beanFactory;
+	}
+
+}
@@ -29,12 +29,48 @@ public interface ICacheInfoManager {
 	@Deprecated
 	public static final String CACHE_NAME = DEFAULT_CACHE_NAME;
 
+	public void flushAll(String targetCache);
+
 	public void flushEntry(String targetCache, String key);
 
 	public void flushGroup(String targetCache, String group);
 
 	public void putInGroup(String targetCache, String key, String[] groups);
+
+	public void putInCache(String targetCache, String key, Object obj, String[] groups);
+
+	/**
+	 * Remove the given key from all the groups of the given cache,
+	 * without evicting the entry: to use when the cache evicted the entry by itself.
+	 * @param targetCache The cache name
+	 * @param key The key
+	 */
+	public void removeFromGroups(String targetCache, String key);
+
+	public Object getFromCache(String targetCache, String key);
 	
 	public boolean isExpired(String targetCache, String key);
 
+	/**
+	 * Return the number of groups indexed for the given cache.
+	 * @param targetCache The cache name
+	 * @return The number of groups.
+	 */
+	public int getGroupCount(String targetCache);
+
+	/**
+	 * Return the number of keys indexed in the groups of the given cache; a
+	 * key in more groups is counted once for each group.
+	 * @param targetCache The cache name
+	 * @return The number of grouped keys.
+	 */
+	public int getGroupedKeyCount(String targetCache);
+
+	/**
+	 * Return how many times an update of a group index (add, flush or
+	 * flush of the whole cache) had to wait for another thread.
+	 * @return The number of waits on the group indexes.
+	 */
+	public long getGroupIndexWaits();
+
 }
@@ -114,11 +114,9 @@ public class CategoryService implements ICategoryService {
             logger.warn("no references found for {}", managerName);
             throw new ResourceNotFoundException(CategoryValidator.ERRCODE_CATEGORY_NO_REFERENCES, "reference", managerName);
         }
-        List<?> dtoList = utilizer.getCategoryUtilizer(categoryCode);
-        List<?> subList = restListRequest.getSublist(dtoList);
-        SearcherDaoPaginatedResult<?> pagedResult = new SearcherDaoPaginatedResult(dtoList.size(), subList);
+        SearcherDaoPaginatedResult<?> pagedResult = utilizer.getCategoryUtilizer(categoryCode, restListRequest);
         PagedMetadata<Object> pagedMetadata = new PagedMetadata<>(restListRequest, pagedResult);
-        pagedMetadata.setBody((List<Object>) subList);
+        pagedMetadata.setBody((List<Object>) pagedResult.getList());
         return pagedMetadata;
     }
 
@@ -14,6 +14,10 @@
 package org.entando.entando.aps.system.services.category;
 
 import java.util.List;
+import java.util.function.Function;
+
+import com.agiletec.aps.system.common.model.dao.SearcherDaoPaginatedResult;
+import org.entando.entando.web.common.model.RestListRequest;
 
 public interface CategoryServiceUtilizer<T> {
 
@@ -21,4 +25,12 @@ public interface CategoryServiceUtilizer<T> {
 
     public List<T> getCategoryUtilizer(String categoryCode);
 
+    /**
+     * Return the requested page of the utilizers; the implementations 
+     * should build the DTOs of the returned page only.
+     */
+    public default SearcherDaoPaginatedResult<T> getCategoryUtilizer(String categoryCode, RestListRequest restListRequest) {
+        return restListRequest.getPaginatedResult(this.getCategoryUtilizer(categoryCode), Function.identity());
+    }
+
 }
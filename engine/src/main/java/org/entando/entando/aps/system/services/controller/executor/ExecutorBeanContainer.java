@@ -19,6 +19,8 @@ import freemarker.template.TemplateModel;
 /**
  * Object that contains helpers, template service objects (and so on) 
  * used by the executors services.
+ * The freemarker configuration is shared between the requests, 
+ * the template model is bound to the current request.
  * @author E.Santoboni
  */
 public class ExecutorBeanContainer {
@@ -54,17 +54,11 @@ public class DatabaseService implements IDatabaseService {
     @Override
     public PagedMetadata<ShortDumpReportDto> getShortDumpReportDtos(RestListRequest requestList) {
         PagedMetadata<ShortDumpReportDto> result = null;
-        List<ShortDumpReportDto> dtos = new ArrayList<>();
         try {
             List<DataSourceDumpReport> reports = this.getDatabaseManager().getBackupReports();
-            if (null != reports) {
-                reports.stream().forEach(report -> dtos.add(new ShortDumpReportDto(report)));
-            }
-            List<ShortDumpReportDto> sublist = requestList.getSublist(dtos);
-            int size = (null != reports) ? reports.size() : 0;
-            SearcherDaoPaginatedResult searchResult = new SearcherDaoPaginatedResult(size, sublist);
+            SearcherDaoPaginatedResult<ShortDumpReportDto> searchResult = requestList.getPaginatedResult(reports, ShortDumpReportDto::new);
             result = new PagedMetadata<>(requestList, searchResult);
-            result.setBody(sublist);
+            result.setBody(searchResult.getList());
         } catch (Throwable t) {
             logger.error("error extracting database reports", t);
             throw new RestServerError("error extracting database reports", t);
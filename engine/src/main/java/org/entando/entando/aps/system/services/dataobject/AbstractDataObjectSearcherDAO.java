@@ -133,6 +133,13 @@ public abstract class AbstractDataObjectSearcherDAO extends AbstractEntitySearch
 
     protected String createQueryString(EntitySearchFilter[] filters,
             String[] categories, boolean orClauseCategoryFilter, Collection<String> groupsForSelect, boolean selectAll) {
+        String shape = this.createFilterShape(filters) + "#" + ((null != categories) ? categories.length : 0) + "#" + orClauseCategoryFilter
+                + "#" + ((null != groupsForSelect) ? groupsForSelect.size() : 0) + "#" + selectAll;
+        return this.getQueryTemplate(shape, () -> this.buildQueryString(filters, categories, orClauseCategoryFilter, groupsForSelect, selectAll));
+    }
+
+    protected String buildQueryString(EntitySearchFilter[] filters,
+            String[] categories, boolean orClauseCategoryFilter, Collection<String> groupsForSelect, boolean selectAll) {
         StringBuffer query = this.createBaseQueryBlock(filters, false, selectAll);
         boolean hasAppendWhereClause = this.appendFullAttributeFilterQueryBlocks(filters, query, false);
         hasAppendWhereClause = this.appendMetadataFieldFilterQueryBlocks(filters, query, hasAppendWhereClause);
@@ -25,6 +25,7 @@ import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Set;
+import java.util.function.Consumer;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -514,6 +515,54 @@ public class DataObjectDAO extends AbstractEntityDAO implements IDataObjectDAO {
         return dataids;
     }
 
+    /**
+     * Stream the records of the public data objects to the consumer. The read
+     * runs in a transaction (autocommit off, restored at the end) because the
+     * PostgreSQL driver applies the fetch size only with a cursor, that is
+     * outside autocommit mode; with autocommit the whole result set would be
+     * buffered. MySQL Connector/J applies the fetch size only when the
+     * datasource url sets useCursorFetch=true; Derby and Oracle always do.
+     */
+    @Override
+    public void loadOnLineDataObjectRecords(Consumer<DataObjectRecordVO> consumer) {
+        Connection conn = null;
+        PreparedStatement stat = null;
+        ResultSet res = null;
+        boolean autoCommit = true;
+        try {
+            conn = this.getConnection();
+            autoCommit = conn.getAutoCommit();
+            conn.setAutoCommit(false);
+            stat = conn.prepareStatement(LOAD_ONLINE_DATAOBJECTS_VO);
+            stat.setFetchSize(ONLINE_DATAOBJECTS_FETCH_SIZE);
+            res = stat.executeQuery();
+            while (res.next()) {
+                consumer.accept((DataObjectRecordVO) this.createEntityRecord(res));
+            }
+        } catch (Throwable t) {
+            _logger.error("Error loading public dataobject records", t);
+            throw new RuntimeException("Error loading public dataobject records", t);
+        } finally {
+            closeDaoResources(res, stat);
+            this.endReadTransaction(conn, autoCommit);
+            closeConnection(conn);
+        }
+    }
+
+    private void endReadTransaction(Connection conn, boolean autoCommit) {
+        if (null == conn) {
+            return;
+        }
+        try {
+            if (!conn.getAutoCommit()) {
+                conn.rollback();
+                conn.setAutoCommit(autoCommit);
+            }
+        } catch (Throwable t) {
+            _logger.error("Error closing the read transaction", t);
+        }
+    }
+
     @Override
     public DataObjectsStatus loadDataObjectsStatus() {
         Connection conn = null;
@@ -631,6 +680,10 @@ public class DataObjectDAO extends AbstractEntityDAO implements IDataObjectDAO {
 
     private final String LOAD_DATAOBJECT_VO = LOAD_DATAOBJECTS_VO_MAIN_BLOCK + " WHERE dataobjects.dataid = ? ";
 
+    private final String LOAD_ONLINE_DATAOBJECTS_VO = LOAD_DATAOBJECTS_VO_MAIN_BLOCK + " WHERE dataobjects.onlinexml IS NOT NULL ";
+
+    private static final int ONLINE_DATAOBJECTS_FETCH_SIZE = 200;
+
     private final String ADD_DATAOBJECT = "INSERT INTO dataobjects (dataid, datatype, descr, status, workxml, "
             + "created, lastmodified, onlinexml, maingroup, currentversion, firsteditor, lasteditor) "
             + "VALUES ( ? , ? , ? , ? , ? , ? , ? , ? , ? , ? , ?, ?)";
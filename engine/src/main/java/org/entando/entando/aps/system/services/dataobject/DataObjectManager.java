@@ -21,6 +21,8 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
 
 import com.agiletec.aps.system.ApsSystemUtils;
 import com.agiletec.aps.system.SystemConstants;
@@ -34,6 +36,9 @@ import com.agiletec.aps.system.exception.ApsSystemException;
 import com.agiletec.aps.system.services.category.CategoryUtilizer;
 import com.agiletec.aps.system.services.group.GroupUtilizer;
 import com.agiletec.aps.system.services.keygenerator.IKeyGeneratorManager;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
 import org.entando.entando.aps.system.services.dataobject.event.PublicDataChangedEvent;
 import org.entando.entando.aps.system.services.dataobject.model.DataObject;
 import org.entando.entando.aps.system.services.dataobject.model.DataObjectRecordVO;
@@ -57,6 +62,29 @@ public class DataObjectManager extends ApsEntityManager implements IDataObjectMa
 
     private IDataObjectUpdaterService dataobjectUpdaterService;
 
+    private int dataObjectCacheMaxSize = 1000;
+
+    private Cache<String, DataObject> dataObjectCache;
+
+    private final AtomicLong dataObjectEvictions = new AtomicLong();
+
+    @Override
+    public void init() throws Exception {
+        super.init();
+        if (null == this.dataObjectCache) {
+            this.dataObjectCache = CacheBuilder.newBuilder().maximumSize(this.getDataObjectCacheMaxSize()).recordStats().build();
+        }
+    }
+
+    @Override
+    protected void release() {
+        this.dataObjectEvictions.incrementAndGet();
+        if (null != this.dataObjectCache) {
+            this.dataObjectCache.invalidateAll();
+        }
+        super.release();
+    }
+
     @Override
     protected String getConfigItemName() {
         return "dataTypeDefinitions";
@@ -171,9 +199,20 @@ public class DataObjectManager extends ApsEntityManager implements IDataObjectMa
     @Override
     public DataObject loadDataObject(String id, boolean onLine, boolean cacheable) throws ApsSystemException {
         DataObject dataobject = null;
+        String cacheKey = (cacheable && null != id && null != this.dataObjectCache) ? this.getDataObjectCacheKey(id, onLine) : null;
         try {
+            if (null != cacheKey) {
+                DataObject cached = this.dataObjectCache.getIfPresent(cacheKey);
+                if (null != cached) {
+                    return cached;
+                }
+            }
+            long stamp = this.dataObjectEvictions.get();
             DataObjectRecordVO dataobjectVo = this.loadDataObjectVO(id);
             dataobject = this.createDataObject(dataobjectVo, onLine);
+            if (null != cacheKey && null != dataobject) {
+                this.cacheDataObject(cacheKey, dataobject, stamp);
+            }
         } catch (ApsSystemException e) {
             logger.error("Error while loading dataobject : id {}", id, e);
             throw new ApsSystemException("Error while loading dataobject : id " + id, e);
@@ -181,7 +220,67 @@ public class DataObjectManager extends ApsEntityManager implements IDataObjectMa
         return dataobject;
     }
 
-    protected DataObject createDataObject(DataObjectRecordVO dataobjectVo, boolean onLine) throws ApsSystemException {
+    @Override
+    public CacheStats getDataObjectCacheStats() {
+        return this.dataObjectCache.stats();
+    }
+
+    private String getDataObjectCacheKey(String id, boolean onLine) {
+        return id + (onLine ? "_onLine" : "_work");
+    }
+
+    /**
+     * Put a parsed DataObject in the cache, unless an eviction happened since
+     * its record was read (stamp): in that case the DataObject could be stale
+     * and is dropped, so an eviction always wins over a concurrent load. The
+     * cached instance is shared and used read only.
+     */
+    private void cacheDataObject(String cacheKey, DataObject dataobject, long stamp) {
+        this.dataObjectCache.put(cacheKey, dataobject);
+        if (stamp != this.dataObjectEvictions.get()) {
+            this.dataObjectCache.invalidate(cacheKey);
+        }
+    }
+
+    private void evictDataObject(String id) {
+        if (null != id && null != this.dataObjectCache) {
+            this.dataObjectEvictions.incrementAndGet();
+            this.dataObjectCache.invalidate(this.getDataObjectCacheKey(id, true));
+            this.dataObjectCache.invalidate(this.getDataObjectCacheKey(id, false));
+        }
+    }
+
+    @Override
+    public DataObject getDataObjectCopy(DataObject dataObject) throws ApsSystemException {
+        if (null == dataObject) {
+            return null;
+        }
+        DataObject copy = null;
+        try {
+            copy = (DataObject) this.createEntityFromXml(dataObject.getTypeCode(), dataObject.getXML());
+            copy.setId(dataObject.getId());
+            copy.setTypeCode(dataObject.getTypeCode());
+            copy.setDescription(dataObject.getDescription());
+            copy.setOnLine(dataObject.isOnLine());
+            copy.setMainGroup(dataObject.getMainGroup());
+            copy.setStatus(dataObject.getStatus());
+            copy.setViewPage(dataObject.getViewPage());
+            copy.setListModel(dataObject.getListModel());
+            copy.setDefaultModel(dataObject.getDefaultModel());
+            copy.setCreated(null != dataObject.getCreated() ? new Date(dataObject.getCreated().getTime()) : null);
+            copy.setLastModified(null != dataObject.getLastModified() ? new Date(dataObject.getLastModified().getTime()) : null);
+            copy.setVersion(dataObject.getVersion());
+            copy.setFirstEditor(dataObject.getFirstEditor());
+            copy.setLastEditor(dataObject.getLastEditor());
+        } catch (ApsSystemException e) {
+            logger.error("Error while copying dataobject : id {}", dataObject.getId(), e);
+            throw new ApsSystemException("Error while copying dataobject : id " + dataObject.getId(), e);
+        }
+        return copy;
+    }
+
+    @Override
+    public DataObject createDataObject(DataObjectRecordVO dataobjectVo, boolean onLine) throws ApsSystemException {
         DataObject dataobject = null;
         try {
             if (dataobjectVo != null) {
@@ -245,6 +344,16 @@ public class DataObjectManager extends ApsEntityManager implements IDataObjectMa
         return dataobjectVo;
     }
 
+    @Override
+    public void loadOnLineDataObjectVOs(Consumer<DataObjectRecordVO> consumer) throws ApsSystemException {
+        try {
+            this.getDataObjectDAO().loadOnLineDataObjectRecords(consumer);
+        } catch (Throwable t) {
+            logger.error("Error while loading public dataobject vos", t);
+            throw new ApsSystemException("Error while loading public dataobject vos", t);
+        }
+    }
+
     /**
      * Save a dataobject in the DB.
      *
@@ -294,6 +403,7 @@ public class DataObjectManager extends ApsEntityManager implements IDataObjectMa
             } else {
                 this.getDataObjectDAO().updateDataObject(dataobject, updateDate);
             }
+            this.evictDataObject(dataobject.getId());
         } catch (Throwable t) {
             logger.error("Error while saving dataobject", t);
             throw new ApsSystemException("Error while saving dataobject", t);
@@ -318,6 +428,7 @@ public class DataObjectManager extends ApsEntityManager implements IDataObjectMa
             dataobject.incrementVersion(true);
             dataobject.setStatus(DataObject.STATUS_PUBLIC);
             this.getDataObjectDAO().insertDataObject(dataobject);
+            this.evictDataObject(dataobject.getId());
             int operationEventCode = -1;
             if (dataobject.isOnLine()) {
                 operationEventCode = PublicDataChangedEvent.UPDATE_OPERATION_CODE;
@@ -361,6 +472,7 @@ public class DataObjectManager extends ApsEntityManager implements IDataObjectMa
                 dataobject.setStatus(DataObject.STATUS_READY);
             }
             this.getDataObjectDAO().removeDataObject(dataobject);
+            this.evictDataObject(dataobject.getId());
             this.notifyPublicDataObjectChanging(dataobject, PublicDataChangedEvent.REMOVE_OPERATION_CODE);
         } catch (Throwable t) {
             logger.error("Error while removing onLine dataobject", t);
@@ -406,6 +518,7 @@ public class DataObjectManager extends ApsEntityManager implements IDataObjectMa
     public void deleteDataObject(DataObject dataobject) throws ApsSystemException {
         try {
             this.getDataObjectDAO().deleteEntity(dataobject.getId());
+            this.evictDataObject(dataobject.getId());
         } catch (Throwable t) {
             logger.error("Error while deleting dataobject {}", dataobject.getId(), t);
             throw new ApsSystemException("Error while deleting dataobject " + dataobject.getId(), t);
@@ -550,6 +663,14 @@ public class DataObjectManager extends ApsEntityManager implements IDataObjectMa
         this.dataobjectUpdaterService = dataobjectUpdaterService;
     }
 
+    protected int getDataObjectCacheMaxSize() {
+        return dataObjectCacheMaxSize;
+    }
+
+    public void setDataObjectCacheMaxSize(int dataObjectCacheMaxSize) {
+        this.dataObjectCacheMaxSize = dataObjectCacheMaxSize;
+    }
+
     @Override
     public IApsEntity getEntity(String entityId) throws ApsSystemException {
         return this.loadDataObject(entityId, false);
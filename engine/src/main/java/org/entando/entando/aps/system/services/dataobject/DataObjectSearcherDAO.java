@@ -19,6 +19,7 @@ import java.sql.ResultSet;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
 
@@ -65,7 +66,7 @@ public class DataObjectSearcherDAO extends AbstractDataObjectSearcherDAO impleme
         groupCodes.add(Group.FREE_GROUP_NAME);
         EntitySearchFilter onLineFilter = new EntitySearchFilter(IDataObjectManager.DATA_OBJECT_ONLINE_FILTER_KEY, false);
         filters = this.addFilter(filters, onLineFilter);
-        List<String> contentsId = new ArrayList<String>();
+        Set<String> contentsId = new LinkedHashSet<>();
         Connection conn = null;
         PreparedStatement stat = null;
         ResultSet result = null;
@@ -76,10 +77,7 @@ public class DataObjectSearcherDAO extends AbstractDataObjectSearcherDAO impleme
             //this.flowResult(contentsId, filters, result);
 
             while (result.next()) {
-                String id = result.getString(this.getMasterTableIdFieldName());
-                if (!contentsId.contains(id)) {
-                    contentsId.add(id);
-                }
+                contentsId.add(result.getString(this.getMasterTableIdFieldName()));
             }
 
         } catch (Throwable t) {
@@ -89,7 +87,7 @@ public class DataObjectSearcherDAO extends AbstractDataObjectSearcherDAO impleme
         } finally {
             closeDaoResources(result, stat, conn);
         }
-        return contentsId;
+        return new ArrayList<>(contentsId);
     }
 
     @Override
@@ -20,6 +20,7 @@ import javax.annotation.PostConstruct;
 
 import com.agiletec.aps.system.SystemConstants;
 import com.agiletec.aps.system.common.entity.IEntityManager;
+import com.agiletec.aps.system.common.model.dao.SearcherDaoPaginatedResult;
 import com.agiletec.aps.system.exception.ApsSystemException;
 import com.agiletec.aps.system.services.category.CategoryUtilizer;
 import com.agiletec.aps.system.services.group.GroupUtilizer;
@@ -261,18 +262,50 @@ public class DataObjectService extends AbstractEntityTypeService<DataObject, Dat
         }
     }
 
+    @Override
+    public SearcherDaoPaginatedResult<DataObjectDto> getGroupUtilizer(String groupCode, RestListRequest restListRequest) {
+        try {
+            DataObjectManager entityManager = (DataObjectManager) this.extractEntityManager(this.getManagerName());
+            List<String> idList = ((GroupUtilizer<String>) entityManager).getGroupUtilizers(groupCode);
+            return restListRequest.getPaginatedResult(idList, id -> this.buildDto(id, entityManager));
+        } catch (ApsSystemException ex) {
+            logger.error("Error loading dataobject references for group {}", groupCode, ex);
+            throw new RestServerError("Error loading dataobject references for group", ex);
+        }
+    }
+
+    @Override
+    public SearcherDaoPaginatedResult<DataObjectDto> getCategoryUtilizer(String categoryCode, RestListRequest restListRequest) {
+        try {
+            DataObjectManager entityManager = (DataObjectManager) this.extractEntityManager(this.getManagerName());
+            List<String> idList = ((CategoryUtilizer) entityManager).getCategoryUtilizers(categoryCode);
+            return restListRequest.getPaginatedResult(idList, id -> this.buildDto(id, entityManager));
+        } catch (ApsSystemException ex) {
+            logger.error("Error loading dataobject references for category {}", categoryCode, ex);
+            throw new RestServerError("Error loading dataobject references for category", ex);
+        }
+    }
+
     private List<DataObjectDto> buildDtoList(List<String> idList, DataObjectManager entityManager) {
         List<DataObjectDto> dtoList = new ArrayList<>();
         if (null != idList) {
             idList.stream().forEach(i -> {
-                try {
-                    dtoList.add(this.getDtoBuilder().convert(entityManager.loadDataObject(i, true)));
-                } catch (ApsSystemException ex) {
-                    logger.warn("error loading data object {}", i, ex);
+                DataObjectDto dto = this.buildDto(i, entityManager);
+                if (null != dto) {
+                    dtoList.add(dto);
                 }
             });
         }
         return dtoList;
     }
 
+    private DataObjectDto buildDto(String id, DataObjectManager entityManager) {
+        try {
+            return this.getDtoBuilder().convert(entityManager.loadDataObject(id, true));
+        } catch (ApsSystemException ex) {
+            logger.warn("error loading data object {}", id, ex);
+            return null;
+        }
+    }
+
 }
@@ -15,7 +15,9 @@ package org.entando.entando.aps.system.services.dataobject;
 
 import com.agiletec.aps.system.common.entity.IEntityDAO;
 import java.util.List;
+import java.util.function.Consumer;
 import org.entando.entando.aps.system.services.dataobject.model.DataObject;
+import org.entando.entando.aps.system.services.dataobject.model.DataObjectRecordVO;
 
 /**
  * Basic interface for the Data Access Objects for the 'data' objects.
@@ -38,4 +40,12 @@ public interface IDataObjectDAO extends IEntityDAO {
 
     public List<String> getGroupUtilizers(String groupName);
 
+    /**
+     * Stream the records of the public data objects to the given consumer,
+     * reading them with a single query.
+     *
+     * @param consumer The consumer of the records.
+     */
+    public void loadOnLineDataObjectRecords(Consumer<DataObjectRecordVO> consumer);
+
 }
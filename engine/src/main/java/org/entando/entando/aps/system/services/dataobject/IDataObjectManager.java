@@ -16,10 +16,12 @@ package org.entando.entando.aps.system.services.dataobject;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 
 import com.agiletec.aps.system.common.entity.IEntityManager;
 import com.agiletec.aps.system.common.entity.model.EntitySearchFilter;
 import com.agiletec.aps.system.exception.ApsSystemException;
+import com.google.common.cache.CacheStats;
 import org.entando.entando.aps.system.services.dataobject.model.DataObject;
 import org.entando.entando.aps.system.services.dataobject.model.DataObjectRecordVO;
 import org.entando.entando.aps.system.services.dataobject.model.SmallDataType;
@@ -100,8 +102,43 @@ public interface IDataObjectManager extends IEntityManager {
      */
     public DataObject loadDataObject(String id, boolean onLine) throws ApsSystemException;
 
+    /**
+     * Return a DataObject by id, in its online or work version. When the
+     * cacheable flag is true the DataObject may be served from the cache of the
+     * parsed DataObjects, saving the database read and the xml parsing: the
+     * cached instance is shared between the callers and must be used read
+     * only; a caller that needs to modify it has to work on a copy (see
+     * {@link #getDataObjectCopy(DataObject)}), as the renderer does.
+     *
+     * @param id The id of the DataObject.
+     * @param onLine true to load the online DataObject, false to load the work
+     * one.
+     * @param cacheable true if the DataObject can be served from the cache.
+     * @return The DataObject.
+     * @throws ApsSystemException In case of error.
+     */
     public DataObject loadDataObject(String id, boolean onLine, boolean cacheable) throws ApsSystemException;
 
+    /**
+     * Return the statistics (hits, misses, evictions) of the cache of the
+     * parsed DataObjects.
+     *
+     * @return The statistics of the cache.
+     */
+    public CacheStats getDataObjectCacheStats();
+
+    /**
+     * Return a private copy of the given DataObject, built from its xml.
+     * The copy can be modified (for example by the renderer) without side
+     * effects on the original object, that could be shared between threads.
+     * The record metadata (status, dates, version and editors) are copied too.
+     *
+     * @param dataObject The DataObject to copy.
+     * @return The copy of the DataObject.
+     * @throws ApsSystemException In case of error.
+     */
+    public DataObject getDataObjectCopy(DataObject dataObject) throws ApsSystemException;
+
     /**
      * Restituisce un VO contenente le informazioni del record su db
      * corrispondente al DataObject di cui all'id inserito.
@@ -112,6 +149,25 @@ public interface IDataObjectManager extends IEntityManager {
      */
     public DataObjectRecordVO loadDataObjectVO(String id) throws ApsSystemException;
 
+    /**
+     * Stream the records of the public DataObjects to the given consumer,
+     * without loading all of them in memory.
+     *
+     * @param consumer The consumer of the records.
+     * @throws ApsSystemException In case of error accessing the db.
+     */
+    public void loadOnLineDataObjectVOs(Consumer<DataObjectRecordVO> consumer) throws ApsSystemException;
+
+    /**
+     * Create the DataObject described by the given record.
+     *
+     * @param dataObjectVo The record of the DataObject.
+     * @param onLine Whether to build the public or the work version.
+     * @return The DataObject, or null if the requested version does not exist.
+     * @throws ApsSystemException In case of error.
+     */
+    public DataObject createDataObject(DataObjectRecordVO dataObjectVo, boolean onLine) throws ApsSystemException;
+
     /**
      * Salva un DataObject sul DB. Il metodo viene utilizzato sia nel caso di
      * salvataggio di un nuovo DataObject (in tal caso l'id del contenuto nuovo
@@ -14,6 +14,7 @@
 package org.entando.entando.aps.system.services.dataobjectdispenser;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 import org.slf4j.Logger;
@@ -22,15 +23,26 @@ import org.slf4j.LoggerFactory;
 import com.agiletec.aps.system.RequestContext;
 import com.agiletec.aps.system.SystemConstants;
 import com.agiletec.aps.system.common.AbstractService;
+import com.agiletec.aps.system.common.IManager;
+import com.agiletec.aps.system.common.entity.event.EntityTypesChangingEvent;
+import com.agiletec.aps.system.common.entity.event.EntityTypesChangingObserver;
+import com.agiletec.aps.system.common.entity.model.IApsEntity;
 import com.agiletec.aps.system.common.entity.model.attribute.AttributeRole;
+import com.agiletec.aps.system.services.authorization.Authorization;
 import com.agiletec.aps.system.services.authorization.IAuthorizationManager;
 import com.agiletec.aps.system.services.group.Group;
 import com.agiletec.aps.system.services.user.UserDetails;
+import org.entando.entando.aps.system.services.cache.ICacheInfoManager;
+import org.entando.entando.aps.system.services.dataobject.event.PublicDataChangedEvent;
+import org.entando.entando.aps.system.services.dataobject.event.PublicDataChangedObserver;
 import org.entando.entando.aps.system.services.dataobject.helper.IDataAuthorizationHelper;
 import org.entando.entando.aps.system.services.dataobject.helper.PublicDataTypeAuthorizationInfo;
 import org.entando.entando.aps.system.services.dataobject.model.DataObject;
 import org.entando.entando.aps.system.services.dataobjectrenderer.IDataObjectRenderer;
 import org.entando.entando.aps.system.services.dataobject.IDataObjectManager;
+import org.entando.entando.aps.system.services.dataobjectmodel.DataObjectModel;
+import org.entando.entando.aps.system.services.dataobjectmodel.event.DataObjectModelChangedEvent;
+import org.entando.entando.aps.system.services.dataobjectmodel.event.DataObjectModelChangedObserver;
 
 /**
  * Fornisce i DataObject formattati. Il compito del servizio, in fase di
@@ -41,7 +53,8 @@ import org.entando.entando.aps.system.services.dataobject.IDataObjectManager;
  *
  * @author M.Diana - E.Santoboni
  */
-public class BaseDataObjectDispenser extends AbstractService implements IDataObjectDispenser {
+public class BaseDataObjectDispenser extends AbstractService
+		implements IDataObjectDispenser, PublicDataChangedObserver, DataObjectModelChangedObserver, EntityTypesChangingObserver {
 
 	private static final Logger _logger = LoggerFactory.getLogger(BaseDataObjectDispenser.class);
 
@@ -51,9 +64,6 @@ public class BaseDataObjectDispenser extends AbstractService implements IDataObj
 	}
 
 	@Override
-	//@Cacheable(value = ICacheInfoManager.DEFAULT_CACHE_NAME,
-	//		key = "T(com.agiletec.plugins.jacms.aps.system.services.dispenser.BaseContentDispenser).getRenderizationInfoCacheKey(#contentId, #modelId, #langCode, #reqCtx)")
-	//@CacheableInfo(groups = "T(com.agiletec.plugins.jacms.aps.system.services.dispenser.BaseContentDispenser).getRenderizationInfoCacheGroupsCsv(#contentId, #modelId)")
 	public DataObjectRenderizationInfo getRenderizationInfo(String dataObjectId, long modelId, String langCode, RequestContext reqCtx) {
 		PublicDataTypeAuthorizationInfo authInfo = this.getDataAuthorizationHelper().getAuthorizationInfo(dataObjectId, true);
 		if (null == authInfo) {
@@ -63,9 +73,6 @@ public class BaseDataObjectDispenser extends AbstractService implements IDataObj
 	}
 
 	@Override
-	//@Cacheable(value = ICacheInfoManager.DEFAULT_CACHE_NAME, condition = "#cacheable",
-	//		key = "T(com.agiletec.plugins.jacms.aps.system.services.dispenser.BaseContentDispenser).getRenderizationInfoCacheKey(#contentId, #modelId, #langCode, #reqCtx)")
-	//@CacheableInfo(groups = "T(com.agiletec.plugins.jacms.aps.system.services.dispenser.BaseContentDispenser).getRenderizationInfoCacheGroupsCsv(#contentId, #modelId)")
 	public DataObjectRenderizationInfo getRenderizationInfo(String dataObjectId,
 			long modelId, String langCode, RequestContext reqCtx, boolean cacheable) {
 		PublicDataTypeAuthorizationInfo authInfo = this.getDataAuthorizationHelper().getAuthorizationInfo(dataObjectId, cacheable);
@@ -87,10 +94,21 @@ public class BaseDataObjectDispenser extends AbstractService implements IDataObj
 			UserDetails currentUser = (null != reqCtx) ? (UserDetails) reqCtx.getRequest().getSession().getAttribute(SystemConstants.SESSIONPARAM_CURRENT_USER) : null;
 			List<Group> userGroups = (null != currentUser) ? this.getAuthorizationManager().getUserGroups(currentUser) : new ArrayList<Group>();
 			if (authInfo.isUserAllowed(userGroups)) {
+				String cacheKey = (cacheable) ? getRenderizationInfoCacheKey(dataObjectId, modelId, langCode, reqCtx) : null;
+				if (null != cacheKey) {
+					DataObjectRenderizationInfo cachedInfo = (DataObjectRenderizationInfo) this.getCacheInfoManager().getFromCache(ICacheInfoManager.DEFAULT_CACHE_NAME, cacheKey);
+					if (null != cachedInfo) {
+						return cachedInfo.clone();
+					}
+				}
 				renderInfo = this.getBaseRenderizationInfo(authInfo, dataObjectId, modelId, langCode, currentUser, reqCtx, cacheable);
 				if (null == renderInfo) {
 					return null;
 				}
+				if (null != cacheKey) {
+					String[] groups = getRenderizationInfoCacheGroups(dataObjectId, renderInfo.getDataType(), modelId);
+					this.getCacheInfoManager().putInCache(ICacheInfoManager.DEFAULT_CACHE_NAME, cacheKey, renderInfo.clone(), groups);
+				}
 			} else {
 				String renderedDataObject = "Current user '" + currentUser.getUsername() + "' can't view this DataObject";
 				DataObject dataObjectToRender = this.getDataObjectManager().loadDataObject(dataObjectId, true, cacheable);
@@ -143,7 +161,7 @@ public class BaseDataObjectDispenser extends AbstractService implements IDataObj
 		return renderInfo;
 	}
 
-	protected synchronized String buildRenderedDataObject(DataObject dataObject, long modelId, String langCode, RequestContext reqCtx) {
+	protected String buildRenderedDataObject(DataObject dataObject, long modelId, String langCode, RequestContext reqCtx) {
 		if (null == dataObject) {
 			_logger.warn("Null The dataObject can't be rendered");
 			return null;
@@ -162,10 +180,45 @@ public class BaseDataObjectDispenser extends AbstractService implements IDataObj
 		return renderedDataObject;
 	}
 
-	/*
+	@Override
+	public void updateFromPublicDataObjectChanged(PublicDataChangedEvent event) {
+		DataObject dataObject = event.getDataObject();
+		if (null == dataObject || null == dataObject.getId()) {
+			return;
+		}
+		this.getCacheInfoManager().flushGroup(ICacheInfoManager.DEFAULT_CACHE_NAME,
+				SystemConstants.DATA_OBJECT_CACHE_GROUP_PREFIX + dataObject.getId());
+		_logger.debug("Flushed rendered data object {}", dataObject.getId());
+	}
+
+	@Override
+	public void updateFromDataObjectModelChanged(DataObjectModelChangedEvent event) {
+		DataObjectModel model = event.getDataObjectModel();
+		if (null == model) {
+			return;
+		}
+		this.getCacheInfoManager().flushGroup(ICacheInfoManager.DEFAULT_CACHE_NAME,
+				SystemConstants.DATA_OBJECT_MODEL_CACHE_GROUP_PREFIX + model.getId());
+		_logger.debug("Flushed data objects rendered with model {}", model.getId());
+	}
+
+	@Override
+	public void updateFromEntityTypesChanging(EntityTypesChangingEvent event) {
+		if (!((IManager) this.getDataObjectManager()).getName().equals(event.getEntityManagerName())) {
+			return;
+		}
+		IApsEntity entityType = (null != event.getOldEntityType()) ? event.getOldEntityType() : event.getNewEntityType();
+		if (null == entityType) {
+			return;
+		}
+		this.getCacheInfoManager().flushGroup(ICacheInfoManager.DEFAULT_CACHE_NAME,
+				SystemConstants.DATA_OBJECT_TYPE_CACHE_GROUP_PREFIX + entityType.getTypeCode());
+		_logger.debug("Flushed rendered data objects of type {}", entityType.getTypeCode());
+	}
+
 	public static String getRenderizationInfoCacheKey(String dataObjectId, long modelId, String langCode, RequestContext reqCtx) {
 		UserDetails currentUser = (null != reqCtx) ? (UserDetails) reqCtx.getRequest().getSession().getAttribute(SystemConstants.SESSIONPARAM_CURRENT_USER) : null;
-		StringBuffer key = new StringBuffer();
+		StringBuilder key = new StringBuilder();
 		key.append(dataObjectId).append("_").append(modelId).append("_").append(langCode).append("_RENDER_INFO_CacheKey");
 		if (null != currentUser && !currentUser.getUsername().equals(SystemConstants.GUEST_USER_NAME)) {
 			List<String> codes = new ArrayList<String>();
@@ -190,9 +243,8 @@ public class BaseDataObjectDispenser extends AbstractService implements IDataObj
 		}
 		return key.toString();
 	}
-	 */
- /*
-	private static void appendAuthCodes(List<String> codes, StringBuffer key) {
+
+	private static void appendAuthCodes(List<String> codes, StringBuilder key) {
 		Collections.sort(codes);
 		for (int i = 0; i < codes.size(); i++) {
 			if (i > 0) {
@@ -201,18 +253,14 @@ public class BaseDataObjectDispenser extends AbstractService implements IDataObj
 			key.append(codes.get(i));
 		}
 	}
-	 */
- /*
-	public static String getRenderizationInfoCacheGroupsCsv(String contentId, long modelId) {
-		StringBuilder builder = new StringBuilder();
-		String typeCode = contentId.substring(0, 3);
-		String contentCacheGroupId = JacmsSystemConstants.CONTENT_CACHE_GROUP_PREFIX + contentId;
-		String modelCacheGroupId = JacmsSystemConstants.CONTENT_MODEL_CACHE_GROUP_PREFIX + modelId;
-		String typeCacheGroupId = JacmsSystemConstants.CONTENT_TYPE_CACHE_GROUP_PREFIX + typeCode;
-		builder.append(contentCacheGroupId).append(",").append(modelCacheGroupId).append(",").append(typeCacheGroupId);
-		return builder.toString();
-	}
-	 */
+
+	public static String[] getRenderizationInfoCacheGroups(String dataObjectId, String typeCode, long modelId) {
+		String dataObjectCacheGroupId = SystemConstants.DATA_OBJECT_CACHE_GROUP_PREFIX + dataObjectId;
+		String modelCacheGroupId = SystemConstants.DATA_OBJECT_MODEL_CACHE_GROUP_PREFIX + modelId;
+		String typeCacheGroupId = SystemConstants.DATA_OBJECT_TYPE_CACHE_GROUP_PREFIX + typeCode;
+		return new String[]{dataObjectCacheGroupId, modelCacheGroupId, typeCacheGroupId};
+	}
+
 	public IDataAuthorizationHelper getDataAuthorizationHelper() {
 		return _dataAuthorizationHelper;
 	}
@@ -245,10 +293,19 @@ public class BaseDataObjectDispenser extends AbstractService implements IDataObj
 		this._authorizationManager = authorizationManager;
 	}
 
+	protected ICacheInfoManager getCacheInfoManager() {
+		return _cacheInfoManager;
+	}
+
+	public void setCacheInfoManager(ICacheInfoManager cacheInfoManager) {
+		this._cacheInfoManager = cacheInfoManager;
+	}
+
 	private IDataAuthorizationHelper _dataAuthorizationHelper;
 
 	private IDataObjectRenderer _dataObjectRenderer;
 	private IDataObjectManager _dataObjectManager;
 	private IAuthorizationManager _authorizationManager;
+	private ICacheInfoManager _cacheInfoManager;
 
 }
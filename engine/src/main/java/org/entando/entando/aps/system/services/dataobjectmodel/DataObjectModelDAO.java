@@ -26,6 +26,7 @@ import org.slf4j.LoggerFactory;
 
 import com.agiletec.aps.system.common.AbstractSearcherDAO;
 import com.agiletec.aps.system.common.FieldSearchFilter;
+import com.agiletec.aps.system.common.model.dao.SearcherDaoPaginatedResult;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -81,6 +82,14 @@ public class DataObjectModelDAO extends AbstractSearcherDAO implements IDataObje
         return ids;
     }
 
+    @Override
+    public SearcherDaoPaginatedResult<Long> searchPagedDataObjectModels(FieldSearchFilter[] filters) {
+        SearcherDaoPaginatedResult<String> result = super.searchPagedId(filters);
+        List<Long> ids = new ArrayList<>();
+        result.getList().stream().forEach(i -> ids.add(Long.parseLong(i)));
+        return new SearcherDaoPaginatedResult<>(result.getCount(), ids);
+    }
+
     @Override
     public Map<Long, DataObjectModel> loadDataModels() {
         Connection conn = null;
@@ -125,6 +134,7 @@ public class DataObjectModelDAO extends AbstractSearcherDAO implements IDataObje
             stat.setString(5, model.getStylesheet());
             stat.executeUpdate();
             conn.commit();
+            this.clearCountCache();
         } catch (Throwable t) {
             this.executeRollback(conn);
             logger.error("Error adding datatype ux {}", model.getId(), t);
@@ -145,6 +155,7 @@ public class DataObjectModelDAO extends AbstractSearcherDAO implements IDataObje
             stat.setLong(1, model.getId());
             stat.executeUpdate();
             conn.commit();
+            this.clearCountCache();
         } catch (Throwable t) {
             this.executeRollback(conn);
             logger.error("Error deleting datatype model {} ", model.getId(), t);
@@ -169,6 +180,7 @@ public class DataObjectModelDAO extends AbstractSearcherDAO implements IDataObje
             stat.setLong(5, model.getId());
             stat.executeUpdate();
             conn.commit();
+            this.clearCountCache();
         } catch (Throwable t) {
             this.executeRollback(conn);
             logger.error("Error updating datatype model {} ", model.getId(), t);
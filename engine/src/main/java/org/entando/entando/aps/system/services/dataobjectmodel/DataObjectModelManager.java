@@ -225,12 +225,11 @@ public class DataObjectModelManager extends AbstractService implements IDataObje
         try {
             List<DataObjectModel> dataObjectModels = new ArrayList<>();
             FieldSearchFilter[] filtersArray = filters.toArray(new FieldSearchFilter[filters.size()]);
-            int count = this.getDataModelDAO().countDataObjectModels(filtersArray);
-            List<Long> codes = this.searchDataObjectModels(filtersArray);
-            for (Long code : codes) {
+            SearcherDaoPaginatedResult<Long> codes = this.getDataModelDAO().searchPagedDataObjectModels(filtersArray);
+            for (Long code : codes.getList()) {
                 dataObjectModels.add(this.getDataObjectModel(code));
             }
-            pagedResult = new SearcherDaoPaginatedResult<>(count, dataObjectModels);
+            pagedResult = new SearcherDaoPaginatedResult<>(codes.getCount(), dataObjectModels);
         } catch (Throwable t) {
             logger.error("Error searching models", t);
             throw new ApsSystemException("Error searching models", t);
@@ -14,6 +14,7 @@
 package org.entando.entando.aps.system.services.dataobjectmodel;
 
 import com.agiletec.aps.system.common.FieldSearchFilter;
+import com.agiletec.aps.system.common.model.dao.SearcherDaoPaginatedResult;
 import java.util.List;
 import java.util.Map;
 
@@ -34,4 +35,6 @@ public interface IDataObjectModelDAO {
 
     public List<Long> searchDataObjectModels(FieldSearchFilter[] filters);
 
+    public SearcherDaoPaginatedResult<Long> searchPagedDataObjectModels(FieldSearchFilter[] filters);
+
 }
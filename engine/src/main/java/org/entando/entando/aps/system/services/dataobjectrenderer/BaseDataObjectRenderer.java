@@ -14,7 +14,6 @@
 package org.entando.entando.aps.system.services.dataobjectrenderer;
 
 import java.io.StringWriter;
-import java.util.List;
 
 import org.apache.velocity.VelocityContext;
 import org.apache.velocity.app.Velocity;
@@ -26,9 +25,9 @@ import com.agiletec.aps.system.RequestContext;
 import com.agiletec.aps.system.common.entity.model.IApsEntity;
 import com.agiletec.aps.system.common.renderer.BaseEntityRenderer;
 import com.agiletec.aps.system.common.renderer.EntityWrapper;
-import com.agiletec.aps.system.common.renderer.TextAttributeCharReplaceInfo;
 import com.agiletec.aps.system.exception.ApsSystemException;
 import com.agiletec.aps.system.services.i18n.I18nManagerWrapper;
+import org.entando.entando.aps.system.services.dataobject.IDataObjectManager;
 import org.entando.entando.aps.system.services.dataobject.model.DataObject;
 import org.entando.entando.aps.system.services.dataobjectmodel.DataObjectModel;
 import org.entando.entando.aps.system.services.dataobjectmodel.IDataObjectModelManager;
@@ -42,15 +41,26 @@ public class BaseDataObjectRenderer extends BaseEntityRenderer implements IDataO
 
 	private static final Logger _logger = LoggerFactory.getLogger(BaseDataObjectRenderer.class);
 
+	/**
+	 * Renderizza il DataObject secondo il modello specificato.
+	 * La renderizzazione (conversione dei caratteri speciali e lingua di renderizzazione 
+	 * degli attributi) è eseguita su una copia privata del DataObject: l'oggetto dato 
+	 * non viene modificato e può essere renderizzato contemporaneamente da più thread.
+	 * @param dataobject Il DataObject da renderizzare.
+	 * @param modelId Il modello di renderizzazione.
+	 * @param langCode Il codice della lingua di renderizzazione.
+	 * @param reqCtx Il contesto della richiesta.
+	 * @return Il DataObject renderizzato.
+	 */
 	@Override
 	public String render(DataObject dataobject, long modelId, String langCode, RequestContext reqCtx) {
 		String renderedEntity = null;
-		List<TextAttributeCharReplaceInfo> conversions = null;
 		try {
-			conversions = this.convertSpecialCharacters(dataobject, langCode);
+			DataObject dataobjectToRender = this.getDataObjectManager().getDataObjectCopy(dataobject);
+			this.convertSpecialCharacters(dataobjectToRender, langCode);
 			String contentModel = this.getModelShape(modelId);
 			Context velocityContext = new VelocityContext();
-			DataObjectWrapper contentWrapper = (DataObjectWrapper) this.getEntityWrapper(dataobject);
+			DataObjectWrapper contentWrapper = (DataObjectWrapper) this.getEntityWrapper(dataobjectToRender);
 			contentWrapper.setRenderingLang(langCode);
 			contentWrapper.setReqCtx(reqCtx);
 			velocityContext.put(this.getEntityWrapperContextName(), contentWrapper);
@@ -59,7 +69,9 @@ public class BaseDataObjectRenderer extends BaseEntityRenderer implements IDataO
 			SystemInfoWrapper systemInfoWrapper = new SystemInfoWrapper(reqCtx);
 			velocityContext.put("info", systemInfoWrapper);
 			StringWriter stringWriter = new StringWriter();
-			boolean isEvaluated = Velocity.evaluate(velocityContext, stringWriter, "render", contentModel);
+			boolean isEvaluated = (null != this.getTemplateCacheManager())
+					? this.merge(this.getTemplateCacheManager().getDataObjectModelTemplate(modelId, contentModel), velocityContext, stringWriter)
+					: Velocity.evaluate(velocityContext, stringWriter, "render", contentModel);
 			if (!isEvaluated) {
 				throw new ApsSystemException("Error rendering DataObject");
 			}
@@ -68,10 +80,6 @@ public class BaseDataObjectRenderer extends BaseEntityRenderer implements IDataO
 		} catch (Throwable t) {
 			_logger.error("Error rendering dataobject", t);
 			renderedEntity = "";
-		} finally {
-			if (null != conversions) {
-				this.replaceSpecialCharacters(conversions);
-			}
 		}
 		return renderedEntity;
 	}
@@ -107,6 +115,15 @@ public class BaseDataObjectRenderer extends BaseEntityRenderer implements IDataO
 		this._dataObjectModelManager = dataObjectModelManager;
 	}
 
+	protected IDataObjectManager getDataObjectManager() {
+		return _dataObjectManager;
+	}
+
+	public void setDataObjectManager(IDataObjectManager dataObjectManager) {
+		this._dataObjectManager = dataObjectManager;
+	}
+
 	private IDataObjectModelManager _dataObjectModelManager;
+	private IDataObjectManager _dataObjectManager;
 
 }
@@ -0,0 +1,86 @@
+/*
+ * Copyright 2015-Present Entando Inc. (http://www.entando.com) All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+package org.entando.entando.aps.system.services.dataobjectsearchengine;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.lucene.index.DocValues;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.index.SortedSetDocValues;
+import org.apache.lucene.search.SimpleCollector;
+
+/**
+ * Collector that counts, for every category code, the matching documents
+ * referencing the category or one of its descendants. The codes are read from
+ * the doc values written by the indexer, so no stored field is loaded.
+ */
+public class CategoryFacetsCollector extends SimpleCollector {
+
+    private final Map<String, Integer> occurrences = new HashMap<>();
+
+    private SortedSetDocValues values;
+
+    private int[] counts;
+
+    @Override
+    protected void doSetNextReader(LeafReaderContext context) throws IOException {
+        this.flushCounts();
+        this.values = DocValues.getSortedSet(context.reader(), IIndexerDAO.DATAOBJECT_CATEGORY_FACET_FIELD_NAME);
+        long valueCount = this.values.getValueCount();
+        this.counts = (valueCount > 0) ? new int[(int) valueCount] : null;
+    }
+
+    @Override
+    public void collect(int doc) throws IOException {
+        if (null != this.counts && this.values.advanceExact(doc)) {
+            long ord;
+            while ((ord = this.values.nextOrd()) != SortedSetDocValues.NO_MORE_ORDS) {
+                this.counts[(int) ord]++;
+            }
+        }
+    }
+
+    @Override
+    public boolean needsScores() {
+        return false;
+    }
+
+    /**
+     * Return the number of matching documents for every category code.
+     *
+     * @return The occurrences of the category codes.
+     * @throws IOException In case of error reading the index.
+     */
+    public Map<String, Integer> getOccurrences() throws IOException {
+        this.flushCounts();
+        return this.occurrences;
+    }
+
+    private void flushCounts() throws IOException {
+        if (null == this.counts) {
+            return;
+        }
+        for (int ord = 0; ord < this.counts.length; ord++) {
+            int count = this.counts[ord];
+            if (count > 0) {
+                String code = this.values.lookupOrd(ord).utf8ToString();
+                this.occurrences.merge(code, count, Integer::sum);
+            }
+        }
+        this.counts = null;
+    }
+
+}
@@ -13,8 +13,13 @@
  */
 package org.entando.entando.aps.system.services.dataobjectsearchengine;
 
+import java.util.Collection;
+
 import org.entando.entando.aps.system.services.searchengine.IEntitySearchEngineManager;
+import org.entando.entando.aps.system.services.searchengine.SearchEngineFilter;
 
+import com.agiletec.aps.system.common.model.dao.SearcherDaoPaginatedResult;
+import com.agiletec.aps.system.common.tree.ITreeNode;
 import com.agiletec.aps.system.exception.ApsSystemException;
 
 /**
@@ -52,6 +57,42 @@ public interface IDataObjectSearchEngineManager extends IEntitySearchEngineManag
 	 */
 	public LastReloadInfo getLastReloadInfo();
 
+	/**
+	 * Return the progress of the running reload of the indexes.
+	 *
+	 * @return The informations about the running reload, or null if no
+	 * reload is in progress.
+	 */
+	public LastReloadInfo getCurrentReloadInfo();
+
+	/**
+	 * Return the number of DataObjects waiting to be indexed.
+	 *
+	 * @return The size of the index update queue.
+	 */
+	public int getIndexQueueSize();
+
+	/**
+	 * Return how long the oldest DataObject waiting to be indexed is queued.
+	 *
+	 * @return The lag of the index, in milliseconds.
+	 */
+	public long getIndexQueueLag();
+
+	/**
+	 * Search a page of DataObject identifiers. The page is described by a
+	 * SearchEngineFilter without key, built with limit and offset; the
+	 * filters with an order sort the results.
+	 *
+	 * @param filters The filters of the search.
+	 * @param categories The categories of the DataObjects, may be null.
+	 * @param allowedGroups The groups allowed to the current user.
+	 * @return The page of identifiers and the total number of hits.
+	 * @throws ApsSystemException In case of error.
+	 */
+	public SearcherDaoPaginatedResult<String> searchPaginatedEntityId(SearchEngineFilter[] filters,
+			Collection<ITreeNode> categories, Collection<String> allowedGroups) throws ApsSystemException;
+
 	public static final int STATUS_READY = 0;
 	public static final int STATUS_RELOADING_INDEXES_IN_PROGRESS = 1;
 	public static final int STATUS_NEED_TO_RELOAD_INDEXES = 2;
@@ -14,6 +14,7 @@
 package org.entando.entando.aps.system.services.dataobjectsearchengine;
 
 import java.io.File;
+import java.util.Collection;
 
 import com.agiletec.aps.system.common.entity.model.IApsEntity;
 import com.agiletec.aps.system.exception.ApsSystemException;
@@ -43,6 +44,27 @@ public interface IIndexerDAO {
 	 */
 	public void add(IApsEntity entity) throws ApsSystemException;
 
+	/**
+	 * Add the given entities to the index, committing once at the end.
+	 * An entity that can't be converted into a document is logged and skipped.
+	 *
+	 * @param entities The entities to add.
+	 * @return The number of the skipped entities.
+	 * @throws ApsSystemException In case of error.
+	 */
+	public int addAll(Collection<? extends IApsEntity> entities) throws ApsSystemException;
+
+	/**
+	 * Apply a batch of changes to the index, committing once at the end. The
+	 * given entities replace the documents indexed with the same id (or are
+	 * added when missing); the documents of the given ids are deleted.
+	 *
+	 * @param entities The entities to add or replace.
+	 * @param deletedIds The ids of the entities to remove from the index.
+	 * @throws ApsSystemException In case of error.
+	 */
+	public void updateAll(Collection<? extends IApsEntity> entities, Collection<String> deletedIds) throws ApsSystemException;
+
 	/**
 	 * Cancella un documento indicizzato.
 	 *
@@ -54,8 +76,34 @@ public interface IIndexerDAO {
 	 */
 	public void delete(String name, String value) throws ApsSystemException;
 
+	/**
+	 * Release the resources (writer and directory) of the indexer, committing
+	 * the pending changes.
+	 */
 	public void close();
 
+	/**
+	 * Set the size of the RAM buffer of the index writer.
+	 *
+	 * @param ramBufferSizeMB The buffer size, in MB.
+	 */
+	public void setRamBufferSizeMB(double ramBufferSizeMB);
+
+	/**
+	 * Set the interval between the commits of the changes. With an interval
+	 * of 0 every change is committed immediately.
+	 *
+	 * @param commitInterval The interval, in seconds.
+	 */
+	public void setCommitInterval(int commitInterval);
+
+	/**
+	 * Set the callback invoked after every commit of the index changes.
+	 *
+	 * @param commitListener The callback to invoke.
+	 */
+	public void setCommitListener(Runnable commitListener);
+
 	public void setLangManager(ILangManager langManager);
 
 	public void setCategoryManager(ICategoryManager categoryManager);
@@ -66,5 +114,6 @@ public interface IIndexerDAO {
 	public static final String DATAOBJECT_GROUP_FIELD_NAME = FIELD_PREFIX + "group";
 	public static final String DATAOBJECT_CATEGORY_FIELD_NAME = FIELD_PREFIX + "category";
 	public static final String DATAOBJECT_CATEGORY_SEPARATOR = "/";
+	public static final String DATAOBJECT_CATEGORY_FACET_FIELD_NAME = FIELD_PREFIX + "categoryFacet";
 
 }
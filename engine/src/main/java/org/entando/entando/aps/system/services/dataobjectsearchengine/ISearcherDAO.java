@@ -13,6 +13,7 @@
  */
 package org.entando.entando.aps.system.services.dataobjectsearchengine;
 
+import com.agiletec.aps.system.common.model.dao.SearcherDaoPaginatedResult;
 import com.agiletec.aps.system.common.tree.ITreeNode;
 import com.agiletec.aps.system.exception.ApsSystemException;
 import com.agiletec.aps.system.services.category.ICategoryManager;
@@ -61,6 +62,26 @@ public interface ISearcherDAO {
 	public List<String> searchContentsId(SearchEngineFilter[] filters,
 			Collection<ITreeNode> categories, Collection<String> allowedGroups) throws ApsSystemException;
 
+	/**
+	 * Refresh the searcher, so that the next searches see the last committed
+	 * changes of the index.
+	 */
+	public void refresh();
+
+	/**
+	 * Search a page of identifiers of dataobject. The page is described by
+	 * a filter without key and with limit and offset; without it all the
+	 * results are returned. The filters with an order sort the results.
+	 *
+	 * @param filters i filtri da applicare alla ricerca.
+	 * @param categories Le categorie da applicare alla ricerca.
+	 * @param allowedGroups I gruppi autorizzati alla visualizzazione.
+	 * @return The page of identifiers and the total number of hits.
+	 * @throws ApsSystemException In caso di errore
+	 */
+	public SearcherDaoPaginatedResult<String> searchPaginatedContentsId(SearchEngineFilter[] filters,
+			Collection<ITreeNode> categories, Collection<String> allowedGroups) throws ApsSystemException;
+
 	public void close();
         
         public void setCategoryManager(ICategoryManager categoryManager);
@@ -13,16 +13,26 @@
  */
 package org.entando.entando.aps.system.services.dataobjectsearchengine;
 
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import com.agiletec.aps.system.exception.ApsSystemException;
 import org.entando.entando.aps.system.services.dataobject.IDataObjectManager;
 import org.entando.entando.aps.system.services.dataobject.model.DataObject;
+import org.entando.entando.aps.system.services.dataobject.model.DataObjectRecordVO;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
  * Thread Class delegate to load dataobject index, in use on SearchEngine.
+ * The records of the public data objects are streamed from the db in batches;
+ * every batch is parsed and added to the index by a pool of workers.
  *
  * @author E.Santoboni
  */
@@ -32,14 +42,21 @@ public class IndexLoaderThread extends Thread {
 
 	public IndexLoaderThread(SearchEngineManager searchEngineManager,
 			IDataObjectManager dataObjectManager, IIndexerDAO indexerDao) {
+		this(searchEngineManager, dataObjectManager, indexerDao, Runtime.getRuntime().availableProcessors());
+	}
+
+	public IndexLoaderThread(SearchEngineManager searchEngineManager,
+			IDataObjectManager dataObjectManager, IIndexerDAO indexerDao, int workers) {
 		this._dataObjectManager = dataObjectManager;
 		this._searchEngineManager = searchEngineManager;
 		this._indexerDao = indexerDao;
+		this._workers = Math.max(1, workers);
 	}
 
 	@Override
 	public void run() {
-		LastReloadInfo reloadInfo = new LastReloadInfo();
+		LastReloadInfo reloadInfo = this.getReloadInfo();
+		reloadInfo.setStartDate(new Date());
 		try {
 			this.loadNewIndex();
 			reloadInfo.setResult(LastReloadInfo.ID_SUCCESS_RESULT);
@@ -54,33 +71,101 @@ public class IndexLoaderThread extends Thread {
 	}
 
 	private void loadNewIndex() throws Throwable {
+		AtomicInteger threadCount = new AtomicInteger();
+		ThreadPoolExecutor executor = new ThreadPoolExecutor(this._workers, this._workers, 0L, TimeUnit.MILLISECONDS,
+				new ArrayBlockingQueue<>(this._workers * 2), r -> {
+					Thread worker = new Thread(r, this.getName() + "_worker" + threadCount.incrementAndGet());
+					worker.setDaemon(true);
+					return worker;
+				}, new ThreadPoolExecutor.CallerRunsPolicy());
+		AtomicReference<Throwable> error = new AtomicReference<>();
 		try {
-			List<String> contentsId = this._dataObjectManager.searchId(null);
-			for (int i = 0; i < contentsId.size(); i++) {
-				String id = contentsId.get(i);
-				this.reloadContentIndex(id);
+			List<List<DataObjectRecordVO>> pending = new ArrayList<>(1);
+			pending.add(new ArrayList<>(BATCH_SIZE));
+			try {
+				this._dataObjectManager.loadOnLineDataObjectVOs(record -> {
+					if (null != error.get()) {
+						// stops the stream: the records are no more buffered
+						throw new IllegalStateException("Index reload aborted", error.get());
+					}
+					List<DataObjectRecordVO> batch = pending.get(0);
+					batch.add(record);
+					if (batch.size() >= BATCH_SIZE) {
+						executor.execute(() -> this.indexBatch(batch, error));
+						pending.set(0, new ArrayList<>(BATCH_SIZE));
+					}
+				});
+			} catch (ApsSystemException e) {
+				if (null == error.get()) {
+					throw e;
+				}
+			}
+			if (null == error.get()) {
+				List<DataObjectRecordVO> lastBatch = pending.get(0);
+				executor.execute(() -> this.indexBatch(lastBatch, error));
+			}
+			pending.clear();
+			executor.shutdown();
+			executor.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+			if (null != error.get()) {
+				throw error.get();
 			}
-			_logger.info("Indicizzazione effettuata");
+			LastReloadInfo info = this.getReloadInfo();
+			_logger.info("Indicizzazione effettuata: {} dataobjects in {} ms ({} failed)",
+					info.getIndexed(), info.getElapsedTime(), info.getFailed());
 		} catch (Throwable t) {
 			_logger.error("error in reloadIndex", t);
 			throw t;
+		} finally {
+			executor.shutdownNow();
 		}
 	}
 
-	private void reloadContentIndex(String id) {
-		try {
-			DataObject dataObject = this._dataObjectManager.loadDataObject(id, true, false);
-			if (dataObject != null) {
-				this._indexerDao.add(dataObject);
-				_logger.debug("Indexed DataObject {}", dataObject.getId());
+	private void indexBatch(List<DataObjectRecordVO> records, AtomicReference<Throwable> error) {
+		if (null != error.get()) {
+			return;
+		}
+		List<DataObject> dataObjects = new ArrayList<>(records.size());
+		for (DataObjectRecordVO record : records) {
+			DataObject dataObject = this.createDataObject(record);
+			if (null != dataObject) {
+				dataObjects.add(dataObject);
 			}
+		}
+		try {
+			int failed = this._indexerDao.addAll(dataObjects);
+			this.getReloadInfo().addIndexed(dataObjects.size() - failed);
+			this.getReloadInfo().addFailed(failed);
 		} catch (Throwable t) {
-			_logger.error("Error reloading index: DataObject id {}", id, t);
+			error.compareAndSet(null, t);
 		}
 	}
 
+	private DataObject createDataObject(DataObjectRecordVO record) {
+		try {
+			return this._dataObjectManager.createDataObject(record, true);
+		} catch (Throwable t) {
+			_logger.error("Error reloading index: DataObject id {}", record.getId(), t);
+			this.getReloadInfo().addFailed(1);
+		}
+		return null;
+	}
+
+	/**
+	 * Return the informations about the reload, updated while it runs.
+	 *
+	 * @return The informations about the reload.
+	 */
+	public LastReloadInfo getReloadInfo() {
+		return _reloadInfo;
+	}
+
+	private static final int BATCH_SIZE = 500;
+
 	private SearchEngineManager _searchEngineManager;
 	private IDataObjectManager _dataObjectManager;
 	private IIndexerDAO _indexerDao;
+	private int _workers;
+	private final LastReloadInfo _reloadInfo = new LastReloadInfo();
 
 }
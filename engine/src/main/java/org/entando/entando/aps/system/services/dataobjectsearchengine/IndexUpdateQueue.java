@@ -0,0 +1,151 @@
+/*
+ * Copyright 2015-Present Entando Inc. (http://www.entando.com) All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+package org.entando.entando.aps.system.services.dataobjectsearchengine;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.entando.entando.aps.system.services.dataobject.event.PublicDataChangedEvent;
+
+/**
+ * Bounded queue of the pending index updates, keyed by DataObject id. A new
+ * event for an id already queued replaces the previous one (the last
+ * operation wins) and keeps its position and enqueue time, so a burst of
+ * saves of the same DataObject is indexed once. Queueing never waits:
+ * when the queue is full the event of a new id is refused.
+ */
+public class IndexUpdateQueue {
+
+	public IndexUpdateQueue(int capacity) {
+		this._capacity = capacity;
+	}
+
+	/**
+	 * Queue the given event, replacing the one queued for the same id.
+	 *
+	 * @param event The event to queue.
+	 * @return false if the queue is full and the event has not been queued.
+	 */
+	public boolean offer(PublicDataChangedEvent event) {
+		String id = event.getDataObject().getId();
+		this._lock.lock();
+		try {
+			PendingUpdate pending = this._pending.get(id);
+			if (null != pending) {
+				pending._event = event;
+				return true;
+			}
+			if (this._pending.size() >= this._capacity) {
+				return false;
+			}
+			this._pending.put(id, new PendingUpdate(event));
+			this._notEmpty.signal();
+			return true;
+		} finally {
+			this._lock.unlock();
+		}
+	}
+
+	/**
+	 * Remove and return the oldest queued events, waiting up to the given
+	 * timeout when the queue is empty.
+	 *
+	 * @param max The max number of events to return.
+	 * @param timeout The max wait, in milliseconds.
+	 * @return The events, empty if the timeout elapsed.
+	 * @throws InterruptedException If interrupted while waiting.
+	 */
+	public List<PublicDataChangedEvent> take(int max, long timeout) throws InterruptedException {
+		List<PublicDataChangedEvent> events = new ArrayList<>();
+		long nanos = TimeUnit.MILLISECONDS.toNanos(timeout);
+		this._lock.lockInterruptibly();
+		try {
+			while (this._pending.isEmpty()) {
+				if (nanos <= 0) {
+					return events;
+				}
+				nanos = this._notEmpty.awaitNanos(nanos);
+			}
+			Iterator<PendingUpdate> iter = this._pending.values().iterator();
+			while (iter.hasNext() && events.size() < max) {
+				events.add(iter.next()._event);
+				iter.remove();
+			}
+		} finally {
+			this._lock.unlock();
+		}
+		return events;
+	}
+
+	/**
+	 * Wake up a consumer waiting for events.
+	 */
+	public void signal() {
+		this._lock.lock();
+		try {
+			this._notEmpty.signalAll();
+		} finally {
+			this._lock.unlock();
+		}
+	}
+
+	public int size() {
+		this._lock.lock();
+		try {
+			return this._pending.size();
+		} finally {
+			this._lock.unlock();
+		}
+	}
+
+	/**
+	 * Return the time the oldest queued event is waiting.
+	 *
+	 * @return The wait in milliseconds, 0 if the queue is empty.
+	 */
+	public long getLag() {
+		this._lock.lock();
+		try {
+			if (this._pending.isEmpty()) {
+				return 0;
+			}
+			return System.currentTimeMillis() - this._pending.values().iterator().next()._enqueueTime;
+		} finally {
+			this._lock.unlock();
+		}
+	}
+
+	private static class PendingUpdate {
+
+		private PendingUpdate(PublicDataChangedEvent event) {
+			this._event = event;
+		}
+
+		private PublicDataChangedEvent _event;
+		private final long _enqueueTime = System.currentTimeMillis();
+
+	}
+
+	private final int _capacity;
+	private final Map<String, PendingUpdate> _pending = new LinkedHashMap<>();
+	private final ReentrantLock _lock = new ReentrantLock();
+	private final Condition _notEmpty = this._lock.newCondition();
+
+}
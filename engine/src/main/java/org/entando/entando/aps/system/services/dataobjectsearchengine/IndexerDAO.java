@@ -24,6 +24,7 @@ import com.agiletec.aps.system.services.category.Category;
 import com.agiletec.aps.system.services.category.ICategoryManager;
 import com.agiletec.aps.system.services.lang.ILangManager;
 import com.agiletec.aps.system.services.lang.Lang;
+import org.apache.commons.lang3.StringUtils;
 import org.apache.lucene.analysis.Analyzer;
 import org.apache.lucene.analysis.standard.StandardAnalyzer;
 import org.apache.lucene.document.*;
@@ -32,18 +33,30 @@ import org.apache.lucene.index.IndexWriterConfig;
 import org.apache.lucene.index.Term;
 import org.apache.lucene.store.Directory;
 import org.apache.lucene.store.FSDirectory;
-import org.apache.lucene.store.SimpleFSLockFactory;
+import org.apache.lucene.util.BytesRef;
+import org.apache.lucene.util.NumericUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
- * Data Access Object dedita alla indicizzazione di documenti.
+ * Data Access Object dedita alla indicizzazione di documenti. A single
+ * IndexWriter is kept open for every index directory and shared by the
+ * indexers of that directory; the changes are committed after every operation
+ * or, when a commit interval is set, by a background task every interval.
  *
  * @author E.Santoboni
  */
@@ -51,7 +64,23 @@ public class IndexerDAO implements IIndexerDAO {
 
     private static final Logger logger = LoggerFactory.getLogger(IndexerDAO.class);
 
-    private Directory dir;
+    private static final int SORT_VALUE_MAX_LENGTH = 100;
+
+    private static final Map<Path, SharedWriter> WRITERS = new HashMap<>();
+
+    private Path indexPath;
+
+    private IndexWriter writer;
+
+    private double ramBufferSizeMB = IndexWriterConfig.DEFAULT_RAM_BUFFER_SIZE_MB;
+
+    private int commitInterval;
+
+    private ScheduledExecutorService commitScheduler;
+
+    private final AtomicBoolean uncommittedChanges = new AtomicBoolean(false);
+
+    private Runnable commitListener;
 
     private ILangManager langManager;
 
@@ -66,7 +95,17 @@ public class IndexerDAO implements IIndexerDAO {
     @Override
     public void init(File dir) throws ApsSystemException {
         try {
-            this.dir = FSDirectory.open(dir.toPath(), SimpleFSLockFactory.INSTANCE);
+            this.indexPath = dir.toPath().toAbsolutePath().normalize();
+            this.writer = this.acquireWriter(this.indexPath);
+            if (this.getCommitInterval() > 0) {
+                this.commitScheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+                    Thread thread = new Thread(r, "IndexerCommit_" + dir.getName());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+                this.commitScheduler.scheduleWithFixedDelay(this::commitChanges,
+                        this.getCommitInterval(), this.getCommitInterval(), TimeUnit.SECONDS);
+            }
         } catch (Throwable t) {
             logger.error("Error creating directory", t);
             throw new ApsSystemException("Error creating directory", t);
@@ -75,23 +114,55 @@ public class IndexerDAO implements IIndexerDAO {
     }
 
     @Override
-    public synchronized void add(IApsEntity entity) throws ApsSystemException {
-        IndexWriter writer = null;
+    public void add(IApsEntity entity) throws ApsSystemException {
         try {
-            writer = new IndexWriter(this.dir, this.getIndexWriterConfig());
             Document document = this.createDocument(entity);
-            writer.addDocument(document);
+            this.writer.addDocument(document);
+            this.afterChange();
         } catch (Throwable t) {
             logger.error("Errore saving entity {}", entity.getId(), t);
             throw new ApsSystemException("Error saving entity", t);
-        } finally {
-            if (null != writer) {
+        }
+    }
+
+    @Override
+    public int addAll(Collection<? extends IApsEntity> entities) throws ApsSystemException {
+        int failed = 0;
+        try {
+            for (IApsEntity entity : entities) {
+                try {
+                    this.writer.addDocument(this.createDocument(entity));
+                } catch (ApsSystemException e) {
+                    logger.error("Errore saving entity {}", entity.getId(), e);
+                    failed++;
+                }
+            }
+            this.uncommittedChanges.set(true);
+            this.commit();
+            return failed;
+        } catch (IOException e) {
+            logger.error("Error saving entities", e);
+            throw new ApsSystemException("Error saving entities", e);
+        }
+    }
+
+    @Override
+    public void updateAll(Collection<? extends IApsEntity> entities, Collection<String> deletedIds) throws ApsSystemException {
+        try {
+            for (IApsEntity entity : entities) {
                 try {
-                    writer.close();
-                } catch (IOException ex) {
-                    logger.error("Error closing IndexWriter", ex);
+                    this.writer.updateDocument(new Term(DATAOBJECT_ID_FIELD_NAME, entity.getId()), this.createDocument(entity));
+                } catch (ApsSystemException e) {
+                    logger.error("Errore saving entity {}", entity.getId(), e);
                 }
             }
+            for (String id : deletedIds) {
+                this.writer.deleteDocuments(new Term(DATAOBJECT_ID_FIELD_NAME, id));
+            }
+            this.afterChange();
+        } catch (IOException e) {
+            logger.error("Error updating entities", e);
+            throw new ApsSystemException("Error updating entities", e);
         }
     }
 
@@ -147,6 +218,7 @@ public class IndexerDAO implements IIndexerDAO {
         }
         document.add(new StringField(DATAOBJECT_CATEGORY_FIELD_NAME,
                 categoryToIndex.getPath(DATAOBJECT_CATEGORY_SEPARATOR, false, this.getCategoryManager()), Field.Store.YES));
+        document.add(new SortedSetDocValuesField(DATAOBJECT_CATEGORY_FACET_FIELD_NAME, new BytesRef(categoryToIndex.getCode())));
         Category parentCategory = this.getCategoryManager().getCategory(categoryToIndex.getParentCode());
         this.indexCategory(document, parentCategory);
     }
@@ -178,9 +250,11 @@ public class IndexerDAO implements IIndexerDAO {
                 for (int i = 0; i < searchInfos.size(); i++) {
                     AttributeSearchInfo info = searchInfos.get(i);
                     Field field = null;
+                    BytesRef sortValue = null;
                     if (null != info.getDate()) {
-                        field = new TextField(name,
-                                DateTools.timeToString(info.getDate().getTime(), DateTools.Resolution.MINUTE), Field.Store.YES);
+                        String value = DateTools.timeToString(info.getDate().getTime(), DateTools.Resolution.MINUTE);
+                        field = new TextField(name, value, Field.Store.YES);
+                        sortValue = new BytesRef(value);
                     } else if (null != info.getBigDecimal()) {
                         int value = info.getBigDecimal().intValue();
                         field = new IntPoint(name, value);
@@ -188,10 +262,16 @@ public class IndexerDAO implements IIndexerDAO {
                         //For int points a separate stored field must be added for future indexed search
                         StoredField stored = new StoredField(name, value);
                         document.add(stored);
-                    } else {
+                        sortValue = new BytesRef(new byte[Integer.BYTES]);
+                        NumericUtils.intToSortableBytes(value, sortValue.bytes, 0);
+                    } else if (null != info.getString()) {
                         field = new TextField(name, info.getString(), Field.Store.YES);
+                        sortValue = new BytesRef(StringUtils.left(info.getString().toLowerCase(), SORT_VALUE_MAX_LENGTH));
+                    }
+                    if (null != field) {
+                        document.add(field);
+                        document.add(new SortedSetDocValuesField(name, sortValue));
                     }
-                    document.add(field);
                 }
             }
         }
@@ -207,20 +287,92 @@ public class IndexerDAO implements IIndexerDAO {
      * @throws ApsSystemException In caso di errore
      */
     @Override
-    public synchronized void delete(String name, String value) throws ApsSystemException {
+    public void delete(String name, String value) throws ApsSystemException {
         try {
-            IndexWriter writer = new IndexWriter(this.dir, this.getIndexWriterConfig());
-            writer.deleteDocuments(new Term(name, value));
-            writer.close();
+            this.writer.deleteDocuments(new Term(name, value));
+            this.afterChange();
         } catch (IOException e) {
             logger.error("Error deleting document", e);
             throw new ApsSystemException("Error deleting document", e);
         }
     }
 
+    private void afterChange() throws IOException {
+        this.uncommittedChanges.set(true);
+        if (null == this.commitScheduler) {
+            this.commit();
+        }
+    }
+
+    /**
+     * Commit the pending changes, so that they are visible to new searchers.
+     *
+     * @throws IOException In case of error
+     */
+    protected void commit() throws IOException {
+        if (this.uncommittedChanges.getAndSet(false)) {
+            this.writer.commit();
+            if (null != this.commitListener) {
+                this.commitListener.run();
+            }
+        }
+    }
+
+    private void commitChanges() {
+        try {
+            this.commit();
+        } catch (Throwable t) {
+            logger.error("Error committing index changes", t);
+        }
+    }
+
     @Override
     public void close() {
-        // nothing to do
+        if (null != this.commitScheduler) {
+            this.commitScheduler.shutdownNow();
+        }
+        if (null != this.writer) {
+            this.commitChanges();
+            this.releaseWriter(this.indexPath);
+            this.writer = null;
+        }
+    }
+
+    private IndexWriter acquireWriter(Path path) throws IOException {
+        synchronized (WRITERS) {
+            SharedWriter shared = WRITERS.get(path);
+            if (null == shared) {
+                Directory directory = FSDirectory.open(path);
+                IndexWriterConfig config = this.getIndexWriterConfig();
+                config.setRAMBufferSizeMB(this.getRamBufferSizeMB());
+                IndexWriter indexWriter = new IndexWriter(directory, config);
+                indexWriter.commit();
+                shared = new SharedWriter(directory, indexWriter);
+                WRITERS.put(path, shared);
+            }
+            shared.references++;
+            return shared.writer;
+        }
+    }
+
+    private void releaseWriter(Path path) {
+        synchronized (WRITERS) {
+            SharedWriter shared = WRITERS.get(path);
+            if (null == shared || --shared.references > 0) {
+                return;
+            }
+            WRITERS.remove(path);
+            try {
+                shared.writer.close();
+            } catch (IOException e) {
+                logger.error("Error closing IndexWriter", e);
+            }
+            try {
+                shared.directory.close();
+            } catch (IOException e) {
+                logger.error("Error closing index directory", e);
+            }
+        }
     }
 
     private Analyzer getAnalyzer() {
@@ -231,6 +383,24 @@ public class IndexerDAO implements IIndexerDAO {
         return new IndexWriterConfig(this.getAnalyzer());
     }
 
+    protected double getRamBufferSizeMB() {
+        return ramBufferSizeMB;
+    }
+
+    @Override
+    public void setRamBufferSizeMB(double ramBufferSizeMB) {
+        this.ramBufferSizeMB = ramBufferSizeMB;
+    }
+
+    protected int getCommitInterval() {
+        return commitInterval;
+    }
+
+    @Override
+    public void setCommitInterval(int commitInterval) {
+        this.commitInterval = commitInterval;
+    }
+
     protected ILangManager getLangManager() {
         return langManager;
     }
@@ -248,4 +418,22 @@ public class IndexerDAO implements IIndexerDAO {
         this.categoryManager = categoryManager;
     }
 
+    @Override
+    public void setCommitListener(Runnable commitListener) {
+        this.commitListener = commitListener;
+    }
+
+    private static class SharedWriter {
+
+        private final Directory directory;
+        private final IndexWriter writer;
+        private int references;
+
+        SharedWriter(Directory directory, IndexWriter writer) {
+            this.directory = directory;
+            this.writer = writer;
+        }
+
+    }
+
 }
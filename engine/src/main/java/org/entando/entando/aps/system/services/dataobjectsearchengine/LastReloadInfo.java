@@ -14,9 +14,11 @@
 package org.entando.entando.aps.system.services.dataobjectsearchengine;
 
 import java.util.Date;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
- * Informazioni sull'ultimo ricaricamento indici effettuato.
+ * Informazioni sull'ultimo ricaricamento indici effettuato. While a reload is
+ * running the same object reports its progress.
  *
  * @author E.Santoboni
  */
@@ -60,8 +62,76 @@ public class LastReloadInfo {
 		this._result = result;
 	}
 
+	/**
+	 * Return the date when the reload started.
+	 *
+	 * @return The start date of the reload.
+	 */
+	public Date getStartDate() {
+		return _startDate;
+	}
+
+	protected void setStartDate(Date startDate) {
+		this._startDate = startDate;
+	}
+
+	/**
+	 * Return the number of data objects indexed so far.
+	 *
+	 * @return The number of indexed data objects.
+	 */
+	public int getIndexed() {
+		return _indexed.get();
+	}
+
+	protected void addIndexed(int indexed) {
+		this._indexed.addAndGet(indexed);
+	}
+
+	/**
+	 * Return the number of data objects that could not be indexed.
+	 *
+	 * @return The number of failed data objects.
+	 */
+	public int getFailed() {
+		return _failed.get();
+	}
+
+	protected void addFailed(int failed) {
+		this._failed.addAndGet(failed);
+	}
+
+	/**
+	 * Return the duration of the reload, up to now if it is still running.
+	 *
+	 * @return The duration in milliseconds.
+	 */
+	public long getElapsedTime() {
+		if (null == this.getStartDate()) {
+			return 0;
+		}
+		Date end = (null != this.getDate()) ? this.getDate() : new Date();
+		return end.getTime() - this.getStartDate().getTime();
+	}
+
+	/**
+	 * Return the number of data objects indexed per second.
+	 *
+	 * @return The throughput of the reload.
+	 */
+	public double getThroughput() {
+		long elapsed = this.getElapsedTime();
+		if (elapsed <= 0) {
+			return 0;
+		}
+		return this.getIndexed() * 1000d / elapsed;
+	}
+
 	private Date _date;
 	private int _result;
+	private Date _startDate;
+	private final AtomicInteger _indexed = new AtomicInteger();
+	private final AtomicInteger _failed = new AtomicInteger();
 
 	public static final int ID_FAILURE_RESULT = 0;
 	public static final int ID_SUCCESS_RESULT = 1;
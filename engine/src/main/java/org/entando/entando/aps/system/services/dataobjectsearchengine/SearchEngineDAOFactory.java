@@ -58,6 +58,8 @@ public class SearchEngineDAOFactory implements ISearchEngineDAOFactory {
             indexerDao = (IIndexerDAO) indexerClass.newInstance();
             indexerDao.setLangManager(this.getLangManager());
             indexerDao.setCategoryManager(this.getCategoryManager());
+            indexerDao.setRamBufferSizeMB(this.getRamBufferSizeMB());
+            indexerDao.setCommitInterval(this.getCommitInterval());
             indexerDao.init(this.getDirectory(subDir));
         } catch (Throwable t) {
             _logger.error("Error getting indexer", t);
@@ -157,6 +159,22 @@ public class SearchEngineDAOFactory implements ISearchEngineDAOFactory {
         this._indexDiskRootFolder = indexDiskRootFolder;
     }
 
+    protected double getRamBufferSizeMB() {
+        return _ramBufferSizeMB;
+    }
+
+    public void setRamBufferSizeMB(double ramBufferSizeMB) {
+        this._ramBufferSizeMB = ramBufferSizeMB;
+    }
+
+    protected int getCommitInterval() {
+        return _commitInterval;
+    }
+
+    public void setCommitInterval(int commitInterval) {
+        this._commitInterval = commitInterval;
+    }
+
     protected ConfigInterface getConfigManager() {
         return _configManager;
     }
@@ -187,6 +205,9 @@ public class SearchEngineDAOFactory implements ISearchEngineDAOFactory {
     private String _indexDiskRootFolder;
     private String _subDirectory;
 
+    private double _ramBufferSizeMB = 16;
+    private int _commitInterval;
+
     private ConfigInterface _configManager;
     private ILangManager _langManager;
     private ICategoryManager categoryManager;
@@ -19,7 +19,7 @@ import com.agiletec.aps.system.common.entity.event.EntityTypesChangingEvent;
 import com.agiletec.aps.system.common.entity.event.EntityTypesChangingObserver;
 import com.agiletec.aps.system.common.entity.model.IApsEntity;
 import com.agiletec.aps.system.common.entity.model.attribute.AttributeInterface;
-import com.agiletec.aps.system.common.notify.ApsEvent;
+import com.agiletec.aps.system.common.model.dao.SearcherDaoPaginatedResult;
 import com.agiletec.aps.system.common.searchengine.IndexableAttributeInterface;
 import com.agiletec.aps.system.common.tree.ITreeNode;
 import com.agiletec.aps.system.exception.ApsSystemException;
@@ -55,6 +55,26 @@ public class SearchEngineManager extends AbstractService
 	public void init() throws Exception {
 		this._indexerDao = this.getFactory().getIndexer();
 		this._searcherDao = this.getFactory().getSearcher();
+		this._indexerDao.setCommitListener(this._searcherDao::refresh);
+		this.startIndexWorker();
+	}
+
+	@Override
+	protected void release() {
+		this.stopIndexWorker();
+		if (null != this._indexerDao) {
+			this._indexerDao.close();
+		}
+		if (null != this._searcherDao) {
+			this._searcherDao.close();
+		}
+		super.release();
+	}
+
+	@Override
+	public void destroy() {
+		this.release();
+		super.destroy();
 	}
 
 	@Override
@@ -67,41 +87,124 @@ public class SearchEngineManager extends AbstractService
 
 	@Override
 	public void updateFromPublicDataObjectChanged(PublicDataChangedEvent event) {
-		if (this.getStatus() == STATUS_RELOADING_INDEXES_IN_PROGRESS) {
-			this._publicContentChangedEventQueue.add(0, event);
-		} else {
-			this.manageEvent(event);
+		if (!this._indexQueue.offer(event)) {
+			_logger.warn("The index update queue is full: the change of {} is not indexed and the indexes need to be reloaded",
+					event.getDataObject().getId());
+			this.markMissedIndexUpdate();
+		}
+	}
+
+	/**
+	 * Record that a change has not been indexed: the indexes need to be
+	 * reloaded, at the end of the reload in progress if any.
+	 */
+	private void markMissedIndexUpdate() {
+		synchronized (this._reloadMonitor) {
+			if (this.getStatus() == STATUS_RELOADING_INDEXES_IN_PROGRESS) {
+				this._missedIndexUpdates = true;
+			} else {
+				this.setStatus(STATUS_NEED_TO_RELOAD_INDEXES);
+			}
 		}
 	}
 
-	private void manageEvent(PublicDataChangedEvent event) {
-		DataObject dataObject = event.getDataObject();
+	private void startIndexWorker() {
+		this._indexQueue = new IndexUpdateQueue(this.getIndexQueueCapacity());
+		this._indexWorkerRunning = true;
+		this._indexWorker = new Thread(this::processIndexQueue, INDEX_WORKER_THREAD_NAME_PREFIX + this.getName());
+		this._indexWorker.setDaemon(true);
+		this._indexWorker.start();
+	}
+
+	/**
+	 * Stop the indexing worker, waiting for the batch it is applying, then
+	 * apply the events still queued.
+	 */
+	private void stopIndexWorker() {
+		if (null == this._indexWorker) {
+			return;
+		}
+		this._indexWorkerRunning = false;
+		this.sellOfQueueEvents();
 		try {
-			switch (event.getOperationCode()) {
-				case PublicDataChangedEvent.INSERT_OPERATION_CODE:
-					this.addEntityToIndex(dataObject);
-					break;
-				case PublicDataChangedEvent.REMOVE_OPERATION_CODE:
-					this.deleteIndexedEntity(dataObject.getId());
-					break;
-				case PublicDataChangedEvent.UPDATE_OPERATION_CODE:
-					this.updateIndexedEntity(dataObject);
-					break;
+			this._indexWorker.join();
+			this._indexWorker = null;
+			this.applyEventsWhenReady(this._indexQueue.take(Integer.MAX_VALUE, 0));
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			_logger.warn("Interrupted stopping the indexing worker: the queued changes are not indexed");
+			this.markMissedIndexUpdate();
+		}
+	}
+
+	private void processIndexQueue() {
+		while (this._indexWorkerRunning) {
+			try {
+				this.applyEventsWhenReady(this._indexQueue.take(this.getIndexBatchSize(), INDEX_WORKER_POLL_TIMEOUT));
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return;
+			} catch (Throwable t) {
+				_logger.error("Error in the indexing worker", t);
 			}
+		}
+	}
+
+	/**
+	 * Apply the events to the current indexes, waiting for the end of the
+	 * reload in progress. The status is checked holding the monitor a reload
+	 * starts with, so the events taken while a reload starts are applied to
+	 * the new indexes and never to the ones being replaced; if the worker
+	 * stops before the end of the reload, the events are not applied and the
+	 * indexes are marked as to be reloaded.
+	 */
+	private void applyEventsWhenReady(List<PublicDataChangedEvent> events) throws InterruptedException {
+		if (events.isEmpty()) {
+			return;
+		}
+		synchronized (this._reloadMonitor) {
+			while (this.getStatus() == STATUS_RELOADING_INDEXES_IN_PROGRESS && this._indexWorkerRunning) {
+				this._reloadMonitor.wait(INDEX_WORKER_POLL_TIMEOUT);
+			}
+			if (this.getStatus() == STATUS_RELOADING_INDEXES_IN_PROGRESS) {
+				_logger.warn("Indexing stopped during a reload: {} changes are not indexed", events.size());
+				this.markMissedIndexUpdate();
+			} else {
+				this.applyEvents(events);
+			}
+		}
+	}
+
+	private void applyEvents(List<PublicDataChangedEvent> events) {
+		if (events.isEmpty()) {
+			return;
+		}
+		List<IApsEntity> entities = new ArrayList<>();
+		List<String> deletedIds = new ArrayList<>();
+		for (PublicDataChangedEvent event : events) {
+			DataObject dataObject = event.getDataObject();
+			if (event.getOperationCode() == PublicDataChangedEvent.REMOVE_OPERATION_CODE) {
+				deletedIds.add(dataObject.getId());
+			} else {
+				entities.add(dataObject);
+			}
+		}
+		try {
+			this._indexerDao.updateAll(entities, deletedIds);
 		} catch (Throwable t) {
-			_logger.error("Error on event notification", t);
+			_logger.error("Error indexing {} changes: the indexes need to be reloaded", events.size(), t);
+			this.markMissedIndexUpdate();
 		}
 	}
 
+	/**
+	 * Resume the indexing worker at the end of a reload of the indexes.
+	 */
 	protected void sellOfQueueEvents() {
-		int size = this._publicContentChangedEventQueue.size();
-		if (size > 0) {
-			for (int i = 0; i < size; i++) {
-				PublicDataChangedEvent event = (PublicDataChangedEvent) this._publicContentChangedEventQueue.get(0);
-				this.manageEvent(event);
-				this._publicContentChangedEventQueue.remove(0);
-			}
+		synchronized (this._reloadMonitor) {
+			this._reloadMonitor.notifyAll();
 		}
+		this._indexQueue.signal();
 	}
 
 	@Override
@@ -117,10 +220,14 @@ public class SearchEngineManager extends AbstractService
 			try {
 				this._newTempSubDirectory = subDirectory;
 				IIndexerDAO newIndexer = this.getFactory().getIndexer(_newTempSubDirectory);
-				loaderThread = new IndexLoaderThread(this, this.getDataObjectManager(), newIndexer);
+				int workers = (this.getIndexLoaderThreads() > 0) ? this.getIndexLoaderThreads() : Runtime.getRuntime().availableProcessors();
+				loaderThread = new IndexLoaderThread(this, this.getDataObjectManager(), newIndexer, workers);
 				String threadName = RELOAD_THREAD_NAME_PREFIX + DateConverter.getFormattedDate(new Date(), "yyyyMMddHHmmss");
 				loaderThread.setName(threadName);
-				this.setStatus(STATUS_RELOADING_INDEXES_IN_PROGRESS);
+				synchronized (this._reloadMonitor) {
+					this.setStatus(STATUS_RELOADING_INDEXES_IN_PROGRESS);
+				}
+				this._currentReloadInfo = loaderThread.getReloadInfo();
 				loaderThread.start();
 				_logger.info("Reload Contents References job started");
 			} catch (Throwable t) {
@@ -190,20 +297,37 @@ public class SearchEngineManager extends AbstractService
 		try {
 			if (info.getResult() == LastReloadInfo.ID_SUCCESS_RESULT) {
 				ISearcherDAO newSearcherDAO = this.getFactory().getSearcher(this._newTempSubDirectory);
-				this.getFactory().updateSubDir(_newTempSubDirectory);
+				newIndexerDAO.setCommitListener(newSearcherDAO::refresh);
+				IIndexerDAO oldIndexerDAO = this._indexerDao;
+				ISearcherDAO oldSearcherDAO = this._searcherDao;
 				this._indexerDao = newIndexerDAO;
 				this._searcherDao = newSearcherDAO;
 				this._lastReloadInfo = info;
+				if (null != oldIndexerDAO) {
+					oldIndexerDAO.close();
+				}
+				if (null != oldSearcherDAO) {
+					oldSearcherDAO.close();
+				}
+				this.getFactory().updateSubDir(_newTempSubDirectory);
 			} else if (null != this._newTempSubDirectory) {
+				newIndexerDAO.close();
 				this.getFactory().deleteSubDirectory(this._newTempSubDirectory);
 			}
 		} catch (Throwable t) {
 			_logger.error("error updating LastReloadInfo", t);
 		} finally {
-			if (this.getStatus() != STATUS_NEED_TO_RELOAD_INDEXES) {
-				this.setStatus(STATUS_READY);
+			synchronized (this._reloadMonitor) {
+				if (this._missedIndexUpdates) {
+					_logger.warn("Some changes have not been indexed during the reload: the indexes need to be reloaded");
+					this._missedIndexUpdates = false;
+					this.setStatus(STATUS_NEED_TO_RELOAD_INDEXES);
+				} else if (this.getStatus() != STATUS_NEED_TO_RELOAD_INDEXES) {
+					this.setStatus(STATUS_READY);
+				}
 			}
 			this._newTempSubDirectory = null;
+			this._currentReloadInfo = null;
 		}
 	}
 
@@ -257,6 +381,17 @@ public class SearchEngineManager extends AbstractService
 		return contentsId;
 	}
 
+	@Override
+	public SearcherDaoPaginatedResult<String> searchPaginatedEntityId(SearchEngineFilter[] filters,
+			Collection<ITreeNode> categories, Collection<String> allowedGroups) throws ApsSystemException {
+		try {
+			return _searcherDao.searchPaginatedContentsId(filters, categories, allowedGroups);
+		} catch (Throwable t) {
+			_logger.error("Error searching paginated content id list", t);
+			throw new ApsSystemException("Error searching paginated content id list", t);
+		}
+	}
+
 	//@Override
 	public FacetedContentsResult searchFacetedEntities(SearchEngineFilter[] filters, Collection<ITreeNode> categories, Collection<String> allowedGroups) throws ApsSystemException {
 		FacetedContentsResult contentsId = null;
@@ -269,6 +404,21 @@ public class SearchEngineManager extends AbstractService
 		return contentsId;
 	}
 
+	@Override
+	public LastReloadInfo getCurrentReloadInfo() {
+		return this._currentReloadInfo;
+	}
+
+	@Override
+	public int getIndexQueueSize() {
+		return this._indexQueue.size();
+	}
+
+	@Override
+	public long getIndexQueueLag() {
+		return this._indexQueue.getLag();
+	}
+
 	@Override
 	public int getStatus() {
 		return this._status;
@@ -305,16 +455,68 @@ public class SearchEngineManager extends AbstractService
 		this.dataObjectManager = dataObjectManager;
 	}
 
+	protected int getIndexLoaderThreads() {
+		return _indexLoaderThreads;
+	}
+
+	/**
+	 * Set the number of workers parsing and indexing the data objects during
+	 * a reload. With 0 the number of available processors is used.
+	 *
+	 * @param indexLoaderThreads The number of workers.
+	 */
+	public void setIndexLoaderThreads(int indexLoaderThreads) {
+		this._indexLoaderThreads = indexLoaderThreads;
+	}
+
+	protected int getIndexQueueCapacity() {
+		return _indexQueueCapacity;
+	}
+
+	/**
+	 * Set the max number of DataObjects waiting to be indexed; when full, the
+	 * changes are not indexed and the indexes are marked as to be reloaded.
+	 *
+	 * @param indexQueueCapacity The capacity of the queue.
+	 */
+	public void setIndexQueueCapacity(int indexQueueCapacity) {
+		this._indexQueueCapacity = indexQueueCapacity;
+	}
+
+	protected int getIndexBatchSize() {
+		return _indexBatchSize;
+	}
+
+	/**
+	 * Set the max number of queued changes applied to the index with a
+	 * single commit.
+	 *
+	 * @param indexBatchSize The size of the batch.
+	 */
+	public void setIndexBatchSize(int indexBatchSize) {
+		this._indexBatchSize = indexBatchSize;
+	}
+
 	private ISearchEngineDAOFactory _factory;
 
 	private IIndexerDAO _indexerDao;
 	private ISearcherDAO _searcherDao;
 
-	private int _status;
+	private volatile int _status;
 	private LastReloadInfo _lastReloadInfo;
-	private List<ApsEvent> _publicContentChangedEventQueue = new ArrayList<ApsEvent>();
+	private volatile LastReloadInfo _currentReloadInfo;
+	private int _indexLoaderThreads;
+	private int _indexQueueCapacity = 10000;
+	private int _indexBatchSize = 100;
+	private IndexUpdateQueue _indexQueue;
+	private Thread _indexWorker;
+	private volatile boolean _indexWorkerRunning;
+	private boolean _missedIndexUpdates;
+	private final Object _reloadMonitor = new Object();
 
 	public static final String RELOAD_THREAD_NAME_PREFIX = "RELOAD_INDEX_";
+	public static final String INDEX_WORKER_THREAD_NAME_PREFIX = "INDEX_WORKER_";
+	private static final long INDEX_WORKER_POLL_TIMEOUT = 1000;
 
 	private String _newTempSubDirectory;
 
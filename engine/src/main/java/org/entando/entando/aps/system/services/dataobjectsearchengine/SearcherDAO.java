@@ -13,6 +13,8 @@
  */
 package org.entando.entando.aps.system.services.dataobjectsearchengine;
 
+import com.agiletec.aps.system.common.FieldSearchFilter;
+import com.agiletec.aps.system.common.model.dao.SearcherDaoPaginatedResult;
 import com.agiletec.aps.system.common.tree.ITreeNode;
 import com.agiletec.aps.system.exception.ApsSystemException;
 import com.agiletec.aps.system.services.category.ICategoryManager;
@@ -21,11 +23,11 @@ import org.apache.lucene.document.DateTools;
 import org.apache.lucene.document.Document;
 import org.apache.lucene.index.DirectoryReader;
 import org.apache.lucene.index.IndexNotFoundException;
-import org.apache.lucene.index.IndexReader;
 import org.apache.lucene.index.Term;
 import org.apache.lucene.search.*;
-import org.apache.lucene.store.FSDirectory;
-import org.apache.lucene.store.SimpleFSDirectory;
+import org.apache.lucene.store.AlreadyClosedException;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.MMapDirectory;
 import org.apache.lucene.util.BytesRef;
 import org.entando.entando.aps.system.services.searchengine.FacetedContentsResult;
 import org.entando.entando.aps.system.services.searchengine.SearchEngineFilter;
@@ -38,7 +40,8 @@ import java.util.*;
 
 /**
  * Data Access Object dedita alle operazioni di ricerca ad uso del motore di
- * ricerca interno.
+ * ricerca interno. The searches share the IndexSearcher of a SearcherManager,
+ * refreshed after the commits of the indexer.
  *
  * @author E.Santoboni
  */
@@ -46,9 +49,15 @@ public class SearcherDAO implements ISearcherDAO {
 
     private static final Logger logger = LoggerFactory.getLogger(SearcherDAO.class);
 
+    private static final int SEARCH_PAGE_SIZE = 1000;
+
+    private static final Set<String> ID_FIELDS = Collections.singleton(IIndexerDAO.DATAOBJECT_ID_FIELD_NAME);
+
     private ICategoryManager categoryManager;
 
-    private File indexDir;
+    private Directory directory;
+
+    private SearcherManager searcherManager;
 
     /**
      * Inizializzazione del searcher.
@@ -58,23 +67,45 @@ public class SearcherDAO implements ISearcherDAO {
      */
     @Override
     public void init(File dir) throws ApsSystemException {
-        this.indexDir = dir;
+        try {
+            this.directory = new MMapDirectory(dir.toPath());
+        } catch (IOException e) {
+            logger.error("Error opening index directory", e);
+            throw new ApsSystemException("Error opening index directory", e);
+        }
     }
 
-    private IndexSearcher getSearcher() throws IOException {
-        FSDirectory directory = new SimpleFSDirectory(indexDir.toPath());
-        IndexReader reader = DirectoryReader.open(directory);
-        IndexSearcher searcher = new IndexSearcher(reader);
-        return searcher;
+    private synchronized SearcherManager getSearcherManager() throws IOException {
+        if (null == this.searcherManager) {
+            if (!DirectoryReader.indexExists(this.directory)) {
+                throw new IndexNotFoundException("no index in " + this.directory);
+            }
+            this.searcherManager = new SearcherManager(this.directory, null);
+        }
+        return this.searcherManager;
     }
 
-    private void releaseResources(IndexSearcher searcher) throws ApsSystemException {
+    private void releaseResources(SearcherManager manager, IndexSearcher searcher) throws ApsSystemException {
         try {
             if (searcher != null) {
-                searcher.getIndexReader().close();
+                manager.release(searcher);
+            }
+        } catch (IOException e) {
+            throw new ApsSystemException("Error releasing searcher", e);
+        }
+    }
+
+    @Override
+    public void refresh() {
+        try {
+            SearcherManager manager = this.searcherManager;
+            if (null != manager) {
+                manager.maybeRefresh();
             }
+        } catch (AlreadyClosedException e) {
+            logger.debug("Searcher already closed");
         } catch (IOException e) {
-            throw new ApsSystemException("Error closing searcher", e);
+            logger.error("Error refreshing searcher", e);
         }
     }
 
@@ -105,48 +136,59 @@ public class SearcherDAO implements ISearcherDAO {
         return this.searchContents(filters, categories, allowedGroups, false).getContentsId();
     }
 
+    @Override
+    public SearcherDaoPaginatedResult<String> searchPaginatedContentsId(SearchEngineFilter[] filters,
+            Collection<ITreeNode> categories, Collection<String> allowedGroups) throws ApsSystemException {
+        FacetedContentsResult result = this.searchContents(filters, categories, allowedGroups, false);
+        List<String> contentsId = (null != result.getContentsId()) ? result.getContentsId() : new ArrayList<>();
+        return new SearcherDaoPaginatedResult<>(result.getTotalSize(), contentsId);
+    }
+
     protected FacetedContentsResult searchContents(SearchEngineFilter[] filters,
             Collection<ITreeNode> categories, Collection<String> allowedGroups, boolean faceted) throws ApsSystemException {
         FacetedContentsResult result = new FacetedContentsResult();
         List<String> contentsId = new ArrayList<String>();
+        SearcherManager manager = null;
         IndexSearcher searcher = null;
         try {
-            searcher = this.getSearcher();
+            manager = this.getSearcherManager();
+            searcher = manager.acquire();
+            SearchEngineFilter pagination = this.getPaginationFilter(filters);
+            SearchEngineFilter[] queryFilters = this.getQueryFilters(filters);
             Query query = null;
-            if ((null == filters || filters.length == 0)
+            if (queryFilters.length == 0
                     && (null == categories || categories.isEmpty())
                     && (allowedGroups != null && allowedGroups.contains(Group.ADMINS_GROUP_NAME))) {
                 query = new MatchAllDocsQuery();
             } else {
-                query = this.createQuery(filters, categories, allowedGroups);
+                query = this.createQuery(queryFilters, categories, allowedGroups);
             }
-            TopDocs topDocs = searcher.search(query, 1000);
-            ScoreDoc[] scoreDocs = topDocs.scoreDocs;
-            Map<String, Integer> occurrences = new HashMap<String, Integer>();
-            if (scoreDocs.length > 0) {
+            Sort sort = this.createSort(queryFilters);
+            int offset = (null != pagination && null != pagination.getOffset()) ? Math.max(0, pagination.getOffset()) : 0;
+            Integer limit = (null != pagination && null != pagination.getLimit()) ? Math.max(0, pagination.getLimit()) : null;
+            int pageSize = (null != limit) ? (int) Math.max(1, Math.min(Integer.MAX_VALUE - 1, (long) offset + limit)) : SEARCH_PAGE_SIZE;
+            CategoryFacetsCollector facetsCollector = faceted ? new CategoryFacetsCollector() : null;
+            TopDocs topDocs = this.search(searcher, query, sort, null, pageSize, facetsCollector);
+            result.setTotalSize((int) topDocs.totalHits);
+            int position = 0;
+            while (true) {
+                ScoreDoc[] scoreDocs = topDocs.scoreDocs;
                 for (int index = 0; index < scoreDocs.length; index++) {
-                    Document doc = searcher.doc(scoreDocs[index].doc);
-                    contentsId.add(doc.get(IIndexerDAO.DATAOBJECT_ID_FIELD_NAME));
-                    if (faceted) {
-                        Set<String> codes = new HashSet<String>();
-                        String[] categoryPaths = doc.getValues(IIndexerDAO.DATAOBJECT_CATEGORY_FIELD_NAME);
-                        for (int i = 0; i < categoryPaths.length; i++) {
-                            String categoryPath = categoryPaths[i];
-                            String[] paths = categoryPath.split(IIndexerDAO.DATAOBJECT_CATEGORY_SEPARATOR);
-                            codes.addAll(Arrays.asList(paths));
-                        }
-                        Iterator<String> iter = codes.iterator();
-                        while (iter.hasNext()) {
-                            String code = iter.next();
-                            Integer value = occurrences.get(code);
-                            if (null == value) {
-                                value = 0;
-                            }
-                            occurrences.put(code, (value + 1));
-                        }
+                    if (position++ < offset) {
+                        continue;
+                    }
+                    if (null != limit && contentsId.size() >= limit) {
+                        break;
                     }
+                    Document doc = searcher.doc(scoreDocs[index].doc, ID_FIELDS);
+                    contentsId.add(doc.get(IIndexerDAO.DATAOBJECT_ID_FIELD_NAME));
+                }
+                if (null != limit || scoreDocs.length < pageSize) {
+                    break;
                 }
+                topDocs = this.search(searcher, query, sort, scoreDocs[scoreDocs.length - 1], pageSize, null);
             }
+            Map<String, Integer> occurrences = faceted ? facetsCollector.getOccurrences() : new HashMap<String, Integer>();
             result.setOccurrences(occurrences);
             result.setContentsId(contentsId);
         } catch (IndexNotFoundException inf) {
@@ -155,11 +197,68 @@ public class SearcherDAO implements ISearcherDAO {
             logger.error("Error extracting documents", t);
             throw new ApsSystemException("Error extracting documents", t);
         } finally {
-            this.releaseResources(searcher);
+            this.releaseResources(manager, searcher);
         }
         return result;
     }
 
+    private TopDocs search(IndexSearcher searcher, Query query, Sort sort,
+            ScoreDoc after, int pageSize, Collector facetsCollector) throws IOException {
+        if (null == facetsCollector) {
+            if (null != sort) {
+                return searcher.searchAfter(after, query, pageSize, sort);
+            }
+            return searcher.searchAfter(after, query, pageSize);
+        }
+        TopDocsCollector<?> topDocsCollector = (null != sort)
+                ? TopFieldCollector.create(sort, pageSize, (FieldDoc) after, true, false, false)
+                : TopScoreDocCollector.create(pageSize, after);
+        searcher.search(query, MultiCollector.wrap(topDocsCollector, facetsCollector));
+        return topDocsCollector.topDocs();
+    }
+
+    private SearchEngineFilter getPaginationFilter(SearchEngineFilter[] filters) {
+        if (null != filters) {
+            for (SearchEngineFilter filter : filters) {
+                if (null != filter && null == filter.getKey()
+                        && (null != filter.getLimit() || null != filter.getOffset())) {
+                    return filter;
+                }
+            }
+        }
+        return null;
+    }
+
+    private SearchEngineFilter[] getQueryFilters(SearchEngineFilter[] filters) {
+        if (null == filters) {
+            return new SearchEngineFilter[0];
+        }
+        return Arrays.stream(filters)
+                .filter(filter -> null != filter && null != filter.getKey())
+                .toArray(SearchEngineFilter[]::new);
+    }
+
+    /**
+     * Create the sort of the results from the filters with an order. The
+     * values are read from the doc values of the fields.
+     *
+     * @param filters The filters of the search.
+     * @return The sort, or null to sort by relevance.
+     */
+    protected Sort createSort(SearchEngineFilter[] filters) {
+        List<SortField> sortFields = new ArrayList<>();
+        for (SearchEngineFilter filter : filters) {
+            if (null != filter.getOrder()) {
+                boolean reverse = FieldSearchFilter.Order.DESC.equals(filter.getOrder());
+                sortFields.add(new SortedSetSortField(filter.getKey(), reverse));
+            }
+        }
+        if (sortFields.isEmpty()) {
+            return null;
+        }
+        return new Sort(sortFields.toArray(new SortField[sortFields.size()]));
+    }
+
     protected Query createQuery(SearchEngineFilter[] filters,
             Collection<ITreeNode> categories, Collection<String> allowedGroups) {
         BooleanQuery.Builder mainQuery = new BooleanQuery.Builder();
@@ -265,8 +364,18 @@ public class SearcherDAO implements ISearcherDAO {
     }
 
     @Override
-    public void close() {
-        // nothing to do
+    public synchronized void close() {
+        try {
+            if (null != this.searcherManager) {
+                this.searcherManager.close();
+                this.searcherManager = null;
+            }
+            if (null != this.directory) {
+                this.directory.close();
+            }
+        } catch (IOException e) {
+            logger.error("Error closing searcher", e);
+        }
     }
 
     public ICategoryManager getCategoryManager() {
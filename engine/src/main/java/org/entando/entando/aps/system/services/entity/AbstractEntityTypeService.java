@@ -18,6 +18,7 @@ import com.agiletec.aps.system.common.entity.model.*;
 import com.agiletec.aps.system.common.entity.model.attribute.*;
 import com.agiletec.aps.system.common.entity.model.attribute.util.*;
 import com.agiletec.aps.system.common.searchengine.IndexableAttributeInterface;
+import com.agiletec.aps.system.common.model.dao.SearcherDaoPaginatedResult;
 import com.agiletec.aps.system.exception.ApsSystemException;
 import org.apache.commons.beanutils.*;
 import org.apache.commons.lang.ArrayUtils;
@@ -313,8 +314,11 @@ public abstract class AbstractEntityTypeService<I extends IApsEntity, O extends
             if (null == entityType) {
                 return;
             }
-            List<String> ids = entityManager.searchId(entityTypeCode, null);
-            if (!CollectionUtils.isEmpty(ids)) {
+            EntitySearchFilter[] filters = {
+                new EntitySearchFilter(IEntityManager.ENTITY_TYPE_CODE_FILTER_KEY, false, entityTypeCode, false),
+                new EntitySearchFilter(1, 0)};
+            SearcherDaoPaginatedResult<String> references = entityManager.searchPagedId(filters);
+            if (references.getCount() > 0) {
                 BeanPropertyBindingResult bindingResult = new BeanPropertyBindingResult(entityType, "entityType");
                 bindingResult.reject(AbstractEntityTypeValidator.ERRCODE_ENTITY_TYPE_REFERENCES, new Object[]{entityTypeCode}, "entityType.cannot.delete.references");
                 throw new ValidationConflictException(bindingResult);
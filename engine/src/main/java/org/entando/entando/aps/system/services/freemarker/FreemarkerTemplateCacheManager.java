@@ -0,0 +1,182 @@
+/*
+ * Copyright 2015-Present Entando Inc. (http://www.entando.com) All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+package org.entando.entando.aps.system.services.freemarker;
+
+import com.agiletec.aps.system.common.AbstractService;
+import com.agiletec.aps.system.exception.ApsSystemException;
+import com.agiletec.aps.system.services.pagemodel.PageModel;
+import com.agiletec.aps.system.services.pagemodel.events.PageModelChangedEvent;
+import com.agiletec.aps.system.services.pagemodel.events.PageModelChangedObserver;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import freemarker.template.Configuration;
+import freemarker.template.Template;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import org.apache.commons.lang3.StringUtils;
+import org.entando.entando.aps.system.services.guifragment.GuiFragment;
+import org.entando.entando.aps.system.services.guifragment.event.GuiFragmentChangedEvent;
+import org.entando.entando.aps.system.services.guifragment.event.GuiFragmentChangedObserver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Bounded cache of the compiled freemarker templates.
+ * Every entry is keyed by the code of the template owner and keeps the source it was compiled from (the version):
+ * when the source changes the template is parsed again and replaces the older version,
+ * and the entries are evicted on the page model and gui fragment change events.
+ * The templates are named after the owner (page model or fragment code), not after the page or the frame that uses them.
+ */
+public class FreemarkerTemplateCacheManager extends AbstractService
+		implements IFreemarkerTemplateCacheManager, PageModelChangedObserver, GuiFragmentChangedObserver {
+
+	private static final Logger logger = LoggerFactory.getLogger(FreemarkerTemplateCacheManager.class);
+
+	public static final String PAGE_MODEL_KEY_PREFIX = "PageModel_";
+	public static final String GUI_FRAGMENT_KEY_PREFIX = "GuiFragment_";
+
+	private int maxSize = 1000;
+
+	private Cache<String, CompiledTemplate> cache;
+
+	@Override
+	public void init() throws Exception {
+		this.cache = CacheBuilder.newBuilder().maximumSize(this.getMaxSize()).recordStats().build();
+		logger.debug("{} ready - max size {}", this.getClass().getName(), this.getMaxSize());
+	}
+
+	@Override
+	protected void release() {
+		this.flush();
+		super.release();
+	}
+
+	@Override
+	public void destroy() {
+		this.flush();
+		super.destroy();
+	}
+
+	@Override
+	public Template getPageModelTemplate(PageModel pageModel, Configuration configuration) throws ApsSystemException {
+		if (null == pageModel) {
+			return null;
+		}
+		return this.getTemplate(PAGE_MODEL_KEY_PREFIX + pageModel.getCode(), pageModel.getCode(), pageModel.getTemplate(), configuration);
+	}
+
+	@Override
+	public Template getGuiFragmentTemplate(GuiFragment guiFragment, Configuration configuration) throws ApsSystemException {
+		if (null == guiFragment) {
+			return null;
+		}
+		return this.getTemplate(GUI_FRAGMENT_KEY_PREFIX + guiFragment.getCode(), guiFragment.getCode(), guiFragment.getCurrentGui(), configuration);
+	}
+
+	protected Template getTemplate(String key, String name, String source, Configuration configuration) throws ApsSystemException {
+		if (StringUtils.isBlank(source)) {
+			return null;
+		}
+		try {
+			CompiledTemplate compiled = this.cache.get(key, () -> this.compile(name, source, configuration));
+			if (!compiled.isCompiledFrom(source)) {
+				compiled = this.cache.asMap().compute(key, 
+						(k, current) -> (null != current && current.isCompiledFrom(source)) ? current : this.compile(name, source, configuration));
+			}
+			return compiled.getTemplate();
+		} catch (Throwable t) {
+			logger.error("Error compiling template '{}'", key, t);
+			throw new ApsSystemException("Error compiling template " + key, t);
+		}
+	}
+
+	private CompiledTemplate compile(String name, String source, Configuration configuration) {
+		try {
+			return new CompiledTemplate(source, new Template(name, new StringReader(source), configuration));
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	protected void invalidate(String key) {
+		this.cache.invalidate(key);
+	}
+
+	@Override
+	public void updateFromPageModelChanged(PageModelChangedEvent event) {
+		PageModel pageModel = event.getPageModel();
+		if (null != pageModel) {
+			this.invalidate(PAGE_MODEL_KEY_PREFIX + pageModel.getCode());
+		}
+	}
+
+	@Override
+	public void updateFromGuiFragmentChanged(GuiFragmentChangedEvent event) {
+		GuiFragment guiFragment = event.getGuiFragment();
+		if (null != guiFragment) {
+			this.invalidate(GUI_FRAGMENT_KEY_PREFIX + guiFragment.getCode());
+		}
+	}
+
+	@Override
+	public void flush() {
+		if (null != this.cache) {
+			this.cache.invalidateAll();
+		}
+	}
+
+	@Override
+	public long getSize() {
+		return this.cache.size();
+	}
+
+	@Override
+	public CacheStats getStats() {
+		return this.cache.stats();
+	}
+
+	protected int getMaxSize() {
+		return maxSize;
+	}
+
+	public void setMaxSize(int maxSize) {
+		this.maxSize = maxSize;
+	}
+
+	/**
+	 * A compiled template with the source it was compiled from (its version).
+	 */
+	private static final class CompiledTemplate {
+
+		private final String source;
+		private final Template template;
+
+		CompiledTemplate(String source, Template template) {
+			this.source = source;
+			this.template = template;
+		}
+
+		boolean isCompiledFrom(String source) {
+			return this.source.equals(source);
+		}
+
+		Template getTemplate() {
+			return template;
+		}
+
+	}
+
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright 2015-Present Entando Inc. (http://www.entando.com) All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+package org.entando.entando.aps.system.services.freemarker;
+
+import com.agiletec.aps.system.exception.ApsSystemException;
+import com.agiletec.aps.system.services.pagemodel.PageModel;
+import com.google.common.cache.CacheStats;
+import freemarker.template.Configuration;
+import freemarker.template.Template;
+import org.entando.entando.aps.system.services.guifragment.GuiFragment;
+
+/**
+ * Shared repository of the compiled freemarker templates of page models and gui fragments.
+ */
+public interface IFreemarkerTemplateCacheManager {
+
+	/**
+	 * Return the compiled template of the given page model.
+	 * The template is parsed only the first time or when the source of the model changes.
+	 * @param pageModel The page model.
+	 * @param configuration The configuration to use when the template has to be parsed.
+	 * @return The compiled template, or null if the model has no template.
+	 * @throws ApsSystemException In case of parsing error.
+	 */
+	public Template getPageModelTemplate(PageModel pageModel, Configuration configuration) throws ApsSystemException;
+
+	/**
+	 * Return the compiled template of the current gui of the given fragment.
+	 * The template is parsed only the first time or when the gui of the fragment changes.
+	 * @param guiFragment The fragment.
+	 * @param configuration The configuration to use when the template has to be parsed.
+	 * @return The compiled template, or null if the fragment has no gui.
+	 * @throws ApsSystemException In case of parsing error.
+	 */
+	public Template getGuiFragmentTemplate(GuiFragment guiFragment, Configuration configuration) throws ApsSystemException;
+
+	/**
+	 * Remove all the compiled templates.
+	 */
+	public void flush();
+
+	public long getSize();
+
+	/**
+	 * Return hit, miss and eviction counters of the template cache.
+	 * @return The statistics of the cache.
+	 */
+	public CacheStats getStats();
+
+}
@@ -120,15 +120,9 @@ public class GroupService implements IGroupService, ApplicationContextAware {
 
             throw new ResourceNotFoundException(GroupValidator.ERRCODE_GROUP_REFERENCES, "reference", managerName);
         }
-        List<?> dtoList = utilizer.getGroupUtilizer(groupCode);
-        List<?> subList = restRequest.getSublist(dtoList);
-        int size = 0;
-        if (dtoList != null) {
-            size = dtoList.size();
-        }
-        SearcherDaoPaginatedResult<?> pagedResult = new SearcherDaoPaginatedResult(size, subList);
+        SearcherDaoPaginatedResult<?> pagedResult = utilizer.getGroupUtilizer(groupCode, restRequest);
         PagedMetadata<Object> pagedMetadata = new PagedMetadata<>(restRequest, pagedResult);
-        pagedMetadata.setBody((List<Object>) subList);
+        pagedMetadata.setBody((List<Object>) pagedResult.getList());
         return pagedMetadata;
     }
 
@@ -14,6 +14,10 @@
 package org.entando.entando.aps.system.services.group;
 
 import java.util.List;
+import java.util.function.Function;
+
+import com.agiletec.aps.system.common.model.dao.SearcherDaoPaginatedResult;
+import org.entando.entando.web.common.model.RestListRequest;
 
 public interface GroupServiceUtilizer<T> {
 
@@ -21,4 +25,12 @@ public interface GroupServiceUtilizer<T> {
 
     public List<T> getGroupUtilizer(String groupCode);
 
+    /**
+     * Return the requested page of the utilizers; the implementations 
+     * should build the DTOs of the returned page only.
+     */
+    public default SearcherDaoPaginatedResult<T> getGroupUtilizer(String groupCode, RestListRequest restListRequest) {
+        return restListRequest.getPaginatedResult(this.getGroupUtilizer(groupCode), Function.identity());
+    }
+
 }
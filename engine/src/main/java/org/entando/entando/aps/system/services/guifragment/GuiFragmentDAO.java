@@ -22,6 +22,7 @@ import java.util.List;
 
 import com.agiletec.aps.system.common.AbstractSearcherDAO;
 import com.agiletec.aps.system.common.FieldSearchFilter;
+import com.agiletec.aps.system.common.model.dao.SearcherDaoPaginatedResult;
 import org.apache.commons.lang.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -68,6 +69,11 @@ public class GuiFragmentDAO extends AbstractSearcherDAO implements IGuiFragmentD
         return super.searchId(filters);
     }
 
+    @Override
+    public SearcherDaoPaginatedResult<String> searchPagedGuiFragments(FieldSearchFilter[] filters) {
+        return super.searchPagedId(filters);
+    }
+
     @Override
     public void insertGuiFragment(GuiFragment guiFragment) {
         Connection conn = null;
@@ -76,6 +82,7 @@ public class GuiFragmentDAO extends AbstractSearcherDAO implements IGuiFragmentD
             conn.setAutoCommit(false);
             this.insertGuiFragment(guiFragment, conn);
             conn.commit();
+            this.clearCountCache();
         } catch (Throwable t) {
             this.executeRollback(conn);
             logger.error("Error on insert guiFragment", t);
@@ -120,6 +127,7 @@ public class GuiFragmentDAO extends AbstractSearcherDAO implements IGuiFragmentD
             conn.setAutoCommit(false);
             this.updateGuiFragment(guiFragment, conn);
             conn.commit();
+            this.clearCountCache();
         } catch (Throwable t) {
             this.executeRollback(conn);
             logger.error("Error updating guiFragment {}", guiFragment.getCode(), t);
@@ -163,6 +171,7 @@ public class GuiFragmentDAO extends AbstractSearcherDAO implements IGuiFragmentD
             conn.setAutoCommit(false);
             this.removeGuiFragment(code, conn);
             conn.commit();
+            this.clearCountCache();
         } catch (Throwable t) {
             this.executeRollback(conn);
             logger.error("Error deleting guiFragment {}", code, t);
@@ -69,12 +69,14 @@ public class GuiFragmentManager extends AbstractService implements IGuiFragmentM
         try {
             List<GuiFragment> fragments = new ArrayList<>();
             FieldSearchFilter[] filtersArray = filters.toArray(new FieldSearchFilter[filters.size()]);
-            int count = this.getGuiFragmentDAO().countGuiFragments(filtersArray);
-            List<String> codes = this.searchGuiFragments(filtersArray);
-            for (String code : codes) {
+            FieldSearchFilter filter = new FieldSearchFilter("code");
+            filter.setOrder(FieldSearchFilter.Order.ASC);
+            filtersArray = this.addFilter(filtersArray, filter);
+            SearcherDaoPaginatedResult<String> codes = this.getGuiFragmentDAO().searchPagedGuiFragments(filtersArray);
+            for (String code : codes.getList()) {
                 fragments.add(this.getGuiFragment(code));
             }
-            pagedResult = new SearcherDaoPaginatedResult<>(count, fragments);
+            pagedResult = new SearcherDaoPaginatedResult<>(codes.getCount(), fragments);
         } catch (Throwable t) {
             logger.error("Error searching GuiFragments", t);
             throw new ApsSystemException("Error searching GuiFragments", t);
@@ -16,6 +16,7 @@ package org.entando.entando.aps.system.services.guifragment;
 import java.util.List;
 
 import com.agiletec.aps.system.common.FieldSearchFilter;
+import com.agiletec.aps.system.common.model.dao.SearcherDaoPaginatedResult;
 
 /**
  * @author E.Santoboni
@@ -26,6 +27,8 @@ public interface IGuiFragmentDAO {
 
 	public int countGuiFragments(FieldSearchFilter[] filters);
 
+	public SearcherDaoPaginatedResult<String> searchPagedGuiFragments(FieldSearchFilter[] filters);
+
 	public GuiFragment loadGuiFragment(String code);
 
 	public void removeGuiFragment(String code);
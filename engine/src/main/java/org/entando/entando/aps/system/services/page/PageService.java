@@ -696,6 +696,18 @@ public class PageService implements IPageService, GroupServiceUtilizer<PageDto>,
         }
     }
 
+    @SuppressWarnings("unchecked")
+    @Override
+    public SearcherDaoPaginatedResult<PageDto> getGroupUtilizer(String groupName, RestListRequest restListRequest) {
+        try {
+            List<IPage> pages = ((GroupUtilizer<IPage>) this.getPageManager()).getGroupUtilizers(groupName);
+            return restListRequest.getPaginatedResult(pages, page -> this.getDtoBuilder().convert(page));
+        } catch (ApsSystemException ex) {
+            logger.error("Error loading page references for group {}", groupName, ex);
+            throw new RestServerError("Error loading page references for group", ex);
+        }
+    }
+
     @SuppressWarnings("unchecked")
     @Override
     public List<PageDto> getPageModelUtilizer(String pageModelCode) {
@@ -708,6 +720,17 @@ public class PageService implements IPageService, GroupServiceUtilizer<PageDto>,
         }
     }
 
+    @Override
+    public SearcherDaoPaginatedResult<PageDto> getPageModelUtilizer(String pageModelCode, RestListRequest restListRequest) {
+        try {
+            List<IPage> pages = ((PageModelUtilizer) this.getPageManager()).getPageModelUtilizers(pageModelCode);
+            return restListRequest.getPaginatedResult(pages, page -> this.getDtoBuilder().convert(page));
+        } catch (ApsSystemException ex) {
+            logger.error("Error loading page references for pagemodel {}", pageModelCode, ex);
+            throw new RestServerError("Error loading page references for pagemodel " + pageModelCode, ex);
+        }
+    }
+
 
     @Override
     public PagedMetadata<PageDto> searchPages(PageSearchRequest request, List<String> allowedGroups) {
@@ -733,11 +756,9 @@ public class PageService implements IPageService, GroupServiceUtilizer<PageDto>,
             logger.warn("no references found for {}", managerName);
             throw new ResourceNotFoundException(ERRCODE_PAGE_REFERENCES, "reference", managerName);
         }
-        List<?> dtoList = utilizer.getPageUtilizer(pageCode);
-        List<?> subList = requestList.getSublist(dtoList);
-        SearcherDaoPaginatedResult<?> pagedResult = new SearcherDaoPaginatedResult<>(dtoList.size(), subList);
+        SearcherDaoPaginatedResult<?> pagedResult = utilizer.getPageUtilizer(pageCode, requestList);
         PagedMetadata<Object> pagedMetadata = new PagedMetadata<>(requestList, pagedResult);
-        pagedMetadata.setBody((List<Object>) subList);
+        pagedMetadata.setBody((List<Object>) pagedResult.getList());
         return pagedMetadata;
     }
 
@@ -14,6 +14,10 @@
 package org.entando.entando.aps.system.services.page;
 
 import java.util.List;
+import java.util.function.Function;
+
+import com.agiletec.aps.system.common.model.dao.SearcherDaoPaginatedResult;
+import org.entando.entando.web.common.model.RestListRequest;
 
 public interface PageServiceUtilizer<T> {
 
@@ -21,4 +25,12 @@ public interface PageServiceUtilizer<T> {
 
     public List<T> getPageUtilizer(String pageCode);
 
+    /**
+     * Return the requested page of the utilizers; the implementations 
+     * should build the DTOs of the returned page only.
+     */
+    public default SearcherDaoPaginatedResult<T> getPageUtilizer(String pageCode, RestListRequest restListRequest) {
+        return restListRequest.getPaginatedResult(this.getPageUtilizer(pageCode), Function.identity());
+    }
+
 }
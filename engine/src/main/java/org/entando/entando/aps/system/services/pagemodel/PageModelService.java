@@ -174,11 +174,9 @@ public class PageModelService implements IPageModelService, ApplicationContextAw
 
             throw new ResourceNotFoundException(PageModelValidator.ERRCODE_PAGEMODEL_REFERENCES, "reference", managerName);
         }
-        List<?> dtoList = utilizer.getPageModelUtilizer(pageModelCode);
-        List<?> subList = restRequest.getSublist(dtoList);
-        SearcherDaoPaginatedResult<?> pagedResult = new SearcherDaoPaginatedResult<>(dtoList.size(), subList);
+        SearcherDaoPaginatedResult<?> pagedResult = utilizer.getPageModelUtilizer(pageModelCode, restRequest);
         PagedMetadata<Object> pagedMetadata = new PagedMetadata<>(restRequest, pagedResult);
-        pagedMetadata.setBody((List<Object>) subList);
+        pagedMetadata.setBody((List<Object>) pagedResult.getList());
         return pagedMetadata;
     }
 
@@ -1,10 +1,22 @@
 package org.entando.entando.aps.system.services.pagemodel;
 
 import java.util.List;
+import java.util.function.Function;
+
+import com.agiletec.aps.system.common.model.dao.SearcherDaoPaginatedResult;
+import org.entando.entando.web.common.model.RestListRequest;
 
 public interface PageModelServiceUtilizer<T> {
 
     public String getManagerName();
 
     public List<T> getPageModelUtilizer(String pageModelCode);
+
+    /**
+     * Return the requested page of the utilizers; the implementations 
+     * should build the DTOs of the returned page only.
+     */
+    public default SearcherDaoPaginatedResult<T> getPageModelUtilizer(String pageModelCode, RestListRequest restListRequest) {
+        return restListRequest.getPaginatedResult(this.getPageModelUtilizer(pageModelCode), Function.identity());
+    }
 }
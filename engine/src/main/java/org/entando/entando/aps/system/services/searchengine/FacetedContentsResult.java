@@ -43,7 +43,20 @@ public class FacetedContentsResult {
 		this._occurrences = occurrences;
 	}
 	
+	/**
+	 * Return the total number of hits, that can be greater than the size
+	 * of a page of results.
+	 * @return The total number of hits.
+	 */
+	public int getTotalSize() {
+		return _totalSize;
+	}
+	public void setTotalSize(int totalSize) {
+		this._totalSize = totalSize;
+	}
+	
 	private List<String> _contentsId;
 	private Map<String, Integer> _occurrences;
+	private int _totalSize;
 	
 }
@@ -56,6 +56,15 @@ public class SearchEngineFilter<T> extends FieldSearchFilter<T> implements Seria
 	public SearchEngineFilter(String key, T start, T end) {
 		super(key, start, end);
 	}
+
+	/**
+	 * Filter constructor for paginated results.
+	 * @param limit The max number of results.
+	 * @param offset The index of the first result.
+	 */
+	public SearchEngineFilter(Integer limit, Integer offset) {
+		super(limit, offset);
+	}
     
     public SearchEngineFilter(String key, boolean attributeFilter) {
         this(key, null);
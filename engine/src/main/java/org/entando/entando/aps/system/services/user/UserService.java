@@ -15,7 +15,6 @@ package org.entando.entando.aps.system.services.user;
 
 import com.agiletec.aps.system.common.FieldSearchFilter;
 import com.agiletec.aps.system.common.entity.model.EntitySearchFilter;
-import com.agiletec.aps.system.common.model.dao.SearcherDaoPaginatedResult;
 import com.agiletec.aps.system.exception.ApsSystemException;
 import com.agiletec.aps.system.services.authorization.Authorization;
 import com.agiletec.aps.system.services.authorization.IAuthorizationManager;
@@ -178,9 +177,6 @@ public class UserService implements IUserService {
                     .filter(i -> ((i.getKey() != null) && (UserDto.getEntityFieldName(i.getKey()) != null)))
                     .forEach(i -> i.setKey(UserDto.getEntityFieldName(i.getKey())));
             List<String> userNames = null;
-            List<UserDetails> users = new ArrayList<>(),
-                    allUsers = new ArrayList<>();
-
             //username filter
             List<FieldSearchFilter> usernameFilter = filters.stream().filter(filter
                     -> filter.getValue() != null && filter.getKey().equals("username")).collect(Collectors.toList());
@@ -190,18 +186,21 @@ public class UserService implements IUserService {
             } else {
                 userNames = this.getUserManager().getUsernames();
             }
-            userNames.forEach(username -> allUsers.add(this.loadUser(username)));
 
             // Profile and attributes filters
-            users.addAll(allUsers.stream().filter(user
-                    -> (withProfile == null || withProfile.equals("1"))
-                    && checkAttributesFilter(filters, entityFilters, user)).collect(Collectors.toList()));
+            List<String> matchingNames = new ArrayList<>();
+            if (withProfile == null || withProfile.equals("1")) {
+                matchingNames.addAll(this.filterByProfile(userNames, filters, entityFilters));
+            }
 
+            // only the users of the requested page are loaded
+            PagedMetadata<String> namesPage = new PagedMetadata<>(requestList, matchingNames.size());
+            namesPage.setBody(matchingNames);
+            namesPage.imposeLimits();
+            List<UserDetails> users = namesPage.getBody().stream().map(this::loadUser).collect(Collectors.toList());
             List<UserDto> dtoList = dtoBuilder.convert(users);
-            SearcherDaoPaginatedResult<UserDetails> result = new SearcherDaoPaginatedResult<>(users.size(), users);
-            PagedMetadata<UserDto> pagedMetadata = new PagedMetadata<>(requestList, result);
+            PagedMetadata<UserDto> pagedMetadata = new PagedMetadata<>(requestList, matchingNames.size());
             pagedMetadata.setBody(dtoList);
-            pagedMetadata.imposeLimits();
             return pagedMetadata;
         } catch (Throwable t) {
             logger.error("error in search users", t);
@@ -209,32 +208,34 @@ public class UserService implements IUserService {
         }
     }
 
-    private boolean checkAttributesFilter(List<FieldSearchFilter> filters, List<EntitySearchFilter> entityFilters, UserDetails user) {
+    private List<String> filterByProfile(List<String> userNames, List<FieldSearchFilter> filters, List<EntitySearchFilter> entityFilters) {
         if (!filters.stream().anyMatch(filter
                 -> filter.getValue() != null && filter.getKey().equals("profileType"))) {
-            return true;
-        }
-        if (user.getProfile() == null) {
-            return false;
-        }
-        if (!filters.stream().anyMatch(filter
-                -> filter.getValue() != null && (filter.getValue().equals(((IUserProfile) user.getProfile()).getTypeCode())
-                || filter.getValue().equals("All")))) {
-            return false;
+            return userNames;
         }
+        Set<String> profileNames = null;
         if (entityFilters.size() > 0) {
             try {
                 EntitySearchFilter[] attributes = new EntitySearchFilter[entityFilters.size()];
-                List<String> userNames = this.getUserProfileManager().searchId(entityFilters.toArray(attributes));
-                if (userNames.size() == 0 || !userNames.contains(user.getUsername())) {
-                    return false;
-                }
+                profileNames = new HashSet<>(this.getUserProfileManager().searchId(entityFilters.toArray(attributes)));
             } catch (ApsSystemException ex) {
                 logger.error("error in filter users by profile attribute", ex);
                 throw new RestServerError("error in filter users by profile attribute", ex);
             }
         }
-        return true;
+        List<String> matchingNames = new ArrayList<>();
+        for (String username : userNames) {
+            if (null != profileNames && !profileNames.contains(username)) {
+                continue;
+            }
+            UserDetails user = this.loadUser(username);
+            if (user.getProfile() != null && filters.stream().anyMatch(filter
+                    -> filter.getValue() != null && (filter.getValue().equals(((IUserProfile) user.getProfile()).getTypeCode())
+                    || filter.getValue().equals("All")))) {
+                matchingNames.add(username);
+            }
+        }
+        return matchingNames;
     }
 
     @Override
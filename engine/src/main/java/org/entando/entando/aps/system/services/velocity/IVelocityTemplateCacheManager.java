@@ -0,0 +1,56 @@
+/*
+ * Copyright 2015-Present Entando Inc. (http://www.entando.com) All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+package org.entando.entando.aps.system.services.velocity;
+
+import com.agiletec.aps.system.exception.ApsSystemException;
+import com.google.common.cache.CacheStats;
+import org.apache.velocity.Template;
+
+/**
+ * Shared repository of the parsed velocity templates.
+ */
+public interface IVelocityTemplateCacheManager {
+
+	/**
+	 * Return the parsed template of the given data object model shape.
+	 * The shape is parsed only the first time or when it changes.
+	 * @param modelId The id of the data object model.
+	 * @param shape The shape of the model.
+	 * @return The parsed template, or null if the shape is null.
+	 * @throws ApsSystemException In case of parsing error.
+	 */
+	public Template getDataObjectModelTemplate(long modelId, String shape) throws ApsSystemException;
+
+	/**
+	 * Return the parsed template of the given source.
+	 * @param source The velocity template.
+	 * @return The parsed template, or null if the source is null.
+	 * @throws ApsSystemException In case of parsing error.
+	 */
+	public Template getTemplate(String source) throws ApsSystemException;
+
+	/**
+	 * Remove all the parsed templates.
+	 */
+	public void flush();
+
+	public long getSize();
+
+	/**
+	 * Return hit, miss and eviction counters of the template cache.
+	 * @return The statistics of the cache.
+	 */
+	public CacheStats getStats();
+
+}
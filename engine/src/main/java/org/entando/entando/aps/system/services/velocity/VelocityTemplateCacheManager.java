@@ -0,0 +1,173 @@
+/*
+ * Copyright 2015-Present Entando Inc. (http://www.entando.com) All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+package org.entando.entando.aps.system.services.velocity;
+
+import com.agiletec.aps.system.common.AbstractService;
+import com.agiletec.aps.system.exception.ApsSystemException;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import java.io.StringReader;
+import org.apache.velocity.Template;
+import org.apache.velocity.runtime.RuntimeServices;
+import org.apache.velocity.runtime.RuntimeSingleton;
+import org.apache.velocity.runtime.parser.node.SimpleNode;
+import org.entando.entando.aps.system.services.dataobjectmodel.DataObjectModel;
+import org.entando.entando.aps.system.services.dataobjectmodel.event.DataObjectModelChangedEvent;
+import org.entando.entando.aps.system.services.dataobjectmodel.event.DataObjectModelChangedObserver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Bounded cache of the parsed velocity templates, built on the runtime of the velocity engine 
+ * used by the renderers.
+ * The templates of the data object models are keyed by model id, the other ones by hash of the source;
+ * every entry holds the source it was parsed from (the version): when the source changes the template
+ * is parsed again and replaces the older version, and the template of a model is evicted
+ * on the data object model change events.
+ */
+public class VelocityTemplateCacheManager extends AbstractService implements IVelocityTemplateCacheManager, DataObjectModelChangedObserver {
+
+	private static final Logger logger = LoggerFactory.getLogger(VelocityTemplateCacheManager.class);
+
+	public static final String DATA_OBJECT_MODEL_KEY_PREFIX = "DataObjectModel_";
+	public static final String TEMPLATE_KEY_PREFIX = "Template_";
+
+	private int maxSize = 1000;
+
+	private Cache<String, ParsedTemplate> cache;
+
+	@Override
+	public void init() throws Exception {
+		this.cache = CacheBuilder.newBuilder().maximumSize(this.getMaxSize()).recordStats().build();
+		logger.debug("{} ready - max size {}", this.getClass().getName(), this.getMaxSize());
+	}
+
+	@Override
+	protected void release() {
+		this.flush();
+		super.release();
+	}
+
+	@Override
+	public void destroy() {
+		this.flush();
+		super.destroy();
+	}
+
+	@Override
+	public Template getDataObjectModelTemplate(long modelId, String shape) throws ApsSystemException {
+		if (null == shape) {
+			return null;
+		}
+		return this.getTemplate(DATA_OBJECT_MODEL_KEY_PREFIX + modelId, shape);
+	}
+
+	@Override
+	public Template getTemplate(String source) throws ApsSystemException {
+		if (null == source) {
+			return null;
+		}
+		return this.getTemplate(TEMPLATE_KEY_PREFIX + source.hashCode(), source);
+	}
+
+	protected Template getTemplate(String key, String source) throws ApsSystemException {
+		try {
+			ParsedTemplate parsed = this.cache.get(key, () -> this.createParsedTemplate(key, source));
+			if (!parsed.isParsedFrom(source)) {
+				parsed = this.cache.asMap().compute(key, 
+						(k, current) -> (null != current && current.isParsedFrom(source)) ? current : this.createParsedTemplate(key, source));
+			}
+			return parsed.getTemplate();
+		} catch (Throwable t) {
+			logger.error("Error parsing template '{}'", key, t);
+			throw new ApsSystemException("Error parsing template " + key, t);
+		}
+	}
+
+	private ParsedTemplate createParsedTemplate(String name, String source) {
+		try {
+			return new ParsedTemplate(source, this.parse(name, source));
+		} catch (RuntimeException e) {
+			throw e;
+		} catch (Exception e) {
+			throw new IllegalStateException("Error parsing template " + name, e);
+		}
+	}
+
+	protected Template parse(String name, String source) throws Exception {
+		RuntimeServices runtimeServices = RuntimeSingleton.getRuntimeServices();
+		SimpleNode node = runtimeServices.parse(new StringReader(source), name);
+		Template template = new Template();
+		template.setName(name);
+		template.setRuntimeServices(runtimeServices);
+		template.setData(node);
+		template.initDocument();
+		return template;
+	}
+
+	@Override
+	public void updateFromDataObjectModelChanged(DataObjectModelChangedEvent event) {
+		DataObjectModel model = event.getDataObjectModel();
+		if (null != model) {
+			this.cache.invalidate(DATA_OBJECT_MODEL_KEY_PREFIX + model.getId());
+		}
+	}
+
+	@Override
+	public void flush() {
+		if (null != this.cache) {
+			this.cache.invalidateAll();
+		}
+	}
+
+	@Override
+	public long getSize() {
+		return this.cache.size();
+	}
+
+	@Override
+	public CacheStats getStats() {
+		return this.cache.stats();
+	}
+
+	protected int getMaxSize() {
+		return maxSize;
+	}
+
+	public void setMaxSize(int maxSize) {
+		this.maxSize = maxSize;
+	}
+
+	private static class ParsedTemplate {
+
+		private final String source;
+		private final Template template;
+
+		ParsedTemplate(String source, Template template) {
+			this.source = source;
+			this.template = template;
+		}
+
+		boolean isParsedFrom(String source) {
+			return this.source.equals(source);
+		}
+
+		Template getTemplate() {
+			return template;
+		}
+
+	}
+
+}
@@ -297,6 +297,17 @@ public class WidgetService implements IWidgetService, GroupServiceUtilizer<Widge
         }
     }
 
+    @Override
+    public SearcherDaoPaginatedResult<WidgetDto> getGroupUtilizer(String groupCode, RestListRequest restListRequest) {
+        try {
+            List<WidgetType> list = ((GroupUtilizer<WidgetType>) this.getWidgetManager()).getGroupUtilizers(groupCode);
+            return restListRequest.getPaginatedResult(list, type -> this.getDtoBuilder().convert(type));
+        } catch (ApsSystemException ex) {
+            logger.error("Error loading WidgetType references for group {}", groupCode, ex);
+            throw new RestServerError("Error loading WidgetType references for group", ex);
+        }
+    }
+
 
     @Override
     public Integer getComponentUsage(String componentCode) {
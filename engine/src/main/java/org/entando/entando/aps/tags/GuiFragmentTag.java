@@ -22,7 +22,6 @@ import freemarker.template.Template;
 
 import java.io.ByteArrayOutputStream;
 import java.io.OutputStreamWriter;
-import java.io.StringReader;
 import java.io.Writer;
 import javax.servlet.ServletRequest;
 import javax.servlet.jsp.JspException;
@@ -30,6 +29,7 @@ import javax.servlet.jsp.JspException;
 import org.apache.commons.lang.StringUtils;
 
 import org.entando.entando.aps.system.services.controller.executor.ExecutorBeanContainer;
+import org.entando.entando.aps.system.services.freemarker.IFreemarkerTemplateCacheManager;
 import org.entando.entando.aps.system.services.guifragment.GuiFragment;
 import org.entando.entando.aps.system.services.guifragment.IGuiFragmentManager;
 
@@ -80,7 +80,8 @@ public class GuiFragmentTag extends ExtendedTagSupport {
 			}
 			ExecutorBeanContainer ebc = (ExecutorBeanContainer) reqCtx.getExtraParam(SystemConstants.EXTRAPAR_EXECUTOR_BEAN_CONTAINER);
 			Writer out = new OutputStreamWriter(baos);
-			Template template = new Template(this.getCode(), new StringReader(guiFragment.getCurrentGui()), ebc.getConfiguration());
+			IFreemarkerTemplateCacheManager templateCacheManager = (IFreemarkerTemplateCacheManager) ApsWebApplicationUtils.getBean(SystemConstants.FREEMARKER_TEMPLATE_CACHE_MANAGER, this.pageContext);
+			Template template = templateCacheManager.getGuiFragmentTemplate(guiFragment, ebc.getConfiguration());
 			template.process(ebc.getTemplateModel(), out);
 			out.flush();
 		} catch (Throwable t) {
@@ -15,9 +15,11 @@ package org.entando.entando.web.common.model;
 
 import com.agiletec.aps.system.common.FieldSearchFilter;
 import com.agiletec.aps.system.common.entity.model.EntitySearchFilter;
+import com.agiletec.aps.system.common.model.dao.SearcherDaoPaginatedResult;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.function.Function;
 import org.apache.commons.lang.StringEscapeUtils;
 import org.apache.commons.lang3.ArrayUtils;
 import org.apache.commons.lang3.StringUtils;
@@ -170,6 +172,28 @@ public class RestListRequest {
         return master.subList(offsetToApply, limitToApply);
     }
 
+    /**
+     * Return the requested page of the given keys, converting only the keys of the page.
+     * The keys the converter maps to null are skipped.
+     *
+     * @param keys All the keys, in order.
+     * @param converter The converter of a key into the returned element.
+     * @return The converted page and the total number of keys.
+     */
+    public <K, E> SearcherDaoPaginatedResult<E> getPaginatedResult(List<K> keys, Function<K, E> converter) {
+        List<E> page = new ArrayList<>();
+        if (null == keys) {
+            return new SearcherDaoPaginatedResult<>(0, page);
+        }
+        for (K key : this.getSublist(keys)) {
+            E element = converter.apply(key);
+            if (null != element) {
+                page.add(element);
+            }
+        }
+        return new SearcherDaoPaginatedResult<>(keys.size(), page);
+    }
+
     @SuppressWarnings("rawtypes")
     private FieldSearchFilter buildSortFilter() {
         if (StringUtils.isNotBlank(StringEscapeUtils.escapeSql(this.getSort()))) {
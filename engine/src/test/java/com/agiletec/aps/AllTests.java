@@ -14,7 +14,10 @@
 package com.agiletec.aps;
 
 import com.agiletec.aps.system.TestApplicationContext;
+import com.agiletec.aps.system.common.AbstractSearcherDAOTest;
 import com.agiletec.aps.system.common.entity.TestEntityManager;
+import com.agiletec.aps.system.common.entity.parse.TestEntityXmlParser;
+import com.agiletec.aps.system.common.notify.NotifyManagerTest;
 import com.agiletec.aps.system.services.authorization.TestAuthorityManager;
 import com.agiletec.aps.system.services.authorization.TestAuthorizationManager;
 import com.agiletec.aps.system.services.baseconfig.TestBaseConfigService;
@@ -27,6 +30,7 @@ import com.agiletec.aps.system.services.i18n.I18nManagerTest;
 import com.agiletec.aps.system.services.i18n.cache.I18nManagerCacheWrapperTest;
 import com.agiletec.aps.system.services.keygenerator.KeyGeneratorManagerIntegrationTest;
 import com.agiletec.aps.system.services.keygenerator.TestKeyGeneratorDAO;
+import com.agiletec.aps.system.services.keygenerator.cache.KeyGeneratorManagerCacheWrapperTest;
 import com.agiletec.aps.system.services.lang.LangManagerIntegrationTest;
 import com.agiletec.aps.system.services.lang.LangManagerTest;
 import com.agiletec.aps.system.services.page.TestPageManager;
@@ -56,6 +60,7 @@ import org.entando.entando.aps.servlet.security.AuthorizationServerConfiguration
 import org.entando.entando.aps.system.init.DatabaseManagerTest;
 import org.entando.entando.aps.system.init.InitializerManagerTest;
 import org.entando.entando.aps.system.init.util.TestQueryExtractor;
+import org.entando.entando.aps.system.services.actionlog.ActionLogManagerTest;
 import org.entando.entando.aps.system.services.actionlog.TestActionLogDAO;
 import org.entando.entando.aps.system.services.actionlog.TestActionLogManager;
 import org.entando.entando.aps.system.services.api.ApiCatalogManagerIntegrationTest;
@@ -80,8 +85,12 @@ import org.entando.entando.aps.system.services.dataobjectmapper.cache.DataObject
 import org.entando.entando.aps.system.services.dataobjectmodel.DataObjectModelDAOIntegrationTest;
 import org.entando.entando.aps.system.services.dataobjectmodel.DataObjectModelManagerIntegrationTest;
 import org.entando.entando.aps.system.services.dataobjectmodel.DataObjectModelManagerTest;
+import org.entando.entando.aps.system.services.dataobjectsearchengine.IndexLoaderThreadTest;
+import org.entando.entando.aps.system.services.dataobjectsearchengine.IndexUpdateQueueTest;
+import org.entando.entando.aps.system.services.dataobjectsearchengine.SearchEngineManagerTest;
 import org.entando.entando.aps.system.services.dataobjectsearchengine.TestSearchEngineManager;
 import org.entando.entando.aps.system.services.entity.AbstractEntityTypeServiceTest;
+import org.entando.entando.aps.system.services.freemarker.FreemarkerTemplateCacheManagerTest;
 import org.entando.entando.aps.system.services.guifragment.GuiFragmentManagerIntegrationTest;
 import org.entando.entando.aps.system.services.i18n.TestApiI18nLabelInterface;
 import org.entando.entando.aps.system.services.oauth2.ApiOAuth2TokenManagerTest;
@@ -95,6 +104,7 @@ import org.entando.entando.aps.system.services.userprofile.UserProfileManagerAsp
 import org.entando.entando.aps.system.services.userprofile.UserProfileManagerIntegrationTest;
 import org.entando.entando.aps.system.services.userprofile.UserProfileManagerTest;
 import org.entando.entando.aps.system.services.userprofile.UserProfileTypeServiceTest;
+import org.entando.entando.aps.system.services.velocity.VelocityTemplateCacheManagerTest;
 import org.entando.entando.aps.system.services.widgettype.api.TestApiWidgetTypeInterface;
 import org.entando.entando.aps.util.FilterUtilsTest;
 import org.entando.entando.aps.util.crypto.DefaultTextEncryptorTest;
@@ -113,7 +123,10 @@ public class AllTests {
         suite.addTest(new JUnit4TestAdapter(InitializerManagerTest.class));
         suite.addTest(new JUnit4TestAdapter(DatabaseManagerTest.class));
         //
+        suite.addTest(new JUnit4TestAdapter(AbstractSearcherDAOTest.class));
         suite.addTestSuite(TestEntityManager.class);
+        suite.addTest(new JUnit4TestAdapter(TestEntityXmlParser.class));
+        suite.addTest(new JUnit4TestAdapter(NotifyManagerTest.class));
         //
         suite.addTestSuite(ApiCatalogManagerIntegrationTest.class);
         suite.addTest(new JUnit4TestAdapter(ApiCatalogManagerTest.class));
@@ -137,6 +150,7 @@ public class AllTests {
         suite.addTest(new JUnit4TestAdapter(I18nManagerCacheWrapperTest.class));
         //
         suite.addTestSuite(TestKeyGeneratorDAO.class);
+        suite.addTest(new JUnit4TestAdapter(KeyGeneratorManagerCacheWrapperTest.class));
         suite.addTestSuite(KeyGeneratorManagerIntegrationTest.class);
         //
         suite.addTestSuite(LangManagerIntegrationTest.class);
@@ -174,6 +188,7 @@ public class AllTests {
         //
         suite.addTestSuite(TestActionLogDAO.class);
         suite.addTestSuite(TestActionLogManager.class);
+        suite.addTest(new JUnit4TestAdapter(ActionLogManagerTest.class));
         //
         suite.addTestSuite(LocalStorageManagerIntegrationTest.class);
         suite.addTest(new JUnit4TestAdapter(StorageManagerUtilTest.class));
@@ -185,6 +200,8 @@ public class AllTests {
         suite.addTest(new JUnit4TestAdapter(UserProfileTypeServiceTest.class));
         //
         suite.addTestSuite(GuiFragmentManagerIntegrationTest.class);
+        suite.addTest(new JUnit4TestAdapter(FreemarkerTemplateCacheManagerTest.class));
+        suite.addTest(new JUnit4TestAdapter(VelocityTemplateCacheManagerTest.class));
         //
         suite.addTestSuite(TestApiWidgetTypeInterface.class);
         suite.addTestSuite(TestApiI18nLabelInterface.class);
@@ -213,6 +230,9 @@ public class AllTests {
         suite.addTestSuite(TestDataObjectDispenser.class);
 
         suite.addTestSuite(TestSearchEngineManager.class);
+        suite.addTest(new JUnit4TestAdapter(IndexLoaderThreadTest.class));
+        suite.addTest(new JUnit4TestAdapter(IndexUpdateQueueTest.class));
+        suite.addTest(new JUnit4TestAdapter(SearchEngineManagerTest.class));
         
         suite.addTestSuite(OAuthConsumerManagerIntegrationTest.class);
         suite.addTest(new JUnit4TestAdapter(OAuthConsumerManagerTest.class));
@@ -0,0 +1,125 @@
+/*
+ * Copyright 2018-Present Entando Inc. (http://www.entando.com) All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+package com.agiletec.aps.system.common;
+
+import com.agiletec.aps.system.common.model.dao.SearcherDaoPaginatedResult;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.Arrays;
+import javax.sql.DataSource;
+import org.entando.entando.aps.system.services.guifragment.GuiFragment;
+import org.entando.entando.aps.system.services.guifragment.GuiFragmentDAO;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.MockitoAnnotations;
+
+import static org.mockito.Mockito.when;
+
+public class AbstractSearcherDAOTest {
+
+    @Mock
+    private DataSource dataSource;
+    @Mock
+    private Connection conn;
+    @Mock
+    private PreparedStatement stat;
+    @Mock
+    private ResultSet res;
+
+    @InjectMocks
+    private GuiFragmentDAO guiFragmentDAO;
+
+    @Before
+    public void setUp() throws Exception {
+        MockitoAnnotations.initMocks(this);
+        // a dialect with window functions, so that the count is read with the page
+        this.guiFragmentDAO.setDataSourceClassName("org.postgresql.Driver");
+        when(this.dataSource.getConnection()).thenReturn(conn);
+        when(this.conn.prepareStatement(Mockito.anyString())).thenReturn(stat);
+        when(this.stat.executeQuery()).thenReturn(res);
+    }
+
+    @Test
+    public void searchPagedReadsTheCountWithThePage() throws Exception {
+        when(this.res.next()).thenReturn(true, true, false);
+        when(this.res.getString("code")).thenReturn("fragment_3", "fragment_4");
+        when(this.res.getInt(AbstractSearcherDAO.TOTAL_COUNT_FIELD_NAME)).thenReturn(7);
+        SearcherDaoPaginatedResult<String> result = this.guiFragmentDAO.searchPagedGuiFragments(this.createPageFilters());
+        Assert.assertEquals(7, result.getCount().intValue());
+        Assert.assertEquals(Arrays.asList("fragment_3", "fragment_4"), result.getList());
+        ArgumentCaptor<String> query = ArgumentCaptor.forClass(String.class);
+        Mockito.verify(this.conn, Mockito.times(1)).prepareStatement(query.capture());
+        Assert.assertTrue(query.getValue().startsWith("SELECT guifragment.code, COUNT(*) OVER() AS totalcount FROM guifragment "));
+        Assert.assertTrue(query.getValue().endsWith(" OFFSET ? ROWS FETCH NEXT ? ROWS ONLY "));
+        Mockito.verify(this.stat).setInt(1, 2);
+        Mockito.verify(this.stat).setInt(2, 2);
+    }
+
+    @Test
+    public void searchPagedCountsApartAnEmptyPage() throws Exception {
+        when(this.res.next()).thenReturn(false, true);
+        when(this.res.getInt(1)).thenReturn(1);
+        SearcherDaoPaginatedResult<String> result = this.guiFragmentDAO.searchPagedGuiFragments(this.createPageFilters());
+        Assert.assertEquals(1, result.getCount().intValue());
+        Assert.assertTrue(result.getList().isEmpty());
+        ArgumentCaptor<String> query = ArgumentCaptor.forClass(String.class);
+        Mockito.verify(this.conn, Mockito.times(2)).prepareStatement(query.capture());
+        Assert.assertTrue(query.getAllValues().get(1).startsWith("SELECT COUNT(*) FROM guifragment "));
+    }
+
+    @Test
+    public void searchPagedReloadsTheCountAfterAWrite() throws Exception {
+        // a dialect without window functions, so that the count is cached
+        this.guiFragmentDAO.setDataSourceClassName("org.apache.derby.jdbc.EmbeddedDriver");
+        when(this.res.next()).thenReturn(false);
+        this.guiFragmentDAO.searchPagedGuiFragments(this.createPageFilters());
+        this.guiFragmentDAO.searchPagedGuiFragments(this.createPageFilters());
+        Mockito.verify(this.conn, Mockito.times(1)).prepareStatement(Mockito.startsWith("SELECT COUNT(*) FROM guifragment "));
+        GuiFragment fragment = new GuiFragment();
+        fragment.setCode("fragment_new");
+        fragment.setGui("<p>new</p>");
+        this.guiFragmentDAO.insertGuiFragment(fragment);
+        this.guiFragmentDAO.searchPagedGuiFragments(this.createPageFilters());
+        Mockito.verify(this.conn, Mockito.times(2)).prepareStatement(Mockito.startsWith("SELECT COUNT(*) FROM guifragment "));
+    }
+
+    @Test
+    public void appendLimitQueryBlockAppendsTheValues() throws Exception {
+        StringBuffer query = new StringBuffer("SELECT guifragment.code FROM guifragment ");
+        this.guiFragmentDAO.appendLimitQueryBlock(this.createPageFilters(), query);
+        Assert.assertEquals("SELECT guifragment.code FROM guifragment  OFFSET 2 ROWS FETCH NEXT 2 ROWS ONLY ", query.toString());
+    }
+
+    @Test
+    public void addWindowCountFieldSkipsSubqueries() throws Exception {
+        String query = "SELECT guifragment.code, (SELECT COUNT(*) FROM widgetcatalog WHERE widgetcatalog.code = guifragment.widgettypecode) AS widgets"
+                + " FROM guifragment WHERE guifragment.code IN (SELECT code FROM guifragment) ";
+        Assert.assertEquals("SELECT guifragment.code, (SELECT COUNT(*) FROM widgetcatalog WHERE widgetcatalog.code = guifragment.widgettypecode) AS widgets"
+                + ", COUNT(*) OVER() AS totalcount FROM guifragment WHERE guifragment.code IN (SELECT code FROM guifragment) ",
+                this.guiFragmentDAO.addWindowCountField(query));
+    }
+
+    private FieldSearchFilter[] createPageFilters() {
+        FieldSearchFilter orderFilter = new FieldSearchFilter("code");
+        orderFilter.setOrder(FieldSearchFilter.Order.ASC);
+        return new FieldSearchFilter[]{orderFilter, new FieldSearchFilter(2, 2)};
+    }
+
+}
@@ -0,0 +1,153 @@
+/*
+ * Copyright 2015-Present Entando Inc. (http://www.entando.com) All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+package com.agiletec.aps.system.common.entity.parse;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import javax.xml.parsers.SAXParser;
+import javax.xml.parsers.SAXParserFactory;
+import org.junit.Test;
+import org.xml.sax.Attributes;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.helpers.DefaultHandler;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.fail;
+
+public class TestEntityXmlParser {
+
+	private static final String ENTITY_XML = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>"
+			+ "<dataObject id=\"ART1\" typecode=\"ART\" typedescr=\"Articolo\"><descr>Descrizione</descr><groups />"
+			+ "<categories><category id=\"cat1\" /></categories><attributes>"
+			+ "<attribute name=\"Titolo\" attributetype=\"Text\"><text lang=\"it\">Il titolo</text><text lang=\"en\">The title</text></attribute>"
+			+ "<list attributetype=\"Monolist\" name=\"Autori\" nestedtype=\"Monotext\">"
+			+ "<attribute name=\"Autori\" attributetype=\"Monotext\"><monotext>Pippo</monotext></attribute>"
+			+ "<attribute name=\"Autori\" attributetype=\"Monotext\"><monotext>Paperino</monotext></attribute>"
+			+ "</list><attribute name=\"Data\" attributetype=\"Date\"><date>20040310</date></attribute>"
+			+ "</attributes><status>PUBLIC</status><version>1.0</version></dataObject>";
+
+	@Test
+	public void testParse() throws Exception {
+		for (int i = 0; i < 3; i++) {
+			CountingHandler handler = new CountingHandler();
+			EntityXmlParser.parse(ENTITY_XML, handler);
+			assertEquals(18, handler.getElements());
+			assertEquals("PUBLIC1.0", handler.getLastTexts());
+		}
+	}
+
+	@Test
+	public void testParseAfterError() throws Exception {
+		try {
+			EntityXmlParser.parse("<dataObject><attributes></dataObject>", new CountingHandler());
+			fail();
+		} catch (SAXException e) {
+			// expected
+		}
+		CountingHandler handler = new CountingHandler();
+		EntityXmlParser.parse(ENTITY_XML, handler);
+		assertEquals(18, handler.getElements());
+	}
+
+	@Test
+	public void testExternalEntitiesNotResolved() throws Exception {
+		String xml = "<?xml version=\"1.0\"?><!DOCTYPE dataObject [<!ENTITY ext SYSTEM \"file:///etc/hostname\">]>"
+				+ "<dataObject><descr>&ext;</descr></dataObject>";
+		CountingHandler handler = new CountingHandler();
+		try {
+			EntityXmlParser.parse(xml, handler);
+			assertEquals("", handler.getLastTexts());
+		} catch (SAXException e) {
+			assertFalse(handler.getLastTexts().length() > 0);
+		}
+	}
+
+	@Test
+	public void testConcurrentParse() throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			List<Future<Integer>> results = new ArrayList<>();
+			for (int i = 0; i < 40; i++) {
+				results.add(executor.submit(new Callable<Integer>() {
+					@Override
+					public Integer call() throws Exception {
+						CountingHandler handler = new CountingHandler();
+						EntityXmlParser.parse(ENTITY_XML, handler);
+						return handler.getElements();
+					}
+				}));
+			}
+			for (Future<Integer> result : results) {
+				assertEquals(18, result.get().intValue());
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	public void testSameEventsAsNewParser() throws Exception {
+		String[] xmls = {ENTITY_XML, "<dataObject id=\"ART2\"><descr>Altro</descr><status>DRAFT</status><version>0.1</version></dataObject>"};
+		for (String xml : xmls) {
+			CountingHandler expected = this.parseWithNewParser(xml);
+			CountingHandler handler = new CountingHandler();
+			EntityXmlParser.parse(xml, handler);
+			assertEquals(expected.getElements(), handler.getElements());
+			assertEquals(expected.getLastTexts(), handler.getLastTexts());
+		}
+	}
+
+	private CountingHandler parseWithNewParser(String xml) throws Exception {
+		CountingHandler handler = new CountingHandler();
+		SAXParser parser = SAXParserFactory.newInstance().newSAXParser();
+		parser.parse(new InputSource(new StringReader(xml)), handler);
+		return handler;
+	}
+
+	private static class CountingHandler extends DefaultHandler {
+
+		private int elements;
+		private StringBuilder lastTexts = new StringBuilder();
+
+		@Override
+		public void startElement(String uri, String localName, String qName, Attributes attributes) {
+			this.elements++;
+			if (qName.equals("status")) {
+				this.lastTexts.setLength(0);
+			}
+		}
+
+		@Override
+		public void characters(char[] ch, int start, int length) {
+			this.lastTexts.append(ch, start, length);
+		}
+
+		int getElements() {
+			return elements;
+		}
+
+		String getLastTexts() {
+			return lastTexts.toString();
+		}
+
+	}
+
+}
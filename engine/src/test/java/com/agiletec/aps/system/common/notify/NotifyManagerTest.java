@@ -0,0 +1,227 @@
+/*
+ * Copyright 2015-Present Entando Inc. (http://www.entando.com) All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+package com.agiletec.aps.system.common.notify;
+
+import com.agiletec.aps.system.common.IManager;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.beans.factory.ListableBeanFactory;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class NotifyManagerTest {
+
+    private NotifyManager notifyManager;
+
+    private RecordingObserver firstObserver;
+
+    private RecordingObserver secondObserver;
+
+    @Before
+    public void setUp() throws Exception {
+        this.firstObserver = new RecordingObserver();
+        this.secondObserver = new RecordingObserver();
+        ListableBeanFactory beanFactory = mock(ListableBeanFactory.class);
+        when(beanFactory.getBeanNamesForType(TestObserver.class)).thenReturn(new String[]{"firstObserver", "secondObserver"});
+        when(beanFactory.getBean("firstObserver")).thenReturn(this.firstObserver);
+        when(beanFactory.getBean("secondObserver")).thenReturn(this.secondObserver);
+        this.notifyManager = new NotifyManager();
+        this.notifyManager.setBeanFactory(beanFactory);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        this.firstObserver.release.countDown();
+        this.secondObserver.release.countDown();
+        this.notifyManager.destroy();
+    }
+
+    @Test
+    public void testOrderedDispatch() throws Exception {
+        this.notifyManager.setOrderedDispatch(true);
+        this.notifyManager.setDispatcherThreads(4);
+        this.notifyManager.init();
+        List<Integer> expected = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            this.notifyManager.onApplicationEvent(new TestEvent(i));
+            expected.add(i);
+        }
+        this.waitForEvents(this.firstObserver, 500);
+        this.waitForEvents(this.secondObserver, 500);
+        assertEquals(expected, this.firstObserver.events);
+        assertEquals(expected, this.secondObserver.events);
+        assertEquals(1000, this.notifyManager.getDispatchedEvents());
+        assertEquals(0, this.notifyManager.getDroppedEvents());
+        assertFalse(this.firstObserver.threads.contains(Thread.currentThread()));
+    }
+
+    @Test
+    public void testSaturatedDispatcherDropsEvents() throws Exception {
+        this.firstObserver.release = new CountDownLatch(1);
+        this.notifyManager.setDispatcherThreads(1);
+        this.notifyManager.setQueueCapacity(1);
+        this.notifyManager.setOfferTimeout(50);
+        this.notifyManager.init();
+        // the first event blocks the only dispatcher thread, the second one fills the queue
+        this.notifyManager.onApplicationEvent(new TestEvent(0));
+        assertTrue(this.firstObserver.started.await(5, TimeUnit.SECONDS));
+        this.notifyManager.onApplicationEvent(new TestEvent(1));
+        long start = System.currentTimeMillis();
+        this.notifyManager.onApplicationEvent(new TestEvent(2));
+        assertTrue(System.currentTimeMillis() - start < 5000);
+        assertEquals(1, this.notifyManager.getDroppedEvents());
+        assertEquals(1, this.notifyManager.getQueueSize());
+        this.firstObserver.release.countDown();
+        this.waitForEvents(this.secondObserver, 2);
+        assertFalse(this.firstObserver.threads.contains(Thread.currentThread()));
+        assertFalse(this.secondObserver.events.contains(2));
+    }
+
+    @Test
+    public void testSaturatedObserverLaneDropsEvents() throws Exception {
+        this.firstObserver.release = new CountDownLatch(1);
+        this.notifyManager.setOrderedDispatch(true);
+        this.notifyManager.setDispatcherThreads(2);
+        this.notifyManager.setQueueCapacity(2);
+        this.notifyManager.init();
+        this.notifyManager.onApplicationEvent(new TestEvent(0));
+        assertTrue(this.firstObserver.started.await(5, TimeUnit.SECONDS));
+        for (int i = 1; i < 5; i++) {
+            this.notifyManager.onApplicationEvent(new TestEvent(i));
+        }
+        // the lane of the blocked observer holds two events, the other observer is not affected
+        this.waitForEvents(this.secondObserver, 5);
+        assertEquals(2, this.notifyManager.getDroppedEvents());
+        this.firstObserver.release.countDown();
+        this.waitForEvents(this.firstObserver, 3);
+        assertEquals(0, this.notifyManager.getQueueSize());
+        assertEquals(3, this.firstObserver.events.size());
+        assertEquals(0, this.firstObserver.events.get(0).intValue());
+        assertEquals(1, this.firstObserver.events.get(1).intValue());
+        assertEquals(2, this.firstObserver.events.get(2).intValue());
+    }
+
+    @Test
+    public void testRejectedObserverLaneIsResubmitted() throws Exception {
+        RecordingObserver thirdObserver = new RecordingObserver();
+        ListableBeanFactory beanFactory = mock(ListableBeanFactory.class);
+        when(beanFactory.getBeanNamesForType(TestObserver.class)).thenReturn(new String[]{"firstObserver", "secondObserver", "thirdObserver"});
+        when(beanFactory.getBean("firstObserver")).thenReturn(this.firstObserver);
+        when(beanFactory.getBean("secondObserver")).thenReturn(this.secondObserver);
+        when(beanFactory.getBean("thirdObserver")).thenReturn(thirdObserver);
+        this.notifyManager.setBeanFactory(beanFactory);
+        this.firstObserver.release = new CountDownLatch(1);
+        this.notifyManager.setOrderedDispatch(true);
+        this.notifyManager.setDispatcherThreads(1);
+        this.notifyManager.setQueueCapacity(1);
+        this.notifyManager.setOfferTimeout(50);
+        this.notifyManager.init();
+        // the lane of the first observer blocks the only dispatcher thread, the second one fills 
+        // the queue and the third one is rejected
+        this.notifyManager.onApplicationEvent(new TestEvent(0));
+        assertTrue(this.firstObserver.started.await(5, TimeUnit.SECONDS));
+        assertEquals(3, this.notifyManager.getQueueSize());
+        this.firstObserver.release.countDown();
+        this.waitForEvents(thirdObserver, 1);
+        this.waitForEvents(this.secondObserver, 1);
+        assertEquals(0, this.notifyManager.getQueueSize());
+        assertEquals(0, this.notifyManager.getDroppedEvents());
+    }
+
+    private void waitForEvents(RecordingObserver observer, int expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10000;
+        while (observer.events.size() < expected && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(expected, observer.events.size());
+    }
+
+    public interface TestObserver extends ObserverService {
+
+        public void onTestEvent(TestEvent event);
+
+    }
+
+    private static class RecordingObserver implements TestObserver, IManager {
+
+        private final List<Integer> events = new CopyOnWriteArrayList<>();
+        private final List<Thread> threads = new CopyOnWriteArrayList<>();
+        private final CountDownLatch started = new CountDownLatch(1);
+        private CountDownLatch release = new CountDownLatch(0);
+
+        @Override
+        public void update(ApsEvent event) {
+            event.notify(this);
+        }
+
+        @Override
+        public void onTestEvent(TestEvent event) {
+            this.threads.add(Thread.currentThread());
+            this.started.countDown();
+            try {
+                this.release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            this.events.add(event.index);
+        }
+
+        @Override
+        public void init() throws Exception {
+        }
+
+        @Override
+        public void destroy() {
+        }
+
+        @Override
+        public String getName() {
+            return "recordingObserver";
+        }
+
+        @Override
+        public void refresh() throws Throwable {
+        }
+
+    }
+
+    private static class TestEvent extends ApsEvent {
+
+        private final int index;
+
+        private TestEvent(int index) {
+            this.index = index;
+        }
+
+        @Override
+        public void notify(IManager srv) {
+            ((TestObserver) srv).onTestEvent(this);
+        }
+
+        @Override
+        public Class getObserverInterface() {
+            return TestObserver.class;
+        }
+
+    }
+
+}
@@ -41,4 +41,20 @@ public class TestKeyGeneratorDAO extends BaseTestCase {
 		assertEquals(key, current);
 	}
     
+    public void testReserveKeys() throws Throwable {
+    	DataSource dataSource = (DataSource) this.getApplicationContext().getBean("portDataSource");
+		KeyGeneratorDAO keyGeneratorDao = new KeyGeneratorDAO();
+		keyGeneratorDao.setDataSource(dataSource);
+		MockUniqueKeysDAO mockUniqueKeysDao = new MockUniqueKeysDAO();
+		mockUniqueKeysDao.setDataSource(dataSource);
+		int current = mockUniqueKeysDao.getCurrentKey(1);
+		try {
+			assertEquals(current + 10, keyGeneratorDao.reserveKeys(10));
+			assertEquals(current + 15, keyGeneratorDao.reserveKeys(5));
+			assertEquals(current + 15, mockUniqueKeysDao.getCurrentKey(1));
+		} finally {
+			keyGeneratorDao.updateKey(current);
+		}
+	}
+    
 }
@@ -0,0 +1,113 @@
+/*
+ * Copyright 2018-Present Entando Inc. (http://www.entando.com) All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+package com.agiletec.aps.system.services.keygenerator.cache;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.when;
+
+import com.agiletec.aps.system.services.keygenerator.IKeyGeneratorDAO;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.MockitoAnnotations;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+
+public class KeyGeneratorManagerCacheWrapperTest {
+
+	private static final int BLOCK_SIZE = 20;
+
+	@Mock
+	private CacheManager springCacheManager;
+
+	@Mock
+	private IKeyGeneratorDAO keyGeneratorDAO;
+
+	@InjectMocks
+	private KeyGeneratorManagerCacheWrapper cacheWrapper;
+
+	private final AtomicInteger dbKey = new AtomicInteger(100);
+
+	@Before
+	public void setUp() throws Exception {
+		MockitoAnnotations.initMocks(this);
+		ConcurrentMapCache fakeCache = new ConcurrentMapCache(IKeyGeneratorManagerCacheWrapper.CACHE_NAME);
+		when(springCacheManager.getCache(IKeyGeneratorManagerCacheWrapper.CACHE_NAME)).thenReturn(fakeCache);
+		when(keyGeneratorDAO.getUniqueKey()).thenAnswer(invocation -> this.dbKey.get());
+		when(keyGeneratorDAO.reserveKeys(Mockito.anyInt()))
+				.thenAnswer(invocation -> this.dbKey.addAndGet((Integer) invocation.getArguments()[0]));
+		this.cacheWrapper.setBlockSize(BLOCK_SIZE);
+		this.cacheWrapper.initCache(this.keyGeneratorDAO);
+	}
+
+	@Test
+	public void testConcurrentKeysFromBlocks() throws Exception {
+		int threads = 8;
+		int keysPerThread = 250;
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		List<Integer> keys = Collections.synchronizedList(new ArrayList<>());
+		try {
+			List<Future<?>> futures = new ArrayList<>();
+			for (int t = 0; t < threads; t++) {
+				futures.add(executor.submit(() -> {
+					for (int i = 0; i < keysPerThread; i++) {
+						keys.add(this.cacheWrapper.getAndIncrementUniqueKeyCurrentValue(this.keyGeneratorDAO));
+					}
+				}));
+			}
+			for (Future<?> future : futures) {
+				future.get();
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+		int total = threads * keysPerThread;
+		List<Integer> sorted = new ArrayList<>(keys);
+		Collections.sort(sorted);
+		// unique and without gaps: the keys of every reserved block are all handed out
+		for (int i = 0; i < total; i++) {
+			assertEquals(101 + i, sorted.get(i).intValue());
+		}
+		// a single reservation on the db for every block
+		Mockito.verify(this.keyGeneratorDAO, Mockito.times(total / BLOCK_SIZE)).reserveKeys(BLOCK_SIZE);
+		assertEquals(100 + total, this.cacheWrapper.getUniqueKeyCurrentValue());
+	}
+
+	@Test
+	public void testUpdateCurrentKeyDiscardsTheBlock() throws Exception {
+		assertEquals(101, this.cacheWrapper.getAndIncrementUniqueKeyCurrentValue(this.keyGeneratorDAO));
+		this.dbKey.set(500);
+		this.cacheWrapper.updateCurrentKey(500);
+		assertEquals(501, this.cacheWrapper.getAndIncrementUniqueKeyCurrentValue(this.keyGeneratorDAO));
+		Mockito.verify(this.keyGeneratorDAO, Mockito.times(2)).reserveKeys(BLOCK_SIZE);
+	}
+
+	@Test
+	public void testReserveUniqueKeys() throws Exception {
+		assertEquals(101, this.cacheWrapper.reserveUniqueKeys(this.keyGeneratorDAO, 10));
+		assertEquals(110, this.cacheWrapper.getUniqueKeyCurrentValue());
+		// the single keys come from a block reserved after the reserved keys
+		assertEquals(111, this.cacheWrapper.getAndIncrementUniqueKeyCurrentValue(this.keyGeneratorDAO));
+	}
+
+}
@@ -13,6 +13,7 @@
  */
 package com.agiletec.aps.system.services.pagemodel;
 
+import java.util.List;
 import java.util.Map;
 
 import javax.sql.DataSource;
@@ -21,6 +22,8 @@ import org.entando.entando.aps.system.services.widgettype.IWidgetTypeManager;
 
 import com.agiletec.aps.BaseTestCase;
 import com.agiletec.aps.system.SystemConstants;
+import com.agiletec.aps.system.common.FieldSearchFilter;
+import com.agiletec.aps.system.common.model.dao.SearcherDaoPaginatedResult;
 import com.agiletec.aps.system.services.page.Widget;
 import com.agiletec.aps.util.ApsProperties;
 
@@ -75,6 +78,45 @@ public class TestPageModelDAO extends BaseTestCase {
         }
     }
 
+    public void testSearchPaged() throws Throwable {
+        FieldSearchFilter orderFilter = new FieldSearchFilter("code");
+        orderFilter.setOrder(FieldSearchFilter.ASC_ORDER);
+        FieldSearchFilter[] allFilters = {orderFilter};
+        List<String> codes = this._pageModelDAO.search(allFilters);
+        assertTrue(codes.size() > 1);
+        FieldSearchFilter[] pageFilters = {orderFilter, new FieldSearchFilter(1, 1)};
+        SearcherDaoPaginatedResult<String> page = this._pageModelDAO.searchPaged(pageFilters);
+        assertEquals(codes.size(), page.getCount().intValue());
+        assertEquals(1, page.getList().size());
+        assertEquals(codes.get(1), page.getList().get(0));
+        String testPageModelCode = "test_pagemodel";
+        try {
+            this._pageModelDAO.addModel(this.createMockPageModel(testPageModelCode));
+            page = this._pageModelDAO.searchPaged(pageFilters);
+            assertEquals(codes.size() + 1, page.getCount().intValue());
+        } finally {
+            this._pageModelDAO.deleteModel(testPageModelCode);
+        }
+        page = this._pageModelDAO.searchPaged(pageFilters);
+        assertEquals(codes.size(), page.getCount().intValue());
+    }
+
+    public void testPagesShareQueryTemplate() throws Throwable {
+        FieldSearchFilter orderFilter = new FieldSearchFilter("code");
+        orderFilter.setOrder(FieldSearchFilter.ASC_ORDER);
+        FieldSearchFilter[] allFilters = {orderFilter};
+        List<String> codes = this._pageModelDAO.search(allFilters);
+        assertTrue(codes.size() > 1);
+        int templates = this._pageModelDAO.getQueryTemplateCount();
+        for (int i = 0; i < codes.size(); i++) {
+            FieldSearchFilter[] pageFilters = {orderFilter, new FieldSearchFilter(1, i)};
+            List<String> page = this._pageModelDAO.search(pageFilters);
+            assertEquals(1, page.size());
+            assertEquals(codes.get(i), page.get(0));
+        }
+        assertEquals(templates + 1, this._pageModelDAO.getQueryTemplateCount());
+    }
+
     public void testUpdateModel() throws Throwable {
         Map<String, PageModel> models = this._pageModelDAO.loadModels();
         String testPageModelCode = "test_pagemodel";
@@ -0,0 +1,178 @@
+/*
+ * Copyright 2018-Present Entando Inc. (http://www.entando.com) All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+package org.entando.entando.aps.system.services.actionlog;
+
+import com.agiletec.aps.system.services.keygenerator.IKeyGeneratorManager;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.entando.entando.aps.system.services.actionlog.model.ActionLogRecord;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.MockitoAnnotations;
+
+import static org.junit.Assert.*;
+
+public class ActionLogManagerTest {
+
+    @Mock
+    private IActionLogDAO actionLogDAO;
+
+    @Mock
+    private IKeyGeneratorManager keyGeneratorManager;
+
+    private ActionLogManager actionLogManager;
+
+    private final List<String> insertedActions = new CopyOnWriteArrayList<>();
+
+    private final List<Thread> insertingThreads = new CopyOnWriteArrayList<>();
+
+    private final CountDownLatch writerStarted = new CountDownLatch(1);
+
+    private CountDownLatch releaseWriter = new CountDownLatch(0);
+
+    private Thread testThread;
+
+    @Before
+    public void setUp() throws Exception {
+        MockitoAnnotations.initMocks(this);
+        this.testThread = Thread.currentThread();
+        AtomicInteger keys = new AtomicInteger();
+        Mockito.when(this.keyGeneratorManager.reserveUniqueKeys(Mockito.anyInt()))
+                .thenAnswer(invocation -> keys.getAndAdd((Integer) invocation.getArguments()[0]));
+        Mockito.doAnswer(invocation -> {
+            List<ActionLogRecord> records = new ArrayList<>((List<ActionLogRecord>) invocation.getArguments()[0]);
+            if (Thread.currentThread() != this.testThread) {
+                // the background writer waits until released
+                this.writerStarted.countDown();
+                this.releaseWriter.await(10, TimeUnit.SECONDS);
+            }
+            for (ActionLogRecord record : records) {
+                this.insertedActions.add(record.getActionName());
+                this.insertingThreads.add(Thread.currentThread());
+            }
+            return null;
+        }).when(this.actionLogDAO).addActionRecords(Mockito.anyList());
+        this.actionLogManager = new ActionLogManager();
+        this.actionLogManager.setActionLogDAO(this.actionLogDAO);
+        this.actionLogManager.setKeyGeneratorManager(this.keyGeneratorManager);
+        this.actionLogManager.setBufferSize(1);
+        this.actionLogManager.setBatchSize(1);
+        this.actionLogManager.setFlushInterval(50);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        this.releaseWriter.countDown();
+        this.actionLogManager.destroy();
+    }
+
+    @Test
+    public void testDropPolicy() throws Exception {
+        this.actionLogManager.setOverflowPolicy(ActionLogManager.OVERFLOW_POLICY_DROP);
+        this.actionLogManager.init();
+        this.fillBuffer();
+        this.actionLogManager.addActionRecord(this.createRecord("third"));
+        this.releaseWriter.countDown();
+        this.actionLogManager.destroy();
+        assertEquals(2, this.insertedActions.size());
+        assertFalse(this.insertedActions.contains("third"));
+    }
+
+    @Test
+    public void testCallerRunsPolicy() throws Exception {
+        this.actionLogManager.setOverflowPolicy(ActionLogManager.OVERFLOW_POLICY_CALLER_RUNS);
+        this.actionLogManager.init();
+        this.fillBuffer();
+        this.actionLogManager.addActionRecord(this.createRecord("third"));
+        // inserted by the caller while the writer is still blocked
+        assertEquals(1, this.insertedActions.size());
+        assertEquals("third", this.insertedActions.get(0));
+        assertSame(this.testThread, this.insertingThreads.get(0));
+        this.releaseWriter.countDown();
+        this.actionLogManager.destroy();
+        assertEquals(3, this.insertedActions.size());
+    }
+
+    @Test
+    public void testBlockPolicy() throws Exception {
+        this.actionLogManager.setOverflowPolicy(ActionLogManager.OVERFLOW_POLICY_BLOCK);
+        this.actionLogManager.init();
+        this.fillBuffer();
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> blocked = executor.submit(() -> {
+                this.actionLogManager.addActionRecord(this.createRecord("third"));
+                return null;
+            });
+            try {
+                blocked.get(200, TimeUnit.MILLISECONDS);
+                fail("the caller should wait for space in the buffer");
+            } catch (TimeoutException e) {
+                // the buffer is full
+            }
+            this.releaseWriter.countDown();
+            blocked.get(10, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+        this.actionLogManager.destroy();
+        assertEquals(3, this.insertedActions.size());
+        assertTrue(this.insertedActions.contains("third"));
+    }
+
+    @Test
+    public void testDestroyDrainsTheBuffer() throws Exception {
+        this.actionLogManager.setBufferSize(10);
+        this.actionLogManager.setBatchSize(10);
+        this.actionLogManager.setFlushInterval(500);
+        this.actionLogManager.init();
+        for (int i = 0; i < 5; i++) {
+            this.actionLogManager.addActionRecord(this.createRecord("action_" + i));
+        }
+        this.actionLogManager.destroy();
+        assertEquals(5, this.insertedActions.size());
+        for (int i = 0; i < 5; i++) {
+            assertTrue(this.insertedActions.contains("action_" + i));
+        }
+    }
+
+    /**
+     * Block the writer on the first record and fill the buffer with the second one.
+     */
+    private void fillBuffer() throws Exception {
+        this.releaseWriter = new CountDownLatch(1);
+        this.actionLogManager.addActionRecord(this.createRecord("first"));
+        assertTrue(this.writerStarted.await(5, TimeUnit.SECONDS));
+        this.actionLogManager.addActionRecord(this.createRecord("second"));
+    }
+
+    private ActionLogRecord createRecord(String actionName) {
+        ActionLogRecord record = new ActionLogRecord();
+        record.setUsername("admin");
+        record.setActionName(actionName);
+        return record;
+    }
+
+}
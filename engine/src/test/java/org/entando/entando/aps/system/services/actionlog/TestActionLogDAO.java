@@ -13,6 +13,7 @@
  */
 package org.entando.entando.aps.system.services.actionlog;
 
+import java.util.Arrays;
 import java.util.List;
 
 import javax.sql.DataSource;
@@ -108,6 +109,22 @@ public class TestActionLogDAO extends BaseTestCase {
 		assertNull(this._actionLoggerDAO.getActionRecord(record2.getId()));
 	}
 	
+	public void testAddActionRecords() {
+		ActionLogRecord record1 = this._helper.createActionRecord(1, "username1", "actionName1",
+				"namespace1", DateConverter.parseDate("01/01/2009 00:00", "dd/MM/yyyy HH:mm"), "params1");
+		ActionLogRecord record2 = this._helper.createActionRecord(2, "username2", "actionName2",
+				"namespace2", DateConverter.parseDate("01/02/2009 00:00", "dd/MM/yyyy HH:mm"), "params2");
+
+		this._actionLoggerDAO.addActionRecords(Arrays.asList(record1, record2));
+		this.compareActionRecords(record1, this._actionLoggerDAO.getActionRecord(record1.getId()));
+		this.compareActionRecords(record2, this._actionLoggerDAO.getActionRecord(record2.getId()));
+
+		this._actionLoggerDAO.deleteActionRecord(record1.getId());
+		this._actionLoggerDAO.deleteActionRecord(record2.getId());
+		assertNull(this._actionLoggerDAO.getActionRecord(record1.getId()));
+		assertNull(this._actionLoggerDAO.getActionRecord(record2.getId()));
+	}
+
 	private void compareIds(Integer[] expected, List<Integer> received) {
 		assertEquals(expected.length, received.size());
 		for (Integer id : expected) {
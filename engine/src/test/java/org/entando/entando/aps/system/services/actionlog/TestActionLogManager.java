@@ -13,13 +13,17 @@
  */
 package org.entando.entando.aps.system.services.actionlog;
 
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 import org.entando.entando.aps.system.services.actionlog.model.ActionLogRecord;
 import org.entando.entando.aps.system.services.actionlog.model.ActionLogRecordSearchBean;
 
 import com.agiletec.aps.BaseTestCase;
 import com.agiletec.aps.system.SystemConstants;
+import com.agiletec.aps.system.common.IManager;
 import com.agiletec.aps.util.DateConverter;
 
 public class TestActionLogManager extends BaseTestCase {
@@ -87,6 +91,25 @@ public class TestActionLogManager extends BaseTestCase {
 		assertNull(this._actionLoggerManager.getActionRecord(record2.getId()));
 	}
 	
+	public void testAddActionRecordsAroundRefresh() throws Throwable {
+		List<ActionLogRecord> records = new ArrayList<>();
+		for (int i = 0; i < 10; i++) {
+			ActionLogRecord record = this._helper.createActionRecord(0, "username" + i, "actionName" + i, "namespace", null, "params" + i);
+			records.add(record);
+			this._actionLoggerManager.addActionRecord(record);
+			if (i == 4) {
+				((IManager) this._actionLoggerManager).refresh();
+			}
+		}
+		super.waitThreads(IActionLogManager.LOG_APPENDER_THREAD_NAME_PREFIX);
+		Set<Integer> ids = new HashSet<>();
+		for (ActionLogRecord record : records) {
+			assertTrue(ids.add(record.getId()));
+			this.compareActionRecords(record, this._actionLoggerManager.getActionRecord(record.getId()));
+		}
+		assertEquals(10, this._actionLoggerManager.getActionRecords(null).size());
+	}
+	
 	private void compareIds(Integer[] expected, List<Integer> received) {
 		assertEquals(expected.length, received.size());
 		for (Integer id : expected) {
@@ -19,10 +19,16 @@ import com.agiletec.aps.system.services.page.events.PageChangedEvent;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.junit.*;
 import org.mockito.*;
+import com.google.common.cache.CacheBuilder;
 import org.springframework.cache.*;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
 
 import java.lang.annotation.Annotation;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static org.junit.Assert.*;
 
@@ -218,6 +224,101 @@ public class CacheInfoManagerTest {
 		Mockito.verify(cacheManager, Mockito.times(1)).getCache(ICacheInfoManager.CACHE_INFO_MANAGER_CACHE_NAME);
 	}
 	
+	@Test
+    public void putInGroupWithNewIndex() {
+		String targetCache = "targetCacheName6";
+		Mockito.when(cache.get(ICacheInfoManager.GROUP_CACHE_NAME_PREFIX + targetCache)).thenReturn(null);
+		cacheInfoManager.putInGroup(targetCache, "testkey6", new String[]{"group_1", "group_2"});
+		ArgumentCaptor<Object> index = ArgumentCaptor.forClass(Object.class);
+		Mockito.verify(cache, Mockito.times(1)).putIfAbsent(Mockito.eq(ICacheInfoManager.GROUP_CACHE_NAME_PREFIX + targetCache), index.capture());
+		assertEquals(2, ((Map) index.getValue()).size());
+		assertTrue(((Set) ((Map) index.getValue()).get("group_1")).contains("testkey6"));
+	}
+	
+	@Test
+    public void putInGroupWithExistingKey() {
+		String targetCache = "targetCacheName7";
+		cacheInfoManager.putInGroup(targetCache, "key_a4", new String[]{"group_1"});
+		Mockito.verify(cache, Mockito.times(1)).put(Mockito.startsWith(ICacheInfoManager.GROUP_CACHE_NAME_PREFIX), Mockito.any(Object.class));
+		Mockito.when(valueWrapperForGroups.get()).thenReturn(new ConcurrentHashMap<>(Collections.singletonMap("group_1", new HashSet<>(Arrays.asList("key_a1")))));
+		cacheInfoManager.putInGroup(targetCache, "key_a1", new String[]{"group_1"});
+		Mockito.verify(cache, Mockito.times(1)).put(Mockito.startsWith(ICacheInfoManager.GROUP_CACHE_NAME_PREFIX), Mockito.any(Object.class));
+		assertEquals(1, cacheInfoManager.getGroupCount(targetCache));
+		assertEquals(1, cacheInfoManager.getGroupedKeyCount(targetCache));
+	}
+	
+	@Test
+    public void removeEvictedKeyFromGroups() {
+		String targetCache = "targetCacheName8";
+		Map<String, Set<String>> index = new ConcurrentHashMap<>();
+		index.put("group_1", new HashSet<>(Arrays.asList("key_a1", "key_a2")));
+		index.put("group_2", new HashSet<>(Arrays.asList("key_a1")));
+		Mockito.when(valueWrapperForGroups.get()).thenReturn(index);
+		GroupIndexRemovalListener listener = new GroupIndexRemovalListener();
+		listener.setCacheName(targetCache);
+		listener.setCacheInfoManager(cacheInfoManager);
+		com.google.common.cache.Cache<Object, Object> store = CacheBuilder.newBuilder()
+				.maximumSize(1).removalListener(listener).build();
+		store.put("key_a1", "value_1");
+		store.put("key_a2", "value_2");
+		store.cleanUp();
+		assertEquals(1, cacheInfoManager.getGroupedKeyCount(targetCache));
+		assertTrue(index.get("group_1").contains("key_a2"));
+		// an explicit removal is left to the flush of the groups
+		store.invalidate("key_a2");
+		assertEquals(1, cacheInfoManager.getGroupedKeyCount(targetCache));
+	}
+	
+	@Test
+    public void flushGroupWhileAdding() throws Exception {
+		String targetCache = "targetCacheName9";
+		ConcurrentMapCacheManager springCacheManager = new ConcurrentMapCacheManager();
+		CacheInfoManager manager = new CacheInfoManager();
+		manager.setSpringCacheManager(springCacheManager);
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			List<Future<?>> futures = new ArrayList<>();
+			for (int t = 0; t < 3; t++) {
+				final int writer = t;
+				futures.add(executor.submit(() -> {
+					for (int i = 0; i < 2000; i++) {
+						manager.putInCache(targetCache, "key_" + writer + "_" + i, "value", new String[]{"group_1", "group_2"});
+					}
+				}));
+			}
+			futures.add(executor.submit(() -> {
+				for (int i = 0; i < 2000; i++) {
+					manager.flushGroup(targetCache, (i % 2 == 0) ? "group_1" : "group_2");
+				}
+			}));
+			for (Future<?> future : futures) {
+				future.get();
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+		manager.flushGroup(targetCache, "group_1");
+		// every key added to a group under flush has been evicted with it
+		assertEquals(0, ((Map) springCacheManager.getCache(targetCache).getNativeCache()).size());
+	}
+	
+	@Test
+    public void putInGroupWithStoreByValue() {
+		String targetCache = "targetCacheName10";
+		ConcurrentMapCacheManager springCacheManager = new ConcurrentMapCacheManager();
+		springCacheManager.setStoreByValue(true);
+		CacheInfoManager manager = new CacheInfoManager();
+		manager.setSpringCacheManager(springCacheManager);
+		manager.putInCache(targetCache, "key_1", "value", new String[]{"group_1"});
+		manager.putInCache(targetCache, "key_2", "value", new String[]{"group_1", "group_2"});
+		assertEquals(2, manager.getGroupCount(targetCache));
+		assertEquals(2, manager.getGroupedKeyCount(targetCache));
+		manager.flushGroup(targetCache, "group_1");
+		assertNull(springCacheManager.getCache(targetCache).get("key_1"));
+		assertNull(springCacheManager.getCache(targetCache).get("key_2"));
+		assertEquals(1, manager.getGroupCount(targetCache));
+	}
+	
 	@Test
     public void flushGroup_1() {
 		this.flushGroup("group_1", 3);
@@ -14,7 +14,10 @@
 package org.entando.entando.aps.system.services.dataobject;
 
 import com.agiletec.aps.system.SystemConstants;
+import java.util.Collections;
+
 import com.agiletec.aps.system.common.AbstractService;
+import com.agiletec.aps.system.common.entity.cache.IEntityManagerCacheWrapper;
 import com.agiletec.aps.system.common.entity.model.IApsEntity;
 import com.agiletec.aps.system.common.entity.parse.IEntityTypeFactory;
 import com.agiletec.aps.system.common.notify.INotifyManager;
@@ -53,6 +56,13 @@ public class DataObjectManagerTest {
 			return key++;
 		}
 
+		@Override
+		public int reserveUniqueKeys(int count) throws ApsSystemException {
+			int first = key;
+			key += count;
+			return first;
+		}
+
 	}
 
 	@Mock
@@ -73,6 +83,9 @@ public class DataObjectManagerTest {
 	@Mock
 	private INotifyManager notifyManager;
 
+	@Mock
+	private IEntityManagerCacheWrapper cacheWrapper;
+
 	private String beanName = "DataObjectManager";
 
 	private String className = "org.entando.entando.aps.system.services.dataobject.model.DataObject";
@@ -86,20 +99,20 @@ public class DataObjectManagerTest {
 		this.dataObjectManager.setEntityClassName(className);
 		//this.dataObjectManager.setConfigItemName(configItemName);
 		this.dataObjectManager.setBeanName(this.beanName);
+		when(this.cacheWrapper.getEntityTypes()).thenReturn(null);
 	}
 
 	@Test
 	public void testCreateDataObject() throws ApsSystemException {
 		String typeCode = "ART";
 		// @formatter:off
-		when(entityTypeFactory.extractEntityType(
-				"ART", 
+		when(entityTypeFactory.extractEntityTypes(
 				DataObject.class, 
 				dataObjectManager.getConfigItemName(), 
 				this.entityTypeDom, 
 				dataObjectManager.getName(), 
 				this.entityDom))
-		.thenReturn(this.createFakeEntity(typeCode, null, null));
+		.thenReturn(Collections.singletonMap("ART", this.createFakeEntity(typeCode, null, null)));
 		// @formatter:on
 		DataObject dataObjectType = dataObjectManager.createDataObject(typeCode);
 		assertThat(dataObjectType, is(not(nullValue())));
@@ -109,14 +122,13 @@ public class DataObjectManagerTest {
 	public void testCrateWithDefaultModel() throws ApsSystemException {
 		String typeCode = "ART";
 		// @formatter:off
-		when(entityTypeFactory.extractEntityType(
-				"ART", 
+		when(entityTypeFactory.extractEntityTypes(
 				DataObject.class, 
 				dataObjectManager.getConfigItemName(), 
 				this.entityTypeDom, 
 				dataObjectManager.getName(), 
 				this.entityDom))
-		.thenReturn(this.createFakeEntity(typeCode, "1", null));
+		.thenReturn(Collections.singletonMap("ART", this.createFakeEntity(typeCode, "1", null)));
 		// @formatter:on
 		DataObject dataObject = dataObjectManager.createDataObject(typeCode);
 		assertThat(dataObject, is(not(nullValue())));
@@ -129,14 +141,13 @@ public class DataObjectManagerTest {
 	public void testCrateWithDefaultViewPage() throws ApsSystemException {
 		String typeCode = "ART";
 		// @formatter:off
-		when(entityTypeFactory.extractEntityType(
-				"ART", 
+		when(entityTypeFactory.extractEntityTypes(
 				DataObject.class, 
 				dataObjectManager.getConfigItemName(), 
 				this.entityTypeDom, 
 				dataObjectManager.getName(), 
 				this.entityDom))
-		.thenReturn(this.createFakeEntity(typeCode, "1", "dataObjectview"));
+		.thenReturn(Collections.singletonMap("ART", this.createFakeEntity(typeCode, "1", "dataObjectview")));
 		// @formatter:on
 		DataObject dataObject = dataObjectManager.createDataObject(typeCode);
 		String viewPage = dataObject.getViewPage();
@@ -148,15 +159,14 @@ public class DataObjectManagerTest {
 		String typeCode = "ART";
 		// @formatter:off
 		when(beanFactory.getBean(SystemConstants.KEY_GENERATOR_MANAGER)).thenReturn(new FakeKeyGeneratorManager()); 
-		when(entityTypeFactory.extractEntityType(
-				"ART", 
+		when(entityTypeFactory.extractEntityTypes(
 				DataObject.class, 
 				dataObjectManager.getConfigItemName(), 
 				
 				this.entityTypeDom, 
 				dataObjectManager.getName(), 
 				this.entityDom))
-		.thenReturn(this.createFakeEntity(typeCode, "1", "dataObjectview"));
+		.thenReturn(Collections.singletonMap("ART", this.createFakeEntity(typeCode, "1", "dataObjectview")));
 		// @formatter:on
 
 		DataObject dataObject = dataObjectManager.createDataObject(typeCode);
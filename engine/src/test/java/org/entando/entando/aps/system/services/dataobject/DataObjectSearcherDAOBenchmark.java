@@ -0,0 +1,81 @@
+/*
+ * Copyright 2015-Present Entando Inc. (http://www.entando.com) All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General  License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General  License for more
+ * details.
+ */
+package org.entando.entando.aps.system.services.dataobject;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import com.agiletec.aps.BaseTestCase;
+import com.agiletec.aps.system.common.entity.AbstractEntitySearcherDAO;
+import com.agiletec.aps.system.common.entity.model.EntitySearchFilter;
+import com.agiletec.aps.system.services.group.Group;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Times the join and exists attribute filter strategies on the test Derby db.
+ * Not registered in AllTests, so it stays out of the unit suite: run it with
+ * <code>mvn test -Dtest=DataObjectSearcherDAOBenchmark</code>.
+ */
+public class DataObjectSearcherDAOBenchmark extends BaseTestCase {
+
+    private static final Logger _logger = LoggerFactory.getLogger(DataObjectSearcherDAOBenchmark.class);
+
+    private static final int ITERATIONS = 20;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        this.init();
+    }
+
+    public void testAttributeFilterStrategies() throws Throwable {
+        List<String> groups = new ArrayList<String>();
+        groups.add(Group.ADMINS_GROUP_NAME);
+        List<EntitySearchFilter[]> searches = TestDataObjectSearcherDAO.createAttributeFilterSearches();
+        String[] strategies = {AbstractEntitySearcherDAO.ATTRIBUTE_FILTER_STRATEGY_JOIN, AbstractEntitySearcherDAO.ATTRIBUTE_FILTER_STRATEGY_EXISTS};
+        long[] elapsed = new long[strategies.length];
+        for (int s = 0; s < strategies.length; s++) {
+            _dataObjectSearcherDao.setAttributeFilterStrategy(strategies[s]);
+            // warm up the query templates and the db before timing
+            for (EntitySearchFilter[] filters : searches) {
+                _dataObjectSearcherDao.loadDataObjectsId("EVN", null, filters, groups);
+            }
+            long start = System.nanoTime();
+            for (int i = 0; i < ITERATIONS; i++) {
+                for (EntitySearchFilter[] filters : searches) {
+                    _dataObjectSearcherDao.loadDataObjectsId("EVN", null, filters, groups);
+                }
+            }
+            elapsed[s] = (System.nanoTime() - start) / 1000000;
+        }
+        _logger.info("attribute filter strategies on {} searches x {}: join {} ms, exists {} ms",
+                searches.size(), ITERATIONS, elapsed[0], elapsed[1]);
+    }
+
+    private void init() throws Exception {
+        try {
+            _dataObjectSearcherDao = new DataObjectSearcherDAO();
+            DataSource dataSource = (DataSource) this.getApplicationContext().getBean("servDataSource");
+            _dataObjectSearcherDao.setDataSource(dataSource);
+        } catch (Throwable t) {
+            throw new Exception(t);
+        }
+    }
+
+    private DataObjectSearcherDAO _dataObjectSearcherDao;
+
+}
@@ -361,6 +361,34 @@ public class TestDataObjectManager extends BaseTestCase {
         assertEquals("13/12/2006", DateConverter.getFormattedDate(date.getDate(), "dd/MM/yyyy"));
     }
 
+    public void testLoadCachedDataObject() throws Throwable {
+        DataObject dataObject = this._dataObjectManager.loadDataObject("ART120", true);
+        dataObject.setId(null);
+        try {
+            this._dataObjectManager.insertDataObject(dataObject);
+            String id = dataObject.getId();
+            long hits = this._dataObjectManager.getDataObjectCacheStats().hitCount();
+            DataObject cached = this._dataObjectManager.loadDataObject(id, true, true);
+            assertNotNull(cached);
+            assertSame(cached, this._dataObjectManager.loadDataObject(id, true, true));
+            assertTrue(this._dataObjectManager.getDataObjectCacheStats().hitCount() > hits);
+            assertNotNull(this._dataObjectManager.loadDataObject(id, false, true));
+            assertNotSame(cached, this._dataObjectManager.loadDataObject(id, true, false));
+
+            this._dataObjectManager.insertDataObject(dataObject);
+            DataObject reloaded = this._dataObjectManager.loadDataObject(id, true, true);
+            assertNotSame(cached, reloaded);
+            assertEquals(dataObject.getVersion(), reloaded.getVersion());
+
+            this._dataObjectManager.removeDataObject(dataObject);
+            assertNull(this._dataObjectManager.loadDataObject(id, true, true));
+        } finally {
+            if (null != dataObject.getId()) {
+                this._dataObjectManager.deleteDataObject(dataObject);
+            }
+        }
+    }
+
     public void testLoadFullDataObject() throws Throwable {
         DataObject dataObject = this._dataObjectManager.loadDataObject("ALL4", false);
         assertEquals(DataObject.STATUS_PUBLIC, dataObject.getStatus());
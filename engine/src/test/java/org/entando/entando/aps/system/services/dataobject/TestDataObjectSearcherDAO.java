@@ -14,11 +14,18 @@
 package org.entando.entando.aps.system.services.dataobject;
 
 import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashSet;
 import java.util.List;
 
 import javax.sql.DataSource;
 
 import com.agiletec.aps.BaseTestCase;
+import com.agiletec.aps.system.SystemConstants;
+import com.agiletec.aps.system.common.entity.AbstractEntitySearcherDAO;
+import com.agiletec.aps.system.common.entity.model.EntitySearchFilter;
+import com.agiletec.aps.system.services.group.Group;
+import com.agiletec.aps.util.DateConverter;
 
 /**
  * @author E.Santoboni
@@ -67,6 +74,89 @@ public class TestDataObjectSearcherDAO extends BaseTestCase {
         assertTrue(list.contains("ART112"));
     }
 
+    public void testSearchIdStream() throws Throwable {
+        EntitySearchFilter typeFilter = new EntitySearchFilter(IDataObjectManager.ENTITY_TYPE_CODE_FILTER_KEY, false, "ART", false);
+        EntitySearchFilter[] filters = {typeFilter};
+        List<String> expected = _dataObjectSearcherDao.searchId(filters);
+        assertTrue(expected.size() > 0);
+        List<String> streamed = new ArrayList<String>();
+        _dataObjectSearcherDao.setFetchSize(2);
+        _dataObjectSearcherDao.searchId(filters, streamed::add);
+        assertEquals(expected, streamed);
+    }
+
+    public void testQueryTemplates() throws Throwable {
+        assertEquals(0, _dataObjectSearcherDao.getQueryTemplateCount());
+        List<String> list = _dataObjectSearcherDao.loadDataObjectsId("ART", null, null, null);
+        assertEquals(4, list.size());
+        assertEquals(1, _dataObjectSearcherDao.getQueryTemplateCount());
+        list = _dataObjectSearcherDao.loadDataObjectsId("EVN", null, null, null);
+        assertFalse(list.contains("ART180"));
+        assertEquals(1, _dataObjectSearcherDao.getQueryTemplateCount());
+        assertEquals(1, _dataObjectSearcherDao.getQueryTemplateHits());
+        Date value = DateConverter.parseDate("1999-04-14", "yyyy-MM-dd");
+        EntitySearchFilter[] filters = {new EntitySearchFilter("DataInizio", true, value, false)};
+        List<String> groups = new ArrayList<String>();
+        groups.add(Group.ADMINS_GROUP_NAME);
+        list = _dataObjectSearcherDao.loadDataObjectsId("EVN", null, filters, groups);
+        assertEquals(1, list.size());
+        assertEquals(2, _dataObjectSearcherDao.getQueryTemplateCount());
+        filters = new EntitySearchFilter[]{new EntitySearchFilter("DataInizio", true, new Date(), false)};
+        list = _dataObjectSearcherDao.loadDataObjectsId("EVN", null, filters, groups);
+        assertEquals(0, list.size());
+        assertEquals(2, _dataObjectSearcherDao.getQueryTemplateCount());
+        assertEquals(2, _dataObjectSearcherDao.getQueryTemplateMisses());
+    }
+
+    public void testAttributeFilterStrategies() throws Throwable {
+        List<String> groups = new ArrayList<String>();
+        groups.add(Group.ADMINS_GROUP_NAME);
+        List<EntitySearchFilter[]> searches = createAttributeFilterSearches();
+        String[] strategies = {AbstractEntitySearcherDAO.ATTRIBUTE_FILTER_STRATEGY_JOIN, AbstractEntitySearcherDAO.ATTRIBUTE_FILTER_STRATEGY_EXISTS};
+        List<List<String>> results = new ArrayList<List<String>>();
+        for (int s = 0; s < strategies.length; s++) {
+            _dataObjectSearcherDao.setAttributeFilterStrategy(strategies[s]);
+            for (EntitySearchFilter[] filters : searches) {
+                results.add(_dataObjectSearcherDao.loadDataObjectsId("EVN", null, filters, groups));
+            }
+        }
+        int size = searches.size();
+        for (int i = 0; i < size; i++) {
+            List<String> joined = results.get(i);
+            List<String> exists = results.get(size + i);
+            if (null != searches.get(i)[0].getOrder()) {
+                assertEquals(joined, exists);
+            } else {
+                assertEquals(new HashSet<String>(joined), new HashSet<String>(exists));
+            }
+        }
+        assertEquals(1, results.get(1).size());
+        assertEquals("EVN192", results.get(1).get(0));
+    }
+
+    static List<EntitySearchFilter[]> createAttributeFilterSearches() {
+        List<EntitySearchFilter[]> searches = new ArrayList<EntitySearchFilter[]>();
+        Date start = DateConverter.parseDate("1997-06-10", "yyyy-MM-dd");
+        Date end = DateConverter.parseDate("2020-09-19", "yyyy-MM-dd");
+        EntitySearchFilter range = new EntitySearchFilter("DataInizio", true, start, end);
+        List<String> allowedDescription = new ArrayList<String>();
+        allowedDescription.add("Mostra Zootecnica");
+        allowedDescription.add("Collezione");
+        EntitySearchFilter title = EntitySearchFilter.createRoleFilter(SystemConstants.DATA_TYPE_ATTRIBUTE_ROLE_TITLE, allowedDescription, false);
+        title.setLangCode("it");
+        searches.add(new EntitySearchFilter[]{range, title});
+        Date value = DateConverter.parseDate("1999-04-14", "yyyy-MM-dd");
+        searches.add(new EntitySearchFilter[]{new EntitySearchFilter("DataInizio", true, value, false)});
+        EntitySearchFilter nullDate = new EntitySearchFilter("DataInizio", true);
+        nullDate.setNullOption(true);
+        searches.add(new EntitySearchFilter[]{nullDate});
+        EntitySearchFilter titleRange = new EntitySearchFilter("Titolo", true, "Ce", "TF");
+        titleRange.setLangCode("it");
+        titleRange.setOrder(EntitySearchFilter.DESC_ORDER);
+        searches.add(new EntitySearchFilter[]{titleRange, range, nullDate});
+        return searches;
+    }
+
     private void init() throws Exception {
         try {
             _dataObjectSearcherDao = new DataObjectSearcherDAO();
@@ -13,10 +13,20 @@
  */
 package org.entando.entando.aps.system.services.dataobjectdispender;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.entando.entando.aps.system.services.cache.ICacheInfoManager;
+import org.entando.entando.aps.system.services.dataobjectdispenser.BaseDataObjectDispenser;
 import org.entando.entando.aps.system.services.dataobjectdispenser.DataObjectRenderizationInfo;
 
 import com.agiletec.aps.BaseTestCase;
 import com.agiletec.aps.system.RequestContext;
+import com.agiletec.aps.system.SystemConstants;
+import com.agiletec.aps.util.DateConverter;
 import org.entando.entando.aps.system.services.dataobject.model.DataObject;
 import org.entando.entando.aps.system.services.dataobjectmodel.DataObjectModel;
 import org.entando.entando.aps.system.services.dataobjectmodel.IDataObjectModelManager;
@@ -86,13 +96,12 @@ public class TestDataObjectDispenser extends BaseTestCase {
             DataObjectRenderizationInfo outputInfo = this._dataObjectDispenser.getRenderizationInfo(dataobject.getId(), 2, "it", reqCtx);
             assertNotNull(outputInfo);
 
-            //assertNotNull(this._cacheInfoManager.getFromCache(JacmsSystemConstants.CONTENT_CACHE_PREFIX+dataobject.getId()));
-            //assertNotNull(this._cacheInfoManager.getFromCache(JacmsSystemConstants.CONTENT_AUTH_INFO_CACHE_PREFIX+dataobject.getId()));
+            String cacheKey = BaseDataObjectDispenser.getRenderizationInfoCacheKey(dataobject.getId(), 2, "it", reqCtx);
+            assertNotNull(this._cacheInfoManager.getFromCache(ICacheInfoManager.DEFAULT_CACHE_NAME, cacheKey));
             this._dataObjectManager.insertDataObject(dataobject);
             this.waitNotifyingThread();
 
-            //assertNull(this._cacheInfoManager.getFromCache(JacmsSystemConstants.CONTENT_CACHE_PREFIX+dataobject.getId()));
-            //assertNull(this._cacheInfoManager.getFromCache(JacmsSystemConstants.CONTENT_AUTH_INFO_CACHE_PREFIX+dataobject.getId()));
+            assertNull(this._cacheInfoManager.getFromCache(ICacheInfoManager.DEFAULT_CACHE_NAME, cacheKey));
         } catch (Throwable t) {
             throw t;
         } finally {
@@ -112,12 +121,15 @@ public class TestDataObjectDispenser extends BaseTestCase {
             this.setUserOnSession("admin");
             DataObjectRenderizationInfo outputInfo = this._dataObjectDispenser.getRenderizationInfo(dataobjectId, modelId, "en", reqCtx);
             assertEquals("title (Text): testo=Title of Administrator's Content", outputInfo.getRenderedDataobject());
+            String cacheKey = BaseDataObjectDispenser.getRenderizationInfoCacheKey(dataobjectId, modelId, "en", reqCtx);
+            assertNotNull(this._cacheInfoManager.getFromCache(ICacheInfoManager.DEFAULT_CACHE_NAME, cacheKey));
 
             DataObjectModel model = this._dataObjectModelManager.getDataObjectModel(modelId);
             String newContentShapeModel = "title: testo=$data.Titolo.getText()";
             model.setShape(newContentShapeModel);
             this._dataObjectModelManager.updateDataObjectModel(model);
             this.waitNotifyingThread();
+            assertNull(this._cacheInfoManager.getFromCache(ICacheInfoManager.DEFAULT_CACHE_NAME, cacheKey));
 
             outputInfo = this._dataObjectDispenser.getRenderizationInfo(dataobjectId, modelId, "en", reqCtx);
             assertEquals("title: testo=Title of Administrator's Content", outputInfo.getRenderedDataobject());
@@ -131,6 +143,52 @@ public class TestDataObjectDispenser extends BaseTestCase {
         }
     }
 
+    public void testRenderMetadata() throws Throwable {
+        String dataobjectShapeModel = "$data.getCreated(\"yyyyMMdd\")|$data.getLastModified(\"yyyyMMdd\")|$data.version|$data.lastEditor";
+        int modelId = 1973;
+        try {
+            this.addNewDataObjectModel(modelId, dataobjectShapeModel, "ART");
+            DataObject dataobject = this._dataObjectManager.loadDataObject("ART120", true);
+            assertNotNull(dataobject.getCreated());
+            assertNotNull(dataobject.getVersion());
+            String expected = DateConverter.getFormattedDate(dataobject.getCreated(), "yyyyMMdd") + "|"
+                    + DateConverter.getFormattedDate(dataobject.getLastModified(), "yyyyMMdd") + "|"
+                    + dataobject.getVersion() + "|" + dataobject.getLastEditor();
+            RequestContext reqCtx = this.getRequestContext();
+            this.setUserOnSession("admin");
+            DataObjectRenderizationInfo outputInfo = this._dataObjectDispenser.getRenderizationInfo("ART120", modelId, "en", reqCtx);
+            assertEquals(expected, outputInfo.getRenderedDataobject());
+        } finally {
+            DataObjectModel model = this._dataObjectModelManager.getDataObjectModel(modelId);
+            if (null != model) {
+                this._dataObjectModelManager.removeDataObjectModel(model);
+            }
+        }
+    }
+
+    public void testConcurrentRendering() throws Throwable {
+        final RequestContext reqCtx = this.getRequestContext();
+        this.setUserOnSession("admin");
+        final DataObject dataobject = this._dataObjectManager.loadDataObject("ART120", true);
+        String xml = dataobject.getXML();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<DataObjectRenderizationInfo>> itOutputs = new ArrayList<>();
+            List<Future<DataObjectRenderizationInfo>> enOutputs = new ArrayList<>();
+            for (int i = 0; i < 10; i++) {
+                itOutputs.add(executor.submit(() -> this._dataObjectDispenser.getBaseRenderizationInfo(dataobject, 2, "it", reqCtx)));
+                enOutputs.add(executor.submit(() -> this._dataObjectDispenser.getBaseRenderizationInfo(dataobject, 2, "en", reqCtx)));
+            }
+            for (int i = 0; i < 10; i++) {
+                assertEquals(this.replaceNewLine(_attendedItART120_cached.trim()), this.replaceNewLine(itOutputs.get(i).get().getRenderedDataobject().trim()));
+                assertEquals(this.replaceNewLine(_attendedEnART120_cached.trim()), this.replaceNewLine(enOutputs.get(i).get().getRenderedDataobject().trim()));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(xml, dataobject.getXML());
+    }
+
     public void addNewDataObjectModel(int id, String shape, String dataTypeCode) throws Throwable {
         DataObjectModel model = new DataObjectModel();
         model.setDataType(dataTypeCode);
@@ -166,7 +224,7 @@ public class TestDataObjectDispenser extends BaseTestCase {
             this._dataObjectDispenser = (IDataObjectDispenser) this.getService("DataObjectDispenserManager");
             this._dataObjectManager = (IDataObjectManager) this.getService("DataObjectManager");
             this._dataObjectModelManager = (IDataObjectModelManager) this.getService("DataObjectModelManager");
-            //this._cacheInfoManager = (CacheInfoManager) this.getService(SystemConstants.CACHE_INFO_MANAGER);
+            this._cacheInfoManager = (ICacheInfoManager) this.getService(SystemConstants.CACHE_INFO_MANAGER);
         } catch (Throwable t) {
             throw new Exception(t);
         }
@@ -175,7 +233,7 @@ public class TestDataObjectDispenser extends BaseTestCase {
     private IDataObjectDispenser _dataObjectDispenser = null;
     private IDataObjectManager _dataObjectManager = null;
     private IDataObjectModelManager _dataObjectModelManager = null;
-    //private CacheInfoManager _cacheInfoManager;
+    private ICacheInfoManager _cacheInfoManager;
 
     private String _attendedEnART1_cached
             = "ART1;\n"
@@ -0,0 +1,101 @@
+/*
+ * Copyright 2015-Present Entando Inc. (http://www.entando.com) All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+package org.entando.entando.aps.system.services.dataobjectsearchengine;
+
+import com.agiletec.aps.system.exception.ApsSystemException;
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import org.entando.entando.aps.system.services.dataobject.IDataObjectManager;
+import org.entando.entando.aps.system.services.dataobject.model.DataObject;
+import org.entando.entando.aps.system.services.dataobject.model.DataObjectRecordVO;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.MockitoAnnotations;
+
+import static org.junit.Assert.*;
+
+public class IndexLoaderThreadTest {
+
+	private static final int RECORDS = 100000;
+
+	@Mock
+	private SearchEngineManager searchEngineManager;
+
+	@Mock
+	private IDataObjectManager dataObjectManager;
+
+	@Mock
+	private IIndexerDAO indexerDao;
+
+	private final AtomicInteger streamed = new AtomicInteger();
+
+	@Before
+	public void setUp() throws Exception {
+		MockitoAnnotations.initMocks(this);
+		Mockito.when(dataObjectManager.createDataObject(Mockito.any(DataObjectRecordVO.class), Mockito.eq(true)))
+				.thenReturn(new DataObject());
+		Mockito.doAnswer(invocation -> {
+			Consumer<DataObjectRecordVO> consumer = (Consumer<DataObjectRecordVO>) invocation.getArguments()[0];
+			try {
+				for (int i = 0; i < RECORDS; i++) {
+					DataObjectRecordVO record = new DataObjectRecordVO();
+					record.setId("DO" + i);
+					consumer.accept(record);
+					streamed.incrementAndGet();
+				}
+			} catch (RuntimeException e) {
+				throw new ApsSystemException("Error while loading public dataobject vos", e);
+			}
+			return null;
+		}).when(dataObjectManager).loadOnLineDataObjectVOs(Mockito.any(Consumer.class));
+	}
+
+	@Test
+	public void testReload() throws Exception {
+		IndexLoaderThread loader = new IndexLoaderThread(searchEngineManager, dataObjectManager, indexerDao, 2);
+		loader.run();
+		assertEquals(RECORDS, streamed.get());
+		assertEquals(LastReloadInfo.ID_SUCCESS_RESULT, loader.getReloadInfo().getResult());
+		assertEquals(RECORDS, loader.getReloadInfo().getIndexed());
+		Mockito.verify(searchEngineManager).notifyEndingIndexLoading(loader.getReloadInfo(), indexerDao);
+	}
+
+	@Test
+	public void testReloadCountsSkippedEntities() throws Exception {
+		// one entity of every batch can't be indexed
+		Mockito.when(indexerDao.addAll(Mockito.any(Collection.class)))
+				.thenAnswer(invocation -> ((Collection) invocation.getArguments()[0]).isEmpty() ? 0 : 1);
+		IndexLoaderThread loader = new IndexLoaderThread(searchEngineManager, dataObjectManager, indexerDao, 2);
+		loader.run();
+		int batches = RECORDS / 500;
+		assertEquals(LastReloadInfo.ID_SUCCESS_RESULT, loader.getReloadInfo().getResult());
+		assertEquals(RECORDS - batches, loader.getReloadInfo().getIndexed());
+		assertEquals(batches, loader.getReloadInfo().getFailed());
+	}
+
+	@Test
+	public void testReloadAbortedOnIndexError() throws Exception {
+		Mockito.doThrow(new ApsSystemException("index error")).when(indexerDao).addAll(Mockito.any(Collection.class));
+		IndexLoaderThread loader = new IndexLoaderThread(searchEngineManager, dataObjectManager, indexerDao, 2);
+		loader.run();
+		// the stream stops at the first record read after the error
+		assertTrue(streamed.get() < RECORDS);
+		assertEquals(LastReloadInfo.ID_FAILURE_RESULT, loader.getReloadInfo().getResult());
+		Mockito.verify(searchEngineManager).notifyEndingIndexLoading(loader.getReloadInfo(), indexerDao);
+	}
+
+}
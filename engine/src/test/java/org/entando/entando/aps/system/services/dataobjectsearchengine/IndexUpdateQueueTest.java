@@ -0,0 +1,82 @@
+/*
+ * Copyright 2015-Present Entando Inc. (http://www.entando.com) All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+package org.entando.entando.aps.system.services.dataobjectsearchengine;
+
+import java.util.List;
+import org.entando.entando.aps.system.services.dataobject.event.PublicDataChangedEvent;
+import org.entando.entando.aps.system.services.dataobject.model.DataObject;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class IndexUpdateQueueTest {
+
+	@Test
+	public void testCoalescing() throws Exception {
+		IndexUpdateQueue queue = new IndexUpdateQueue(10);
+		assertTrue(queue.offer(this.createEvent("DO1", PublicDataChangedEvent.INSERT_OPERATION_CODE)));
+		assertTrue(queue.offer(this.createEvent("DO2", PublicDataChangedEvent.INSERT_OPERATION_CODE)));
+		assertTrue(queue.offer(this.createEvent("DO1", PublicDataChangedEvent.UPDATE_OPERATION_CODE)));
+		assertTrue(queue.offer(this.createEvent("DO1", PublicDataChangedEvent.REMOVE_OPERATION_CODE)));
+		assertEquals(2, queue.size());
+		List<PublicDataChangedEvent> events = queue.take(10, 0);
+		assertEquals(2, events.size());
+		// the last event of DO1 keeps the position of the first one
+		assertEquals("DO1", events.get(0).getDataObject().getId());
+		assertEquals(PublicDataChangedEvent.REMOVE_OPERATION_CODE, events.get(0).getOperationCode());
+		assertEquals("DO2", events.get(1).getDataObject().getId());
+		assertEquals(0, queue.size());
+		assertEquals(0, queue.getLag());
+	}
+
+	@Test
+	public void testCapacity() throws Exception {
+		IndexUpdateQueue queue = new IndexUpdateQueue(2);
+		assertTrue(queue.offer(this.createEvent("DO1", PublicDataChangedEvent.INSERT_OPERATION_CODE)));
+		assertTrue(queue.offer(this.createEvent("DO2", PublicDataChangedEvent.INSERT_OPERATION_CODE)));
+		assertFalse(queue.offer(this.createEvent("DO3", PublicDataChangedEvent.INSERT_OPERATION_CODE)));
+		// a queued id is still updated on a full queue
+		assertTrue(queue.offer(this.createEvent("DO2", PublicDataChangedEvent.UPDATE_OPERATION_CODE)));
+		assertEquals(2, queue.size());
+		assertEquals(1, queue.take(1, 0).size());
+		assertTrue(queue.offer(this.createEvent("DO3", PublicDataChangedEvent.INSERT_OPERATION_CODE)));
+		List<PublicDataChangedEvent> events = queue.take(10, 0);
+		assertEquals(2, events.size());
+		assertEquals(PublicDataChangedEvent.UPDATE_OPERATION_CODE, events.get(0).getOperationCode());
+		assertEquals("DO3", events.get(1).getDataObject().getId());
+	}
+
+	@Test
+	public void testTakeTimeout() throws Exception {
+		IndexUpdateQueue queue = new IndexUpdateQueue(10);
+		long start = System.currentTimeMillis();
+		assertTrue(queue.take(10, 100).isEmpty());
+		assertTrue(System.currentTimeMillis() - start >= 100);
+		Thread producer = new Thread(() -> queue.offer(this.createEvent("DO1", PublicDataChangedEvent.INSERT_OPERATION_CODE)));
+		producer.start();
+		List<PublicDataChangedEvent> events = queue.take(10, 5000);
+		assertEquals(1, events.size());
+		producer.join();
+	}
+
+	private PublicDataChangedEvent createEvent(String id, int operationCode) {
+		DataObject dataObject = new DataObject();
+		dataObject.setId(id);
+		PublicDataChangedEvent event = new PublicDataChangedEvent();
+		event.setDataObject(dataObject);
+		event.setOperationCode(operationCode);
+		return event;
+	}
+
+}
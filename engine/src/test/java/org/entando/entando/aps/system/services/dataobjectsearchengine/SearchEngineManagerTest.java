@@ -0,0 +1,139 @@
+/*
+ * Copyright 2015-Present Entando Inc. (http://www.entando.com) All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+package org.entando.entando.aps.system.services.dataobjectsearchengine;
+
+import com.agiletec.aps.system.exception.ApsSystemException;
+import java.util.Collection;
+import org.entando.entando.aps.system.services.dataobject.event.PublicDataChangedEvent;
+import org.entando.entando.aps.system.services.dataobject.model.DataObject;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.MockitoAnnotations;
+
+import static org.junit.Assert.*;
+
+public class SearchEngineManagerTest {
+
+	@Mock
+	private ISearchEngineDAOFactory factory;
+
+	@Mock
+	private IIndexerDAO indexerDao;
+
+	@Mock
+	private IIndexerDAO newIndexerDao;
+
+	@Mock
+	private ISearcherDAO searcherDao;
+
+	private SearchEngineManager searchEngineManager;
+
+	@Before
+	public void setUp() throws Exception {
+		MockitoAnnotations.initMocks(this);
+		Mockito.when(factory.getIndexer()).thenReturn(indexerDao);
+		Mockito.when(factory.getSearcher()).thenReturn(searcherDao);
+		Mockito.when(factory.getSearcher(Mockito.any())).thenReturn(searcherDao);
+		this.searchEngineManager = new SearchEngineManager();
+		this.searchEngineManager.setFactory(factory);
+		this.searchEngineManager.setIndexQueueCapacity(2);
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		this.searchEngineManager.destroy();
+	}
+
+	@Test
+	public void testEventsAppliedAfterReload() throws Exception {
+		this.searchEngineManager.init();
+		this.searchEngineManager.setStatus(IDataObjectSearchEngineManager.STATUS_RELOADING_INDEXES_IN_PROGRESS);
+		this.searchEngineManager.updateFromPublicDataObjectChanged(this.createEvent("DO1"));
+		Thread.sleep(200);
+		// the worker holds the event while the indexes are reloaded
+		Mockito.verify(indexerDao, Mockito.never()).updateAll(Mockito.any(Collection.class), Mockito.any(Collection.class));
+		this.endReload();
+		Mockito.verify(newIndexerDao, Mockito.timeout(5000)).updateAll(Mockito.any(Collection.class), Mockito.any(Collection.class));
+		Mockito.verify(indexerDao, Mockito.never()).updateAll(Mockito.any(Collection.class), Mockito.any(Collection.class));
+		assertEquals(IDataObjectSearchEngineManager.STATUS_READY, this.searchEngineManager.getStatus());
+	}
+
+	@Test
+	public void testFullQueueDuringReload() throws Exception {
+		this.searchEngineManager.init();
+		this.searchEngineManager.setStatus(IDataObjectSearchEngineManager.STATUS_RELOADING_INDEXES_IN_PROGRESS);
+		long start = System.currentTimeMillis();
+		for (int i = 0; i < 5; i++) {
+			this.searchEngineManager.updateFromPublicDataObjectChanged(this.createEvent("DO" + i));
+		}
+		// the worker holds at most one batch, the queue refuses the others without waiting
+		assertTrue(System.currentTimeMillis() - start < 1000);
+		assertTrue(this.searchEngineManager.getIndexQueueSize() <= 2);
+		assertEquals(IDataObjectSearchEngineManager.STATUS_RELOADING_INDEXES_IN_PROGRESS, this.searchEngineManager.getStatus());
+		this.endReload();
+		assertEquals(IDataObjectSearchEngineManager.STATUS_NEED_TO_RELOAD_INDEXES, this.searchEngineManager.getStatus());
+	}
+
+	@Test
+	public void testFullQueue() throws Exception {
+		this.searchEngineManager.setIndexQueueCapacity(0);
+		this.searchEngineManager.init();
+		this.searchEngineManager.updateFromPublicDataObjectChanged(this.createEvent("DO1"));
+		assertEquals(IDataObjectSearchEngineManager.STATUS_NEED_TO_RELOAD_INDEXES, this.searchEngineManager.getStatus());
+	}
+
+	@Test
+	public void testStopDuringReload() throws Exception {
+		this.searchEngineManager.init();
+		this.searchEngineManager.setStatus(IDataObjectSearchEngineManager.STATUS_RELOADING_INDEXES_IN_PROGRESS);
+		this.searchEngineManager.updateFromPublicDataObjectChanged(this.createEvent("DO1"));
+		this.searchEngineManager.updateFromPublicDataObjectChanged(this.createEvent("DO2"));
+		this.searchEngineManager.destroy();
+		// the indexes being replaced are never updated
+		Mockito.verify(indexerDao, Mockito.never()).updateAll(Mockito.any(Collection.class), Mockito.any(Collection.class));
+		this.endReload();
+		assertEquals(IDataObjectSearchEngineManager.STATUS_NEED_TO_RELOAD_INDEXES, this.searchEngineManager.getStatus());
+	}
+
+	@Test
+	public void testFailedUpdate() throws Exception {
+		Mockito.doThrow(new ApsSystemException("index error")).when(indexerDao)
+				.updateAll(Mockito.any(Collection.class), Mockito.any(Collection.class));
+		this.searchEngineManager.init();
+		this.searchEngineManager.updateFromPublicDataObjectChanged(this.createEvent("DO1"));
+		Mockito.verify(indexerDao, Mockito.timeout(5000)).updateAll(Mockito.any(Collection.class), Mockito.any(Collection.class));
+		this.searchEngineManager.destroy();
+		assertEquals(IDataObjectSearchEngineManager.STATUS_NEED_TO_RELOAD_INDEXES, this.searchEngineManager.getStatus());
+	}
+
+	private void endReload() {
+		LastReloadInfo info = new LastReloadInfo();
+		info.setResult(LastReloadInfo.ID_SUCCESS_RESULT);
+		this.searchEngineManager.notifyEndingIndexLoading(info, newIndexerDao);
+		this.searchEngineManager.sellOfQueueEvents();
+	}
+
+	private PublicDataChangedEvent createEvent(String id) {
+		DataObject dataObject = new DataObject();
+		dataObject.setId(id);
+		PublicDataChangedEvent event = new PublicDataChangedEvent();
+		event.setDataObject(dataObject);
+		event.setOperationCode(PublicDataChangedEvent.UPDATE_OPERATION_CODE);
+		return event;
+	}
+
+}
@@ -20,7 +20,9 @@ import java.util.Set;
 
 import com.agiletec.aps.BaseTestCase;
 import com.agiletec.aps.system.SystemConstants;
+import com.agiletec.aps.system.common.FieldSearchFilter;
 import com.agiletec.aps.system.common.entity.model.attribute.TextAttribute;
+import com.agiletec.aps.system.common.model.dao.SearcherDaoPaginatedResult;
 import com.agiletec.aps.system.common.searchengine.IndexableAttributeInterface;
 import com.agiletec.aps.system.common.tree.ITreeNode;
 import com.agiletec.aps.system.services.category.Category;
@@ -271,6 +273,31 @@ public class TestSearchEngineManager extends BaseTestCase {
 		}
 	}
 
+	public void testSearchPaginatedContents() throws Throwable {
+		Thread thread = this.dataObjectSearchEngineManager.startReloadDataObjectsReferences();
+		thread.join();
+		SearchEngineManager sem = (SearchEngineManager) this.dataObjectSearchEngineManager;
+		Set<String> allowedGroup = new HashSet<String>();
+		allowedGroup.add(Group.ADMINS_GROUP_NAME);
+		List<String> allContentsId = sem.searchEntityId(new SearchEngineFilter[0], null, allowedGroup);
+		assertTrue(allContentsId.size() > 3);
+		SearchEngineFilter[] pageFilters = {new SearchEngineFilter(2, 1)};
+		SearcherDaoPaginatedResult<String> page = sem.searchPaginatedEntityId(pageFilters, null, allowedGroup);
+		assertEquals(allContentsId.size(), page.getCount().intValue());
+		assertEquals(allContentsId.subList(1, 3), page.getList());
+
+		SearchEngineFilter orderFilter = new SearchEngineFilter("Text:it_Titolo", false);
+		orderFilter.setOrder(FieldSearchFilter.Order.DESC);
+		List<String> sortedContentsId = sem.searchEntityId(new SearchEngineFilter[]{orderFilter}, null, allowedGroup);
+		assertTrue(sortedContentsId.size() > 1);
+		SearchEngineFilter[] firstPage = {orderFilter, new SearchEngineFilter(1, 0)};
+		SearchEngineFilter[] secondPage = {orderFilter, new SearchEngineFilter(1, 1)};
+		List<String> pagedContentsId = new ArrayList<String>();
+		pagedContentsId.addAll(sem.searchPaginatedEntityId(firstPage, null, allowedGroup).getList());
+		pagedContentsId.addAll(sem.searchPaginatedEntityId(secondPage, null, allowedGroup).getList());
+		assertEquals(sortedContentsId.subList(0, 2), pagedContentsId);
+	}
+
 	public void testFacetedAllContents() throws Throwable {
 		try {
 			Thread thread = this.dataObjectSearchEngineManager.startReloadDataObjectsReferences();
@@ -306,6 +333,7 @@ public class TestSearchEngineManager extends BaseTestCase {
 			String[] expected1 = {"ART122", "ART102", "ART111", "ART120"};
 			this.verify(result.getContentsId(), expected1);
 			assertEquals(4, result.getOccurrences().size());
+			assertEquals(4, result.getOccurrences().get("general").intValue());
 		} catch (Throwable t) {
 			throw t;
 		}
@@ -0,0 +1,158 @@
+/*
+ * Copyright 2018-Present Entando S.r.l. (http://www.entando.com) All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+package org.entando.entando.aps.system.services.freemarker;
+
+import com.agiletec.aps.system.services.pagemodel.PageModel;
+import com.agiletec.aps.system.services.pagemodel.events.PageModelChangedEvent;
+import freemarker.template.Configuration;
+import freemarker.template.Template;
+import org.entando.entando.aps.system.services.guifragment.GuiFragment;
+import org.entando.entando.aps.system.services.guifragment.event.GuiFragmentChangedEvent;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.*;
+
+public class FreemarkerTemplateCacheManagerTest {
+
+    private FreemarkerTemplateCacheManager templateCacheManager;
+
+    private Configuration configuration;
+
+    @Before
+    public void setUp() throws Exception {
+        this.templateCacheManager = new FreemarkerTemplateCacheManager();
+        this.templateCacheManager.setMaxSize(2);
+        this.templateCacheManager.init();
+        this.configuration = new Configuration(Configuration.VERSION_2_3_28);
+    }
+
+    @Test
+    public void testPageModelTemplateCompiledOnce() throws Exception {
+        PageModel model = this.createPageModel("model", "<html>${test}</html>");
+        Template template = this.templateCacheManager.getPageModelTemplate(model, this.configuration);
+        assertNotNull(template);
+        assertSame(template, this.templateCacheManager.getPageModelTemplate(model, this.configuration));
+        assertEquals(1, this.templateCacheManager.getStats().missCount());
+        assertEquals(1, this.templateCacheManager.getStats().hitCount());
+        assertEquals(1, this.templateCacheManager.getSize());
+    }
+
+    @Test
+    public void testTemplateRecompiledOnNewVersion() throws Exception {
+        GuiFragment fragment = this.createGuiFragment("fragment", "first version");
+        Template template = this.templateCacheManager.getGuiFragmentTemplate(fragment, this.configuration);
+        fragment.setGui("second version");
+        Template newTemplate = this.templateCacheManager.getGuiFragmentTemplate(fragment, this.configuration);
+        assertNotSame(template, newTemplate);
+        assertSame(newTemplate, this.templateCacheManager.getGuiFragmentTemplate(fragment, this.configuration));
+        assertEquals(1, this.templateCacheManager.getSize());
+    }
+
+    @Test
+    public void testSourcesWithSameHash() throws Exception {
+        // "Aa" and "BB" have the same hash code and length
+        assertEquals("Aa".hashCode(), "BB".hashCode());
+        GuiFragment fragment = this.createGuiFragment("fragment", "Aa");
+        Template template = this.templateCacheManager.getGuiFragmentTemplate(fragment, this.configuration);
+        fragment.setGui("BB");
+        Template newTemplate = this.templateCacheManager.getGuiFragmentTemplate(fragment, this.configuration);
+        assertNotSame(template, newTemplate);
+        StringWriter output = new StringWriter();
+        newTemplate.process(null, output);
+        assertEquals("BB", output.toString());
+        assertEquals(1, this.templateCacheManager.getSize());
+    }
+
+    @Test
+    public void testConcurrentCompile() throws Exception {
+        GuiFragment fragment = this.createGuiFragment("fragment", "<p>${test}</p>");
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Callable<Template>> tasks = new ArrayList<>();
+            for (int i = 0; i < 32; i++) {
+                tasks.add(() -> this.templateCacheManager.getGuiFragmentTemplate(fragment, this.configuration));
+            }
+            Set<Template> templates = Collections.newSetFromMap(new IdentityHashMap<>());
+            for (Future<Template> future : executor.invokeAll(tasks)) {
+                templates.add(future.get());
+            }
+            assertEquals(1, templates.size());
+            assertEquals(1, this.templateCacheManager.getSize());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testBlankSource() throws Exception {
+        assertNull(this.templateCacheManager.getGuiFragmentTemplate(this.createGuiFragment("fragment", " "), this.configuration));
+        assertNull(this.templateCacheManager.getPageModelTemplate(null, this.configuration));
+        assertEquals(0, this.templateCacheManager.getSize());
+    }
+
+    @Test
+    public void testEvictionOnEvents() throws Exception {
+        PageModel model = this.createPageModel("model", "model template");
+        GuiFragment fragment = this.createGuiFragment("fragment", "fragment template");
+        this.templateCacheManager.getPageModelTemplate(model, this.configuration);
+        this.templateCacheManager.getGuiFragmentTemplate(fragment, this.configuration);
+        assertEquals(2, this.templateCacheManager.getSize());
+        PageModelChangedEvent modelEvent = new PageModelChangedEvent();
+        modelEvent.setPageModel(model);
+        modelEvent.setOperationCode(PageModelChangedEvent.UPDATE_OPERATION_CODE);
+        this.templateCacheManager.updateFromPageModelChanged(modelEvent);
+        assertEquals(1, this.templateCacheManager.getSize());
+        GuiFragmentChangedEvent fragmentEvent = new GuiFragmentChangedEvent();
+        fragmentEvent.setGuiFragment(fragment);
+        fragmentEvent.setOperationCode(GuiFragmentChangedEvent.REMOVE_OPERATION_CODE);
+        this.templateCacheManager.updateFromGuiFragmentChanged(fragmentEvent);
+        assertEquals(0, this.templateCacheManager.getSize());
+    }
+
+    @Test
+    public void testMaxSize() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            this.templateCacheManager.getGuiFragmentTemplate(this.createGuiFragment("fragment_" + i, "template " + i), this.configuration);
+        }
+        assertEquals(2, this.templateCacheManager.getSize());
+        assertTrue(this.templateCacheManager.getStats().evictionCount() > 0);
+    }
+
+    private PageModel createPageModel(String code, String template) {
+        PageModel model = new PageModel();
+        model.setCode(code);
+        model.setTemplate(template);
+        return model;
+    }
+
+    private GuiFragment createGuiFragment(String code, String gui) {
+        GuiFragment fragment = new GuiFragment();
+        fragment.setCode(code);
+        fragment.setGui(gui);
+        return fragment;
+    }
+
+}
@@ -105,6 +105,7 @@ public class PageModelServiceTest {
         when(applicationContext.getBeansOfType(any())).thenReturn(pageModelServiceUtilizerMap);
         when(pageModelServiceUtilizer.getManagerName()).thenReturn(managerName);
         when(pageModelServiceUtilizer.getPageModelUtilizer(Mockito.anyString())).thenReturn(Collections.singletonList(pageDto));
+        when(pageModelServiceUtilizer.getPageModelUtilizer(Mockito.anyString(), any())).thenCallRealMethod();
         RestListRequest restListRequest = new RestListRequest();
         restListRequest.setPageSize(1);
         List<ComponentUsageEntity> componentUsageEntityList = Arrays.asList(new ComponentUsageEntity(ComponentUsageEntity.TYPE_PAGE, PageMockHelper.PAGE_CODE, IPageService.STATUS_ONLINE));
@@ -13,8 +13,11 @@
  */
 package org.entando.entando.aps.system.services.userprofile;
 
+import java.util.Collections;
+
 import com.agiletec.ConfigTestUtils;
 import com.agiletec.aps.system.SystemConstants;
+import com.agiletec.aps.system.common.entity.cache.IEntityManagerCacheWrapper;
 import com.agiletec.aps.system.common.entity.model.IApsEntity;
 import com.agiletec.aps.system.common.entity.model.attribute.MonoTextAttribute;
 import com.agiletec.aps.system.common.entity.parse.IApsEntityDOM;
@@ -61,6 +64,9 @@ public class UserProfileManagerTest {
     @Mock
     private INotifyManager notifyManager;
 
+    @Mock
+    private IEntityManagerCacheWrapper cacheWrapper;
+
     private String beanName = "UserProfileManager";
 
     private String className = "org.entando.entando.aps.system.services.userprofile.model.UserProfile";
@@ -75,19 +81,19 @@ public class UserProfileManagerTest {
         this.userProfileManager.setEntityClassName(className);
         this.userProfileManager.setConfigItemName(configItemName);
         this.userProfileManager.setBeanName(this.beanName);
+        when(this.cacheWrapper.getEntityTypes()).thenReturn(null);
     }
 
     @Test
     public void testGetDefaultProfileType() throws ApsSystemException {
         // @formatter:off
-        when(entityTypeFactory.extractEntityType(
-                SystemConstants.DEFAULT_PROFILE_TYPE_CODE,
+        when(entityTypeFactory.extractEntityTypes(
                 UserProfile.class,
                 configItemName,
                 this.entityTypeDom,
                 userProfileManager.getName(),
                 this.entityDom))
-                .thenReturn(this.createFakeProfile(SystemConstants.DEFAULT_PROFILE_TYPE_CODE));
+                .thenReturn(Collections.singletonMap(SystemConstants.DEFAULT_PROFILE_TYPE_CODE, this.createFakeProfile(SystemConstants.DEFAULT_PROFILE_TYPE_CODE)));
         // @formatter:on
 
         IUserProfile userProfile = userProfileManager.getDefaultProfileType();
@@ -98,14 +104,13 @@ public class UserProfileManagerTest {
     @Test
     public void testAddProfile() throws ApsSystemException {
         // @formatter:off
-        when(entityTypeFactory.extractEntityType(
-                SystemConstants.DEFAULT_PROFILE_TYPE_CODE,
+        when(entityTypeFactory.extractEntityTypes(
                 UserProfile.class,
                 configItemName,
                 this.entityTypeDom,
                 userProfileManager.getName(),
                 this.entityDom))
-                .thenReturn(this.createFakeProfile(SystemConstants.DEFAULT_PROFILE_TYPE_CODE));
+                .thenReturn(Collections.singletonMap(SystemConstants.DEFAULT_PROFILE_TYPE_CODE, this.createFakeProfile(SystemConstants.DEFAULT_PROFILE_TYPE_CODE)));
         // @formatter:on
 
         IUserProfile userProfile = userProfileManager.getDefaultProfileType();
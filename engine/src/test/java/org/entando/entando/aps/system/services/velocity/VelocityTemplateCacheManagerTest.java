@@ -0,0 +1,91 @@
+/*
+ * Copyright 2015-Present Entando Inc. (http://www.entando.com) All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+package org.entando.entando.aps.system.services.velocity;
+
+import java.io.StringWriter;
+import java.util.Collections;
+import org.apache.velocity.Template;
+import org.apache.velocity.VelocityContext;
+import org.entando.entando.aps.system.services.dataobjectmodel.DataObjectModel;
+import org.entando.entando.aps.system.services.dataobjectmodel.event.DataObjectModelChangedEvent;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class VelocityTemplateCacheManagerTest {
+
+    private VelocityTemplateCacheManager templateCacheManager;
+
+    @Before
+    public void setUp() throws Exception {
+        this.templateCacheManager = new VelocityTemplateCacheManager();
+        this.templateCacheManager.setMaxSize(3);
+        this.templateCacheManager.init();
+    }
+
+    @Test
+    public void testModelTemplateParsedOnce() throws Exception {
+        String shape = "title: $data.title #if($data.title == 'test')ok#end";
+        Template template = this.templateCacheManager.getDataObjectModelTemplate(1, shape);
+        assertNotNull(template);
+        assertSame(template, this.templateCacheManager.getDataObjectModelTemplate(1, shape));
+        assertEquals(1, this.templateCacheManager.getStats().missCount());
+        assertEquals(1, this.templateCacheManager.getStats().hitCount());
+        VelocityContext context = new VelocityContext();
+        context.put("data", Collections.singletonMap("title", "test"));
+        StringWriter writer = new StringWriter();
+        template.merge(context, writer);
+        assertEquals("title: test ok", writer.toString());
+    }
+
+    @Test
+    public void testNewShapeOfModel() throws Exception {
+        Template template = this.templateCacheManager.getDataObjectModelTemplate(1, "first");
+        Template newTemplate = this.templateCacheManager.getDataObjectModelTemplate(1, "second");
+        assertNotSame(template, newTemplate);
+        assertSame(newTemplate, this.templateCacheManager.getDataObjectModelTemplate(1, "second"));
+        // the new version replaces the older one
+        assertEquals(1, this.templateCacheManager.getSize());
+        assertNull(this.templateCacheManager.getDataObjectModelTemplate(1, null));
+        assertNull(this.templateCacheManager.getTemplate(null));
+    }
+
+    @Test
+    public void testEvictionOnModelChange() throws Exception {
+        this.templateCacheManager.getDataObjectModelTemplate(1, "first");
+        this.templateCacheManager.getDataObjectModelTemplate(11, "other model");
+        this.templateCacheManager.getTemplate("generic");
+        assertEquals(3, this.templateCacheManager.getSize());
+        DataObjectModel model = new DataObjectModel();
+        model.setId(1);
+        DataObjectModelChangedEvent event = new DataObjectModelChangedEvent();
+        event.setDataObjectModel(model);
+        event.setOperationCode(DataObjectModelChangedEvent.UPDATE_OPERATION_CODE);
+        this.templateCacheManager.updateFromDataObjectModelChanged(event);
+        assertEquals(2, this.templateCacheManager.getSize());
+        this.templateCacheManager.flush();
+        assertEquals(0, this.templateCacheManager.getSize());
+    }
+
+    @Test
+    public void testMaxSize() throws Exception {
+        for (int i = 0; i < 10; i++) {
+            this.templateCacheManager.getTemplate("template " + i);
+        }
+        assertEquals(3, this.templateCacheManager.getSize());
+        assertTrue(this.templateCacheManager.getStats().evictionCount() > 0);
+    }
+
+}
@@ -21,6 +21,9 @@ import javax.servlet.ServletException;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
+import org.entando.entando.aps.system.services.controller.cache.IPageOutputCacheManager;
+import org.entando.entando.aps.system.services.controller.cache.PageOutput;
+import org.entando.entando.aps.system.services.controller.cache.StatusAwareResponseWrapper;
 import org.entando.entando.aps.system.services.controller.executor.ExecutorBeanContainer;
 import org.entando.entando.aps.system.services.controller.executor.ExecutorServiceInterface;
 import org.slf4j.Logger;
@@ -29,6 +32,7 @@ import org.slf4j.LoggerFactory;
 import com.agiletec.aps.system.RequestContext;
 import com.agiletec.aps.system.SystemConstants;
 import com.agiletec.aps.system.services.controller.ControllerManager;
+import com.agiletec.aps.system.services.page.IPage;
 import com.agiletec.aps.util.ApsWebApplicationUtils;
 
 import freemarker.ext.jsp.TaglibFactory;
@@ -50,6 +54,26 @@ public class ControllerServlet extends freemarker.ext.servlet.FreemarkerServlet
 
 	private static final Logger _logger = LoggerFactory.getLogger(ControllerServlet.class);
 
+	@Override
+	public void init() throws ServletException {
+		super.init();
+		this._pageConfiguration = this.createPageConfiguration();
+	}
+
+	/**
+	 * Create the freemarker configuration used to render page models and fragments.
+	 * The configuration (and its object wrapper, with the introspection cache) is built once 
+	 * and shared between all the requests: only the template model is created per request.
+	 * @return The configuration to share.
+	 */
+	protected Configuration createPageConfiguration() {
+		Configuration config = new Configuration();
+		DefaultObjectWrapper wrapper = new DefaultObjectWrapper();
+		config.setObjectWrapper(wrapper);
+		config.setTemplateExceptionHandler(TemplateExceptionHandler.DEBUG_HANDLER);
+		return config;
+	}
+
 	@Override
 	protected void service(HttpServletRequest request, HttpServletResponse response) 
 			throws ServletException, IOException {
@@ -100,17 +124,52 @@ public class ControllerServlet extends freemarker.ext.servlet.FreemarkerServlet
 	protected void initFreemarker(HttpServletRequest request,
 			HttpServletResponse response, RequestContext reqCtx)
 			throws TemplateModelException {
-		Configuration config = new Configuration();
-		DefaultObjectWrapper wrapper = new DefaultObjectWrapper();
-		config.setTemplateExceptionHandler(TemplateExceptionHandler.HTML_DEBUG_HANDLER);
-		config.setObjectWrapper(wrapper);
-		config.setTemplateExceptionHandler(TemplateExceptionHandler.DEBUG_HANDLER);
-		TemplateModel templateModel = this.createModel(wrapper, this.getServletContext(), request, response);
+		Configuration config = this.getPageConfiguration();
+		TemplateModel templateModel = this.createModel(config.getObjectWrapper(), this.getServletContext(), request, response);
 		ExecutorBeanContainer ebc = new ExecutorBeanContainer(config, templateModel);
 		reqCtx.addExtraParam(SystemConstants.EXTRAPAR_EXECUTOR_BEAN_CONTAINER, ebc);
 	}
 
-	protected void executePage(HttpServletRequest request, RequestContext reqCtx) {
+	protected Configuration getPageConfiguration() {
+		return _pageConfiguration;
+	}
+
+	protected void executePage(HttpServletRequest request, RequestContext reqCtx) throws IOException {
+		IPageOutputCacheManager cacheManager = (IPageOutputCacheManager) ApsWebApplicationUtils.getBean(SystemConstants.PAGE_OUTPUT_CACHE_MANAGER, request);
+		String cacheKey = cacheManager.getPageCacheKey(reqCtx);
+		if (null == cacheKey) {
+			this.executeServices(request, reqCtx);
+			return;
+		}
+		HttpServletResponse response = reqCtx.getResponse();
+		PageOutput cachedOutput = cacheManager.getOutput(cacheKey);
+		if (null != cachedOutput) {
+			_logger.debug("Page output from cache - key {}", cacheKey);
+			if (null != cachedOutput.getContentType()) {
+				response.setContentType(cachedOutput.getContentType());
+			}
+			response.getWriter().write(cachedOutput.getOutput());
+			return;
+		}
+		StatusAwareResponseWrapper wrapper = new StatusAwareResponseWrapper(response);
+		reqCtx.setResponse(wrapper);
+		try {
+			this.executeServices(request, reqCtx);
+		} finally {
+			reqCtx.setResponse(response);
+		}
+		if (null != reqCtx.getExtraParam(SystemConstants.EXTRAPAR_EXTERNAL_REDIRECT) || response.isCommitted()) {
+			return;
+		}
+		String output = wrapper.getOutput();
+		response.getWriter().write(output);
+		if (wrapper.getStatus() == HttpServletResponse.SC_OK && cacheManager.isCacheableOutput(reqCtx, output, wrapper.isUrlRewritten())) {
+			IPage page = (IPage) reqCtx.getExtraParam(SystemConstants.EXTRAPAR_CURRENT_PAGE);
+			cacheManager.putPageOutput(cacheKey, page, new PageOutput(response.getContentType(), output, null));
+		}
+	}
+
+	protected void executeServices(HttpServletRequest request, RequestContext reqCtx) {
 		List<ExecutorServiceInterface> executors = (List<ExecutorServiceInterface>) ApsWebApplicationUtils.getBean("ExecutorServices", request);
 		for (int i = 0; i < executors.size(); i++) {
 			ExecutorServiceInterface executor = executors.get(i);
@@ -163,6 +222,8 @@ public class ControllerServlet extends freemarker.ext.servlet.FreemarkerServlet
 		}
 	}
 
+	private Configuration _pageConfiguration;
+
 	private static final String ATTR_APPLICATION_MODEL = ".freemarker.Application";
 	private static final String ATTR_JSP_TAGLIBS_MODEL = ".freemarker.JspTaglibs";
 
@@ -0,0 +1,105 @@
+/*
+ * Copyright 2015-Present Entando Inc. (http://www.entando.com) All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+package org.entando.entando.aps.system.services.controller.cache;
+
+import com.agiletec.aps.system.RequestContext;
+import com.agiletec.aps.system.services.page.IPage;
+import com.agiletec.aps.system.services.page.Widget;
+
+/**
+ * Cache of the rendered output of the portal pages and of their frames.
+ * The outputs are stored on the spring cache {@link #PAGE_OUTPUT_CACHE_NAME}, 
+ * grouped by page code by the CacheInfoManager.
+ */
+public interface IPageOutputCacheManager {
+
+	public static final String PAGE_OUTPUT_CACHE_NAME = "Entando_PageOutputCache";
+
+	/**
+	 * Return the key of the full output of the current page, 
+	 * or null if the output of the current request can't be cached.
+	 * Only the GET requests of the guest user are cacheable, on pages 
+	 * with a freemarker page model and with cacheable widgets only; 
+	 * the requests of sessions holding state or tracked by url rewriting are never cached.
+	 * @param reqCtx The request context.
+	 * @return The cache key, or null.
+	 */
+	public String getPageCacheKey(RequestContext reqCtx);
+
+	/**
+	 * Return the key of the output of the given frame of the current page, 
+	 * or null if the output can't be cached.
+	 * Only the GET requests of the guest user are cacheable, on frames with a cacheable widget type; 
+	 * the requests of sessions holding state or tracked by url rewriting are never cached.
+	 * @param reqCtx The request context.
+	 * @param frame The frame position.
+	 * @param widget The widget of the frame.
+	 * @return The cache key, or null.
+	 */
+	public String getFrameCacheKey(RequestContext reqCtx, int frame, Widget widget);
+
+	public PageOutput getOutput(String key);
+
+	/**
+	 * Store an output; the entry is evicted when the page changes, 
+	 * when the public data change and when the ttl expires.
+	 * @param key The cache key.
+	 * @param pageCode The code of the page.
+	 * @param output The output to store.
+	 */
+	public void putOutput(String key, String pageCode, PageOutput output);
+
+	/**
+	 * Store the full output of a page; the entry is evicted also when the page model 
+	 * or the fragments of the widgets of the page change.
+	 * @param key The cache key.
+	 * @param page The page.
+	 * @param output The output to store.
+	 */
+	public void putPageOutput(String key, IPage page, PageOutput output);
+
+	/**
+	 * Store the output of a frame; the entry is evicted also when the fragments of the widget change.
+	 * @param key The cache key.
+	 * @param page The page.
+	 * @param widget The widget of the frame.
+	 * @param output The output to store.
+	 */
+	public void putFrameOutput(String key, IPage page, Widget widget, PageOutput output);
+
+	/**
+	 * Whether the output (full page or frame) of the current request can be shared with the other guests: 
+	 * it can't when the session of the request holds state (a token, a form...) 
+	 * or when the urls of the output are rewritten with the session id.
+	 * @param reqCtx The request context.
+	 * @param output The rendered output.
+	 * @param urlRewritten Whether the response encoded an url with the session id.
+	 * @return true if the output can be cached.
+	 */
+	public boolean isCacheableOutput(RequestContext reqCtx, String output, boolean urlRewritten);
+
+	public boolean isCacheableWidget(Widget widget);
+
+	/**
+	 * Remove all the cached outputs.
+	 */
+	public void flush();
+
+	/**
+	 * Remove the cached outputs of the given page.
+	 * @param pageCode The page code.
+	 */
+	public void flushPage(String pageCode);
+
+}
@@ -0,0 +1,46 @@
+/*
+ * Copyright 2015-Present Entando Inc. (http://www.entando.com) All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+package org.entando.entando.aps.system.services.controller.cache;
+
+import com.agiletec.aps.tags.util.HeadInfoContainer;
+
+/**
+ * A rendered output stored by the page output cache: 
+ * the markup with its content type and the head infos added while rendering it.
+ */
+public class PageOutput {
+
+	private final String contentType;
+	private final String output;
+	private final HeadInfoContainer headInfos;
+
+	public PageOutput(String contentType, String output, HeadInfoContainer headInfos) {
+		this.contentType = contentType;
+		this.output = output;
+		this.headInfos = headInfos;
+	}
+
+	public String getContentType() {
+		return contentType;
+	}
+
+	public String getOutput() {
+		return output;
+	}
+
+	public HeadInfoContainer getHeadInfos() {
+		return headInfos;
+	}
+
+}
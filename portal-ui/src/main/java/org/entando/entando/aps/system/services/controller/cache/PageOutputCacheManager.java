@@ -0,0 +1,372 @@
+/*
+ * Copyright 2015-Present Entando Inc. (http://www.entando.com) All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+package org.entando.entando.aps.system.services.controller.cache;
+
+import com.agiletec.aps.system.RequestContext;
+import com.agiletec.aps.system.SystemConstants;
+import com.agiletec.aps.system.common.AbstractService;
+import com.agiletec.aps.system.services.authorization.IAuthorizationManager;
+import com.agiletec.aps.system.services.group.Group;
+import com.agiletec.aps.system.services.lang.Lang;
+import com.agiletec.aps.system.services.page.IPage;
+import com.agiletec.aps.system.services.page.Widget;
+import com.agiletec.aps.system.services.page.events.PageChangedEvent;
+import com.agiletec.aps.system.services.page.events.PageChangedObserver;
+import com.agiletec.aps.system.services.pagemodel.PageModel;
+import com.agiletec.aps.system.services.pagemodel.events.PageModelChangedEvent;
+import com.agiletec.aps.system.services.pagemodel.events.PageModelChangedObserver;
+import com.agiletec.aps.system.services.user.UserDetails;
+import java.util.Arrays;
+import java.util.Enumeration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpSession;
+import org.apache.commons.lang3.StringUtils;
+import org.entando.entando.aps.system.services.cache.ICacheInfoManager;
+import org.entando.entando.aps.system.services.dataobject.event.PublicDataChangedEvent;
+import org.entando.entando.aps.system.services.dataobject.event.PublicDataChangedObserver;
+import org.entando.entando.aps.system.services.guifragment.GuiFragment;
+import org.entando.entando.aps.system.services.guifragment.event.GuiFragmentChangedEvent;
+import org.entando.entando.aps.system.services.guifragment.event.GuiFragmentChangedObserver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+/**
+ * Output cache of the portal pages, disabled by default.
+ * Only the requests of the guest user on sessions without state are cached, both for full pages and frames. 
+ * The keys are made of page code, frame, language, groups of the current user and request parameters; 
+ * every output is put in the cache groups of its page, of its widget types and (full pages) of its page model, 
+ * flushed by the CacheInfoManager when one of them changes. 
+ * The outputs of widgets that render other pages (menus, breadcrumbs) are refreshed by the ttl only: 
+ * leave their types out of the cacheable widget types when they must follow every page change.
+ * The size and the ttl of the entries are given by the store of the spring cache, 
+ * whose removal listener drops the evicted keys from the group index.
+ */
+public class PageOutputCacheManager extends AbstractService
+		implements IPageOutputCacheManager, PageChangedObserver, PublicDataChangedObserver,
+		PageModelChangedObserver, GuiFragmentChangedObserver {
+
+	private static final Logger logger = LoggerFactory.getLogger(PageOutputCacheManager.class);
+
+	public static final String PAGE_OUTPUT_KEY = "page";
+
+	public static final String WIDGET_TYPE_CACHE_GROUP_PREFIX = "PageOutputWidgetType_";
+	public static final String PAGE_MODEL_CACHE_GROUP_PREFIX = "PageOutputPageModel_";
+
+	private static final String SESSION_ID_URL_PARAM = ";jsessionid=";
+
+	private boolean enabled = false;
+
+	private Set<String> cacheableWidgetTypeCodes = new HashSet<>();
+
+	private ICacheInfoManager cacheInfoManager;
+	private CacheManager springCacheManager;
+	private IAuthorizationManager authorizationManager;
+
+	@Override
+	public void init() throws Exception {
+		logger.debug("{} ready - enabled {} - cacheable widget types {}", 
+				this.getClass().getName(), this.isEnabled(), this.cacheableWidgetTypeCodes);
+	}
+
+	@Override
+	protected void release() {
+		this.flush();
+		super.release();
+	}
+
+	@Override
+	public String getPageCacheKey(RequestContext reqCtx) {
+		if (!this.isCacheableRequest(reqCtx)) {
+			return null;
+		}
+		IPage page = (IPage) reqCtx.getExtraParam(SystemConstants.EXTRAPAR_CURRENT_PAGE);
+		PageModel model = page.getModel();
+		if (null == model || StringUtils.isBlank(model.getTemplate())) {
+			return null;
+		}
+		Widget[] widgets = page.getWidgets();
+		if (null != widgets) {
+			for (Widget widget : widgets) {
+				if (null != widget && !this.isCacheableWidget(widget)) {
+					return null;
+				}
+			}
+		}
+		return this.buildKey(reqCtx, page, PAGE_OUTPUT_KEY, this.getCurrentUser(reqCtx));
+	}
+
+	@Override
+	public String getFrameCacheKey(RequestContext reqCtx, int frame, Widget widget) {
+		if (!this.isCacheableRequest(reqCtx) || !this.isCacheableWidget(widget)) {
+			return null;
+		}
+		IPage page = (IPage) reqCtx.getExtraParam(SystemConstants.EXTRAPAR_CURRENT_PAGE);
+		return this.buildKey(reqCtx, page, String.valueOf(frame), this.getCurrentUser(reqCtx));
+	}
+
+	/**
+	 * Whether the output of the request can be shared: a GET request of the guest user 
+	 * on a session that holds no state and is tracked by cookie. 
+	 * The same guard applies to full pages and to frames.
+	 * @param reqCtx The request context.
+	 * @return true if the output of the request can be cached.
+	 */
+	protected boolean isCacheableRequest(RequestContext reqCtx) {
+		if (!this.isEnabled() || null == reqCtx || null == reqCtx.getRequest()) {
+			return false;
+		}
+		if (!"GET".equalsIgnoreCase(reqCtx.getRequest().getMethod())
+				|| null == reqCtx.getExtraParam(SystemConstants.EXTRAPAR_CURRENT_PAGE)
+				|| this.isSessionBound(reqCtx.getRequest())) {
+			return false;
+		}
+		UserDetails user = this.getCurrentUser(reqCtx);
+		return (null == user || SystemConstants.GUEST_USER_NAME.equals(user.getUsername()));
+	}
+
+	@Override
+	public boolean isCacheableWidget(Widget widget) {
+		return (null != widget && null != widget.getType()
+				&& this.cacheableWidgetTypeCodes.contains(widget.getType().getCode()));
+	}
+
+	protected String buildKey(RequestContext reqCtx, IPage page, String target, UserDetails user) {
+		StringBuilder key = new StringBuilder(page.getCode()).append('|').append(target);
+		Lang lang = (Lang) reqCtx.getExtraParam(SystemConstants.EXTRAPAR_CURRENT_LANG);
+		key.append('|').append((null != lang) ? lang.getCode() : "");
+		key.append('|');
+		Set<String> groupNames = new TreeSet<>();
+		if (null != user) {
+			List<Group> groups = this.getAuthorizationManager().getUserGroups(user);
+			if (null != groups) {
+				for (Group group : groups) {
+					groupNames.add(group.getName());
+				}
+			}
+		}
+		key.append(StringUtils.join(groupNames, ','));
+		key.append('|');
+		HttpServletRequest request = reqCtx.getRequest();
+		Map<String, String[]> parameters = new TreeMap<>((Map<String, String[]>) request.getParameterMap());
+		for (Map.Entry<String, String[]> parameter : parameters.entrySet()) {
+			key.append(parameter.getKey()).append('=').append(Arrays.toString(parameter.getValue())).append('&');
+		}
+		return key.toString();
+	}
+
+	@Override
+	public boolean isCacheableOutput(RequestContext reqCtx, String output, boolean urlRewritten) {
+		if (urlRewritten || null == output || output.contains(SESSION_ID_URL_PARAM)) {
+			return false;
+		}
+		return !this.isSessionBound(reqCtx.getRequest());
+	}
+
+	/**
+	 * Whether the output of the request depends on the session: 
+	 * the session holds attributes other than the current user (tokens, forms, messages) 
+	 * or its id is not sent by cookie, so the container rewrites the urls of the output.
+	 * @param request The request.
+	 * @return true if the output of the request can't be shared.
+	 */
+	protected boolean isSessionBound(HttpServletRequest request) {
+		HttpSession session = request.getSession(false);
+		if (null == session) {
+			return false;
+		}
+		if (!request.isRequestedSessionIdFromCookie()) {
+			return true;
+		}
+		Enumeration<String> names = session.getAttributeNames();
+		while (names.hasMoreElements()) {
+			if (!SystemConstants.SESSIONPARAM_CURRENT_USER.equals(names.nextElement())) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	protected UserDetails getCurrentUser(RequestContext reqCtx) {
+		HttpSession session = reqCtx.getRequest().getSession(false);
+		return (null != session) ? (UserDetails) session.getAttribute(SystemConstants.SESSIONPARAM_CURRENT_USER) : null;
+	}
+
+	@Override
+	public PageOutput getOutput(String key) {
+		if (null == key) {
+			return null;
+		}
+		Cache.ValueWrapper value = this.getCache().get(key);
+		return (null != value) ? (PageOutput) value.get() : null;
+	}
+
+	@Override
+	public void putOutput(String key, String pageCode, PageOutput output) {
+		this.putOutput(key, output, new String[]{SystemConstants.PAGES_CACHE_GROUP_PREFIX + pageCode});
+	}
+
+	@Override
+	public void putPageOutput(String key, IPage page, PageOutput output) {
+		Set<String> groups = new HashSet<>();
+		groups.add(SystemConstants.PAGES_CACHE_GROUP_PREFIX + page.getCode());
+		if (null != page.getModel()) {
+			groups.add(PAGE_MODEL_CACHE_GROUP_PREFIX + page.getModel().getCode());
+		}
+		Widget[] widgets = page.getWidgets();
+		if (null != widgets) {
+			for (Widget widget : widgets) {
+				if (null != widget && null != widget.getType()) {
+					groups.add(WIDGET_TYPE_CACHE_GROUP_PREFIX + widget.getType().getCode());
+				}
+			}
+		}
+		this.putOutput(key, output, groups.toArray(new String[groups.size()]));
+	}
+
+	@Override
+	public void putFrameOutput(String key, IPage page, Widget widget, PageOutput output) {
+		Set<String> groups = new HashSet<>();
+		groups.add(SystemConstants.PAGES_CACHE_GROUP_PREFIX + page.getCode());
+		if (null != widget && null != widget.getType()) {
+			groups.add(WIDGET_TYPE_CACHE_GROUP_PREFIX + widget.getType().getCode());
+		}
+		this.putOutput(key, output, groups.toArray(new String[groups.size()]));
+	}
+
+	protected void putOutput(String key, PageOutput output, String[] groups) {
+		if (null == key || null == output) {
+			return;
+		}
+		this.getCache().put(key, output);
+		this.getCacheInfoManager().putInGroup(PAGE_OUTPUT_CACHE_NAME, key, groups);
+	}
+
+	@Override
+	public void flush() {
+		this.getCacheInfoManager().flushAll(PAGE_OUTPUT_CACHE_NAME);
+	}
+
+	@Override
+	public void flushPage(String pageCode) {
+		this.getCacheInfoManager().flushGroup(PAGE_OUTPUT_CACHE_NAME, SystemConstants.PAGES_CACHE_GROUP_PREFIX + pageCode);
+	}
+
+	/**
+	 * A page change evicts the outputs of the page and, when a page is added or removed, 
+	 * the outputs of its parent.
+	 */
+	@Override
+	public void updateFromPageChanged(PageChangedEvent event) {
+		IPage page = event.getPage();
+		if (null == page) {
+			this.flush();
+			return;
+		}
+		this.flushPage(page.getCode());
+		if (event.getOperationCode() != PageChangedEvent.EDIT_FRAME_OPERATION_CODE && null != page.getParentCode()) {
+			this.flushPage(page.getParentCode());
+		}
+	}
+
+	/**
+	 * Any widget can render the public data, so their change evicts all the outputs.
+	 */
+	@Override
+	public void updateFromPublicDataObjectChanged(PublicDataChangedEvent event) {
+		this.flush();
+	}
+
+	@Override
+	public void updateFromPageModelChanged(PageModelChangedEvent event) {
+		PageModel pageModel = event.getPageModel();
+		if (null == pageModel) {
+			this.flush();
+			return;
+		}
+		this.getCacheInfoManager().flushGroup(PAGE_OUTPUT_CACHE_NAME, PAGE_MODEL_CACHE_GROUP_PREFIX + pageModel.getCode());
+	}
+
+	/**
+	 * The change of the fragment of a widget type evicts the outputs of that widget type; 
+	 * the other fragments can be included by any fragment or decorator, so their change evicts all the outputs.
+	 */
+	@Override
+	public void updateFromGuiFragmentChanged(GuiFragmentChangedEvent event) {
+		GuiFragment guiFragment = event.getGuiFragment();
+		if (null == guiFragment || StringUtils.isBlank(guiFragment.getWidgetTypeCode())) {
+			this.flush();
+			return;
+		}
+		this.getCacheInfoManager().flushGroup(PAGE_OUTPUT_CACHE_NAME, WIDGET_TYPE_CACHE_GROUP_PREFIX + guiFragment.getWidgetTypeCode());
+	}
+
+	protected Cache getCache() {
+		return this.getSpringCacheManager().getCache(PAGE_OUTPUT_CACHE_NAME);
+	}
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	public void setEnabled(boolean enabled) {
+		this.enabled = enabled;
+	}
+
+	/**
+	 * Set the codes of the widget types whose output can be cached (comma separated).
+	 * @param cacheableWidgetTypes The codes of the cacheable widget types.
+	 */
+	public void setCacheableWidgetTypes(String cacheableWidgetTypes) {
+		Set<String> codes = new HashSet<>();
+		for (String code : StringUtils.split(StringUtils.defaultString(cacheableWidgetTypes), ",")) {
+			if (StringUtils.isNotBlank(code)) {
+				codes.add(code.trim());
+			}
+		}
+		this.cacheableWidgetTypeCodes = codes;
+	}
+
+	protected ICacheInfoManager getCacheInfoManager() {
+		return cacheInfoManager;
+	}
+
+	public void setCacheInfoManager(ICacheInfoManager cacheInfoManager) {
+		this.cacheInfoManager = cacheInfoManager;
+	}
+
+	protected CacheManager getSpringCacheManager() {
+		return springCacheManager;
+	}
+
+	public void setSpringCacheManager(CacheManager springCacheManager) {
+		this.springCacheManager = springCacheManager;
+	}
+
+	protected IAuthorizationManager getAuthorizationManager() {
+		return authorizationManager;
+	}
+
+	public void setAuthorizationManager(IAuthorizationManager authorizationManager) {
+		this.authorizationManager = authorizationManager;
+	}
+
+}
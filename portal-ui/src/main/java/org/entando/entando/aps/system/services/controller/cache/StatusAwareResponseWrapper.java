@@ -0,0 +1,93 @@
+/*
+ * Copyright 2015-Present Entando Inc. (http://www.entando.com) All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+package org.entando.entando.aps.system.services.controller.cache;
+
+import java.io.IOException;
+import javax.servlet.http.HttpServletResponse;
+import org.entando.entando.aps.system.services.controller.executor.BufferedHttpResponseWrapper;
+
+/**
+ * Buffered response that keeps track of the status set while rendering 
+ * and of the urls rewritten with the session id, 
+ * so that only the successful outputs, with no session reference, get cached.
+ */
+public class StatusAwareResponseWrapper extends BufferedHttpResponseWrapper {
+
+	private int status = HttpServletResponse.SC_OK;
+	private boolean urlRewritten = false;
+
+	public StatusAwareResponseWrapper(HttpServletResponse response) {
+		super(response);
+	}
+
+	@Override
+	public void setStatus(int sc) {
+		this.status = sc;
+		super.setStatus(sc);
+	}
+
+	@Override
+	public void sendError(int sc) throws IOException {
+		this.status = sc;
+		super.sendError(sc);
+	}
+
+	@Override
+	public void sendError(int sc, String msg) throws IOException {
+		this.status = sc;
+		super.sendError(sc, msg);
+	}
+
+	@Override
+	public void sendRedirect(String location) throws IOException {
+		this.status = HttpServletResponse.SC_MOVED_TEMPORARILY;
+		super.sendRedirect(location);
+	}
+
+	@Override
+	public String encodeURL(String url) {
+		return this.checkRewriting(url, super.encodeURL(url));
+	}
+
+	@Override
+	public String encodeUrl(String url) {
+		return this.checkRewriting(url, super.encodeUrl(url));
+	}
+
+	@Override
+	public String encodeRedirectURL(String url) {
+		return this.checkRewriting(url, super.encodeRedirectURL(url));
+	}
+
+	@Override
+	public String encodeRedirectUrl(String url) {
+		return this.checkRewriting(url, super.encodeRedirectUrl(url));
+	}
+
+	private String checkRewriting(String url, String encodedUrl) {
+		if (null != url && !url.equals(encodedUrl)) {
+			this.urlRewritten = true;
+		}
+		return encodedUrl;
+	}
+
+	public boolean isUrlRewritten() {
+		return urlRewritten;
+	}
+
+	public int getStatus() {
+		return status;
+	}
+
+}
@@ -14,13 +14,23 @@
 package org.entando.entando.aps.system.services.controller.executor;
 
 import java.io.ByteArrayOutputStream;
+import java.io.FilterWriter;
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.io.OutputStreamWriter;
-import java.io.StringReader;
 import java.io.Writer;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 import javax.servlet.RequestDispatcher;
 import javax.servlet.ServletContext;
@@ -30,6 +40,10 @@ import javax.servlet.http.HttpServletResponse;
 
 import org.apache.commons.beanutils.BeanComparator;
 import org.apache.commons.lang.StringUtils;
+import org.entando.entando.aps.system.services.controller.cache.IPageOutputCacheManager;
+import org.entando.entando.aps.system.services.controller.cache.PageOutput;
+import org.entando.entando.aps.system.services.controller.cache.StatusAwareResponseWrapper;
+import org.entando.entando.aps.system.services.freemarker.IFreemarkerTemplateCacheManager;
 import org.entando.entando.aps.system.services.guifragment.GuiFragment;
 import org.entando.entando.aps.system.services.guifragment.IGuiFragmentManager;
 import org.entando.entando.aps.system.services.widgettype.WidgetType;
@@ -45,6 +59,8 @@ import com.agiletec.aps.system.services.group.Group;
 import com.agiletec.aps.system.services.page.IPage;
 import com.agiletec.aps.system.services.page.Widget;
 import com.agiletec.aps.system.services.user.UserDetails;
+import com.agiletec.aps.tags.InternalServletTag;
+import com.agiletec.aps.tags.util.HeadInfoContainer;
 import com.agiletec.aps.tags.util.IFrameDecoratorContainer;
 import com.agiletec.aps.util.ApsWebApplicationUtils;
 
@@ -57,14 +73,32 @@ public abstract class AbstractWidgetExecutorService {
 
 	private static final Logger _logger = LoggerFactory.getLogger(AbstractWidgetExecutorService.class);
 
+	/**
+	 * The markers of the fragments that use the servlet request: 
+	 * the jsp taglibs and the inclusion of other templates.
+	 */
+	private static final String[] REQUEST_BOUND_DIRECTIVES = {"JspTaglibs", "#include", "#import"};
+
+	/**
+	 * Extra parameters bound to the frame under rendering; 
+	 * on parallel rendering every frame has its own copy of them.
+	 */
+	protected static final String[] FRAME_EXTRA_PARAMS = {SystemConstants.EXTRAPAR_CURRENT_FRAME, 
+		SystemConstants.EXTRAPAR_CURRENT_WIDGET, InternalServletTag.EXTRAPAR_STATIC_ACTION, 
+		SystemConstants.EXTRAPAR_HEAD_INFO_CONTAINER};
+
 	protected void buildWidgetsOutput(RequestContext reqCtx, IPage page, String[] widgetOutput) throws ApsSystemException {
 		try {
 			List<IFrameDecoratorContainer> decorators = this.extractDecorators(reqCtx);
 			Widget[] widgets = page.getWidgets();
+			if (this.isParallelRendering() && null != this.getRenderingExecutor() && widgets.length > 1) {
+				this.buildWidgetsOutputInParallel(reqCtx, widgets, decorators, widgetOutput);
+				return;
+			}
 			for (int frame = 0; frame < widgets.length; frame++) {
 				reqCtx.addExtraParam(SystemConstants.EXTRAPAR_CURRENT_FRAME, new Integer(frame));
 				Widget widget = widgets[frame];
-				widgetOutput[frame] = this.buildWidgetOutput(reqCtx, widget, decorators);
+				widgetOutput[frame] = this.buildWidgetOutput(reqCtx, frame, widget, decorators);
 			}
 		} catch (Throwable t) {
 			String msg = "Error detected during widget preprocessing";
@@ -73,6 +107,253 @@ public abstract class AbstractWidgetExecutorService {
 		}
 	}
 
+	/**
+	 * Render the frames on the rendering executor. 
+	 * Only the frames rendered by freemarker fragments without jsp taglibs go to the executor: 
+	 * the frames that include a jsp or call a taglib (widget or decorator) use the servlet request 
+	 * and the page context, which are not thread safe, 
+	 * so they are rendered by the request thread, as the frames rejected by the full executor, 
+	 * while the executor renders the others.
+	 * Every output is stored at the index of its frame, so the order doesn't depend on the completion order; 
+	 * a frame not completed within the widget timeout (counted from the start of its rendering, 
+	 * or, while it waits in the queue, from its submission or from the end of the frames 
+	 * rendered by the request thread, whichever is later) gets the fallback output 
+	 * and its rendering is interrupted, so that it stops at the next write of its output.
+	 * @param reqCtx The request context.
+	 * @param widgets The widgets of the page.
+	 * @param decorators The frame decorators.
+	 * @param widgetOutput The array to fill with the frame outputs.
+	 * @throws Throwable In case of error rendering a frame.
+	 */
+	protected void buildWidgetsOutputInParallel(final RequestContext reqCtx, Widget[] widgets,
+			final List<IFrameDecoratorContainer> decorators, String[] widgetOutput) throws Throwable {
+		FrameTask[] tasks = new FrameTask[widgets.length];
+		try {
+			for (int frame = 0; frame < widgets.length; frame++) {
+				final int currentFrame = frame;
+				final Widget widget = widgets[frame];
+				if (this.isRequestBound(reqCtx, widget, decorators)) {
+					continue;
+				}
+				FrameTask task = new FrameTask(() -> this.buildFrameOutput(reqCtx, currentFrame, widget, decorators));
+				try {
+					this.getRenderingExecutor().execute(task);
+					tasks[frame] = task;
+				} catch (RejectedExecutionException e) {
+					_logger.debug("Rendering executor full - frame {} rendered by the request thread", frame);
+				}
+			}
+			for (int frame = 0; frame < tasks.length; frame++) {
+				if (null == tasks[frame]) {
+					reqCtx.addExtraParam(SystemConstants.EXTRAPAR_CURRENT_FRAME, new Integer(frame));
+					widgetOutput[frame] = this.buildWidgetOutput(reqCtx, frame, widgets[frame], decorators);
+				}
+			}
+			long waitStart = System.currentTimeMillis();
+			for (int frame = 0; frame < tasks.length; frame++) {
+				if (null != tasks[frame]) {
+					widgetOutput[frame] = this.getFrameOutput(reqCtx, frame, widgets[frame], tasks[frame], waitStart);
+				}
+			}
+		} finally {
+			for (FrameTask task : tasks) {
+				if (null != task && !task.isDone()) {
+					task.cancel(true);
+				}
+			}
+		}
+	}
+
+	private String getFrameOutput(RequestContext reqCtx, int frame, Widget widget, FrameTask task, long waitStart) throws Throwable {
+		try {
+			long timeout = task.getDeadline(this.getWidgetTimeout(), waitStart) - System.currentTimeMillis();
+			while (timeout > 0) {
+				try {
+					return task.get(timeout, TimeUnit.MILLISECONDS);
+				} catch (TimeoutException e) {
+					timeout = task.getDeadline(this.getWidgetTimeout(), waitStart) - System.currentTimeMillis();
+				}
+			}
+			if (task.isDone()) {
+				return task.get();
+			}
+		} catch (ExecutionException e) {
+			throw e.getCause();
+		}
+		task.cancel(true);
+		_logger.warn("Timeout rendering frame {} - widget '{}' - page '{}'", frame, 
+				(null != widget && null != widget.getType()) ? widget.getType().getCode() : null,
+				((IPage) reqCtx.getExtraParam(SystemConstants.EXTRAPAR_CURRENT_PAGE)).getCode());
+		return this.getFallbackOutput();
+	}
+
+	/**
+	 * Whether the rendering of the frame uses the servlet request: 
+	 * a widget without gui fragment or a decorator without fragment code include a jsp 
+	 * through the dispatcher of the request, a fragment that calls the jsp taglibs 
+	 * (or includes other templates, that can call them) reads and writes the request and the page context.
+	 * @param reqCtx The request context.
+	 * @param widget The widget of the frame.
+	 * @param decorators The frame decorators.
+	 * @return true if the frame has to be rendered by the request thread.
+	 */
+	protected boolean isRequestBound(RequestContext reqCtx, Widget widget, List<IFrameDecoratorContainer> decorators) {
+		try {
+			boolean allowed = this.isUserAllowed(reqCtx, widget);
+			if (allowed) {
+				WidgetType type = widget.getType();
+				if (null != type) {
+					String widgetTypeCode = (type.isLogic()) ? type.getParentType().getCode() : type.getCode();
+					IGuiFragmentManager guiFragmentManager = (IGuiFragmentManager) ApsWebApplicationUtils.getBean(
+							SystemConstants.GUI_FRAGMENT_MANAGER, reqCtx.getRequest());
+					if (this.isRequestBound(guiFragmentManager.getUniqueGuiFragmentByWidgetType(widgetTypeCode))) {
+						return true;
+					}
+				}
+			}
+			if (null == decorators) {
+				return false;
+			}
+			IGuiFragmentManager guiFragmentManager = (IGuiFragmentManager) ApsWebApplicationUtils.getBean(
+					SystemConstants.GUI_FRAGMENT_MANAGER, reqCtx.getRequest());
+			for (IFrameDecoratorContainer decorator : decorators) {
+				if ((!allowed && decorator.isWidgetDecorator()) || !decorator.needsDecoration(widget, reqCtx)) {
+					continue;
+				}
+				if (this.isRequestBound(guiFragmentManager, decorator.getHeaderFragmentCode(), decorator.getHeaderJspPath())
+						|| this.isRequestBound(guiFragmentManager, decorator.getFooterFragmentCode(), decorator.getFooterJspPath())) {
+					return true;
+				}
+			}
+			return false;
+		} catch (Throwable t) {
+			_logger.error("Error checking the renderers of the frame", t);
+			return true;
+		}
+	}
+
+	private boolean isRequestBound(IGuiFragmentManager guiFragmentManager, String fragmentCode, String jspPath) throws ApsSystemException {
+		if (StringUtils.isBlank(fragmentCode)) {
+			return StringUtils.isNotBlank(jspPath);
+		}
+		GuiFragment fragment = guiFragmentManager.getGuiFragment(fragmentCode);
+		return (null != fragment && this.isRequestBound(fragment));
+	}
+
+	/**
+	 * Whether the given widget fragment can't be rendered out of the request thread: 
+	 * a missing fragment (the widget includes its jsp) or a fragment that uses the jsp taglibs 
+	 * or includes other templates.
+	 * @param fragment The fragment.
+	 * @return true if the fragment has to be rendered by the request thread.
+	 */
+	protected boolean isRequestBound(GuiFragment fragment) {
+		if (null == fragment) {
+			return true;
+		}
+		String gui = fragment.getCurrentGui();
+		if (StringUtils.isBlank(gui)) {
+			return false;
+		}
+		for (String directive : REQUEST_BOUND_DIRECTIVES) {
+			if (gui.contains(directive)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * The rendering of a frame on the executor; 
+	 * the timeout of the frame is counted from the start of the rendering.
+	 */
+	private static class FrameTask extends FutureTask<String> {
+
+		private final long submitted = System.currentTimeMillis();
+		private volatile long started;
+
+		FrameTask(Callable<String> callable) {
+			super(callable);
+		}
+
+		@Override
+		public void run() {
+			this.started = System.currentTimeMillis();
+			super.run();
+		}
+
+		long getDeadline(long timeout, long waitStart) {
+			long start = this.started;
+			return ((start > 0) ? start : Math.max(this.submitted, waitStart)) + timeout;
+		}
+
+	}
+
+	protected String buildFrameOutput(RequestContext reqCtx, int frame, Widget widget, List<IFrameDecoratorContainer> decorators)
+			throws ApsSystemException {
+		Map<String, Object> frameParams = new HashMap<>();
+		for (String name : FRAME_EXTRA_PARAMS) {
+			frameParams.put(name, null);
+		}
+		frameParams.put(SystemConstants.EXTRAPAR_CURRENT_FRAME, new Integer(frame));
+		frameParams.put(SystemConstants.EXTRAPAR_HEAD_INFO_CONTAINER, reqCtx.getExtraParam(SystemConstants.EXTRAPAR_HEAD_INFO_CONTAINER));
+		reqCtx.bindLocalExtraParams(frameParams);
+		try {
+			return this.buildWidgetOutput(reqCtx, frame, widget, decorators);
+		} finally {
+			reqCtx.unbindLocalExtraParams();
+		}
+	}
+
+	/**
+	 * Return the output of the given frame, from the page output cache when the widget is cacheable.
+	 * After a cache miss the output is stored only if it can be shared (see {@link IPageOutputCacheManager#isCacheableOutput}).
+	 * On cache miss the head infos added by the widget are collected apart, 
+	 * so that they can be stored with the output and added again to the page on every cache hit.
+	 * @param reqCtx The request context.
+	 * @param frame The frame position.
+	 * @param widget The widget of the frame.
+	 * @param decorators The frame decorators.
+	 * @return The frame output.
+	 * @throws ApsSystemException In case of error.
+	 */
+	protected String buildWidgetOutput(RequestContext reqCtx, int frame, Widget widget, List<IFrameDecoratorContainer> decorators)
+			throws ApsSystemException {
+		IPageOutputCacheManager cacheManager = (IPageOutputCacheManager) ApsWebApplicationUtils.getBean(
+				SystemConstants.PAGE_OUTPUT_CACHE_MANAGER, reqCtx.getRequest());
+		String cacheKey = cacheManager.getFrameCacheKey(reqCtx, frame, widget);
+		if (null == cacheKey) {
+			return this.buildWidgetOutput(reqCtx, widget, decorators);
+		}
+		HeadInfoContainer pageHeadInfos = (HeadInfoContainer) reqCtx.getExtraParam(SystemConstants.EXTRAPAR_HEAD_INFO_CONTAINER);
+		PageOutput cachedOutput = cacheManager.getOutput(cacheKey);
+		if (null != cachedOutput) {
+			if (null != pageHeadInfos) {
+				pageHeadInfos.addAll(cachedOutput.getHeadInfos());
+			}
+			return cachedOutput.getOutput();
+		}
+		HeadInfoContainer frameHeadInfos = new HeadInfoContainer();
+		reqCtx.addExtraParam(SystemConstants.EXTRAPAR_HEAD_INFO_CONTAINER, frameHeadInfos);
+		String output = null;
+		try {
+			output = this.buildWidgetOutput(reqCtx, widget, decorators);
+		} finally {
+			reqCtx.addExtraParam(SystemConstants.EXTRAPAR_HEAD_INFO_CONTAINER, pageHeadInfos);
+		}
+		if (null != pageHeadInfos) {
+			pageHeadInfos.addAll(frameHeadInfos);
+		}
+		boolean urlRewritten = (reqCtx.getResponse() instanceof StatusAwareResponseWrapper)
+				&& ((StatusAwareResponseWrapper) reqCtx.getResponse()).isUrlRewritten();
+		if (null == reqCtx.getExtraParam(SystemConstants.EXTRAPAR_EXTERNAL_REDIRECT)
+				&& cacheManager.isCacheableOutput(reqCtx, output, urlRewritten)) {
+			IPage page = (IPage) reqCtx.getExtraParam(SystemConstants.EXTRAPAR_CURRENT_PAGE);
+			cacheManager.putFrameOutput(cacheKey, page, widget, new PageOutput(null, output, frameHeadInfos));
+		}
+		return output;
+	}
+
 	protected String buildWidgetOutput(RequestContext reqCtx, Widget widget, List<IFrameDecoratorContainer> decorators)
 			throws ApsSystemException {
 		StringBuilder buffer = new StringBuilder();
@@ -193,18 +474,17 @@ public abstract class AbstractWidgetExecutorService {
 				return "";
 			}
 			ExecutorBeanContainer ebc = (ExecutorBeanContainer) reqCtx.getExtraParam(SystemConstants.EXTRAPAR_EXECUTOR_BEAN_CONTAINER);
-			Integer frame = (Integer) reqCtx.getExtraParam(SystemConstants.EXTRAPAR_CURRENT_FRAME);
-			Widget currentWidget = (Widget) reqCtx.getExtraParam(SystemConstants.EXTRAPAR_CURRENT_WIDGET);
-			StringBuilder templateName = new StringBuilder(String.valueOf(frame)).append("_").append(fragment.getCode());
-			if (null != currentWidget && null != currentWidget.getType()) {
-				templateName.append("_").append(currentWidget.getType().getCode());
-			}
+			IFreemarkerTemplateCacheManager templateCacheManager = (IFreemarkerTemplateCacheManager) ApsWebApplicationUtils.getBean(
+					SystemConstants.FREEMARKER_TEMPLATE_CACHE_MANAGER, reqCtx.getRequest());
 			ByteArrayOutputStream baos = new ByteArrayOutputStream();
-			Writer out = new OutputStreamWriter(baos);
-			Template template = new Template(templateName.toString(), new StringReader(currentGui), ebc.getConfiguration());
+			Writer out = new InterruptibleWriter(new OutputStreamWriter(baos));
+			Template template = templateCacheManager.getGuiFragmentTemplate(fragment, ebc.getConfiguration());
 			template.process(ebc.getTemplateModel(), out);
 			out.flush();
 			return baos.toString().trim();
+		} catch (InterruptedIOException e) {
+			_logger.debug("Rendering of fragment '{}' interrupted", fragment.getCode());
+			throw new ApsSystemException("Rendering of fragment '" + fragment.getCode() + "' interrupted", e);
 		} catch (Throwable t) {
 			String msg = "Error creating fragment output - code '" + fragment.getCode() + "'";
 			_logger.error(msg, t);
@@ -212,6 +492,42 @@ public abstract class AbstractWidgetExecutorService {
 		}
 	}
 
+	/**
+	 * Writer that stops the rendering of a template when its thread is interrupted, 
+	 * as the cancellation of a frame after the widget timeout.
+	 */
+	static class InterruptibleWriter extends FilterWriter {
+
+		InterruptibleWriter(Writer out) {
+			super(out);
+		}
+
+		@Override
+		public void write(int c) throws IOException {
+			this.checkInterrupted();
+			super.write(c);
+		}
+
+		@Override
+		public void write(char[] cbuf, int off, int len) throws IOException {
+			this.checkInterrupted();
+			super.write(cbuf, off, len);
+		}
+
+		@Override
+		public void write(String str, int off, int len) throws IOException {
+			this.checkInterrupted();
+			super.write(str, off, len);
+		}
+
+		private void checkInterrupted() throws InterruptedIOException {
+			if (Thread.currentThread().isInterrupted()) {
+				throw new InterruptedIOException("Rendering interrupted");
+			}
+		}
+
+	}
+
 	protected boolean isUserAllowed(RequestContext reqCtx, Widget widget) {
 		if (null == widget) {
 			return false;
@@ -255,4 +571,67 @@ public abstract class AbstractWidgetExecutorService {
 		return wrapper.getOutput();
 	}
 
+	/**
+	 * Whether the frames are rendered in parallel on the rendering executor. 
+	 * Opt-in: the widgets of the page must not depend on the rendering order of the other frames.
+	 * @return true if the parallel rendering is enabled.
+	 */
+	public boolean isParallelRendering() {
+		return _parallelRendering;
+	}
+	public void setParallelRendering(boolean parallelRendering) {
+		this._parallelRendering = parallelRendering;
+	}
+
+	public int getRenderingThreads() {
+		return _renderingThreads;
+	}
+	public void setRenderingThreads(int renderingThreads) {
+		this._renderingThreads = renderingThreads;
+	}
+
+	public int getRenderingQueueSize() {
+		return _renderingQueueSize;
+	}
+	public void setRenderingQueueSize(int renderingQueueSize) {
+		this._renderingQueueSize = renderingQueueSize;
+	}
+
+	/**
+	 * The max time (in milliseconds) to wait for every frame on parallel rendering.
+	 * @return The widget timeout.
+	 */
+	public long getWidgetTimeout() {
+		return _widgetTimeout;
+	}
+	public void setWidgetTimeout(long widgetTimeout) {
+		this._widgetTimeout = widgetTimeout;
+	}
+
+	/**
+	 * The output of the frames not rendered within the widget timeout.
+	 * @return The fallback output.
+	 */
+	public String getFallbackOutput() {
+		return _fallbackOutput;
+	}
+	public void setFallbackOutput(String fallbackOutput) {
+		this._fallbackOutput = fallbackOutput;
+	}
+
+	protected ExecutorService getRenderingExecutor() {
+		return _renderingExecutor;
+	}
+	protected void setRenderingExecutor(ExecutorService renderingExecutor) {
+		this._renderingExecutor = renderingExecutor;
+	}
+
+	private boolean _parallelRendering = false;
+	private int _renderingThreads = 10;
+	private int _renderingQueueSize = 100;
+	private long _widgetTimeout = 10000;
+	private String _fallbackOutput = "";
+
+	private transient ExecutorService _renderingExecutor;
+
 }
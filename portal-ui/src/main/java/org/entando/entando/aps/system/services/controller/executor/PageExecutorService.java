@@ -17,11 +17,11 @@ import com.agiletec.aps.system.RequestContext;
 import com.agiletec.aps.system.SystemConstants;
 import com.agiletec.aps.system.services.page.IPage;
 import com.agiletec.aps.system.services.pagemodel.PageModel;
+import com.agiletec.aps.util.ApsWebApplicationUtils;
 
 import freemarker.template.Template;
 
 import java.io.IOException;
-import java.io.StringReader;
 import javax.servlet.RequestDispatcher;
 import javax.servlet.ServletException;
 import javax.servlet.http.HttpServletRequest;
@@ -29,6 +29,8 @@ import javax.servlet.http.HttpServletResponse;
 
 import org.apache.commons.lang.StringUtils;
 
+import org.entando.entando.aps.system.services.freemarker.IFreemarkerTemplateCacheManager;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -60,8 +62,10 @@ public class PageExecutorService implements ExecutorServiceInterface {
 				dispatcher.forward(request, response);
 			} else {
 				ExecutorBeanContainer ebc = (ExecutorBeanContainer) reqCtx.getExtraParam(SystemConstants.EXTRAPAR_EXECUTOR_BEAN_CONTAINER);
-				Template template = new Template(page.getCode(), new StringReader(model.getTemplate()), ebc.getConfiguration());
+				IFreemarkerTemplateCacheManager templateCacheManager = (IFreemarkerTemplateCacheManager) ApsWebApplicationUtils.getBean(
+						SystemConstants.FREEMARKER_TEMPLATE_CACHE_MANAGER, request);
 				try {
+					Template template = templateCacheManager.getPageModelTemplate(model, ebc.getConfiguration());
 					template.process(ebc.getTemplateModel(), response.getWriter());
 				} catch (Throwable t) {
 					String msg = "Error detected while including a page template " + model.getCode();
@@ -13,10 +13,18 @@
  */
 package org.entando.entando.aps.system.services.controller.executor;
 
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import javax.servlet.http.HttpServletResponse;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
 
 import com.agiletec.aps.system.RequestContext;
 import com.agiletec.aps.system.SystemConstants;
@@ -26,13 +34,42 @@ import com.agiletec.aps.tags.util.HeadInfoContainer;
 /**
  * @author E.Santoboni
  */
-public class WidgetExecutorService extends AbstractWidgetExecutorService implements ExecutorServiceInterface {
+public class WidgetExecutorService extends AbstractWidgetExecutorService implements ExecutorServiceInterface, DisposableBean {
 
 	private static final Logger _logger = LoggerFactory.getLogger(WidgetExecutorService.class);
 
 	@Override
 	public void afterPropertiesSet() throws Exception {
-		// nothing to do
+		if (this.isParallelRendering()) {
+			this.setRenderingExecutor(this.createRenderingExecutor());
+			_logger.info("Parallel widget rendering enabled - threads {} - timeout {}ms", this.getRenderingThreads(), this.getWidgetTimeout());
+		}
+	}
+
+	/**
+	 * Create the bounded executor of the parallel rendering. 
+	 * When the queue is full the executor rejects the frames, that are rendered by the request thread.
+	 * @return The executor.
+	 */
+	protected ExecutorService createRenderingExecutor() {
+		final AtomicInteger counter = new AtomicInteger();
+		ThreadFactory threadFactory = (Runnable runnable) -> {
+			Thread thread = new Thread(runnable, "WidgetRenderer-" + counter.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		};
+		return new ThreadPoolExecutor(this.getRenderingThreads(), this.getRenderingThreads(), 
+				60L, TimeUnit.SECONDS, new ArrayBlockingQueue<>(this.getRenderingQueueSize()), 
+				threadFactory, new ThreadPoolExecutor.AbortPolicy());
+	}
+
+	@Override
+	public void destroy() throws Exception {
+		ExecutorService executor = this.getRenderingExecutor();
+		if (null != executor) {
+			executor.shutdownNow();
+			this.setRenderingExecutor(null);
+		}
 	}
 
 	@Override
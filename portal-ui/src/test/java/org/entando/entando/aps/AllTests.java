@@ -13,7 +13,9 @@
  */
 package org.entando.entando.aps;
 
+import org.entando.entando.aps.servlet.TestControllerServlet;
 import org.entando.entando.aps.system.services.controller.TestControllerManager;
+import org.entando.entando.aps.system.services.controller.cache.TestPageOutputCacheManager;
 import org.entando.entando.aps.system.services.controller.control.TestAuthenticator;
 import org.entando.entando.aps.system.services.controller.control.TestErrorManager;
 import org.entando.entando.aps.system.services.controller.control.TestRequestAuthorizator;
@@ -35,6 +37,8 @@ public class AllTests {
 		suite.addTestSuite(TestErrorManager.class);
 		suite.addTestSuite(TestRequestValidator.class);
 		suite.addTestSuite(TestControllerManager.class);
+		suite.addTestSuite(TestPageOutputCacheManager.class);
+		suite.addTestSuite(TestControllerServlet.class);
 		//
 		//suite.addTestSuite(TestApplicationContext.class);
 		//
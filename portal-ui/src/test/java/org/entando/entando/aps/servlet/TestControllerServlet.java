@@ -0,0 +1,68 @@
+/*
+ * Copyright 2015-Present Entando Inc. (http://www.entando.com) All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+package org.entando.entando.aps.servlet;
+
+import com.agiletec.aps.BaseTestCase;
+import com.agiletec.aps.system.RequestContext;
+import com.agiletec.aps.system.SystemConstants;
+
+import freemarker.template.Configuration;
+import freemarker.template.Template;
+
+import java.io.StringWriter;
+
+import javax.servlet.ServletContext;
+
+import org.entando.entando.aps.system.services.controller.executor.ExecutorBeanContainer;
+
+import org.springframework.mock.web.MockServletConfig;
+
+public class TestControllerServlet extends BaseTestCase {
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		ServletContext servletContext = this.getRequestContext().getRequest().getSession().getServletContext();
+		this.servlet = new ControllerServlet();
+		this.servlet.init(new MockServletConfig(servletContext));
+	}
+
+	public void testConfigurationSharedBetweenRequests() throws Throwable {
+		Configuration configuration = this.servlet.getPageConfiguration();
+		assertNotNull(configuration);
+		assertNotNull(configuration.getObjectWrapper());
+		ExecutorBeanContainer first = this.initFreemarker(this.getRequestContext());
+		ExecutorBeanContainer second = this.initFreemarker(BaseTestCase.createRequestContext(this.getApplicationContext(),
+				this.getRequestContext().getRequest().getSession().getServletContext()));
+		assertSame(configuration, first.getConfiguration());
+		assertSame(configuration, second.getConfiguration());
+		assertNotSame(first.getTemplateModel(), second.getTemplateModel());
+	}
+
+	public void testRenderWithSharedConfiguration() throws Throwable {
+		ExecutorBeanContainer ebc = this.initFreemarker(this.getRequestContext());
+		Template template = new Template("test", "<#assign value = 'ok'>${value}", ebc.getConfiguration());
+		StringWriter out = new StringWriter();
+		template.process(ebc.getTemplateModel(), out);
+		assertEquals("ok", out.toString());
+	}
+
+	private ExecutorBeanContainer initFreemarker(RequestContext reqCtx) throws Throwable {
+		this.servlet.initFreemarker(reqCtx.getRequest(), reqCtx.getResponse(), reqCtx);
+		return (ExecutorBeanContainer) reqCtx.getExtraParam(SystemConstants.EXTRAPAR_EXECUTOR_BEAN_CONTAINER);
+	}
+
+	private ControllerServlet servlet;
+
+}
@@ -0,0 +1,303 @@
+/*
+ * Copyright 2015-Present Entando Inc. (http://www.entando.com) All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+package org.entando.entando.aps.system.services.controller.cache;
+
+import com.agiletec.aps.BaseTestCase;
+import com.agiletec.aps.system.RequestContext;
+import com.agiletec.aps.system.SystemConstants;
+import com.agiletec.aps.system.services.lang.ILangManager;
+import com.agiletec.aps.system.services.page.IPage;
+import com.agiletec.aps.system.services.page.IPageManager;
+import com.agiletec.aps.system.services.page.Widget;
+import com.agiletec.aps.system.services.page.events.PageChangedEvent;
+import com.agiletec.aps.system.services.pagemodel.PageModel;
+import com.agiletec.aps.system.services.pagemodel.events.PageModelChangedEvent;
+import com.agiletec.aps.tags.util.HeadInfoContainer;
+import java.io.IOException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpSession;
+import org.entando.entando.aps.servlet.ControllerServlet;
+import org.entando.entando.aps.system.services.dataobject.event.PublicDataChangedEvent;
+import org.entando.entando.aps.system.services.guifragment.GuiFragment;
+import org.entando.entando.aps.system.services.guifragment.event.GuiFragmentChangedEvent;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockHttpSession;
+
+public class TestPageOutputCacheManager extends BaseTestCase {
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		this.init();
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		this.cacheManager.flush();
+		this.cacheManager.setEnabled(false);
+		this.cacheManager.setCacheableWidgetTypes(null);
+		super.tearDown();
+	}
+
+	public void testFrameCacheKey() throws Throwable {
+		RequestContext reqCtx = this.createRequestContext("it");
+		int frame = this.getFirstWidgetFrame(this.page);
+		Widget widget = this.page.getWidgets()[frame];
+		assertNull(this.cacheManager.getFrameCacheKey(reqCtx, frame, widget));
+		this.cacheManager.setEnabled(true);
+		assertNull(this.cacheManager.getFrameCacheKey(reqCtx, frame, widget));
+		this.cacheManager.setCacheableWidgetTypes("fake, " + widget.getType().getCode());
+		String key = this.cacheManager.getFrameCacheKey(reqCtx, frame, widget);
+		assertNotNull(key);
+		assertTrue(key.startsWith(this.page.getCode() + "|" + frame + "|it|"));
+		assertEquals(key, this.cacheManager.getFrameCacheKey(this.createRequestContext("it"), frame, widget));
+		assertFalse(key.equals(this.cacheManager.getFrameCacheKey(this.createRequestContext("en"), frame, widget)));
+		((MockHttpServletRequest) reqCtx.getRequest()).setParameter("search", "text");
+		assertFalse(key.equals(this.cacheManager.getFrameCacheKey(reqCtx, frame, widget)));
+		((MockHttpServletRequest) reqCtx.getRequest()).setMethod("POST");
+		assertNull(this.cacheManager.getFrameCacheKey(reqCtx, frame, widget));
+	}
+
+	public void testFrameCacheKeyOfSharedRequestsOnly() throws Throwable {
+		this.cacheManager.setEnabled(true);
+		int frame = this.getFirstWidgetFrame(this.page);
+		Widget widget = this.page.getWidgets()[frame];
+		this.cacheManager.setCacheableWidgetTypes(widget.getType().getCode());
+		assertNotNull(this.cacheManager.getFrameCacheKey(this.createRequestContext("it"), frame, widget));
+		RequestContext statefulReqCtx = this.createRequestContext("it");
+		MockHttpSession session = this.createSession();
+		session.setAttribute("token", "secret");
+		((MockHttpServletRequest) statefulReqCtx.getRequest()).setSession(session);
+		assertNull(this.cacheManager.getFrameCacheKey(statefulReqCtx, frame, widget));
+		RequestContext userReqCtx = this.createRequestContext("it");
+		MockHttpSession userSession = this.createSession();
+		userSession.setAttribute(SystemConstants.SESSIONPARAM_CURRENT_USER, this.getUser("admin"));
+		((MockHttpServletRequest) userReqCtx.getRequest()).setSession(userSession);
+		assertNull(this.cacheManager.getFrameCacheKey(userReqCtx, frame, widget));
+		RequestContext rewrittenReqCtx = this.createRequestContext("it");
+		((MockHttpServletRequest) rewrittenReqCtx.getRequest()).setRequestedSessionIdFromCookie(false);
+		assertNull(this.cacheManager.getFrameCacheKey(rewrittenReqCtx, frame, widget));
+		RequestContext reqCtx = this.createRequestContext("it");
+		assertFalse(this.cacheManager.isCacheableOutput(reqCtx, "<a href=\"/page;jsessionid=1234\">", false));
+		assertFalse(this.cacheManager.isCacheableOutput(reqCtx, "<p>frame</p>", true));
+		assertTrue(this.cacheManager.isCacheableOutput(reqCtx, "<p>frame</p>", false));
+	}
+
+	public void testPageCacheKey() throws Throwable {
+		this.cacheManager.setEnabled(true);
+		this.setPageWidgetTypesCacheable();
+		// the page models of the test database have no freemarker template
+		assertNull(this.cacheManager.getPageCacheKey(this.createRequestContext("it")));
+	}
+
+	public void testPageServedFromCache() throws Throwable {
+		this.cacheManager.setEnabled(true);
+		this.setPageWidgetTypesCacheable();
+		PageModel model = this.page.getModel();
+		String template = model.getTemplate();
+		model.setTemplate("<html>${test}</html>");
+		try {
+			RenderingControllerServlet servlet = new RenderingControllerServlet();
+			RequestContext first = this.createRequestContext("it");
+			servlet.execute(first);
+			RequestContext second = this.createRequestContext("it");
+			servlet.execute(second);
+			assertEquals(1, servlet.getExecutions());
+			String output = ((MockHttpServletResponse) first.getResponse()).getContentAsString();
+			assertEquals("<p>rendered</p>", output);
+			assertEquals(output, ((MockHttpServletResponse) second.getResponse()).getContentAsString());
+			servlet.execute(this.createRequestContext("en"));
+			assertEquals(2, servlet.getExecutions());
+
+			PageModelChangedEvent modelEvent = new PageModelChangedEvent();
+			modelEvent.setPageModel(model);
+			this.cacheManager.updateFromPageModelChanged(modelEvent);
+			servlet.execute(this.createRequestContext("it"));
+			assertEquals(3, servlet.getExecutions());
+			servlet.execute(this.createRequestContext("it"));
+			assertEquals(3, servlet.getExecutions());
+		} finally {
+			model.setTemplate(template);
+		}
+	}
+
+	public void testSessionBoundPageNotCached() throws Throwable {
+		this.cacheManager.setEnabled(true);
+		this.setPageWidgetTypesCacheable();
+		PageModel model = this.page.getModel();
+		String template = model.getTemplate();
+		model.setTemplate("<html>${test}</html>");
+		try {
+			RenderingControllerServlet servlet = new RenderingControllerServlet();
+			servlet.setRenderedUrl("/Entando/it/pagina_1.page");
+			RequestContext reqCtx = this.createRequestContext("it");
+			reqCtx.setResponse(new MockHttpServletResponse() {
+				@Override
+				public String encodeURL(String url) {
+					return url + ";jsessionid=1234";
+				}
+			});
+			servlet.execute(reqCtx);
+			assertEquals(1, servlet.getExecutions());
+			servlet.setRenderedUrl(null);
+			RequestContext statefulReqCtx = this.createRequestContext("it");
+			MockHttpSession session = this.createSession();
+			session.setAttribute("token", "secret");
+			((MockHttpServletRequest) statefulReqCtx.getRequest()).setSession(session);
+			assertNull(this.cacheManager.getPageCacheKey(statefulReqCtx));
+			servlet.execute(statefulReqCtx);
+			assertEquals(2, servlet.getExecutions());
+			// neither of the previous outputs was stored
+			servlet.execute(this.createRequestContext("it"));
+			assertEquals(3, servlet.getExecutions());
+			servlet.execute(this.createRequestContext("it"));
+			assertEquals(3, servlet.getExecutions());
+		} finally {
+			model.setTemplate(template);
+		}
+	}
+
+	public void testFragmentChangeEvictsItsWidgetType() throws Throwable {
+		this.cacheManager.setEnabled(true);
+		int frame = this.getFirstWidgetFrame(this.page);
+		Widget widget = this.page.getWidgets()[frame];
+		this.cacheManager.putFrameOutput("frame_key", this.page, widget, new PageOutput(null, "frame", null));
+		this.cacheManager.putOutput("other_key", "other_page", new PageOutput(null, "other", null));
+		GuiFragment fragment = new GuiFragment();
+		fragment.setCode("fragment");
+		fragment.setWidgetTypeCode(widget.getType().getCode());
+		GuiFragmentChangedEvent event = new GuiFragmentChangedEvent();
+		event.setGuiFragment(fragment);
+		event.setOperationCode(GuiFragmentChangedEvent.UPDATE_OPERATION_CODE);
+		this.cacheManager.updateFromGuiFragmentChanged(event);
+		assertNull(this.cacheManager.getOutput("frame_key"));
+		assertNotNull(this.cacheManager.getOutput("other_key"));
+	}
+
+	public void testPutAndEvict() throws Throwable {
+		this.cacheManager.setEnabled(true);
+		HeadInfoContainer headInfos = new HeadInfoContainer();
+		headInfos.addInfo("CSS", "style.css");
+		this.cacheManager.putOutput("key_1", this.page.getCode(), new PageOutput(null, "output_1", headInfos));
+		this.cacheManager.putOutput("key_2", "other_page", new PageOutput("text/html", "output_2", null));
+		PageOutput output = this.cacheManager.getOutput("key_1");
+		assertNotNull(output);
+		assertEquals("output_1", output.getOutput());
+		assertEquals(1, output.getHeadInfos().getInfos("CSS").size());
+
+		PageChangedEvent event = new PageChangedEvent();
+		event.setPage(this.page);
+		event.setOperationCode(PageChangedEvent.EDIT_FRAME_OPERATION_CODE);
+		this.cacheManager.updateFromPageChanged(event);
+		assertNull(this.cacheManager.getOutput("key_1"));
+		assertNotNull(this.cacheManager.getOutput("key_2"));
+
+		this.cacheManager.putOutput("key_1", this.page.getCode(), new PageOutput(null, "output_1", null));
+		this.cacheManager.updateFromPublicDataObjectChanged(new PublicDataChangedEvent());
+		assertNull(this.cacheManager.getOutput("key_1"));
+		assertNull(this.cacheManager.getOutput("key_2"));
+	}
+
+	private void setPageWidgetTypesCacheable() {
+		StringBuilder types = new StringBuilder();
+		for (Widget widget : this.page.getWidgets()) {
+			if (null != widget) {
+				types.append(widget.getType().getCode()).append(",");
+			}
+		}
+		this.cacheManager.setCacheableWidgetTypes(types.toString());
+	}
+
+	private RequestContext createRequestContext(String langCode) {
+		RequestContext reqCtx = new RequestContext();
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/Entando/" + langCode + "/pagina_1.page");
+		request.setSession(super.getRequestContext().getRequest().getSession());
+		reqCtx.setRequest(request);
+		reqCtx.setResponse(new MockHttpServletResponse());
+		reqCtx.addExtraParam(SystemConstants.EXTRAPAR_CURRENT_PAGE, this.page);
+		reqCtx.addExtraParam(SystemConstants.EXTRAPAR_CURRENT_LANG, this.langManager.getLang(langCode));
+		return reqCtx;
+	}
+
+	private MockHttpSession createSession() {
+		HttpSession current = super.getRequestContext().getRequest().getSession();
+		MockHttpSession session = new MockHttpSession(current.getServletContext());
+		session.setAttribute(SystemConstants.SESSIONPARAM_CURRENT_USER, current.getAttribute(SystemConstants.SESSIONPARAM_CURRENT_USER));
+		return session;
+	}
+
+	private int getFirstWidgetFrame(IPage page) {
+		Widget[] widgets = page.getWidgets();
+		for (int i = 0; i < widgets.length; i++) {
+			if (null != widgets[i]) {
+				return i;
+			}
+		}
+		throw new IllegalStateException("no widget on page " + page.getCode());
+	}
+
+	private void init() throws Exception {
+		try {
+			this.cacheManager = (PageOutputCacheManager) this.getApplicationContext().getBean(SystemConstants.PAGE_OUTPUT_CACHE_MANAGER);
+			this.langManager = (ILangManager) this.getApplicationContext().getBean(SystemConstants.LANGUAGE_MANAGER);
+			IPageManager pageManager = (IPageManager) this.getApplicationContext().getBean(SystemConstants.PAGE_MANAGER);
+			this.page = pageManager.getOnlinePage("pagina_1");
+		} catch (Throwable t) {
+			throw new Exception(t);
+		}
+	}
+
+	/**
+	 * Controller that counts the renderings of the page, in place of the executor services.
+	 */
+	private static class RenderingControllerServlet extends ControllerServlet {
+
+		private int executions;
+		private String renderedUrl;
+
+		void execute(RequestContext reqCtx) throws IOException {
+			this.executePage(reqCtx.getRequest(), reqCtx);
+		}
+
+		@Override
+		protected void executeServices(HttpServletRequest request, RequestContext reqCtx) {
+			this.executions++;
+			try {
+				HttpServletResponse response = reqCtx.getResponse();
+				response.getWriter().write("<p>rendered</p>");
+				if (null != this.renderedUrl) {
+					response.getWriter().write(response.encodeURL(this.renderedUrl));
+				}
+			} catch (IOException e) {
+				throw new RuntimeException(e);
+			}
+		}
+
+		int getExecutions() {
+			return executions;
+		}
+
+		void setRenderedUrl(String renderedUrl) {
+			this.renderedUrl = renderedUrl;
+		}
+
+	}
+
+	private PageOutputCacheManager cacheManager;
+	private ILangManager langManager;
+	private IPage page;
+
+}
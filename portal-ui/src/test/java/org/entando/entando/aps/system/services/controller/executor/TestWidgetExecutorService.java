@@ -18,10 +18,26 @@ import org.entando.entando.aps.system.services.controller.AbstractTestExecutorSe
 import org.entando.entando.aps.system.services.guifragment.GuiFragment;
 import org.entando.entando.aps.system.services.guifragment.IGuiFragmentManager;
 
+import com.agiletec.aps.system.RequestContext;
 import com.agiletec.aps.system.SystemConstants;
+import com.agiletec.aps.system.exception.ApsSystemException;
 import com.agiletec.aps.system.services.page.IPage;
 import com.agiletec.aps.system.services.page.IPageManager;
 import com.agiletec.aps.system.services.page.Widget;
+import com.agiletec.aps.tags.util.IFrameDecoratorContainer;
+
+import freemarker.template.Configuration;
+import freemarker.template.Template;
+
+import java.io.InterruptedIOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 /**
  * @author E.Santoboni
@@ -61,6 +77,202 @@ public class TestWidgetExecutorService extends AbstractTestExecutorService {
 		}
 	}
 
+	public void testParallelExecutor() throws Exception {
+		super.setUserOnSession("admin");
+		IPageManager pageManager = (IPageManager) super.getApplicationContext().getBean(SystemConstants.PAGE_MANAGER);
+		IPage currentPage = pageManager.getOnlinePage("homepage");
+		super.getRequestContext().addExtraParam(SystemConstants.EXTRAPAR_CURRENT_PAGE, currentPage);
+		ExecutorServiceInterface wes = (ExecutorServiceInterface) super.getApplicationContext().getBean("WidgetExecutorService");
+		wes.service(super.getRequestContext());
+		String[] sequentialOutput = (String[]) super.getRequestContext().getExtraParam("ShowletOutput");
+		WidgetExecutorService parallelWes = new WidgetExecutorService();
+		parallelWes.setParallelRendering(true);
+		parallelWes.setRenderingThreads(3);
+		parallelWes.afterPropertiesSet();
+		try {
+			parallelWes.service(super.getRequestContext());
+			String[] parallelOutput = (String[]) super.getRequestContext().getExtraParam("ShowletOutput");
+			assertNotSame(sequentialOutput, parallelOutput);
+			assertEquals(sequentialOutput.length, parallelOutput.length);
+			for (int i = 0; i < parallelOutput.length; i++) {
+				assertEquals(sequentialOutput[i], parallelOutput[i]);
+			}
+		} finally {
+			parallelWes.destroy();
+		}
+	}
+
+	public void testParallelExecutorKeepsRequestBoundFramesOnRequestThread() throws Exception {
+		IPage currentPage = this.preparePage("contentview");
+		final Thread requestThread = Thread.currentThread();
+		final Map<Integer, Thread> renderingThreads = new ConcurrentHashMap<>();
+		WidgetExecutorService parallelWes = new WidgetExecutorService() {
+			@Override
+			protected boolean isRequestBound(RequestContext reqCtx, Widget widget, List<IFrameDecoratorContainer> decorators) {
+				return null == widget;
+			}
+			@Override
+			protected String buildWidgetOutput(RequestContext reqCtx, int frame, Widget widget, List<IFrameDecoratorContainer> decorators) throws ApsSystemException {
+				renderingThreads.put(frame, Thread.currentThread());
+				return "frame_" + frame;
+			}
+		};
+		parallelWes.setParallelRendering(true);
+		parallelWes.setRenderingThreads(3);
+		parallelWes.afterPropertiesSet();
+		try {
+			parallelWes.service(super.getRequestContext());
+			Widget[] widgets = currentPage.getWidgets();
+			assertEquals(widgets.length, renderingThreads.size());
+			assertTrue(this.getFirstWidgetFrame(currentPage) >= 0);
+			assertTrue(Arrays.asList(widgets).contains(null));
+			for (int i = 0; i < widgets.length; i++) {
+				if (null == widgets[i]) {
+					assertSame(requestThread, renderingThreads.get(i));
+				} else {
+					assertNotSame(requestThread, renderingThreads.get(i));
+				}
+			}
+		} finally {
+			parallelWes.destroy();
+		}
+	}
+
+	public void testParallelExecutorRendersRequestBoundFramesWhileWaiting() throws Exception {
+		IPage currentPage = this.preparePage("contentview");
+		assertTrue(Arrays.asList(currentPage.getWidgets()).contains(null));
+		final CountDownLatch requestBoundRendered = new CountDownLatch(1);
+		WidgetExecutorService parallelWes = new WidgetExecutorService() {
+			@Override
+			protected boolean isRequestBound(RequestContext reqCtx, Widget widget, List<IFrameDecoratorContainer> decorators) {
+				return null == widget;
+			}
+			@Override
+			protected String buildWidgetOutput(RequestContext reqCtx, int frame, Widget widget, List<IFrameDecoratorContainer> decorators) throws ApsSystemException {
+				if (null == widget) {
+					requestBoundRendered.countDown();
+					return "frame_" + frame;
+				}
+				try {
+					// the pooled frames complete only once the request thread has rendered its frames
+					return requestBoundRendered.await(5, TimeUnit.SECONDS) ? "frame_" + frame : "late";
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					return "interrupted";
+				}
+			}
+		};
+		parallelWes.setParallelRendering(true);
+		parallelWes.setRenderingThreads(3);
+		parallelWes.setWidgetTimeout(2000);
+		parallelWes.setFallbackOutput("fallback");
+		parallelWes.afterPropertiesSet();
+		try {
+			parallelWes.service(super.getRequestContext());
+			String[] output = (String[]) super.getRequestContext().getExtraParam("ShowletOutput");
+			for (int i = 0; i < output.length; i++) {
+				assertEquals("frame_" + i, output[i]);
+			}
+		} finally {
+			parallelWes.destroy();
+		}
+	}
+
+	public void testParallelExecutorWidgetTimeout() throws Exception {
+		IPage currentPage = this.preparePage("contentview");
+		final int slowFrame = this.getFirstWidgetFrame(currentPage);
+		assertTrue(slowFrame >= 0);
+		WidgetExecutorService parallelWes = new WidgetExecutorService() {
+			@Override
+			protected String buildWidgetOutput(RequestContext reqCtx, int frame, Widget widget, List<IFrameDecoratorContainer> decorators) throws ApsSystemException {
+				if (frame == slowFrame) {
+					try {
+						Thread.sleep(2000);
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+						return "interrupted";
+					}
+				}
+				return "frame_" + frame;
+			}
+		};
+		parallelWes.setParallelRendering(true);
+		parallelWes.setRenderingThreads(3);
+		parallelWes.setWidgetTimeout(200);
+		parallelWes.setFallbackOutput("fallback");
+		parallelWes.afterPropertiesSet();
+		try {
+			parallelWes.service(super.getRequestContext());
+			String[] output = (String[]) super.getRequestContext().getExtraParam("ShowletOutput");
+			for (int i = 0; i < output.length; i++) {
+				assertEquals((i == slowFrame) ? "fallback" : "frame_" + i, output[i]);
+			}
+		} finally {
+			parallelWes.destroy();
+		}
+	}
+
+	public void testFragmentsUsingTaglibsAreRequestBound() throws Exception {
+		WidgetExecutorService wes = new WidgetExecutorService();
+		assertTrue(wes.isRequestBound((GuiFragment) null));
+		assertFalse(wes.isRequestBound(this.createFragment("<p>${text}</p>")));
+		assertTrue(wes.isRequestBound(this.createFragment("<#assign wp=JspTaglibs[\"/aps-core\"]><@wp.i18n key=\"LABEL\" />")));
+		assertTrue(wes.isRequestBound(this.createFragment("<#include \"other_fragment\">")));
+		IPage currentPage = this.preparePage("homepage");
+		for (Widget widget : currentPage.getWidgets()) {
+			if (null == widget) {
+				continue;
+			}
+			GuiFragment fragment = this._guiFragmentManager.getUniqueGuiFragmentByWidgetType(widget.getType().getCode());
+			if (null == fragment || StringUtils.contains(fragment.getCurrentGui(), "JspTaglibs")) {
+				assertTrue(wes.isRequestBound(super.getRequestContext(), widget, null));
+			}
+		}
+	}
+
+	public void testInterruptedRenderingStops() throws Exception {
+		Configuration configuration = new Configuration(Configuration.VERSION_2_3_28);
+		Template template = new Template("loop", "<#list 1..1000 as i>${i}</#list>", configuration);
+		StringWriter output = new StringWriter();
+		Writer writer = new AbstractWidgetExecutorService.InterruptibleWriter(output);
+		template.process(null, writer);
+		assertTrue(output.toString().endsWith("1000"));
+		Thread.currentThread().interrupt();
+		try {
+			template.process(null, new AbstractWidgetExecutorService.InterruptibleWriter(new StringWriter()));
+			fail();
+		} catch (InterruptedIOException e) {
+			// the rendering stopped on the first write
+		} finally {
+			Thread.interrupted();
+		}
+	}
+
+	private GuiFragment createFragment(String gui) {
+		GuiFragment fragment = new GuiFragment();
+		fragment.setCode("test_fragment");
+		fragment.setGui(gui);
+		return fragment;
+	}
+
+	private IPage preparePage(String pageCode) throws Exception {
+		super.setUserOnSession("admin");
+		IPageManager pageManager = (IPageManager) super.getApplicationContext().getBean(SystemConstants.PAGE_MANAGER);
+		IPage currentPage = pageManager.getOnlinePage(pageCode);
+		super.getRequestContext().addExtraParam(SystemConstants.EXTRAPAR_CURRENT_PAGE, currentPage);
+		return currentPage;
+	}
+
+	private int getFirstWidgetFrame(IPage page) {
+		Widget[] widgets = page.getWidgets();
+		for (int i = 0; i < widgets.length; i++) {
+			if (null != widgets[i]) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
 	private void init() throws Exception {
 		try {
 			this._guiFragmentManager = (IGuiFragmentManager) this.getApplicationContext().getBean(SystemConstants.GUI_FRAGMENT_MANAGER);